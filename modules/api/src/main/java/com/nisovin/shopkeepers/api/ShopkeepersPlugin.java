@@ -68,6 +68,10 @@ public interface ShopkeepersPlugin extends Plugin {
 	 * The <code>shopkeeper.cleanup-citizen-shopkeepers</code> permission.
 	 */
 	public static final String CLEANUP_CITIZEN_SHOPKEEPERS = "shopkeeper.cleanup-citizen-shopkeepers";
+	/**
+	 * The <code>shopkeeper.check-inactive</code> permission.
+	 */
+	public static final String CHECK_INACTIVE_PERMISSION = "shopkeeper.check-inactive";
 
 	/**
 	 * The <code>shopkeeper.list.own</code> permission.
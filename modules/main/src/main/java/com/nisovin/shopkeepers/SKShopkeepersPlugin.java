@@ -9,6 +9,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
@@ -35,10 +36,13 @@ import com.nisovin.shopkeepers.debug.Debug;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.debug.events.EventDebugger;
 import com.nisovin.shopkeepers.debug.trades.TradingCountListener;
+import com.nisovin.shopkeepers.dependencies.citizens.CitizensUtils;
 import com.nisovin.shopkeepers.dependencies.worldguard.WorldGuardDependency;
 import com.nisovin.shopkeepers.input.chat.ChatInput;
 import com.nisovin.shopkeepers.input.interaction.InteractionInput;
 import com.nisovin.shopkeepers.internals.SKApiInternals;
+import com.nisovin.shopkeepers.items.BulkItemUpdate;
+import com.nisovin.shopkeepers.items.ItemUpdateCache;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.metrics.PluginMetrics;
 import com.nisovin.shopkeepers.moving.ShopkeeperMoving;
@@ -49,6 +53,7 @@ import com.nisovin.shopkeepers.shopkeeper.AbstractShopType;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.SKDefaultShopTypes;
 import com.nisovin.shopkeepers.shopkeeper.SKShopTypesRegistry;
+import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.migration.ShopkeeperDataMigrator;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.shopobjects.SKDefaultShopObjectTypes;
@@ -60,15 +65,19 @@ import com.nisovin.shopkeepers.shopobjects.living.LivingShops;
 import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
 import com.nisovin.shopkeepers.tradelog.TradeLoggers;
 import com.nisovin.shopkeepers.tradelog.history.TradingHistoryProvider;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsProvider;
 import com.nisovin.shopkeepers.tradenotifications.TradeNotifications;
 import com.nisovin.shopkeepers.trading.commandtrading.CommandTrading;
 import com.nisovin.shopkeepers.ui.SKDefaultUITypes;
 import com.nisovin.shopkeepers.ui.SKUIRegistry;
 import com.nisovin.shopkeepers.ui.SKUISystem;
+import com.nisovin.shopkeepers.user.UserNameResolver;
+import com.nisovin.shopkeepers.user.UserRegistry;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
 import com.nisovin.shopkeepers.util.java.ClassUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.scheduler.BoundedExecutor;
 import com.nisovin.shopkeepers.villagers.RegularVillagers;
 import com.nisovin.shopkeepers.world.ForcingEntitySpawner;
 import com.nisovin.shopkeepers.world.ForcingEntityTeleporter;
@@ -100,6 +109,11 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 	// Utilities:
 	private final Executor syncExecutor = SchedulerUtils.createSyncExecutor(Unsafe.initialized(this));
 	private final Executor asyncExecutor = SchedulerUtils.createAsyncExecutor(Unsafe.initialized(this));
+	// Dedicated pools for async work that should not queue behind the async tasks of other plugins:
+	// Blocking IO, such as player profile lookups:
+	private final BoundedExecutor ioExecutor = new BoundedExecutor("IO", 2, 1000);
+	// Trade log queries, such as trading history and statistics requests:
+	private final BoundedExecutor queryExecutor = new BoundedExecutor("Query", 2, 100);
 
 	private final ForcingEntitySpawner forcingEntitySpawner = new ForcingEntitySpawner(Unsafe.initialized(this));
 	private final ForcingEntityTeleporter forcingEntityTeleporter = new ForcingEntityTeleporter(Unsafe.initialized(this));
@@ -131,6 +145,7 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 
 	private final CommandTrading commandTrading = new CommandTrading(Unsafe.initialized(this));
 	private final TradeLoggers tradeLoggers = new TradeLoggers(Unsafe.initialized(this));
+	private final UserNameResolver userNameResolver = new UserNameResolver(Unsafe.initialized(this));
 	private final TradeNotifications tradeNotifications = new TradeNotifications(
 			Unsafe.initialized(this)
 	);
@@ -176,6 +191,7 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 	private boolean outdatedServer = false;
 	private boolean incompatibleServer = false;
 	private @Nullable ConfigLoadException configLoadError = null; // Null on success
+	private @Nullable BulkItemUpdate bulkItemUpdate = null;
 
 	private void loadAllPluginClasses() {
 		File pluginJarFile = this.getFile();
@@ -359,6 +375,10 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		forcingEntitySpawner.onEnable();
 		forcingEntityTeleporter.onEnable();
 
+		// Async executors:
+		ioExecutor.start();
+		queryExecutor.start();
+
 		// Enable UI system:
 		uiSystem.onEnable();
 
@@ -427,6 +447,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 			return;
 		}
 
+		// Intern the owners of the loaded player shops and the names of the online players:
+		this.prewarmUserRegistry();
+
 		// Activate (spawn) shopkeepers in loaded chunks of all loaded worlds:
 		shopkeeperRegistry.getChunkActivator().activateShopkeepersInAllWorlds();
 
@@ -459,6 +482,19 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 				ASYNC_TASKS_TIMEOUT_SECONDS,
 				this.getLogger()
 		);
+		ioExecutor.shutdown(ASYNC_TASKS_TIMEOUT_SECONDS);
+		queryExecutor.shutdown(ASYNC_TASKS_TIMEOUT_SECONDS);
+
+		// Cancel any bulk item update that is still in progress:
+		BulkItemUpdate bulkItemUpdate = this.bulkItemUpdate;
+		if (bulkItemUpdate != null) {
+			bulkItemUpdate.cancel();
+			this.bulkItemUpdate = null;
+		}
+
+		// Cancel any deletion of the shops of inactive players that is still in progress, while
+		// the shopkeeper registry and storage are still enabled:
+		playerShops.getPlayerInactivity().cancelProcedure();
 
 		// Disable UI system:
 		uiSystem.onDisable();
@@ -513,6 +549,8 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		// Trade loggers:
 		tradeLoggers.onDisable();
 
+		userNameResolver.onDisable();
+
 		// Trade notifications:
 		tradeNotifications.onDisable();
 
@@ -550,9 +588,59 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		this.onEnable();
 	}
 
+	/**
+	 * Reloads the plugin, but keeps the shopkeepers whose saved data has not changed loaded and
+	 * spawned.
+	 * <p>
+	 * Since most settings can affect the loaded shopkeepers, this falls back to a full
+	 * {@link #reload()} if the config has changed.
+	 * 
+	 * @return <code>true</code> on success, <code>false</code> if the shopkeepers data could not
+	 *         be reloaded
+	 */
+	public boolean reloadChanged() {
+		if (this.hasConfigFileChanged()) {
+			Log.info("The config has changed. Performing a full reload.");
+			this.reload();
+			return true;
+		}
+
+		Messages.loadLanguageFile();
+		return shopkeeperStorage.reloadChanged();
+	}
+
+	private boolean hasConfigFileChanged() {
+		File configFile = new File(this.getDataFolder(), "config.yml");
+		YamlConfiguration fileConfig = new YamlConfiguration();
+		try {
+			fileConfig.load(configFile);
+		} catch (Exception e) {
+			// Let the full reload report the issue:
+			return true;
+		}
+		return !fileConfig.saveToString().equals(this.getConfig().saveToString());
+	}
+
+	private void prewarmUserRegistry() {
+		UserRegistry userRegistry = UserRegistry.getInstance();
+		for (AbstractPlayerShopkeeper playerShop : shopkeeperRegistry.getAllPlayerShopkeepers()) {
+			userRegistry.register(playerShop.getOwnerUser());
+		}
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			if (CitizensUtils.isNPC(player)) continue;
+			userRegistry.updateName(player.getUniqueId(), Unsafe.assertNonNull(player.getName()));
+		}
+		Log.debug(() -> "Prewarmed the user registry: " + userRegistry.getSize() + " users");
+	}
+
 	// PLAYER JOINING AND QUITTING
 
 	void onPlayerJoin(Player player) {
+		// Track the player's current name:
+		UserRegistry.getInstance().updateName(player.getUniqueId(), Unsafe.assertNonNull(player.getName()));
+		userNameResolver.onPlayerJoin(player);
+
+		playerShops.getPlayerInactivity().onPlayerJoin(player);
 	}
 
 	void onPlayerQuit(Player player) {
@@ -562,6 +650,7 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 
 		shopkeeperCreation.onPlayerQuit(player);
 		commands.onPlayerQuit(player);
+		playerShops.getPlayerInactivity().onPlayerQuit(player);
 	}
 
 	@Override
@@ -579,6 +668,25 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return asyncExecutor;
 	}
 
+	/**
+	 * Gets the {@link BoundedExecutor} for blocking IO, such as player profile lookups.
+	 * 
+	 * @return the IO executor
+	 */
+	public BoundedExecutor getIOExecutor() {
+		return ioExecutor;
+	}
+
+	/**
+	 * Gets the {@link BoundedExecutor} for trade log queries, such as trading history and
+	 * statistics requests.
+	 * 
+	 * @return the query executor
+	 */
+	public BoundedExecutor getQueryExecutor() {
+		return queryExecutor;
+	}
+
 	public ForcingEntitySpawner getForcingEntitySpawner() {
 		return forcingEntitySpawner;
 	}
@@ -610,11 +718,18 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		// Note: Not safe to be called from inside inventory events!
 		uiRegistry.abortUISessions();
 
-		int updatedItems = Settings.getInstance().updateItems();
-
+		// Only call one item update event per distinct item:
+		ItemUpdateCache cache = new ItemUpdateCache();
+		int updatedItems;
 		int shopkeeperUpdatedItems = 0;
-		for (AbstractShopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
-			shopkeeperUpdatedItems += shopkeeper.updateItems();
+		cache.activate();
+		try {
+			updatedItems = Settings.getInstance().updateItems();
+			for (AbstractShopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
+				shopkeeperUpdatedItems += shopkeeper.updateItems();
+			}
+		} finally {
+			cache.deactivate();
 		}
 		if (shopkeeperUpdatedItems > 0) {
 			updatedItems += shopkeeperUpdatedItems;
@@ -624,6 +739,26 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return updatedItems;
 	}
 
+	/**
+	 * Starts a {@link BulkItemUpdate} that updates the items of all shopkeepers across multiple
+	 * ticks.
+	 * <p>
+	 * Only one such update can be in progress at a time.
+	 * 
+	 * @param progressListener
+	 *            the progress listener, not <code>null</code>
+	 * @return <code>false</code> if another update is already in progress
+	 */
+	public boolean startBulkItemUpdate(BulkItemUpdate.ProgressListener progressListener) {
+		BulkItemUpdate bulkItemUpdate = this.bulkItemUpdate;
+		if (bulkItemUpdate != null && bulkItemUpdate.isRunning()) return false;
+
+		bulkItemUpdate = new BulkItemUpdate(this, progressListener);
+		this.bulkItemUpdate = bulkItemUpdate;
+		bulkItemUpdate.start();
+		return true;
+	}
+
 	// COMMANDS
 
 	public Commands getCommands() {
@@ -756,6 +891,12 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return shopType.handleShopkeeperCreation(shopCreationData);
 	}
 
+	// USERS
+
+	public UserNameResolver getUserNameResolver() {
+		return userNameResolver;
+	}
+
 	// PLAYER SHOPS
 
 	public PlayerShops getPlayerShops() {
@@ -768,9 +909,21 @@ public class SKShopkeepersPlugin extends JavaPlugin implements InternalShopkeepe
 		return tradeNotifications;
 	}
 
+	// TRADE LOGS
+
+	public TradeLoggers getTradeLoggers() {
+		return tradeLoggers;
+	}
+
 	// TRADING HISTORY
 
 	public @Nullable TradingHistoryProvider getTradingHistoryProvider() {
 		return tradeLoggers.getTradingHistoryProvider();
 	}
+
+	// TRADE STATISTICS
+
+	public @Nullable TradeStatisticsProvider getTradeStatisticsProvider() {
+		return tradeLoggers.getTradeStatisticsProvider();
+	}
 }
@@ -1,16 +1,24 @@
 package com.nisovin.shopkeepers.commands;
 
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.commands.shopkeepers.ShopkeepersCommand;
+import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 
 public class Commands {
 
 	private final SKShopkeepersPlugin plugin;
 	private final Confirmations confirmations;
+	private final WorldListener worldListener = new WorldListener();
 
 	private @Nullable ShopkeepersCommand shopkeepersCommand;
 
@@ -21,17 +29,29 @@ public class Commands {
 
 	public void onEnable() {
 		confirmations.onEnable();
+		Bukkit.getPluginManager().registerEvents(worldListener, plugin);
 		// Register command executor:
 		shopkeepersCommand = new ShopkeepersCommand(plugin, confirmations);
 	}
 
 	public void onDisable() {
 		confirmations.onDisable();
+		HandlerList.unregisterAll(worldListener);
+		ShopkeeperArgumentUtils.clearCachedTargets();
 	}
 
 	public void onPlayerQuit(Player player) {
 		assert player != null;
 		confirmations.onPlayerQuit(player);
+		ShopkeeperArgumentUtils.clearCachedTarget(player);
+	}
+
+	private static class WorldListener implements Listener {
+
+		@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+		void onWorldUnload(WorldUnloadEvent event) {
+			ShopkeeperArgumentUtils.clearCachedTargets(event.getWorld());
+		}
 	}
 
 	public ShopkeepersCommand getShopkeepersCommand() {
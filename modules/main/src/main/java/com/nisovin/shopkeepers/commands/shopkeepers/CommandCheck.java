@@ -2,9 +2,13 @@ package com.nisovin.shopkeepers.commands.shopkeepers;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -14,13 +18,21 @@ import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Entity;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.admin.regular.RegularAdminShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.PriceOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.TradeOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.player.buy.BuyingPlayerShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.player.sell.SellingPlayerShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.player.trade.TradingPlayerShopkeeper;
 import com.nisovin.shopkeepers.api.shopobjects.ShopObject;
 import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
 import com.nisovin.shopkeepers.commands.lib.CommandInput;
@@ -28,12 +40,17 @@ import com.nisovin.shopkeepers.commands.lib.arguments.FirstOfArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.activation.ShopkeeperChunkActivator;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.shopkeeper.spawning.ShopkeeperSpawner;
 import com.nisovin.shopkeepers.shopobjects.entity.base.EntityAI;
 import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.tradelog.TradeLogger;
+import com.nisovin.shopkeepers.tradelog.base.AbstractSingleWriterTradeLogger;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.inventory.UnmodifiableItemStackPool;
+import com.nisovin.shopkeepers.util.scheduler.BoundedExecutor;
 import com.nisovin.shopkeepers.util.taskqueue.TaskQueueStatistics;
 import com.nisovin.shopkeepers.util.timer.Timings;
 
@@ -41,6 +58,9 @@ class CommandCheck extends Command {
 
 	private static final String ARGUMENT_CHUNKS = "chunks";
 	private static final String ARGUMENT_ACTIVE = "active";
+	private static final String ARGUMENT_MEMORY = "memory";
+
+	private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
 
 	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
@@ -66,7 +86,8 @@ class CommandCheck extends Command {
 		// Arguments:
 		this.addArgument(new FirstOfArgument("context", Arrays.asList(
 				new LiteralArgument(ARGUMENT_CHUNKS),
-				new LiteralArgument(ARGUMENT_ACTIVE)
+				new LiteralArgument(ARGUMENT_ACTIVE),
+				new LiteralArgument(ARGUMENT_MEMORY)
 		), true).optional()); // Join formats
 	}
 
@@ -75,6 +96,11 @@ class CommandCheck extends Command {
 		CommandSender sender = input.getSender();
 		boolean isConsole = (sender instanceof ConsoleCommandSender);
 
+		if (context.has(ARGUMENT_MEMORY)) {
+			this.checkMemory(sender);
+			return;
+		}
+
 		boolean listChunks = context.has(ARGUMENT_CHUNKS);
 		boolean listActive = context.has(ARGUMENT_ACTIVE);
 
@@ -104,6 +130,27 @@ class CommandCheck extends Command {
 		sender.sendMessage("  Pending shopkeeper spawns | max: " + spawnQueueStatistics.getPendingCount()
 				+ " | " + spawnQueueStatistics.getMaxPendingCount());
 
+		for (TradeLogger tradeLogger : plugin.getTradeLoggers().getLoggers()) {
+			if (!(tradeLogger instanceof AbstractSingleWriterTradeLogger logger)) continue;
+
+			sender.sendMessage("  " + logger.getStorageType()
+					+ " trade log (pending | max | last batch | dropped): "
+					+ logger.getPendingCount()
+					+ " | " + logger.getMaxPendingCount()
+					+ " | " + logger.getLastBatchSize()
+					+ " | " + logger.getDroppedTradesCount());
+		}
+
+		for (BoundedExecutor executor : Arrays.asList(plugin.getIOExecutor(), plugin.getQueryExecutor())) {
+			sender.sendMessage("  " + executor.getName()
+					+ " executor (active | pending | max | completed | rejected): "
+					+ executor.getActiveCount()
+					+ " | " + executor.getPendingCount()
+					+ " | " + executor.getMaxPendingCount()
+					+ " | " + executor.getCompletedCount()
+					+ " | " + executor.getRejectedCount());
+		}
+
 		Timings chunkActivationTimings = chunkActivator.getChunkActivationTimings();
 		double avgChunkActivationTimings = chunkActivationTimings.getAverageTimeMillis();
 		double maxChunkActivationTimings = chunkActivationTimings.getMaxTimeMillis();
@@ -141,6 +188,17 @@ class CommandCheck extends Command {
 				+ TextUtils.format(avgAITimings) + " ms"
 				+ " | " + TextUtils.format(maxAITiming) + " ms");
 
+		// Average cost per processed entity, for comparisons across different shopkeeper counts:
+		int activeGravityEntities = entityAI.getActiveGravityEntityCount();
+		int activeAIEntities = entityAI.getActiveAIEntityCount();
+		double avgGravityPerEntity = (activeGravityEntities == 0) ? 0.0D
+				: (avgGravityTimings * 1000.0D / activeGravityEntities);
+		double avgAIPerEntity = (activeAIEntities == 0) ? 0.0D
+				: (avgAITimings * 1000.0D / activeAIEntities);
+		sender.sendMessage("    Per active entity (gravity | AI) (avg): "
+				+ TextUtils.format(avgGravityPerEntity) + " \u00B5s"
+				+ " | " + TextUtils.format(avgAIPerEntity) + " \u00B5s");
+
 		for (World world : Bukkit.getWorlds()) {
 			String worldName = world.getName();
 			Chunk[] worldLoadedChunks = world.getLoadedChunks();
@@ -240,4 +298,87 @@ class CommandCheck extends Command {
 			sender.sendMessage("More information is printed when the command is run from console.");
 		}
 	}
+
+	// Provides an overview of the data that the loaded shopkeepers retain on the heap, and how much
+	// of it is shared between shopkeepers.
+	private void checkMemory(CommandSender sender) {
+		int totalShopkeepers = 0;
+		int withComponents = 0;
+		int withSnapshots = 0;
+		int totalSnapshots = 0;
+		ItemStatistics itemStatistics = new ItemStatistics();
+		for (AbstractShopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
+			totalShopkeepers++;
+			if (!shopkeeper.getComponents().getComponents().isEmpty()) {
+				withComponents++;
+			}
+			int snapshots = shopkeeper.getSnapshots().size();
+			if (snapshots > 0) {
+				withSnapshots++;
+				totalSnapshots += snapshots;
+			}
+			itemStatistics.addOfferItems(shopkeeper);
+		}
+
+		sender.sendMessage(ChatColor.YELLOW + "Shopkeeper memory:");
+		sender.sendMessage("  Shopkeepers: " + totalShopkeepers
+				+ "    (Not loaded: " + plugin.getShopkeeperStorage().getNonResidentShopkeepersCount()
+				+ ")");
+		sender.sendMessage("  With components: " + withComponents);
+		sender.sendMessage("  With snapshots | snapshots: " + withSnapshots + " | " + totalSnapshots);
+		sender.sendMessage("  Offer items (total | distinct instances | distinct items): "
+				+ itemStatistics.totalItems
+				+ " | " + itemStatistics.distinctInstances.size()
+				+ " | " + itemStatistics.distinctItems.size());
+		sender.sendMessage("  Pooled items: " + UnmodifiableItemStackPool.getSize());
+
+		Runtime runtime = Runtime.getRuntime();
+		long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+		sender.sendMessage("  Heap (used | committed | max): "
+				+ (usedHeap / BYTES_PER_MEGABYTE) + " MB"
+				+ " | " + (runtime.totalMemory() / BYTES_PER_MEGABYTE) + " MB"
+				+ " | " + (runtime.maxMemory() / BYTES_PER_MEGABYTE) + " MB");
+	}
+
+	private static final class ItemStatistics {
+
+		private int totalItems = 0;
+		private final Set<UnmodifiableItemStack> distinctInstances = Collections.newSetFromMap(
+				new IdentityHashMap<>()
+		);
+		private final Set<UnmodifiableItemStack> distinctItems = new HashSet<>();
+
+		void addOfferItems(Shopkeeper shopkeeper) {
+			if (shopkeeper instanceof RegularAdminShopkeeper) {
+				this.addTradeOffers(((RegularAdminShopkeeper) shopkeeper).getOffers());
+			} else if (shopkeeper instanceof TradingPlayerShopkeeper) {
+				this.addTradeOffers(((TradingPlayerShopkeeper) shopkeeper).getOffers());
+			} else if (shopkeeper instanceof SellingPlayerShopkeeper) {
+				this.addPriceOffers(((SellingPlayerShopkeeper) shopkeeper).getOffers());
+			} else if (shopkeeper instanceof BuyingPlayerShopkeeper) {
+				this.addPriceOffers(((BuyingPlayerShopkeeper) shopkeeper).getOffers());
+			}
+		}
+
+		private void addTradeOffers(List<? extends TradeOffer> offers) {
+			for (TradeOffer offer : offers) {
+				this.addItem(offer.getResultItem());
+				this.addItem(offer.getItem1());
+				this.addItem(offer.getItem2());
+			}
+		}
+
+		private void addPriceOffers(List<? extends PriceOffer> offers) {
+			for (PriceOffer offer : offers) {
+				this.addItem(offer.getItem());
+			}
+		}
+
+		private void addItem(@Nullable UnmodifiableItemStack item) {
+			if (item == null) return;
+			totalItems++;
+			distinctInstances.add(item);
+			distinctItems.add(item);
+		}
+	}
 }
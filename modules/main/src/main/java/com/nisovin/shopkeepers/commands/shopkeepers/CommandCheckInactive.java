@@ -0,0 +1,53 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.text.Text;
+
+class CommandCheckInactive extends Command {
+
+	private final SKShopkeepersPlugin plugin;
+
+	CommandCheckInactive(SKShopkeepersPlugin plugin) {
+		super("checkInactive");
+		this.plugin = plugin;
+
+		// Set permission:
+		this.setPermission(ShopkeepersPlugin.CHECK_INACTIVE_PERMISSION);
+
+		// Set description:
+		this.setDescription(Text.of("Lists the shopkeepers of inactive players that would be "
+				+ "deleted, without deleting them."));
+
+		// Hidden utility command:
+		this.setHiddenInParentHelp(true);
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		CommandSender sender = input.getSender();
+
+		if (Settings.playerShopkeeperInactiveDays <= 0) {
+			throw new CommandException(Text.of("The deletion of the shopkeepers of inactive "
+					+ "players is disabled ('player-shopkeeper-inactive-days')."));
+		}
+
+		// Start a dry run of the check for inactive players, which reports its outcome once the
+		// last played times of the shop owners have been looked up:
+		if (!plugin.getPlayerShops().getPlayerInactivity().checkShopsOfInactivePlayers(sender)) {
+			throw new CommandException(Text.of("The check for the shopkeepers of inactive "
+					+ "players is already in progress."));
+		}
+
+		// Inform command executor:
+		sender.sendMessage(ChatColor.GREEN + "Checking for shopkeepers of inactive players ...");
+	}
+}
@@ -35,6 +35,9 @@ class CommandDebugCreateShops extends PlayerCommand {
 	private static final String ARGUMENT_SHOP_COUNT = "shopCount";
 	private static final String ARGUMENT_TEST_EQUIPMENT = "testEquipment";
 
+	// Large enough to stress test the entity AI with several thousand shopkeeper entities:
+	private static final int MAX_SHOP_COUNT = 5000;
+
 	private final SKShopkeepersPlugin plugin;
 
 	CommandDebugCreateShops(SKShopkeepersPlugin plugin) {
@@ -70,9 +73,10 @@ class CommandDebugCreateShops extends PlayerCommand {
 		int shopCount = context.get(ARGUMENT_SHOP_COUNT);
 		// Not using BoundedIntegerArgument for now due to missing descriptive error messages.
 		// TODO Use this in the future.
-		if (shopCount > 1000) {
-			player.sendMessage(ChatColor.RED + "Shopkeeper count to high, limiting to 1000!");
-			shopCount = 1000;
+		if (shopCount > MAX_SHOP_COUNT) {
+			player.sendMessage(ChatColor.RED + "Shopkeeper count to high, limiting to "
+					+ MAX_SHOP_COUNT + "!");
+			shopCount = MAX_SHOP_COUNT;
 		}
 
 		this.spawnCount(player, shopCount);
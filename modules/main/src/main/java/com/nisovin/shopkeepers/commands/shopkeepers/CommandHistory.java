@@ -1,10 +1,15 @@
 package com.nisovin.shopkeepers.commands.shopkeepers;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.command.CommandSender;
@@ -13,6 +18,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.api.user.User;
@@ -36,11 +42,11 @@ import com.nisovin.shopkeepers.commands.lib.arguments.PlayerUUIDArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.PositiveIntegerArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.commands.util.UserArgumentUtils;
-import com.nisovin.shopkeepers.commands.util.UserArgumentUtils.UserNameMatcher;
 import com.nisovin.shopkeepers.config.Settings.DerivedSettings;
 import com.nisovin.shopkeepers.debug.Debug;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.spigot.text.PreparedMessage;
 import com.nisovin.shopkeepers.text.Text;
 import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
 import com.nisovin.shopkeepers.tradelog.data.ShopRecord;
@@ -49,11 +55,13 @@ import com.nisovin.shopkeepers.tradelog.history.PlayerSelector;
 import com.nisovin.shopkeepers.tradelog.history.ShopSelector;
 import com.nisovin.shopkeepers.tradelog.history.ShopSelector.ByOwnerUUID;
 import com.nisovin.shopkeepers.tradelog.history.ShopSelector.ByShopIdentifier;
+import com.nisovin.shopkeepers.tradelog.history.TradingHistoryProvider;
 import com.nisovin.shopkeepers.tradelog.history.TradingHistoryRequest;
 import com.nisovin.shopkeepers.tradelog.history.TradingHistoryResult;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.java.Range;
+import com.nisovin.shopkeepers.util.java.ThrowableUtils;
 import com.nisovin.shopkeepers.util.java.TimeUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
@@ -91,8 +99,41 @@ class CommandHistory extends Command {
 	private static final String ARGUMENT_PAGE = "page";
 
 	private static final int ENTRIES_PER_PAGE = 10;
+	private static final long PREFETCH_EXPIRATION_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private static final class RenderedHistoryPage {
+
+		private final List<? extends PreparedMessage> messages;
+		private final int page;
+		private final int maxPage;
+
+		RenderedHistoryPage(List<? extends PreparedMessage> messages, int page, int maxPage) {
+			this.messages = messages;
+			this.page = page;
+			this.maxPage = maxPage;
+		}
+	}
+
+	private static final class PrefetchedPage {
+
+		private final String requestKey;
+		private final long timestamp;
+		private final CompletableFuture<RenderedHistoryPage> future;
+
+		PrefetchedPage(String requestKey, long timestamp, CompletableFuture<RenderedHistoryPage> future) {
+			this.requestKey = requestKey;
+			this.timestamp = timestamp;
+			this.future = future;
+		}
+
+		boolean isExpired(long now) {
+			return (now - timestamp) > PREFETCH_EXPIRATION_MILLIS;
+		}
+	}
 
 	private final SKShopkeepersPlugin plugin;
+	// Sender key -> prefetched next page. Only accessed on the main thread.
+	private final Map<String, PrefetchedPage> prefetchedPages = new HashMap<>();
 
 	CommandHistory(SKShopkeepersPlugin plugin) {
 		super("history");
@@ -177,6 +218,64 @@ class CommandHistory extends Command {
 			return;
 		}
 
+		// Resolve the specified player and owner names first. Since this also looks up offline
+		// players without blocking the server, the command execution may continue in a later tick:
+		@Nullable String playerName = context.getOrNull(ARGUMENT_PLAYER_NAME);
+		@Nullable String ownerName = context.getOrNull(ARGUMENT_OWNER_NAME);
+		var playerUsersFuture = resolveUsersByName(playerName);
+		var ownerUsersFuture = resolveUsersByName(ownerName);
+		if (playerUsersFuture.isDone() && ownerUsersFuture.isDone()) {
+			// Continue immediately:
+			this.execute(
+					sender,
+					tradingHistoryProvider,
+					context,
+					playerUsersFuture.join(),
+					ownerUsersFuture.join()
+			);
+			return;
+		}
+
+		playerUsersFuture.thenAcceptBoth(ownerUsersFuture, (playerUsers, ownerUsers) -> {
+			// Abort if the player went offline meanwhile:
+			if (sender instanceof Player player && !player.isOnline()) return;
+
+			try {
+				this.execute(sender, tradingHistoryProvider, context, playerUsers, ownerUsers);
+			} catch (CommandException e) {
+				TextUtils.sendMessage(sender, e.getMessageText());
+			}
+		}).exceptionally(exception -> {
+			if (ThrowableUtils.getRootCause(exception) instanceof RejectedExecutionException) {
+				// TODO Localize?
+				TextUtils.sendMessage(sender, Text.parse("&cThe server is busy. Please try again later."));
+				return null;
+			}
+
+			// Error case:
+			// TODO Localize?
+			TextUtils.sendMessage(sender, Text.parse("&cError: Could not look up the player!"));
+			Log.severe("Error while looking up players for the trading history!", exception);
+			return null;
+		});
+	}
+
+	private static CompletableFuture<List<User>> resolveUsersByName(@Nullable String userName) {
+		if (userName == null) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return UserArgumentUtils.resolveUsersByName(userName);
+	}
+
+	// The given user lists contain the users that match the specified player and owner names, if
+	// any.
+	private void execute(
+			CommandSender sender,
+			TradingHistoryProvider tradingHistoryProvider,
+			CommandContextView context,
+			List<User> playerUsers,
+			List<User> ownerUsers
+	) throws CommandException {
 		@Nullable Player executingPlayer = (sender instanceof Player) ? (Player) sender : null;
 		@Nullable Boolean hasAllPerm = null; // Null if not yet checked
 
@@ -249,7 +348,7 @@ class CommandHistory extends Command {
 			playerSelector = new PlayerSelector.ByUUID(playerUUID, selectorPlayerName);
 		} else {
 			assert playerName != null;
-			var playerUser = this.resolveUserByName(sender, playerName, PLAYER_BY_NAME_ARGUMENT);
+			var playerUser = this.selectUser(sender, playerName, playerUsers, PLAYER_BY_NAME_ARGUMENT);
 			if (playerUser == null) {
 				// Abort. Sender feedback was already handled.
 				return;
@@ -341,7 +440,7 @@ class CommandHistory extends Command {
 
 			shopSelector = new ShopSelector.ByOwnerUUID(ownerUUID, selectorOwnerName);
 		} else if (ownerName != null) {
-			var ownerUser = this.resolveUserByName(sender, ownerName, OWNER_BY_NAME_ARGUMENT);
+			var ownerUser = this.selectUser(sender, ownerName, ownerUsers, OWNER_BY_NAME_ARGUMENT);
 			if (ownerUser == null) {
 				// Abort. Sender feedback was already handled.
 				return;
@@ -378,40 +477,117 @@ class CommandHistory extends Command {
 		Range range = new Range.PageRange(page, ENTRIES_PER_PAGE);
 		TradingHistoryRequest historyRequest = new TradingHistoryRequest(playerSelector, shopSelector, range);
 
+		String senderKey = getSenderKey(sender);
 		final long historyFetchStart = System.nanoTime();
-		tradingHistoryProvider.getTradingHistory(historyRequest)
-				.thenAcceptAsync(historyResult -> {
-					Validate.State.notNull(historyRequest, "historyResult is null!");
-					assert historyResult != null;
+		var renderedPageFuture = this.takePrefetchedPage(senderKey, historyRequest);
+		if (renderedPageFuture == null) {
+			renderedPageFuture = this.fetchTradingHistory(tradingHistoryProvider, historyRequest);
+		}
+		renderedPageFuture.thenAcceptAsync(renderedPage -> {
+			assert renderedPage != null;
 
-					// Send history result:
-					final long historyPrintStart = System.nanoTime();
-					sendTradingHistory(sender, historyRequest, historyResult);
+			// Send history page:
+			final long historyPrintStart = System.nanoTime();
+			for (PreparedMessage message : renderedPage.messages) {
+				TextUtils.sendMessage(sender, message);
+			}
 
-					if (Debug.isDebugging(DebugOptions.commands)) {
-						final long end = System.nanoTime();
-						final long fetchDuration = historyPrintStart - historyFetchStart;
-						final long printDuration = end - historyPrintStart;
-						sender.sendMessage("Fetch: " + TimeUnit.NANOSECONDS.toMillis(fetchDuration) + " ms"
-								+ " | Print: " + TimeUnit.NANOSECONDS.toMillis(printDuration) + " ms");
-					}
-				}, SKShopkeepersPlugin.getInstance().getSyncExecutor())
-				.exceptionally(exception -> {
-					// Error case:
-					// TODO Localize?
-					TextUtils.sendMessage(sender, Text.parse("&cError: Could not retrieve the trading history!"));
-					Log.severe("Error while retrieving trading history!", exception);
-					return null;
-				});
+			if (Debug.isDebugging(DebugOptions.commands)) {
+				final long end = System.nanoTime();
+				final long fetchDuration = historyPrintStart - historyFetchStart;
+				final long printDuration = end - historyPrintStart;
+				sender.sendMessage("Fetch: " + TimeUnit.NANOSECONDS.toMillis(fetchDuration) + " ms"
+						+ " | Print: " + TimeUnit.NANOSECONDS.toMillis(printDuration) + " ms");
+			}
+
+			// Prefetch the next page, in case the sender continues paging through the history:
+			if (sender instanceof Player player && !player.isOnline()) return;
+			if (renderedPage.page < renderedPage.maxPage) {
+				this.prefetchPage(senderKey, tradingHistoryProvider, new TradingHistoryRequest(
+						historyRequest.playerSelector,
+						historyRequest.shopSelector,
+						new Range.PageRange(renderedPage.page + 1, ENTRIES_PER_PAGE)
+				));
+			}
+		}, plugin.getSyncExecutor()).exceptionally(exception -> {
+			if (ThrowableUtils.getRootCause(exception) instanceof RejectedExecutionException) {
+				// TODO Localize?
+				TextUtils.sendMessage(sender, Text.parse("&cThe server is busy. Please try again later."));
+				return null;
+			}
+
+			// Error case:
+			// TODO Localize?
+			TextUtils.sendMessage(sender, Text.parse("&cError: Could not retrieve the trading history!"));
+			Log.severe("Error while retrieving trading history!", exception);
+			return null;
+		});
+	}
+
+	// PREFETCHING
+
+	private static String getSenderKey(CommandSender sender) {
+		if (sender instanceof Player player) {
+			return player.getUniqueId().toString();
+		} else {
+			return sender.getName();
+		}
+	}
+
+	// The request's string representation includes all of its criteria.
+	private static String getRequestKey(TradingHistoryRequest historyRequest) {
+		return historyRequest.toString();
 	}
 
-	private @Nullable User resolveUserByName(
+	private @Nullable CompletableFuture<RenderedHistoryPage> takePrefetchedPage(
+			String senderKey,
+			TradingHistoryRequest historyRequest
+	) {
+		PrefetchedPage prefetchedPage = prefetchedPages.remove(senderKey);
+		if (prefetchedPage == null) return null;
+		if (prefetchedPage.isExpired(System.currentTimeMillis())) return null;
+		if (!prefetchedPage.requestKey.equals(getRequestKey(historyRequest))) return null;
+		if (prefetchedPage.future.isCompletedExceptionally()) return null;
+		return prefetchedPage.future;
+	}
+
+	private void prefetchPage(
+			String senderKey,
+			TradingHistoryProvider tradingHistoryProvider,
+			TradingHistoryRequest historyRequest
+	) {
+		long now = System.currentTimeMillis();
+		prefetchedPages.values().removeIf(prefetchedPage -> prefetchedPage.isExpired(now));
+
+		var future = this.fetchTradingHistory(tradingHistoryProvider, historyRequest);
+		prefetchedPages.put(senderKey, new PrefetchedPage(getRequestKey(historyRequest), now, future));
+	}
+
+	private CompletableFuture<RenderedHistoryPage> fetchTradingHistory(
+			TradingHistoryProvider tradingHistoryProvider,
+			TradingHistoryRequest historyRequest
+	) {
+		// Resolved on the main thread, since this may access the shopkeeper:
+		@Nullable Text shopIdentifier = null;
+		if (historyRequest.shopSelector instanceof ByShopIdentifier byShopSelector) {
+			shopIdentifier = byShopSelector.getShopIdentifier();
+		}
+
+		final @Nullable Text shopIdentifierFinal = shopIdentifier;
+		return tradingHistoryProvider.getTradingHistory(historyRequest)
+				.thenApplyAsync(historyResult -> {
+					Validate.State.notNull(historyResult, "historyResult is null!");
+					assert historyResult != null;
+					return renderTradingHistory(historyRequest, historyResult, shopIdentifierFinal);
+				}, plugin.getQueryExecutor());
+	}
+
+	private @Nullable User selectUser(
 			CommandSender sender,
 			String userName,
+			List<User> matchingUsers,
 			UserByNameArgument userByNameArgument
 	) {
-		// Also checks for offline players:
-		var matchingUsers = UserNameMatcher.EXACT.match(userName, true).toList();
 		if (matchingUsers.isEmpty()) {
 			var error = userByNameArgument.getInvalidArgumentErrorMsg(userName);
 			TextUtils.sendMessage(sender, error);
@@ -430,8 +606,17 @@ class CommandHistory extends Command {
 		return matchingUsers.getFirst();
 	}
 
-	private void sendTradingHistory(CommandSender sender, TradingHistoryRequest historyRequest, TradingHistoryResult historyResult) {
-		assert sender != null && historyRequest != null && historyResult != null;
+	// RENDERING
+
+	// Renders the messages of the trading history page. This is called asynchronously: The shared
+	// message templates are only read and copied here, but never modified.
+	private static RenderedHistoryPage renderTradingHistory(
+			TradingHistoryRequest historyRequest,
+			TradingHistoryResult historyResult,
+			@Nullable Text shopIdentifier
+	) {
+		assert historyRequest != null && historyResult != null;
+		List<PreparedMessage> messages = new ArrayList<>();
 		PlayerSelector playerSelector = historyRequest.playerSelector;
 		ShopSelector shopSelector = historyRequest.shopSelector;
 		int totalTrades = historyResult.getTotalTradesCount();
@@ -448,12 +633,12 @@ class CommandHistory extends Command {
 
 		Text headerPlayers;
 		if (playerSelector == PlayerSelector.ALL) {
-			headerPlayers = Messages.historyHeaderAllPlayers;
+			headerPlayers = Messages.historyHeaderAllPlayers.copy();
 		} else if (playerSelector instanceof PlayerSelector.ByUUID playerByUuidSelector) {
 			var playerName = playerByUuidSelector.getPlayerName();
 			var playerUuid = playerByUuidSelector.getPlayerUUID();
 
-			headerPlayers = Messages.historyHeaderSpecificPlayer;
+			headerPlayers = Messages.historyHeaderSpecificPlayer.copy();
 			headerPlayers.setPlaceholderArguments("player", TextUtils.getPlayerText(playerName, playerUuid));
 		} else {
 			throw new IllegalStateException("Unexpected player selector type: "
@@ -463,31 +648,31 @@ class CommandHistory extends Command {
 
 		Text headerShops;
 		if (shopSelector == ShopSelector.ALL) {
-			headerShops = Messages.historyHeaderAllShops;
+			headerShops = Messages.historyHeaderAllShops.copy();
 		} else if (shopSelector == ShopSelector.ADMIN_SHOPS) {
-			headerShops = Messages.historyHeaderAdminShops;
+			headerShops = Messages.historyHeaderAdminShops.copy();
 		} else if (shopSelector == ShopSelector.PLAYER_SHOPS) {
-			headerShops = Messages.historyHeaderPlayerShops;
+			headerShops = Messages.historyHeaderPlayerShops.copy();
 		} else if (shopSelector instanceof ByOwnerUUID byOwnerSelector) {
 			var ownerUuid = byOwnerSelector.getOwnerUUID();
 			var ownerName = byOwnerSelector.getOwnerName();
 
-			headerShops = Messages.historyHeaderAllOwnedShops;
+			headerShops = Messages.historyHeaderAllOwnedShops.copy();
 			headerShops.setPlaceholderArguments("owner", TextUtils.getPlayerText(ownerName, ownerUuid));
 		} else if (shopSelector instanceof ByShopIdentifier byShopSelector) {
 			// Specific shop:
-			Text shopIdentifier = byShopSelector.getShopIdentifier();
+			Text shopIdentifierText = Unsafe.assertNonNull(shopIdentifier);
 
 			var ownerUuid = byShopSelector.getOwnerUUID();
 			if (ownerUuid == null) {
-				headerShops = Messages.historyHeaderSpecificShop;
-				headerShops.setPlaceholderArguments("shop", shopIdentifier);
+				headerShops = Messages.historyHeaderSpecificShop.copy();
+				headerShops.setPlaceholderArguments("shop", shopIdentifierText);
 			} else {
 				// Also filtered by owner:
 				var ownerName = byShopSelector.getOwnerName();
 
-				headerShops = Messages.historyHeaderSpecificOwnedShop;
-				headerShops.setPlaceholderArguments("shop", shopIdentifier);
+				headerShops = Messages.historyHeaderSpecificOwnedShop.copy();
+				headerShops.setPlaceholderArguments("shop", shopIdentifierText);
 				headerShops.setPlaceholderArguments("owner", TextUtils.getPlayerText(ownerName, ownerUuid));
 			}
 		} else {
@@ -497,11 +682,13 @@ class CommandHistory extends Command {
 
 		headerArgs.put("shops", headerShops);
 
-		TextUtils.sendMessage(sender, Messages.historyHeader, headerArgs);
+		messages.add(TextUtils.prepareMessage(
+				Messages.historyHeader.copy().setPlaceholderArguments(headerArgs)
+		));
 
 		// Print logged trade entries:
 		if (totalTrades == 0) {
-			TextUtils.sendMessage(sender, Messages.historyNoTradesFound);
+			messages.add(TextUtils.prepareMessage(Messages.historyNoTradesFound.copy()));
 		} else {
 			Map<String, Object> entryArgs = new HashMap<>();
 			int index = startIndex;
@@ -516,8 +703,8 @@ class CommandHistory extends Command {
 				@Nullable UnmodifiableItemStack item2 = trade.getItem2();
 				UnmodifiableItemStack resultItem = trade.getResultItem();
 
-				Text entryMsg = item2 == null ? Messages.historyEntryOneItem
-						: Messages.historyEntryTwoItems;
+				Text entryMsg = item2 == null ? Messages.historyEntryOneItem.copy()
+						: Messages.historyEntryTwoItems.copy();
 
 				// Prepare message arguments:
 				entryArgs.put("index", index + 1);
@@ -536,7 +723,7 @@ class CommandHistory extends Command {
 
 				Text tradeCountText = Text.EMPTY;
 				if (trade.getTradeCount() > 1) {
-					tradeCountText = Messages.historyEntryTradeCount;
+					tradeCountText = Messages.historyEntryTradeCount.copy();
 					tradeCountText.setPlaceholderArguments("count", trade.getTradeCount());
 				}
 
@@ -547,20 +734,21 @@ class CommandHistory extends Command {
 				Text entryShopDisplayText;
 				if (shopOwner == null) {
 					// Trade with admin shop:
-					entryShopDisplayText = Messages.historyEntryAdminShop;
+					entryShopDisplayText = Messages.historyEntryAdminShop.copy();
 				} else {
 					// Trade with player shop:
-					entryShopDisplayText = Messages.historyEntryPlayerShop;
+					entryShopDisplayText = Messages.historyEntryPlayerShop.copy();
 					entryShopDisplayText.setPlaceholderArguments("owner", TextUtils.getPlayerText(shopOwner));
 				}
 
 				entryArgs.put("shop", TextUtils.getShopText(entryShopDisplayText, shop.getUniqueId()));
 
-				TextUtils.sendMessage(sender, entryMsg, entryArgs);
+				messages.add(TextUtils.prepareMessage(entryMsg.setPlaceholderArguments(entryArgs)));
 				++index;
 			}
 		}
 
 		// TODO Next/prev page buttons (if SpigotFeatures is available)
+		return new RenderedHistoryPage(messages, page, maxPage);
 	}
 }
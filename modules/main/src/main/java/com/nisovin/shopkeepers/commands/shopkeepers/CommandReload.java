@@ -8,11 +8,14 @@ import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
 import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.lang.Messages;
 
 class CommandReload extends Command {
 
+	private static final String ARGUMENT_CHANGED = "changed";
+
 	private final SKShopkeepersPlugin plugin;
 
 	CommandReload(SKShopkeepersPlugin plugin) {
@@ -24,12 +27,28 @@ class CommandReload extends Command {
 
 		// Set description:
 		this.setDescription(Messages.commandDescriptionReload);
+
+		// Arguments:
+		// Only reloads the shopkeepers whose data has changed, and keeps the other shopkeepers
+		// spawned:
+		this.addArgument(new LiteralArgument(ARGUMENT_CHANGED).optional());
 	}
 
 	@Override
 	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
 		CommandSender sender = input.getSender();
 
+		if (context.has(ARGUMENT_CHANGED)) {
+			// Only reload changed shopkeepers:
+			if (plugin.reloadChanged()) {
+				sender.sendMessage(ChatColor.GREEN + "Shopkeepers plugin reloaded!");
+			} else {
+				sender.sendMessage(ChatColor.RED + "Failed to reload the shopkeepers data!"
+						+ " Check the server log for details.");
+			}
+			return;
+		}
+
 		// Reload plugin:
 		plugin.reload();
 		sender.sendMessage(ChatColor.GREEN + "Shopkeepers plugin reloaded!");
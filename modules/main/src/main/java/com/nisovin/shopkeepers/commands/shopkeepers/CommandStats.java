@@ -0,0 +1,228 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.bukkit.command.CommandSender;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.arguments.FirstOfArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.PositiveIntegerArgument;
+import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.tradelog.stats.StatisticsDimension;
+import com.nisovin.shopkeepers.tradelog.stats.StatisticsGranularity;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsEntry;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsRequest;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsResult;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.java.ConversionUtils;
+import com.nisovin.shopkeepers.util.java.Range;
+import com.nisovin.shopkeepers.util.java.ThrowableUtils;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+class CommandStats extends Command {
+
+	private static final String ARGUMENT_DIMENSION = "dimension";
+	private static final String ARGUMENT_SHOPS = "shops";
+	private static final String ARGUMENT_OWNERS = "owners";
+	private static final String ARGUMENT_ITEMS = "items";
+
+	private static final String ARGUMENT_PERIOD = "period";
+	private static final String ARGUMENT_HOUR = "hour";
+	private static final String ARGUMENT_DAY = "day";
+	private static final String ARGUMENT_WEEK = "week";
+	private static final String ARGUMENT_MONTH = "month";
+
+	private static final String ARGUMENT_PAGE = "page";
+
+	private static final int ENTRIES_PER_PAGE = 10;
+
+	private final SKShopkeepersPlugin plugin;
+
+	CommandStats(SKShopkeepersPlugin plugin) {
+		super("stats");
+		this.plugin = plugin;
+
+		// Permission: The statistics include the trades of all players and shops.
+		this.setPermission(ShopkeepersPlugin.HISTORY_ADMIN_PERMISSION);
+
+		// Set description:
+		this.setDescription(Messages.commandDescriptionStats);
+
+		// Arguments:
+		this.addArgument(new FirstOfArgument(ARGUMENT_DIMENSION, Arrays.asList(
+				new LiteralArgument(ARGUMENT_SHOPS),
+				new LiteralArgument(ARGUMENT_OWNERS),
+				new LiteralArgument(ARGUMENT_ITEMS)
+		)).optional()); // Join formats, but don't reverse
+		this.addArgument(new FirstOfArgument(ARGUMENT_PERIOD, Arrays.asList(
+				new LiteralArgument(ARGUMENT_HOUR),
+				new LiteralArgument(ARGUMENT_DAY),
+				new LiteralArgument(ARGUMENT_WEEK),
+				new LiteralArgument(ARGUMENT_MONTH)
+		)).optional()); // Join formats, but don't reverse
+		this.addArgument(new PositiveIntegerArgument(ARGUMENT_PAGE).orDefaultValue(1));
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		CommandSender sender = input.getSender();
+
+		var tradeStatisticsProvider = plugin.getTradeStatisticsProvider();
+		if (tradeStatisticsProvider == null) {
+			TextUtils.sendMessage(sender, Messages.statsDisabled);
+			return;
+		}
+
+		StatisticsDimension dimension;
+		Text dimensionText;
+		if (context.has(ARGUMENT_OWNERS)) {
+			dimension = StatisticsDimension.OWNER;
+			dimensionText = Messages.statsDimensionOwners;
+		} else if (context.has(ARGUMENT_ITEMS)) {
+			dimension = StatisticsDimension.ITEM;
+			dimensionText = Messages.statsDimensionItems;
+		} else {
+			// Default: shops
+			dimension = StatisticsDimension.SHOP;
+			dimensionText = Messages.statsDimensionShops;
+		}
+
+		// Short periods are aggregated from the hourly counters, longer periods from the daily
+		// counters:
+		Duration period;
+		StatisticsGranularity granularity;
+		Text periodText;
+		if (context.has(ARGUMENT_HOUR)) {
+			period = Duration.ofHours(1);
+			granularity = StatisticsGranularity.HOUR;
+			periodText = Messages.statsPeriodHour;
+		} else if (context.has(ARGUMENT_WEEK)) {
+			period = Duration.ofDays(7);
+			granularity = StatisticsGranularity.DAY;
+			periodText = Messages.statsPeriodWeek;
+		} else if (context.has(ARGUMENT_MONTH)) {
+			period = Duration.ofDays(30);
+			granularity = StatisticsGranularity.DAY;
+			periodText = Messages.statsPeriodMonth;
+		} else {
+			// Default: day
+			period = Duration.ofDays(1);
+			granularity = StatisticsGranularity.HOUR;
+			periodText = Messages.statsPeriodDay;
+		}
+
+		int page = context.get(ARGUMENT_PAGE);
+
+		Instant now = Instant.now();
+		Range range = new Range.PageRange(page, ENTRIES_PER_PAGE);
+		TradeStatisticsRequest request = new TradeStatisticsRequest(
+				dimension,
+				granularity,
+				now.minus(period),
+				now,
+				null,
+				false,
+				range
+		);
+
+		tradeStatisticsProvider.getTradeStatistics(request)
+				.thenAcceptAsync(result -> {
+					assert result != null;
+					sendTradeStatistics(sender, request, result, dimensionText, periodText);
+				}, plugin.getSyncExecutor())
+				.exceptionally(exception -> {
+					if (ThrowableUtils.getRootCause(exception) instanceof RejectedExecutionException) {
+						// TODO Localize?
+						TextUtils.sendMessage(sender, Text.parse("&cThe server is busy. Please try again later."));
+						return null;
+					}
+
+					// Error case:
+					// TODO Localize?
+					TextUtils.sendMessage(sender, Text.parse("&cError: Could not retrieve the trade statistics!"));
+					Log.severe("Error while retrieving trade statistics!", exception);
+					return null;
+				});
+	}
+
+	private void sendTradeStatistics(
+			CommandSender sender,
+			TradeStatisticsRequest request,
+			TradeStatisticsResult result,
+			Text dimensionText,
+			Text periodText
+	) {
+		assert sender != null && request != null && result != null;
+		int totalEntries = result.getTotalEntriesCount();
+		int startIndex = request.range.getStartIndex(totalEntries);
+		int page = (startIndex / ENTRIES_PER_PAGE) + 1;
+		int maxPage = Math.max(1, (int) Math.ceil((double) totalEntries / ENTRIES_PER_PAGE));
+
+		// Header:
+		Map<String, Object> headerArgs = new HashMap<>();
+		headerArgs.put("dimension", dimensionText);
+		headerArgs.put("period", periodText);
+		headerArgs.put("entriesCount", totalEntries);
+		headerArgs.put("page", page);
+		headerArgs.put("maxPage", maxPage);
+		TextUtils.sendMessage(sender, Messages.statsHeader, headerArgs);
+
+		if (totalEntries == 0) {
+			TextUtils.sendMessage(sender, Messages.statsNoTradesFound);
+			return;
+		}
+
+		Map<String, Object> entryArgs = new HashMap<>();
+		int index = startIndex;
+		for (TradeStatisticsEntry entry : result.getEntries()) {
+			entryArgs.clear();
+			entryArgs.put("index", index + 1);
+			entryArgs.put("name", this.getEntryText(request.dimension, entry));
+			entryArgs.put("tradesCount", entry.getTradeCount());
+			entryArgs.put("item1Amount", entry.getItem1Amount());
+			entryArgs.put("item2Amount", entry.getItem2Amount());
+			entryArgs.put("resultItemAmount", entry.getResultItemAmount());
+			TextUtils.sendMessage(sender, Messages.statsEntry, entryArgs);
+			++index;
+		}
+	}
+
+	private Text getEntryText(StatisticsDimension dimension, TradeStatisticsEntry entry) {
+		String key = entry.getKey();
+		@Nullable String name = entry.getName();
+		switch (dimension) {
+		case SHOP: {
+			@Nullable UUID shopUniqueId = ConversionUtils.parseUUID(key);
+			if (shopUniqueId == null) break;
+
+			// Prefer the information of still existing shops:
+			@Nullable Shopkeeper shopkeeper = plugin.getShopkeeperRegistry().getShopkeeperByUniqueId(shopUniqueId);
+			if (shopkeeper != null) {
+				return TextUtils.getShopText(shopkeeper);
+			}
+			return TextUtils.getShopText(Text.of(name != null ? name : key), shopUniqueId);
+		}
+		case OWNER:
+			return TextUtils.getPlayerText(name, ConversionUtils.parseUUID(key));
+		case ITEM:
+		default:
+			break;
+		}
+		return Text.of(name != null ? name : key);
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.UUID;
 
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
@@ -22,10 +23,11 @@ import com.nisovin.shopkeepers.commands.lib.arguments.FirstOfArgument;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
 import com.nisovin.shopkeepers.commands.util.ShopkeeperArgumentUtils.TargetShopkeeperFilter;
 import com.nisovin.shopkeepers.commands.util.UserArgumentUtils;
-import com.nisovin.shopkeepers.commands.util.UserArgumentUtils.UserNameMatcher;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
+import com.nisovin.shopkeepers.text.Text;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.logging.Log;
 
 class CommandTransfer extends Command {
 
@@ -71,35 +73,52 @@ class CommandTransfer extends Command {
 
 		// TODO Move this logic into the argument itself, but avoid looking up the offline player by
 		// name more than once per command invocation.
-		User newOwner;
 		if (newOwnerUUID != null) {
-			newOwner = UserArgumentUtils.findUser(newOwnerUUID);
+			User newOwner = UserArgumentUtils.findUser(newOwnerUUID);
 			if (newOwner == null) {
 				var error = USER_BY_UUID_ARGUMENT.getInvalidArgumentErrorMsg(newOwnerUUID.toString());
 				TextUtils.sendMessage(sender, error);
 				return;
 			}
+
+			this.transfer(sender, shopkeeper, newOwner);
 		} else {
 			assert newOwnerName != null;
-			var matchingUsers = UserNameMatcher.EXACT.match(newOwnerName, true).toList();
-			if (matchingUsers.isEmpty()) {
-				var error = USER_BY_NAME_ARGUMENT.getInvalidArgumentErrorMsg(newOwnerName);
-				TextUtils.sendMessage(sender, error);
-				return;
-			}
-
-			if (matchingUsers.size() > 1) {
-				UserArgumentUtils.handleAmbiguousUserName(
-						sender,
-						newOwnerName,
-						matchingUsers
-				);
-				return;
-			}
-
-			newOwner = matchingUsers.getFirst();
+			// Also checks for offline players. This may complete in a later tick:
+			UserArgumentUtils.resolveUsersByName(newOwnerName)
+					.thenAccept(matchingUsers -> {
+						// Abort if the player went offline or the shopkeeper got removed meanwhile:
+						if (sender instanceof Player player && !player.isOnline()) return;
+						if (!shopkeeper.isValid()) return;
+
+						if (matchingUsers.isEmpty()) {
+							var error = USER_BY_NAME_ARGUMENT.getInvalidArgumentErrorMsg(newOwnerName);
+							TextUtils.sendMessage(sender, error);
+							return;
+						}
+
+						if (matchingUsers.size() > 1) {
+							UserArgumentUtils.handleAmbiguousUserName(
+									sender,
+									newOwnerName,
+									matchingUsers
+							);
+							return;
+						}
+
+						this.transfer(sender, shopkeeper, matchingUsers.getFirst());
+					})
+					.exceptionally(exception -> {
+						// Error case:
+						// TODO Localize?
+						TextUtils.sendMessage(sender, Text.parse("&cError: Could not look up the player!"));
+						Log.severe("Error while looking up player '" + newOwnerName + "'!", exception);
+						return null;
+					});
 		}
+	}
 
+	private void transfer(CommandSender sender, AbstractPlayerShopkeeper shopkeeper, User newOwner) {
 		// Check that the sender can edit this shopkeeper:
 		if (!shopkeeper.canEdit(sender, false)) {
 			return;
@@ -1,24 +1,25 @@
 package com.nisovin.shopkeepers.commands.shopkeepers;
 
-import java.util.concurrent.TimeUnit;
-
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
-import com.nisovin.shopkeepers.api.ShopkeepersAPI;
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
 import com.nisovin.shopkeepers.commands.lib.CommandInput;
 import com.nisovin.shopkeepers.commands.lib.context.CommandContextView;
-import com.nisovin.shopkeepers.debug.DebugOptions;
+import com.nisovin.shopkeepers.items.BulkItemUpdate;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
-import com.nisovin.shopkeepers.util.logging.Log;
 
 class CommandUpdateItems extends Command {
 
-	CommandUpdateItems() {
+	private final SKShopkeepersPlugin plugin;
+
+	CommandUpdateItems(SKShopkeepersPlugin plugin) {
 		super("updateItems");
+		this.plugin = plugin;
 
 		this.setPermission(ShopkeepersPlugin.UPDATE_ITEMS_PERMISSION);
 
@@ -30,13 +31,29 @@ class CommandUpdateItems extends Command {
 	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
 		CommandSender sender = input.getSender();
 
-		long startNanos = System.nanoTime();
-		int updatedItems = ShopkeepersAPI.updateItems();
-		long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
-
-		Log.debug(DebugOptions.itemUpdates, "Updated " + updatedItems + " items (" + durationMillis
-				+ " ms).");
+		// The items are updated across multiple ticks, to not freeze the server:
+		boolean started = plugin.startBulkItemUpdate(new BulkItemUpdate.ProgressListener() {
+			@Override
+			public void onProgress(int processedShopkeepers, int totalShopkeepers) {
+				if (isOffline(sender)) return;
+				TextUtils.sendMessage(sender, Messages.itemsUpdateProgress,
+						"processed", processedShopkeepers,
+						"total", totalShopkeepers
+				);
+			}
+
+			@Override
+			public void onCompleted(int updatedItems, long durationMillis) {
+				if (isOffline(sender)) return;
+				TextUtils.sendMessage(sender, Messages.itemsUpdated, "count", updatedItems);
+			}
+		});
+		if (!started) {
+			throw new CommandException(Messages.itemsUpdateAlreadyRunning);
+		}
+	}
 
-		TextUtils.sendMessage(sender, Messages.itemsUpdated, "count", updatedItems);
+	private static boolean isOffline(CommandSender sender) {
+		return sender instanceof Player player && !player.isOnline();
 	}
 }
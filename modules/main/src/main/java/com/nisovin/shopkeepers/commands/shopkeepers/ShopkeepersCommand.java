@@ -96,12 +96,13 @@ public class ShopkeepersCommand extends BaseCommand {
 		childCommands.register(new CommandNotify());
 		childCommands.register(new CommandList(shopkeeperRegistry));
 		childCommands.register(new CommandHistory(plugin));
+		childCommands.register(new CommandStats(plugin));
 		childCommands.register(new CommandRemove(confirmations));
 		childCommands.register(new CommandRemoveAll(plugin, shopkeeperRegistry, confirmations));
 		childCommands.register(new CommandGive());
 		childCommands.register(new CommandGiveCurrency());
 		childCommands.register(new CommandSetCurrency());
-		childCommands.register(new CommandUpdateItems());
+		childCommands.register(new CommandUpdateItems(plugin));
 		childCommands.register(new CommandRemote());
 		childCommands.register(new CommandEdit());
 		childCommands.register(new CommandTeleport());
@@ -117,6 +118,7 @@ public class ShopkeepersCommand extends BaseCommand {
 		childCommands.register(new CommandReplaceAllWithVanillaVillagers(plugin, shopkeeperRegistry,
 				confirmations));
 		childCommands.register(new CommandCleanupCitizenShopkeepers());
+		childCommands.register(new CommandCheckInactive(plugin));
 		childCommands.register(new CommandCheck(plugin));
 		childCommands.register(new CommandCheckItem());
 		childCommands.register(new CommandYaml());
@@ -2,6 +2,7 @@ package com.nisovin.shopkeepers.commands.util;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -9,10 +10,12 @@ import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.bukkit.Bukkit;
 import org.bukkit.FluidCollisionMode;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -133,14 +136,154 @@ public final class ShopkeeperArgumentUtils {
 		public abstract Text getInvalidTargetErrorMsg(Shopkeeper shopkeeper);
 	}
 
-	// If the filter is null, any shopkeeper type can be returned.
-	public static TargetShopkeepersResult findTargetedShopkeepers(
-			Player player,
-			TargetShopkeeperFilter filter
-	) {
-		Validate.notNull(filter, "filter is null");
+	// The result of the last target ray trace of each player. Tab completion requests are sent on
+	// every keystroke, and the argument parsing and completion of the same command input query the
+	// targeted shopkeepers repeatedly. We reuse the last ray trace result for a few ticks as long as
+	// the player has neither moved nor rotated, and the hit entity is still valid.
+	// The cached targets do not reference any worlds, blocks or entities, so that they do not keep
+	// unloaded worlds in memory. They are cleared when the plugin is disabled.
+	private static final int TARGET_CACHE_DURATION_TICKS = 10;
+	private static final Map<UUID, CachedTarget> TARGET_CACHE = new HashMap<>();
+
+	private static final class CachedTarget {
+
+		private final UUID worldId;
+		// The world's game time when the ray trace was performed:
+		private final long gameTime;
+		private final double x;
+		private final double y;
+		private final double z;
+		private final float yaw;
+		private final float pitch;
+
+		// Null if nothing has been hit:
+		private final @Nullable Vector hitPosition;
+		// Null if no block has been hit:
+		private final @Nullable BlockFace hitBlockFace;
+		private final int hitBlockX;
+		private final int hitBlockY;
+		private final int hitBlockZ;
+		// Null if no entity has been hit:
+		private final @Nullable UUID hitEntityId;
+
+		CachedTarget(Location eyeLocation, long gameTime, @Nullable RayTraceResult rayTraceResult) {
+			this.worldId = Unsafe.assertNonNull(eyeLocation.getWorld()).getUID();
+			this.gameTime = gameTime;
+			this.x = eyeLocation.getX();
+			this.y = eyeLocation.getY();
+			this.z = eyeLocation.getZ();
+			this.yaw = eyeLocation.getYaw();
+			this.pitch = eyeLocation.getPitch();
+
+			Block hitBlock = null;
+			Entity hitEntity = null;
+			BlockFace hitBlockFace = null;
+			if (rayTraceResult != null) {
+				this.hitPosition = rayTraceResult.getHitPosition();
+				hitBlock = rayTraceResult.getHitBlock();
+				hitEntity = rayTraceResult.getHitEntity();
+				hitBlockFace = rayTraceResult.getHitBlockFace();
+			} else {
+				this.hitPosition = null;
+			}
+
+			if (hitBlock != null) {
+				this.hitBlockFace = hitBlockFace;
+				this.hitBlockX = hitBlock.getX();
+				this.hitBlockY = hitBlock.getY();
+				this.hitBlockZ = hitBlock.getZ();
+			} else {
+				this.hitBlockFace = null;
+				this.hitBlockX = 0;
+				this.hitBlockY = 0;
+				this.hitBlockZ = 0;
+			}
+			this.hitEntityId = (hitEntity != null) ? hitEntity.getUniqueId() : null;
+		}
+
+		UUID getWorldId() {
+			return worldId;
+		}
+
+		boolean matches(Location eyeLocation, long gameTime) {
+			long elapsedTicks = gameTime - this.gameTime;
+			if (elapsedTicks < 0 || elapsedTicks >= TARGET_CACHE_DURATION_TICKS) return false;
+
+			World world = Unsafe.assertNonNull(eyeLocation.getWorld());
+			return worldId.equals(world.getUID())
+					&& x == eyeLocation.getX()
+					&& y == eyeLocation.getY()
+					&& z == eyeLocation.getZ()
+					&& yaw == eyeLocation.getYaw()
+					&& pitch == eyeLocation.getPitch();
+		}
+
+		boolean hasHit() {
+			return hitPosition != null;
+		}
+
+		// Returns null if nothing has been hit, or if the hit entity is no longer valid.
+		@Nullable RayTraceResult restoreHit(World world) {
+			Vector hitPosition = this.hitPosition;
+			if (hitPosition == null) return null;
+
+			UUID hitEntityId = this.hitEntityId;
+			if (hitEntityId != null) {
+				Entity hitEntity = Bukkit.getEntity(hitEntityId);
+				if (hitEntity == null || !hitEntity.isValid() || hitEntity.isDead()) return null;
+				if (!hitEntity.getWorld().equals(world)) return null;
+
+				return new RayTraceResult(hitPosition.clone(), hitEntity);
+			}
+
+			Block hitBlock = world.getBlockAt(hitBlockX, hitBlockY, hitBlockZ);
+			return new RayTraceResult(hitPosition.clone(), hitBlock, hitBlockFace);
+		}
+	}
+
+	/**
+	 * Removes the cached target of the given player.
+	 *
+	 * @param player
+	 *            the player, not <code>null</code>
+	 */
+	public static void clearCachedTarget(Player player) {
+		TARGET_CACHE.remove(player.getUniqueId());
+	}
+
+	/**
+	 * Removes the cached targets of all players in the given world.
+	 *
+	 * @param world
+	 *            the world, not <code>null</code>
+	 */
+	public static void clearCachedTargets(World world) {
+		UUID worldId = world.getUID();
+		TARGET_CACHE.values().removeIf(cachedTarget -> cachedTarget.getWorldId().equals(worldId));
+	}
+
+	/**
+	 * Removes the cached targets of all players.
+	 */
+	public static void clearCachedTargets() {
+		TARGET_CACHE.clear();
+	}
+
+	private static @Nullable RayTraceResult rayTraceTarget(Player player) {
 		Location playerLoc = player.getEyeLocation();
 		World world = Unsafe.assertNonNull(playerLoc.getWorld());
+		long gameTime = world.getGameTime();
+
+		UUID playerId = player.getUniqueId();
+		CachedTarget cachedTarget = TARGET_CACHE.get(playerId);
+		if (cachedTarget != null && cachedTarget.matches(playerLoc, gameTime)) {
+			if (!cachedTarget.hasHit()) return null;
+
+			RayTraceResult cachedResult = cachedTarget.restoreHit(world);
+			if (cachedResult != null) return cachedResult;
+			// Else: The hit entity is no longer valid. Ray trace again.
+		}
+
 		Vector viewDirection = playerLoc.getDirection();
 
 		// Ray trace to check for the closest block and entity collision:
@@ -158,6 +301,18 @@ public final class ShopkeeperArgumentUtils {
 				}
 		);
 
+		TARGET_CACHE.put(playerId, new CachedTarget(playerLoc, gameTime, rayTraceResult));
+		return rayTraceResult;
+	}
+
+	// If the filter is null, any shopkeeper type can be returned.
+	public static TargetShopkeepersResult findTargetedShopkeepers(
+			Player player,
+			TargetShopkeeperFilter filter
+	) {
+		Validate.notNull(filter, "filter is null");
+		RayTraceResult rayTraceResult = rayTraceTarget(player);
+
 		// Determine the targeted shopkeeper(s), or return a context dependent error messages:
 		if (rayTraceResult != null) {
 			Block targetBlock = rayTraceResult.getHitBlock();
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Spliterators;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -16,6 +17,8 @@ import com.nisovin.shopkeepers.api.user.User;
 import com.nisovin.shopkeepers.commands.arguments.AmbiguousUserNameHandler;
 import com.nisovin.shopkeepers.commands.lib.util.ObjectMatcher;
 import com.nisovin.shopkeepers.user.SKUser;
+import com.nisovin.shopkeepers.user.UserNameResolver;
+import com.nisovin.shopkeepers.user.UserRegistry;
 import com.nisovin.shopkeepers.util.bukkit.EntityUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.java.StringUtils;
@@ -34,11 +37,10 @@ public final class UserArgumentUtils {
 	 * @return the users known to the plugin that can be determined without loading player files
 	 */
 	public static Stream<User> getKnownUsers() {
-		// Note: We are not using the cache inside SKUser here:
-		// - The cache is modified on each call to "SKUser::of" (LRUCache resorts on access), so we
-		// run into an ConcurrentModificationException when we first stream the online users.
-		// - The cache is of limited size. It might not even cover all of the current shop owners.
-		// - The cache may also contain the dummy values such as the empty user.
+		// Note: We are not streaming the users of the UserRegistry here:
+		// - The registry only weakly references the interned users and may evict users that are no
+		// longer referenced anywhere else.
+		// - The registry may also contain the dummy values such as the empty user.
 		return Stream.concat(
 				EntityUtils.getOnlinePlayersStream().map(SKUser::of),
 				SKShopkeepersPlugin.getInstance().getShopkeeperRegistry().getAllPlayerShopkeepers()
@@ -53,6 +55,12 @@ public final class UserArgumentUtils {
 			return userOpt.get();
 		}
 
+		// Check the users tracked by the user registry:
+		@Nullable User trackedUser = UserRegistry.getInstance().getUser(uniqueId);
+		if (trackedUser != null && !trackedUser.equals(SKUser.EMPTY)) {
+			return trackedUser;
+		}
+
 		// Check the offline players:
 		var offlinePlayer = Bukkit.getOfflinePlayer(uniqueId);
 		// Null if the player never played on the server before:
@@ -62,6 +70,27 @@ public final class UserArgumentUtils {
 		return SKUser.of(uniqueId, name);
 	}
 
+	/**
+	 * Resolves the users with the given name, including offline players.
+	 * <p>
+	 * This first checks the {@link #getKnownUsers() known users} for matching names and display
+	 * names, and then resolves the name via the {@link UserNameResolver}, which looks up offline
+	 * players without blocking the server's main thread. The returned future completes on the
+	 * server's main thread.
+	 * 
+	 * @param name
+	 *            the user name, not <code>null</code> or empty
+	 * @return the future with the matching users, not <code>null</code> but can be empty
+	 */
+	public static CompletableFuture<List<User>> resolveUsersByName(String name) {
+		var matchingUsers = UserNameMatcher.EXACT.match(name, false).toList();
+		if (!matchingUsers.isEmpty()) {
+			return CompletableFuture.completedFuture(matchingUsers);
+		}
+
+		return SKShopkeepersPlugin.getInstance().getUserNameResolver().resolveUsers(name);
+	}
+
 	/*
 	 * Player name assumptions:
 	 * - Names are unique (including case) among online players.
@@ -1,8 +1,10 @@
 package com.nisovin.shopkeepers.component;
 
+import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -25,10 +27,12 @@ import com.nisovin.shopkeepers.util.java.Validate;
  */
 public class ComponentHolder {
 
-	private final Map<Class<? extends Component>, Component> components = new LinkedHashMap<>();
-	private final Collection<? extends Component> componentsView = Collections.unmodifiableCollection(components.values());
+	// Most holders have no components. The maps are therefore only created once the first
+	// component is added. The view remains the same and reflects the map once it has been created.
+	private @Nullable Map<Class<? extends Component>, Component> components = null;
+	private final Collection<? extends Component> componentsView = new ComponentsView();
 
-	private final Map<Class<?>, Component> services = new HashMap<>();
+	private @Nullable Map<Class<?>, Component> services = null;
 
 	/**
 	 * Creates a new {@link ComponentHolder}.
@@ -38,6 +42,31 @@ public class ComponentHolder {
 
 	// COMPONENTS
 
+	private Map<Class<? extends Component>, Component> getOrCreateComponentsMap() {
+		Map<Class<? extends Component>, Component> components = this.components;
+		if (components == null) {
+			components = new LinkedHashMap<>(4);
+			this.components = components;
+		}
+		return components;
+	}
+
+	private final class ComponentsView extends AbstractCollection<Component> {
+
+		@Override
+		public Iterator<Component> iterator() {
+			Map<Class<? extends Component>, Component> components = ComponentHolder.this.components;
+			if (components == null) return Collections.emptyIterator();
+			return Collections.unmodifiableCollection(components.values()).iterator();
+		}
+
+		@Override
+		public int size() {
+			Map<Class<? extends Component>, Component> components = ComponentHolder.this.components;
+			return (components != null) ? components.size() : 0;
+		}
+	}
+
 	/**
 	 * Gets all currently attached components, in the order in which they were added.
 	 * 
@@ -59,6 +88,8 @@ public class ComponentHolder {
 	public final <C extends @Nullable Component> @Nullable C get(
 			Class<? extends @NonNull C> componentClass
 	) {
+		Map<Class<? extends Component>, Component> components = this.components;
+		if (components == null) return null;
 		return Unsafe.cast(components.get(componentClass)); // Can be null
 	}
 
@@ -76,7 +107,7 @@ public class ComponentHolder {
 	public final <C extends Component> @NonNull C getOrAdd(
 			Class<? extends @NonNull C> componentClass
 	) {
-		@NonNull C component = Unsafe.castNonNull(components.computeIfAbsent(
+		@NonNull C component = Unsafe.castNonNull(this.getOrCreateComponentsMap().computeIfAbsent(
 				componentClass,
 				this::createComponent
 		));
@@ -100,7 +131,10 @@ public class ComponentHolder {
 		Validate.notNull(component, "component is null");
 		Validate.isTrue(component.getHolder() == null,
 				"component is already attached to some holder");
-		Component previousComponent = components.put(component.getClass(), component);
+		Component previousComponent = this.getOrCreateComponentsMap().put(
+				component.getClass(),
+				component
+		);
 		if (previousComponent != null) {
 			this.onComponentRemoved(previousComponent);
 		}
@@ -119,6 +153,8 @@ public class ComponentHolder {
 	public final <C extends @Nullable Component> @Nullable C remove(
 			Class<? extends @NonNull C> componentClass
 	) {
+		Map<Class<? extends Component>, Component> components = this.components;
+		if (components == null) return null;
 		@Nullable C component = Unsafe.cast(components.remove(componentClass));
 		if (component != null) {
 			this.onComponentRemoved(component);
@@ -138,7 +174,8 @@ public class ComponentHolder {
 	public final <C extends @Nullable Component> @NonNull C remove(@NonNull C component) {
 		Validate.notNull(component, "component is null");
 		Class<? extends @NonNull C> componentClass = Unsafe.castNonNull(component.getClass());
-		if (components.remove(componentClass, component)) {
+		Map<Class<? extends Component>, Component> components = this.components;
+		if (components != null && components.remove(componentClass, component)) {
 			this.onComponentRemoved(component);
 		}
 		return component;
@@ -180,6 +217,8 @@ public class ComponentHolder {
 	 * @return the service provider, or <code>null</code> if there is none
 	 */
 	public final <S> @Nullable S getService(Class<? extends @NonNull S> service) {
+		Map<Class<?>, Component> services = this.services;
+		if (services == null) return null;
 		return Unsafe.cast(services.get(service)); // Can be null
 	}
 
@@ -207,6 +246,11 @@ public class ComponentHolder {
 		Validate.isTrue(service.isAssignableFrom(provider.getClass()),
 				() -> "component of type " + provider.getClass()
 						+ " is not assignment compatible with service " + service);
+		Map<Class<?>, Component> services = this.services;
+		if (services == null) {
+			services = new HashMap<>(4);
+			this.services = services;
+		}
 		Component previousProvider = services.put(service, provider);
 		if (previousProvider != null) {
 			previousProvider.informServiceDeactivated(service);
@@ -216,7 +260,8 @@ public class ComponentHolder {
 
 	private void unsetServiceProvider(Class<?> service, Component provider) {
 		assert service != null && provider != null;
-		if (services.remove(service, provider)) {
+		Map<Class<?>, Component> services = this.services;
+		if (services != null && services.remove(service, provider)) {
 			provider.informServiceDeactivated(service);
 
 			// Find a new provider:
@@ -260,7 +305,7 @@ public class ComponentHolder {
 		StringBuilder builder = new StringBuilder();
 		builder.append(this.getClass().getName());
 		builder.append(" [components=");
-		builder.append(components);
+		builder.append(componentsView);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -42,6 +42,7 @@ import com.nisovin.shopkeepers.shopcreation.ShopCreationItem;
 import com.nisovin.shopkeepers.shopkeeper.TradingRecipeDraft;
 import com.nisovin.shopkeepers.shopobjects.living.types.MagmaCubeShop;
 import com.nisovin.shopkeepers.shopobjects.living.types.SlimeShop;
+import com.nisovin.shopkeepers.tradelog.TradeLogOverflowPolicy;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
 import com.nisovin.shopkeepers.util.bukkit.ConfigUtils;
 import com.nisovin.shopkeepers.util.bukkit.EntityUtils;
@@ -76,6 +77,7 @@ public class Settings extends Config {
 	 * Shopkeeper Data
 	 */
 	public static boolean saveInstantly = true;
+	public static boolean loadShopkeepersWithWorlds = false;
 
 	/*
 	 * Plugin Compatibility
@@ -121,6 +123,7 @@ public class Settings extends Config {
 	public static boolean deleteShopkeeperOnBreakContainer = false;
 
 	public static int playerShopkeeperInactiveDays = 0;
+	public static boolean playerShopkeeperInactiveDryRun = false;
 
 	/*
 	 * Shop (Object) Types
@@ -232,6 +235,11 @@ public class Settings extends Config {
 	// period of 3 (maybe due to some interpolation artifact by the client).
 	public static int entityBehaviorTickPeriod = 3;
 
+	public static boolean cullShopEntities = false;
+	public static int shopEntityCullingChunkRange = 6;
+	public static int shopEntityCullingHysteresis = 2;
+	public static boolean persistShopEntities = false;
+
 	public static boolean shulkerPeekIfPlayerNearby = true;
 	public static float shulkerPeekHeight = 0.3F;
 
@@ -390,6 +398,11 @@ public class Settings extends Config {
 
 	public static boolean logItemMetadata = false;
 
+	public static boolean tradeLogStatistics = true;
+
+	public static int tradeLogMaxPendingTrades = 10000;
+	public static TradeLogOverflowPolicy tradeLogOverflowPolicy = TradeLogOverflowPolicy.DROP;
+
 	/*
 	 * Currencies
 	 */
@@ -910,6 +923,14 @@ public class Settings extends Config {
 			Log.warning(this.getLogPrefix() + "'entity-behavior-tick-period' has to be positive.");
 			entityBehaviorTickPeriod = 1;
 		}
+		if (shopEntityCullingChunkRange < 0) {
+			Log.warning(this.getLogPrefix() + "'shop-entity-culling-chunk-range' cannot be negative.");
+			shopEntityCullingChunkRange = 0;
+		}
+		if (shopEntityCullingHysteresis < 0) {
+			Log.warning(this.getLogPrefix() + "'shop-entity-culling-hysteresis' cannot be negative.");
+			shopEntityCullingHysteresis = 0;
+		}
 		if (shulkerPeekHeight < 0 || shulkerPeekHeight > 1) {
 			Log.warning(this.getLogPrefix() + "'shulker-peek-height' must be between 0.0 and 1.0.");
 			shulkerPeekHeight = (shulkerPeekHeight < 0 ? 0 : 1);
@@ -975,6 +996,10 @@ public class Settings extends Config {
 			Log.warning(this.getLogPrefix() + "'trade-log-next-merge-timeout-ticks' cannot be negative.");
 			tradeLogNextMergeTimeoutTicks = 0;
 		}
+		if (tradeLogMaxPendingTrades < 1) {
+			Log.warning(this.getLogPrefix() + "'trade-log-max-pending-trades' cannot be less than 1.");
+			tradeLogMaxPendingTrades = 1;
+		}
 		// Note: If tradeLogNextMergeTimeoutTicks is greater than or equal to
 		// tradeLogMergeDurationTicks, it has no effect. However, we do not print a warning in this
 		// case to allow tradeLogMergeDurationTicks to be easily adjusted inside the config without
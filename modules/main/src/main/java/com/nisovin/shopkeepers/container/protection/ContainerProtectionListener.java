@@ -3,6 +3,7 @@ package com.nisovin.shopkeepers.container.protection;
 import java.util.List;
 
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.Directional;
@@ -114,17 +115,20 @@ class ContainerProtectionListener implements Listener {
 	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
 	void onEntityExplosion(EntityExplodeEvent event) {
 		List<Block> blockList = event.blockList();
-		this.removeProtectedChests(blockList);
+		this.removeProtectedChests(event.getEntity().getWorld(), blockList);
 	}
 
 	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
 	void onBlockExplosion(BlockExplodeEvent event) {
 		List<Block> blockList = event.blockList();
-		this.removeProtectedChests(blockList);
+		this.removeProtectedChests(event.getBlock().getWorld(), blockList);
 	}
 
 	// Block list has to be modifiable.
-	private void removeProtectedChests(List<? extends Block> blockList) {
+	private void removeProtectedChests(World world, List<? extends Block> blockList) {
+		// Quick check: Skip explosions in worlds without any protected containers.
+		if (!protectedContainers.hasProtectedContainers(world)) return;
+
 		blockList.removeIf(protectedContainers::isProtectedContainer);
 	}
 }
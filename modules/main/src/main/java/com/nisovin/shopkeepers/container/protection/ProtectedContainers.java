@@ -8,6 +8,7 @@ import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.type.Chest;
@@ -22,7 +23,9 @@ import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.container.ShopContainers;
 import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
+import com.nisovin.shopkeepers.util.bukkit.BlockFaceUtils;
 import com.nisovin.shopkeepers.util.bukkit.BlockLocation;
+import com.nisovin.shopkeepers.util.bukkit.ChunkBlockCounts;
 import com.nisovin.shopkeepers.util.bukkit.MutableBlockLocation;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
@@ -71,6 +74,10 @@ public class ProtectedContainers {
 	private final ContainerProtectionListener containerProtectionListener = new ContainerProtectionListener(Unsafe.initialized(this));
 	private final InventoryMoveItemListener inventoryMoveItemListener = new InventoryMoveItemListener(Unsafe.initialized(this));
 	private final Map<BlockLocation, List<AbstractPlayerShopkeeper>> protectedContainers = new HashMap<>();
+	// The chunks that contain protected containers or blocks that may be connected to protected
+	// containers (i.e. connected chests). Used to quickly skip blocks during frequent checks, such
+	// as explosions.
+	private final ChunkBlockCounts protectedChunks = new ChunkBlockCounts();
 
 	public ProtectedContainers(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
@@ -90,6 +97,7 @@ public class ProtectedContainers {
 		HandlerList.unregisterAll(containerProtectionListener);
 		HandlerList.unregisterAll(inventoryMoveItemListener);
 		protectedContainers.clear();
+		protectedChunks.clear();
 	}
 
 	private BlockLocation getSharedKey(String worldName, int x, int y, int z) {
@@ -105,6 +113,10 @@ public class ProtectedContainers {
 				key -> new ArrayList<>(1)
 		);
 		assert shopkeepers != null;
+		if (shopkeepers.isEmpty()) {
+			// New protected container:
+			this.updateProtectedChunks(location, true);
+		}
 		shopkeepers.add(shopkeeper);
 	}
 
@@ -114,15 +126,68 @@ public class ProtectedContainers {
 		// This operation either updates the value inside the Map, or removes it. It does not insert
 		// a new entry for the passed key. We can therefore safely use the given location, without
 		// first creating an immutable copy of it.
+		boolean[] removed = new boolean[1];
 		protectedContainers.computeIfPresent(location, (key, shopkeepers) -> {
 			shopkeepers.remove(shopkeeper);
 			if (shopkeepers.isEmpty()) {
+				removed[0] = true;
 				// TODO Requires uncheckedNull due to Checker Framework limitation
 				return Unsafe.uncheckedNull(); // Removes the mapping
 			} else {
 				return shopkeepers; // Keeps the updated mapping
 			}
 		});
+		if (removed[0]) {
+			this.updateProtectedChunks(location, false);
+		}
+	}
+
+	// Also takes the horizontally adjacent blocks into account, since these might be chests that
+	// are connected to the protected container and located in a neighboring chunk.
+	private void updateProtectedChunks(BlockLocation location, boolean add) {
+		String worldName = Unsafe.assertNonNull(location.getWorldName());
+		int x = location.getX();
+		int z = location.getZ();
+		this.updateProtectedChunk(worldName, x, z, add);
+		for (BlockFace blockFace : BlockFaceUtils.getBlockSides()) {
+			if (blockFace.getModY() != 0) continue;
+			this.updateProtectedChunk(worldName, x + blockFace.getModX(), z + blockFace.getModZ(), add);
+		}
+	}
+
+	private void updateProtectedChunk(String worldName, int x, int z, boolean add) {
+		if (add) {
+			protectedChunks.add(worldName, x, z);
+		} else {
+			protectedChunks.remove(worldName, x, z);
+		}
+	}
+
+	/**
+	 * Checks if the given world contains any protected containers.
+	 * 
+	 * @param world
+	 *            the world
+	 * @return <code>true</code> if the world may contain protected containers
+	 */
+	public boolean hasProtectedContainers(World world) {
+		Validate.notNull(world, "world is null");
+		return protectedChunks.containsWorld(world.getName());
+	}
+
+	/**
+	 * Quickly checks if the given block is located inside a chunk that may contain protected
+	 * containers, or chests that are connected to protected containers.
+	 * <p>
+	 * If this returns <code>false</code>, the block is guaranteed to not be protected.
+	 * 
+	 * @param block
+	 *            the block
+	 * @return <code>true</code> if the block may be protected
+	 */
+	public boolean isInProtectedChunk(Block block) {
+		Validate.notNull(block, "block is null");
+		return protectedChunks.containsChunkOf(block);
 	}
 
 	// Gets the shopkeepers that are directly using the container at the specified location:
@@ -289,6 +354,10 @@ public class ProtectedContainers {
 	 */
 	public boolean isProtectedContainer(Block block, @Nullable Player player) {
 		Validate.notNull(block, "block is null");
+		// Quick check: Avoids looking up the block type.
+		if (!this.isInProtectedChunk(block)) {
+			return false;
+		}
 		if (!ShopContainers.isSupportedContainer(block.getType())) {
 			return false;
 		}
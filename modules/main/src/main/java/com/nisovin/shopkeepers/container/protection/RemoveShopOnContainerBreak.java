@@ -70,6 +70,8 @@ public class RemoveShopOnContainerBreak {
 	public void handleBlocksBreakage(List<? extends Block> blockList) {
 		boolean dirty = false;
 		for (Block block : blockList) {
+			// Quick check: Avoids looking up the block type.
+			if (!protectedContainers.isInProtectedChunk(block)) continue;
 			if (!ShopContainers.isSupportedContainer(block.getType())) continue;
 			if (this.handleBlockBreakage(block)) {
 				dirty = true;
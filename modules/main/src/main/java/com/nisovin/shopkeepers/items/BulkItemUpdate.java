@@ -0,0 +1,181 @@
+package com.nisovin.shopkeepers.items;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.events.UpdateItemEvent;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.debug.DebugOptions;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Updates the items of all shopkeepers, spread across multiple ticks.
+ * <p>
+ * Each tick, the items of as many shopkeepers are updated as fit into a fixed time budget. An
+ * {@link ItemUpdateCache} is active while the shopkeepers are processed, so that only one
+ * {@link UpdateItemEvent} is called per distinct item during the whole update. Only shopkeepers
+ * whose items have actually changed are re-loaded and marked dirty, and the shopkeepers are only
+ * saved once at the end if any items have changed.
+ * <p>
+ * Shopkeepers that are added during the update are not updated. Shopkeepers that are removed
+ * during the update are skipped.
+ */
+public final class BulkItemUpdate {
+
+	/**
+	 * Receives progress updates of a {@link BulkItemUpdate}.
+	 */
+	public interface ProgressListener {
+
+		/**
+		 * Called periodically while the update is in progress.
+		 *
+		 * @param processedShopkeepers
+		 *            the number of processed shopkeepers
+		 * @param totalShopkeepers
+		 *            the total number of shopkeepers to process
+		 */
+		public void onProgress(int processedShopkeepers, int totalShopkeepers);
+
+		/**
+		 * Called when the update has completed.
+		 *
+		 * @param updatedItems
+		 *            the number of updated items
+		 * @param durationMillis
+		 *            the duration of the update in milliseconds
+		 */
+		public void onCompleted(int updatedItems, long durationMillis);
+	}
+
+	private static final long TICK_TIME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+	private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5L);
+
+	private final SKShopkeepersPlugin plugin;
+	private final ProgressListener progressListener;
+	private final ItemUpdateCache cache = new ItemUpdateCache();
+	private final List<? extends AbstractShopkeeper> shopkeepers;
+
+	private int nextShopkeeperIndex = 0;
+	private int updatedItems = 0;
+	private int updatedShopkeepers = 0;
+	private long startNanos;
+	private long lastProgressNanos;
+	private @Nullable BukkitTask task = null;
+
+	public BulkItemUpdate(SKShopkeepersPlugin plugin, ProgressListener progressListener) {
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(progressListener, "progressListener is null");
+		this.plugin = plugin;
+		this.progressListener = progressListener;
+		// Copy to not be affected by shopkeepers being added or removed during the update:
+		this.shopkeepers = new ArrayList<>(plugin.getShopkeeperRegistry().getAllShopkeepers());
+	}
+
+	/**
+	 * Checks if this update is still in progress.
+	 *
+	 * @return <code>true</code> if this update is in progress
+	 */
+	public boolean isRunning() {
+		return task != null;
+	}
+
+	/**
+	 * Starts this update.
+	 * <p>
+	 * This aborts all UI sessions and then immediately updates the items of the {@link Settings}.
+	 * The shopkeepers are updated during the subsequent ticks.
+	 */
+	public void start() {
+		Validate.State.isTrue(task == null && nextShopkeeperIndex == 0, "Already started!");
+		Log.debug(DebugOptions.itemUpdates, "Updating all items of " + shopkeepers.size()
+				+ " shopkeepers.");
+		startNanos = System.nanoTime();
+		lastProgressNanos = startNanos;
+
+		// Note: Not safe to be called from inside inventory events!
+		plugin.getUIRegistry().abortUISessions();
+
+		cache.activate();
+		try {
+			updatedItems += Settings.getInstance().updateItems();
+		} finally {
+			cache.deactivate();
+		}
+
+		task = Bukkit.getScheduler().runTaskTimer(plugin, this::processNextShopkeepers, 1L, 1L);
+	}
+
+	/**
+	 * Cancels this update if it is still in progress.
+	 * <p>
+	 * Shopkeepers whose items have already been updated retain their updated items.
+	 */
+	public void cancel() {
+		BukkitTask task = this.task;
+		if (task == null) return;
+
+		task.cancel();
+		this.task = null;
+		Log.debug(DebugOptions.itemUpdates, "Item update cancelled after "
+				+ nextShopkeeperIndex + " of " + shopkeepers.size() + " shopkeepers.");
+	}
+
+	private void processNextShopkeepers() {
+		if (task == null) return; // Cancelled
+
+		final int totalShopkeepers = shopkeepers.size();
+		long deadlineNanos = System.nanoTime() + TICK_TIME_BUDGET_NANOS;
+		cache.activate();
+		try {
+			while (nextShopkeeperIndex < totalShopkeepers) {
+				AbstractShopkeeper shopkeeper = shopkeepers.get(nextShopkeeperIndex++);
+				if (shopkeeper.isValid()) {
+					int shopkeeperUpdatedItems = shopkeeper.updateItems();
+					if (shopkeeperUpdatedItems > 0) {
+						updatedItems += shopkeeperUpdatedItems;
+						updatedShopkeepers++;
+					}
+				}
+
+				if (System.nanoTime() - deadlineNanos >= 0L) break;
+			}
+		} finally {
+			cache.deactivate();
+		}
+
+		long nowNanos = System.nanoTime();
+		if (nextShopkeeperIndex >= totalShopkeepers) {
+			this.complete(nowNanos);
+		} else if (nowNanos - lastProgressNanos >= PROGRESS_INTERVAL_NANOS) {
+			lastProgressNanos = nowNanos;
+			progressListener.onProgress(nextShopkeeperIndex, totalShopkeepers);
+		}
+	}
+
+	private void complete(long nowNanos) {
+		BukkitTask task = Unsafe.assertNonNull(this.task);
+		task.cancel();
+		this.task = null;
+
+		if (updatedShopkeepers > 0) {
+			plugin.getShopkeeperStorage().save();
+		}
+
+		long durationMillis = TimeUnit.NANOSECONDS.toMillis(nowNanos - startNanos);
+		Log.debug(DebugOptions.itemUpdates, "Updated " + updatedItems + " items of "
+				+ updatedShopkeepers + " shopkeepers (" + durationMillis + " ms, update events: "
+				+ cache.getMisses() + ", reused results: " + cache.getHits() + ").");
+		progressListener.onCompleted(updatedItems, durationMillis);
+	}
+}
@@ -0,0 +1,156 @@
+package com.nisovin.shopkeepers.items;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.events.UpdateItemEvent;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.util.inventory.ItemData;
+import com.nisovin.shopkeepers.util.inventory.ItemFingerprint;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Memoizes the results of {@link UpdateItemEvent}s during a bulk item update, so that only one
+ * event is called per distinct item.
+ * <p>
+ * Shopkeepers usually store many identical items, such as currency items or the same offer items
+ * in many shops. While a cache is {@link #activate() active}, {@link ItemUpdates} reuses the
+ * update result of a previously updated similar item of the same stack size instead of calling
+ * another event.
+ * <p>
+ * A cache is only meant to be active for the duration of a single bulk item update, since other
+ * plugins may change how they update items in the meantime. Only one cache can be active at a
+ * time, and it may only be used from the server's main thread.
+ */
+public final class ItemUpdateCache {
+
+	private static @Nullable ItemUpdateCache active = null;
+
+	/**
+	 * Gets the currently active {@link ItemUpdateCache}.
+	 *
+	 * @return the active cache, or <code>null</code> if there is none
+	 */
+	static @Nullable ItemUpdateCache getActive() {
+		return active;
+	}
+
+	// Identifies items by their item data and stack size:
+	private static final class ItemKey {
+
+		private final UnmodifiableItemStack item;
+		private final int hash;
+
+		ItemKey(UnmodifiableItemStack item) {
+			this.item = item;
+			// The fingerprint of unmodifiable item stacks is cached:
+			this.hash = 31 * ItemFingerprint.of(item).hashCode() + item.getAmount();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof ItemKey)) return false;
+			ItemKey other = (ItemKey) obj;
+			return hash == other.hash
+					&& item.getAmount() == other.item.getAmount()
+					&& item.isSimilar(other.item);
+		}
+	}
+
+	// Unaltered items are mapped to the item of their key.
+	private final Map<ItemKey, UnmodifiableItemStack> updatedItems = new HashMap<>();
+	// Unaltered item data is mapped to itself.
+	private final Map<ItemKey, ItemData> updatedItemData = new HashMap<>();
+	private int hits = 0;
+	private int misses = 0;
+
+	/**
+	 * Creates a new and inactive {@link ItemUpdateCache}.
+	 */
+	public ItemUpdateCache() {
+	}
+
+	/**
+	 * Activates this cache.
+	 * <p>
+	 * Each call to this method needs to be followed by a call to {@link #deactivate()}, ideally
+	 * inside a <code>finally</code> block.
+	 */
+	public void activate() {
+		Validate.State.isTrue(active == null, "Another item update cache is already active!");
+		active = this;
+	}
+
+	/**
+	 * Deactivates this cache.
+	 * <p>
+	 * The cached results are retained, so this cache can be activated again later during the same
+	 * bulk item update.
+	 */
+	public void deactivate() {
+		Validate.State.isTrue(active == this, "This item update cache is not active!");
+		active = null;
+	}
+
+	/**
+	 * Gets the number of item updates that were answered from this cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of item updates that required an {@link UpdateItemEvent} to be called.
+	 *
+	 * @return the number of cache misses
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+	// The item is not empty.
+	UnmodifiableItemStack updateItem(
+			UnmodifiableItemStack item,
+			Function<UnmodifiableItemStack, UnmodifiableItemStack> updater
+	) {
+		ItemKey key = new ItemKey(item);
+		UnmodifiableItemStack updatedItem = updatedItems.get(key);
+		if (updatedItem == null) {
+			misses++;
+			updatedItem = updater.apply(item);
+			updatedItems.put(key, updatedItem);
+			return updatedItem;
+		}
+
+		hits++;
+		// Return the given item instance itself if the item was not altered:
+		return (updatedItem == key.item) ? item : updatedItem;
+	}
+
+	// The item data is not empty.
+	ItemData updateItemData(ItemData itemData, Function<ItemData, ItemData> updater) {
+		ItemKey key = new ItemKey(itemData.asUnmodifiableItemStack());
+		ItemData updatedData = updatedItemData.get(key);
+		if (updatedData == null) {
+			misses++;
+			updatedData = updater.apply(itemData);
+			updatedItemData.put(key, updatedData);
+			return updatedData;
+		}
+
+		hits++;
+		// Return the given item data instance itself if the item data was not altered:
+		return (updatedData.asUnmodifiableItemStack() == key.item) ? itemData : updatedData;
+	}
+}
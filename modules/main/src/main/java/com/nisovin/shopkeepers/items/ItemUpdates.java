@@ -28,6 +28,9 @@ public class ItemUpdates {
 
 	/**
 	 * Calls an {@link UpdateItemEvent} for the given item, but only if it is not empty.
+	 * <p>
+	 * If an {@link ItemUpdateCache} is active, the result of a previous update of a similar item
+	 * of the same stack size may be reused instead.
 	 * 
 	 * @param item
 	 *            the item to call an item update event for
@@ -37,6 +40,15 @@ public class ItemUpdates {
 		if (ItemUtils.isEmpty(item)) return item;
 		assert item != null;
 
+		ItemUpdateCache cache = ItemUpdateCache.getActive();
+		if (cache != null) {
+			return cache.updateItem(item, ItemUpdates::callUpdateItem);
+		}
+		return callUpdateItem(item);
+	}
+
+	// The item is not empty.
+	private static UnmodifiableItemStack callUpdateItem(UnmodifiableItemStack item) {
 		UpdateItemEvent updateItemEvent = callUpdateItemEvent(item);
 		if (!updateItemEvent.isItemAltered()) return item;
 
@@ -46,6 +58,9 @@ public class ItemUpdates {
 
 	/**
 	 * Calls an {@link UpdateItemEvent} for the given item data, but only if it is not empty.
+	 * <p>
+	 * If an {@link ItemUpdateCache} is active, the result of a previous update of similar item
+	 * data may be reused instead.
 	 * 
 	 * @param itemData
 	 *            the item data to call an item update event for
@@ -54,8 +69,18 @@ public class ItemUpdates {
 	public static @PolyNull ItemData updateItemData(@PolyNull ItemData itemData) {
 		var item = itemData == null ? null : itemData.asUnmodifiableItemStack();
 		if (ItemUtils.isEmpty(item)) return itemData;
-		assert item != null;
+		assert itemData != null && item != null;
+
+		ItemUpdateCache cache = ItemUpdateCache.getActive();
+		if (cache != null) {
+			return cache.updateItemData(itemData, ItemUpdates::callUpdateItemData);
+		}
+		return callUpdateItemData(itemData);
+	}
 
+	// The item data is not empty.
+	private static ItemData callUpdateItemData(ItemData itemData) {
+		var item = itemData.asUnmodifiableItemStack();
 		UpdateItemEvent updateItemEvent = callUpdateItemEvent(item);
 		if (!updateItemEvent.isItemAltered()) return itemData;
 
@@ -493,6 +493,9 @@ public class Messages extends Config {
 	public static Text mustHoldItemInMainHand = Text.parse("&7You must hold an item in your main hand.");
 	public static Text currencyItemSetToMainHandItem = Text.parse("&aThe currency item '&e{currencyId}&a' has been set to the &eitem in your main hand&a!");
 	public static Text itemsUpdated = Text.parse("&aUpdated &e{count}&a item(s)!");
+	// Placeholders: {processed}, {total} -> the number of processed / all shopkeepers
+	public static Text itemsUpdateProgress = Text.parse("&7Updating items: &e{processed}&7 / &e{total}&7 shopkeepers ...");
+	public static Text itemsUpdateAlreadyRunning = Text.parse("&cThe items are already being updated!");
 	public static String unknownBookAuthor = c("Unknown");
 
 	public static Text tradePermSet = Text.parse("&aThe shop's trading permission has been set to '&e{perm}&a'!");
@@ -892,6 +895,20 @@ public class Messages extends Config {
 	public static Text historyEntryAdminShop = Text.parse("&eAdmin Shop");
 	public static Text historyEntryTradeCount = Text.parse("&7 (&6{count}x&7)");
 
+	public static Text statsHeader = Text.parse("&9Trade statistics of {dimension}&9 for the {period}&9: &e{entriesCount} &e(Page {page} of {maxPage})");
+	public static Text statsDimensionShops = Text.parse("&eshops");
+	public static Text statsDimensionOwners = Text.parse("&eshop owners");
+	public static Text statsDimensionItems = Text.parse("&eitems");
+	public static Text statsPeriodHour = Text.parse("&elast hour");
+	public static Text statsPeriodDay = Text.parse("&elast 24 hours");
+	public static Text statsPeriodWeek = Text.parse("&elast 7 days");
+	public static Text statsPeriodMonth = Text.parse("&elast 30 days");
+
+	public static Text statsDisabled = Text.parse("&7The trade statistics are disabled.");
+	public static Text statsNoTradesFound = Text.parse("&7No trades found.");
+
+	public static Text statsEntry = Text.parse("  &f{index}) &e{name}&7: &6{tradesCount}&7 trades [&6{item1Amount}x&7] [&6{item2Amount}x&7] \u279e [&6{resultItemAmount}x&7]");
+
 	public static Text noPermission = Text.parse("&cYou don't have the permission to do that.");
 	public static Text commandCreateNoPermission = Text.parse("&cYou don't have the permission to do that.\n"
 			+ "&eIf you are trying to create a player shop, use the shop creation item instead.");
@@ -936,6 +953,7 @@ public class Messages extends Config {
 	public static Text commandDescriptionNotify = Text.parse("Turns trade notifications for you on or off.");
 	public static Text commandDescriptionList = Text.parse("Lists all shops of a specific player, or all admin shops.");
 	public static Text commandDescriptionHistory = Text.parse("Shows the trading history.");
+	public static Text commandDescriptionStats = Text.parse("Shows aggregated trade statistics.");
 	public static Text commandDescriptionRemove = Text.parse("Removes a specific shop.");
 	public static Text commandDescriptionRemoveAll = Text.parse("Removes all shops of a specific player, all players, or all admin shops.");
 	public static Text commandDescriptionGive = Text.parse("Gives shop creation item(s) to the specified player.");
@@ -2,10 +2,12 @@ package com.nisovin.shopkeepers.playershops;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 import java.util.function.Consumer;
 
 import org.bukkit.entity.Player;
 
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.config.Settings.DerivedSettings;
@@ -103,4 +105,23 @@ public class PlayerShopsLimit {
 		}
 		return maxShops;
 	}
+
+	/**
+	 * Gets the number of shops that count towards the maximum shops limit of the specified player.
+	 * <p>
+	 * This includes the player's shops in worlds that are currently not loaded, and whose
+	 * shopkeepers are therefore not loaded either (see
+	 * {@link Settings#loadShopkeepersWithWorlds}).
+	 * 
+	 * @param playerId
+	 *            the player's unique id, not <code>null</code>
+	 * @return the number of shops owned by the player
+	 */
+	public static int getOwnedShopsCount(UUID playerId) {
+		Validate.notNull(playerId, "playerId is null");
+		SKShopkeepersPlugin plugin = SKShopkeepersPlugin.getInstance();
+		int count = plugin.getShopkeeperRegistry().getPlayerShopkeepersByOwner(playerId).size();
+		count += plugin.getShopkeeperStorage().getNonResidentShopkeeperIdsByOwner(playerId).size();
+		return count;
+	}
 }
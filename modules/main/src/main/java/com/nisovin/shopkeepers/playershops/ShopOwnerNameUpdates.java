@@ -9,11 +9,14 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.world.WorldLoadEvent;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.dependencies.citizens.CitizensUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
@@ -59,6 +62,38 @@ public class ShopOwnerNameUpdates implements Listener {
 		this.updateShopkeepersForPlayer(player.getUniqueId(), playerName);
 	}
 
+	// If Settings#loadShopkeepersWithWorlds is enabled, the shopkeepers of worlds that were not
+	// loaded when their owners joined are only loaded now. This runs after the shopkeeper storage
+	// has loaded the shopkeepers of the world.
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onWorldLoad(WorldLoadEvent event) {
+		if (!Settings.loadShopkeepersWithWorlds) return;
+
+		String worldName = event.getWorld().getName();
+		boolean dirty = false;
+		ShopkeeperRegistry shopkeeperRegistry = plugin.getShopkeeperRegistry();
+		for (Shopkeeper shopkeeper : shopkeeperRegistry.getShopkeepersInWorld(worldName)) {
+			if (!(shopkeeper instanceof PlayerShopkeeper playerShop)) continue;
+
+			Player owner = playerShop.getOwner();
+			if (owner == null) continue; // Not online
+
+			String ownerName = playerShop.getOwnerName();
+			String playerName = Unsafe.assertNonNull(owner.getName());
+			if (!ownerName.equals(playerName)) {
+				Log.debug(DebugOptions.ownerNameUpdates, () -> playerShop.getLogPrefix()
+						+ "Updating owner name '" + ownerName + "' to '" + playerName + "'.");
+				playerShop.setOwner(owner);
+				dirty = true;
+			}
+		}
+
+		// Save:
+		if (dirty) {
+			plugin.getShopkeeperStorage().save();
+		}
+	}
+
 	// Updates owner names for the shopkeepers of the specified player:
 	private void updateShopkeepersForPlayer(UUID playerId, String playerName) {
 		Log.debug(DebugOptions.ownerNameUpdates, () -> "Updating shopkeeper owner names for: "
@@ -1,16 +1,27 @@
 package com.nisovin.shopkeepers.playershops.inactivity;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
@@ -19,22 +30,43 @@ import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.api.user.User;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
-import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
+import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
-import com.nisovin.shopkeepers.util.java.CollectionUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
  * Identifies and deletes the shops that are owned by inactive players.
+ * <p>
+ * The last played times of the shop owners are looked up in parallel on the plugin's IO executor.
+ * Shop owners that the {@link LastSeenCache} has recently seen are skipped without a lookup. The
+ * shops of the inactive players are then deleted in batches across several ticks, and the
+ * shopkeeper storage is saved once at the end.
+ * <p>
+ * This includes the shops in worlds that are not loaded (see
+ * {@link Settings#loadShopkeepersWithWorlds}): Their owners are read from the shopkeeper storage,
+ * and the shops of inactive players are loaded right before they are deleted, so that they are
+ * deleted in the same way as the other shops. Any of these shops that are not deleted, e.g.
+ * because a plugin cancelled their deletion, are afterwards unloaded again.
+ * <p>
+ * In dry-run mode, the shops that would be deleted are only reported: The report lists the inactive
+ * shop owners together with the number of days since they were last seen and their number of
+ * shopkeepers.
  */
 class DeleteShopsOfInactivePlayersProcedure {
 
+	// The number of tasks that the last played lookups are split into:
+	private static final int LOOKUP_TASKS = 8;
+	private static final long TICK_TIME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5L);
+
 	private static class InactivePlayerData {
 
 		private final int lastSeenDaysAgo;
 		private final List<PlayerShopkeeper> shopkeepers = new ArrayList<>();
+		// The shopkeepers in worlds that are not loaded:
+		private final List<Integer> nonResidentShopkeeperIds = new ArrayList<>();
 
 		InactivePlayerData(int lastSeenDaysAgo) {
 			this.lastSeenDaysAgo = lastSeenDaysAgo;
@@ -47,24 +79,67 @@ class DeleteShopsOfInactivePlayersProcedure {
 		List<PlayerShopkeeper> getShopkeepers() {
 			return shopkeepers;
 		}
+
+		List<Integer> getNonResidentShopkeeperIds() {
+			return nonResidentShopkeeperIds;
+		}
+
+		int getShopkeepersCount() {
+			return shopkeepers.size() + nonResidentShopkeeperIds.size();
+		}
 	}
 
 	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
+	private final SKShopkeeperStorage shopkeeperStorage;
+	private final LastSeenCache lastSeenCache;
 	private final int playerInactivityDays;
+	private final boolean dryRun;
+	// Also receives the messages about the outcome of this procedure, in addition to the log:
+	private final @Nullable CommandSender reportRecipient;
 
 	private boolean started = false;
+	private boolean completed = false;
+	private volatile boolean cancelled = false;
 	// Retrieved once and then reused for all inactivity checks of this procedure:
 	private final long currentTimeMillis = System.currentTimeMillis();
-	private final Map<User, @Nullable InactivePlayerData> inactivePlayers = new HashMap<>();
+	// Only accessed on the main thread:
+	private final Map<User, InactivePlayerData> inactivePlayers = new HashMap<>();
+
+	private @Nullable BukkitTask deletionTask = null;
+	private @Nullable Iterator<Entry<User, InactivePlayerData>> deletionIterator = null;
+	private int deletedShopkeepers = 0;
 
-	public DeleteShopsOfInactivePlayersProcedure(SKShopkeepersPlugin plugin) {
+	/**
+	 * Creates a new {@link DeleteShopsOfInactivePlayersProcedure}.
+	 *
+	 * @param plugin
+	 *            the plugin, not <code>null</code>
+	 * @param lastSeenCache
+	 *            the last seen cache, not <code>null</code>
+	 * @param dryRun
+	 *            <code>true</code> to only report the shops that would be deleted
+	 * @param reportRecipient
+	 *            the command sender that also receives the messages about the outcome of this
+	 *            procedure, or <code>null</code> to only log them
+	 */
+	public DeleteShopsOfInactivePlayersProcedure(
+			SKShopkeepersPlugin plugin,
+			LastSeenCache lastSeenCache,
+			boolean dryRun,
+			@Nullable CommandSender reportRecipient
+	) {
 		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(lastSeenCache, "lastSeenCache is null");
 		this.plugin = plugin;
 		this.shopkeeperRegistry = plugin.getShopkeeperRegistry();
-		// Local copy, because this setting might change while we use it, and we might access it
+		this.shopkeeperStorage = plugin.getShopkeeperStorage();
+		this.lastSeenCache = lastSeenCache;
+		// Local copy, because this setting might change while we use it, and we access it
 		// asynchronously:
 		this.playerInactivityDays = Settings.playerShopkeeperInactiveDays;
+		this.dryRun = dryRun;
+		this.reportRecipient = reportRecipient;
 	}
 
 	/**
@@ -76,72 +151,146 @@ class DeleteShopsOfInactivePlayersProcedure {
 	public void start() {
 		Validate.State.isTrue(!started, "Already started!");
 		started = true;
-		if (playerInactivityDays <= 0) return; // Feature is disabled
+		if (playerInactivityDays <= 0) { // Feature is disabled
+			completed = true;
+			return;
+		}
 
-		Log.info("Checking for shopkeepers of inactive players.");
+		Log.info("Checking for shopkeepers of inactive players" + (dryRun ? " (dry run)." : "."));
 
-		this.collectShopOwners();
-		if (inactivePlayers.isEmpty()) {
+		List<User> shopOwners = this.collectShopOwners();
+		if (shopOwners.isEmpty()) {
+			completed = true;
 			return; // There are no player shops
 		}
 
-		this.asyncCheckInactivityOfAllShopOwnersAndContinue();
+		this.asyncCheckInactivityOfShopOwnersAndContinue(shopOwners);
 	}
 
-	// This initially collects all shop owners into the inactivePlayers Map, which is subsequently
-	// pruned from shop owners that are not actually inactive.
-	private void collectShopOwners() {
-		shopkeeperRegistry.getAllPlayerShopkeepers().forEach(playerShop -> {
-			// In this first step, we only collect the existing shop owners, and don't store their
-			// shopkeepers yet. Later, we collect the shopkeepers of only the inactive shop owners.
-			inactivePlayers.put(playerShop.getOwnerUser(), null);
-		});
+	/**
+	 * Checks if this procedure has been started and has not yet completed or been cancelled.
+	 *
+	 * @return <code>true</code> if this procedure is still running
+	 */
+	public boolean isRunning() {
+		return started && !completed && !cancelled;
 	}
 
-	private void asyncCheckInactivityOfAllShopOwnersAndContinue() {
-		// We retrieve the OfflinePlayers and their 'last played' times asynchronously:
-		new BukkitRunnable() {
-			@Override
-			public void run() {
-				// Set up the data for all inactive shop owners, and remove all shop owners that are
-				// not inactive:
-				setUpInactiveShopOwners();
+	/**
+	 * Cancels this procedure if it is still running.
+	 * <p>
+	 * Shopkeepers that have already been deleted remain deleted.
+	 */
+	public void cancel() {
+		if (!this.isRunning()) return;
+		cancelled = true;
+
+		BukkitTask deletionTask = this.deletionTask;
+		if (deletionTask != null) {
+			deletionTask.cancel();
+			this.deletionTask = null;
+			Log.info("Deletion of shopkeepers of inactive players cancelled after "
+					+ deletedShopkeepers + " shopkeepers.");
+			if (deletedShopkeepers > 0) {
+				plugin.getShopkeeperStorage().saveIfDirty();
+			}
+		}
+	}
 
-				// Abort if no inactive players were found:
-				if (inactivePlayers.isEmpty()) return;
+	private List<User> collectShopOwners() {
+		// In this first step, we only collect the existing shop owners, and don't store their
+		// shopkeepers yet. Later, we collect the shopkeepers of only the inactive shop owners.
+		Set<User> shopOwners = new LinkedHashSet<>();
+		Set<UUID> shopOwnerIds = new HashSet<>();
+		shopkeeperRegistry.getAllPlayerShopkeepers().forEach(playerShop -> {
+			shopOwners.add(playerShop.getOwnerUser());
+			shopOwnerIds.add(playerShop.getOwnerUUID());
+		});
 
-				// Abort if the task has been cancelled in the meantime (e.g. if the plugin has been
-				// disabled or reloaded):
-				if (this.isCancelled()) return;
+		// Owners of shops in worlds that are not loaded:
+		shopkeeperStorage.getNonResidentShopkeeperOwners().forEach(ownerId -> {
+			if (shopOwnerIds.contains(ownerId)) return;
 
-				SchedulerUtils.runTaskOrOmit(plugin, () -> continueWithInactiveShopOwners());
+			for (int shopkeeperId : shopkeeperStorage.getNonResidentShopkeeperIdsByOwner(ownerId)) {
+				User owner = shopkeeperStorage.getNonResidentShopkeeperOwner(shopkeeperId);
+				if (owner != null) {
+					shopOwners.add(owner);
+					shopOwnerIds.add(ownerId);
+					break;
+				}
 			}
-		}.runTaskAsynchronously(plugin);
+		});
+		return new ArrayList<>(shopOwners);
 	}
 
-	// This may be called asynchronously.
-	// Sets up the data for all inactive shop owners, and removes all shop owners that are not
-	// inactive.
-	private void setUpInactiveShopOwners() {
-		Iterator<Entry<User, @Nullable InactivePlayerData>> iterator = inactivePlayers.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Entry<User, @Nullable InactivePlayerData> entry = iterator.next();
-			User user = entry.getKey();
+	private void asyncCheckInactivityOfShopOwnersAndContinue(List<User> shopOwners) {
+		// We retrieve the OfflinePlayers and their 'last played' times asynchronously. Each task
+		// checks a separate part of the shop owners and returns its own result:
+		int batchSize = (shopOwners.size() + LOOKUP_TASKS - 1) / LOOKUP_TASKS;
+		List<CompletableFuture<Map<User, InactivePlayerData>>> lookups = new ArrayList<>();
+		try {
+			for (int start = 0; start < shopOwners.size(); start += batchSize) {
+				List<User> batch = shopOwners.subList(
+						start,
+						Math.min(start + batchSize, shopOwners.size())
+				);
+				lookups.add(CompletableFuture.supplyAsync(
+						() -> this.findInactivePlayers(batch),
+						plugin.getIOExecutor()
+				));
+			}
+		} catch (RejectedExecutionException e) {
+			cancelled = true;
+			Log.warning("Could not check for shopkeepers of inactive players!", e);
+			this.sendToReportRecipient("Could not check for shopkeepers of inactive players!"
+					+ " Check the server log for details.");
+			return;
+		}
+
+		CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0]))
+				.whenCompleteAsync((result, error) -> {
+					if (cancelled) return; // E.g. if the plugin has been disabled or reloaded
+
+					if (error != null) {
+						cancelled = true;
+						Log.warning("Failed to check for shopkeepers of inactive players!", error);
+						this.sendToReportRecipient("Failed to check for shopkeepers of inactive"
+								+ " players! Check the server log for details.");
+						return;
+					}
+
+					lookups.forEach(lookup -> inactivePlayers.putAll(lookup.join()));
+					this.continueWithInactiveShopOwners();
+				}, plugin.getSyncExecutor());
+	}
+
+	// This is called asynchronously.
+	// Returns the data of the inactive players among the given users.
+	private Map<User, InactivePlayerData> findInactivePlayers(Collection<? extends User> users) {
+		Map<User, InactivePlayerData> inactivePlayers = new HashMap<>();
+		for (User user : users) {
+			if (cancelled) break;
+
 			InactivePlayerData data = this.setUpIfInactive(user);
-			if (data == null) {
-				// The user is not inactive:
-				iterator.remove();
-			} else {
-				entry.setValue(data);
+			if (data != null) {
+				inactivePlayers.put(user, data);
 			}
 		}
-		assert !CollectionUtils.containsNull(inactivePlayers.values());
+		return inactivePlayers;
 	}
 
-	// This may be called asynchronously.
+	// This is called asynchronously.
 	// Returns null if the given user is not inactive.
 	private @Nullable InactivePlayerData setUpIfInactive(User user) {
 		assert user != null;
+		UUID playerId = user.getUniqueId();
+		// Skip the comparatively costly lookup for players that have recently been seen:
+		long cachedLastSeenMillis = lastSeenCache.getLastSeen(playerId);
+		if (cachedLastSeenMillis != 0L
+				&& this.getDaysSince(cachedLastSeenMillis) < playerInactivityDays) {
+			return null;
+		}
+
 		OfflinePlayer offlinePlayer = user.getOfflinePlayer();
 		// Some servers may delete player data files, either regularly for all players (which breaks
 		// this feature), or for particular players (for example to reset or fix some issue with
@@ -152,19 +301,47 @@ class DeleteShopsOfInactivePlayersProcedure {
 		long lastPlayedMillis = offlinePlayer.getLastPlayed();
 		if (lastPlayedMillis == 0) return null; // 0 if unknown (see reasoning above)
 
-		long millisSinceLastPlayed = currentTimeMillis - lastPlayedMillis;
-		int daysSinceLastPlayed = (int) TimeUnit.MILLISECONDS.toDays(millisSinceLastPlayed);
-		if (daysSinceLastPlayed < playerInactivityDays) return null;
+		lastSeenCache.update(playerId, lastPlayedMillis);
+		long lastSeenMillis = Math.max(lastPlayedMillis, cachedLastSeenMillis);
+		int daysSinceLastSeen = this.getDaysSince(lastSeenMillis);
+		if (daysSinceLastSeen < playerInactivityDays) return null;
+
+		return new InactivePlayerData(daysSinceLastSeen);
+	}
 
-		return new InactivePlayerData(daysSinceLastPlayed);
+	private int getDaysSince(long timestampMillis) {
+		return (int) TimeUnit.MILLISECONDS.toDays(currentTimeMillis - timestampMillis);
 	}
 
 	private void continueWithInactiveShopOwners() {
 		assert Bukkit.isPrimaryThread();
-		assert !inactivePlayers.isEmpty();
-		assert !CollectionUtils.containsNull(inactivePlayers.values());
+		// Persist the last played times that we looked up:
+		try {
+			plugin.getIOExecutor().execute(lastSeenCache::saveIfDirty);
+		} catch (RejectedExecutionException e) {
+			// Saved during the next check or when the plugin is disabled.
+			Log.debug("Could not save the last seen times of players: " + e.getMessage());
+		}
+
+		if (inactivePlayers.isEmpty()) {
+			completed = true;
+			this.report("Found no inactive players with shopkeepers.");
+			return;
+		}
+
 		this.collectShopsOfInactivePlayers();
-		this.deleteShopsOfInactivePlayers();
+		if (dryRun) {
+			this.reportShopsOfInactivePlayers();
+			completed = true;
+		} else {
+			deletionIterator = inactivePlayers.entrySet().iterator();
+			deletionTask = Bukkit.getScheduler().runTaskTimer(
+					plugin,
+					this::deleteNextShopsOfInactivePlayers,
+					1L,
+					1L
+			);
+		}
 	}
 
 	private void collectShopsOfInactivePlayers() {
@@ -176,55 +353,200 @@ class DeleteShopsOfInactivePlayersProcedure {
 				inactivePlayerData.getShopkeepers().add(playerShop);
 			}
 		});
+
+		// The shops in worlds that are not loaded are only loaded when they are deleted:
+		Map<UUID, InactivePlayerData> inactivePlayersById = new HashMap<>();
+		inactivePlayers.forEach((user, inactivePlayerData) -> {
+			inactivePlayersById.putIfAbsent(user.getUniqueId(), inactivePlayerData);
+		});
+		inactivePlayersById.forEach((playerId, inactivePlayerData) -> {
+			inactivePlayerData.getNonResidentShopkeeperIds().addAll(
+					shopkeeperStorage.getNonResidentShopkeeperIdsByOwner(playerId)
+			);
+		});
 		// Note: For some inactive shop owners we might no longer find any shopkeepers. Their
 		// entries will then not contain any shopkeepers.
 	}
 
-	private void deleteShopsOfInactivePlayers() {
-		inactivePlayers.forEach((user, nullableInactivePlayerData) -> {
-			InactivePlayerData inactivePlayerData = Unsafe.assertNonNull(nullableInactivePlayerData);
-			List<? extends PlayerShopkeeper> shopkeepers = inactivePlayerData.getShopkeepers();
-			if (shopkeepers.isEmpty()) {
-				// We initially found this shop owner and identified them as inactive, but were then
-				// subsequently no longer able to find any shopkeepers that are still owned by them.
-				return;
+	// Reports the shops that would be deleted, starting with the longest inactive shop owners.
+	private void reportShopsOfInactivePlayers() {
+		List<Entry<User, InactivePlayerData>> shopOwners = new ArrayList<>();
+		int totalShopkeepers = 0;
+		for (Entry<User, InactivePlayerData> entry : inactivePlayers.entrySet()) {
+			int shopkeepersCount = entry.getValue().getShopkeepersCount();
+			if (shopkeepersCount == 0) continue;
+
+			shopOwners.add(entry);
+			totalShopkeepers += shopkeepersCount;
+		}
+		shopOwners.sort(Comparator.comparingInt(
+				(Entry<User, InactivePlayerData> entry) -> entry.getValue().getLastSeenDaysAgo()
+		).reversed());
+
+		this.report("Dry run: Shop owners that have not been seen for at least "
+				+ playerInactivityDays + " days:");
+		for (Entry<User, InactivePlayerData> entry : shopOwners) {
+			InactivePlayerData inactivePlayerData = entry.getValue();
+			this.report("- " + TextUtils.getPlayerString(entry.getKey()) + ": Last seen "
+					+ inactivePlayerData.getLastSeenDaysAgo() + " days ago, "
+					+ inactivePlayerData.getShopkeepersCount() + " shopkeepers");
+		}
+		this.report("Dry run: Would delete " + totalShopkeepers + " shopkeepers of "
+				+ shopOwners.size() + " inactive players. No shopkeepers were deleted.");
+	}
+
+	private void report(String message) {
+		Log.info(message);
+		this.sendToReportRecipient(message);
+	}
+
+	private void sendToReportRecipient(String message) {
+		CommandSender reportRecipient = this.reportRecipient;
+		// The console already receives the log messages:
+		if (reportRecipient == null || reportRecipient instanceof ConsoleCommandSender) return;
+		reportRecipient.sendMessage(message);
+	}
+
+	private void deleteNextShopsOfInactivePlayers() {
+		Iterator<Entry<User, InactivePlayerData>> iterator = this.deletionIterator;
+		if (deletionTask == null || iterator == null) return; // Cancelled
+
+		long deadlineNanos = System.nanoTime() + TICK_TIME_BUDGET_NANOS;
+		while (iterator.hasNext()) {
+			Entry<User, InactivePlayerData> entry = iterator.next();
+			this.deleteShopsOfInactivePlayer(entry.getKey(), entry.getValue());
+
+			if (System.nanoTime() - deadlineNanos >= 0L) break;
+		}
+
+		if (!iterator.hasNext()) {
+			this.completeDeletion();
+		}
+	}
+
+	private void deleteShopsOfInactivePlayer(User user, InactivePlayerData inactivePlayerData) {
+		Set<String> unloadedWorlds = this.loadNonResidentShopkeepers(user, inactivePlayerData);
+
+		this.deleteLoadedShopsOfInactivePlayer(user, inactivePlayerData);
+
+		// Unload the shopkeepers in unloaded worlds again that were not deleted:
+		unloadedWorlds.forEach(worldName -> {
+			if (Bukkit.getWorld(worldName) != null) return; // The world has been loaded meanwhile
+			shopkeeperStorage.unloadWorldShopkeepers(worldName);
+		});
+	}
+
+	// Returns the names of the worlds of the loaded shopkeepers.
+	private Set<String> loadNonResidentShopkeepers(
+			User user,
+			InactivePlayerData inactivePlayerData
+	) {
+		List<Integer> shopkeeperIds = inactivePlayerData.getNonResidentShopkeeperIds();
+		if (shopkeeperIds.isEmpty()) return Collections.emptySet();
+
+		Set<String> worldNames = new HashSet<>();
+		for (int shopkeeperId : shopkeeperIds) {
+			// Null if the shopkeeper is no longer non-resident, or if it failed to load:
+			AbstractShopkeeper shopkeeper = shopkeeperStorage.loadNonResidentShopkeeper(
+					shopkeeperId
+			);
+			if (shopkeeper == null) continue;
+
+			String worldName = shopkeeper.getWorldName();
+			if (worldName != null) {
+				worldNames.add(worldName);
 			}
 
-			int originalShopkeepersCount = shopkeepers.size();
+			if (shopkeeper instanceof PlayerShopkeeper playerShop
+					&& playerShop.getOwnerUUID().equals(user.getUniqueId())) {
+				inactivePlayerData.getShopkeepers().add(playerShop);
+			}
+		}
+		shopkeeperIds.clear();
+		return worldNames;
+	}
+
+	private void deleteLoadedShopsOfInactivePlayer(
+			User user,
+			InactivePlayerData inactivePlayerData
+	) {
+		List<? extends PlayerShopkeeper> shopkeepers = inactivePlayerData.getShopkeepers();
+		if (shopkeepers.isEmpty()) {
+			// We initially found this shop owner and identified them as inactive, but were then
+			// subsequently no longer able to find any shopkeepers that are still owned by them.
+			return;
+		}
+
+		int originalShopkeepersCount = shopkeepers.size();
 
-			// Call event:
-			PlayerInactiveEvent event = new PlayerInactiveEvent(user, shopkeepers);
-			Bukkit.getPluginManager().callEvent(event);
+		// Call event:
+		PlayerInactiveEvent event = new PlayerInactiveEvent(user, shopkeepers);
+		Bukkit.getPluginManager().callEvent(event);
 
-			if (event.isCancelled() || shopkeepers.isEmpty()) {
-				Log.debug(() -> "Ignoring inactive player " + TextUtils.getPlayerString(user)
-						+ " (last seen " + inactivePlayerData.getLastSeenDaysAgo() + " days ago)"
-						+ " and their " + originalShopkeepersCount + " shopkeepers"
-						+ (shopkeepers.size() != originalShopkeepersCount
-								? " (reduced to " + shopkeepers.size() + ")" : "")
-						+ ": Cancelled by a plugin.");
+		if (event.isCancelled() || shopkeepers.isEmpty()) {
+			Log.debug(() -> "Ignoring inactive player " + TextUtils.getPlayerString(user)
+					+ " (last seen " + inactivePlayerData.getLastSeenDaysAgo() + " days ago)"
+					+ " and their " + originalShopkeepersCount + " shopkeepers"
+					+ (shopkeepers.size() != originalShopkeepersCount
+							? " (reduced to " + shopkeepers.size() + ")" : "")
+					+ ": Cancelled by a plugin.");
+			return;
+		}
+
+		// Delete the shopkeepers:
+		shopkeepers.forEach(playerShop -> {
+			String skipReason = this.getDeletionSkipReason(user, playerShop);
+			if (skipReason != null) {
+				Log.debug(() -> playerShop.getUniqueIdLogPrefix()
+						+ "Deletion due to inactivity of owner " + TextUtils.getPlayerString(user)
+						+ " (last seen " + inactivePlayerData.getLastSeenDaysAgo()
+						+ " days ago)" + " skipped: " + skipReason);
 				return;
 			}
 
-			// Delete the shopkeepers:
-			shopkeepers.forEach(playerShop -> {
-				if (!playerShop.isValid()) {
-					// The shopkeeper has already been removed in the meantime.
-					Log.debug(() -> playerShop.getUniqueIdLogPrefix()
-							+ "Deletion due to inactivity of owner " + playerShop.getOwnerString()
-							+ " (last seen " + inactivePlayerData.getLastSeenDaysAgo()
-							+ " days ago)" + " skipped: The shopkeeper has already been removed.");
-					return;
-				}
-
-				Log.info(playerShop.getUniqueIdLogPrefix() + "Deletion due to inactivity of owner "
-						+ playerShop.getOwnerString() + " (last seen "
-						+ inactivePlayerData.getLastSeenDaysAgo() + " days ago).");
-				playerShop.delete();
-			});
+			Log.info(playerShop.getUniqueIdLogPrefix() + "Deletion due to inactivity of owner "
+					+ playerShop.getOwnerString() + " (last seen "
+					+ inactivePlayerData.getLastSeenDaysAgo() + " days ago).");
+			playerShop.delete();
+			deletedShopkeepers++;
 		});
+	}
+
+	// The shopkeepers are deleted several ticks after the inactivity check, and plugins may have
+	// modified them during the event. Returns null if the shopkeeper can still be deleted.
+	private @Nullable String getDeletionSkipReason(User user, PlayerShopkeeper playerShop) {
+		if (!playerShop.isValid()) {
+			return "The shopkeeper has already been removed.";
+		}
+
+		UUID playerId = user.getUniqueId();
+		if (!playerShop.getOwnerUUID().equals(playerId)) {
+			return "The shopkeeper has a different owner now: " + playerShop.getOwnerString();
+		}
+
+		if (Bukkit.getPlayer(playerId) != null) {
+			return "The owner is online.";
+		}
+
+		// Updated when the player joins or quits the server:
+		long lastSeenMillis = lastSeenCache.getLastSeen(playerId);
+		if (lastSeenMillis != 0L && this.getDaysSince(lastSeenMillis) < playerInactivityDays) {
+			return "The owner has been seen recently.";
+		}
+		return null;
+	}
+
+	private void completeDeletion() {
+		BukkitTask deletionTask = Unsafe.assertNonNull(this.deletionTask);
+		deletionTask.cancel();
+		this.deletionTask = null;
+		this.deletionIterator = null;
+		completed = true;
+
+		this.report("Deleted " + deletedShopkeepers + " shopkeepers of " + inactivePlayers.size()
+				+ " inactive players.");
 
-		// Save if necessary:
+		// Save once for all deleted shopkeepers, if necessary:
 		plugin.getShopkeeperStorage().saveIfDirty();
 	}
 }
@@ -0,0 +1,130 @@
+package com.nisovin.shopkeepers.playershops.inactivity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.nisovin.shopkeepers.util.java.FileUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Remembers when players were last seen on the server.
+ * <p>
+ * This is updated when players join and quit the server, and when the last played time of a
+ * player has been looked up. The inactivity check can then skip the comparatively costly lookup of
+ * the last played time for players who have recently been seen.
+ * <p>
+ * The cache is persisted to a file inside the plugin's data folder. Each line stores a player's
+ * unique id and last seen timestamp, separated by a comma. The cache can be queried and updated
+ * from any thread.
+ */
+class LastSeenCache {
+
+	private static final String FILE_NAME = "last-seen.csv";
+
+	private final Path pluginDataFolder;
+	private final Path file;
+	private final Map<UUID, Long> lastSeenMillis = new ConcurrentHashMap<>();
+	private volatile boolean dirty = false;
+
+	LastSeenCache(Path pluginDataFolder) {
+		Validate.notNull(pluginDataFolder, "pluginDataFolder is null");
+		this.pluginDataFolder = pluginDataFolder;
+		this.file = pluginDataFolder.resolve("data").resolve(FILE_NAME);
+	}
+
+	/**
+	 * Gets the timestamp at which the specified player was last seen.
+	 *
+	 * @param playerId
+	 *            the player's unique id
+	 * @return the timestamp in milliseconds, or <code>0</code> if unknown
+	 */
+	long getLastSeen(UUID playerId) {
+		Long lastSeen = lastSeenMillis.get(playerId);
+		return (lastSeen != null) ? lastSeen : 0L;
+	}
+
+	/**
+	 * Updates the timestamp at which the specified player was last seen.
+	 * <p>
+	 * The timestamp is ignored if it is older than the already known timestamp.
+	 *
+	 * @param playerId
+	 *            the player's unique id
+	 * @param timestampMillis
+	 *            the timestamp in milliseconds
+	 */
+	void update(UUID playerId, long timestampMillis) {
+		if (timestampMillis <= 0L) return;
+		long newLastSeen = lastSeenMillis.merge(playerId, timestampMillis, Math::max);
+		if (newLastSeen == timestampMillis) {
+			dirty = true;
+		}
+	}
+
+	int getSize() {
+		return lastSeenMillis.size();
+	}
+
+	void load() {
+		lastSeenMillis.clear();
+		dirty = false;
+		if (!Files.exists(file)) return;
+
+		int invalidLines = 0;
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int separatorIndex = line.indexOf(',');
+				if (separatorIndex < 0) {
+					invalidLines++;
+					continue;
+				}
+				try {
+					UUID playerId = UUID.fromString(line.substring(0, separatorIndex));
+					long lastSeen = Long.parseLong(line.substring(separatorIndex + 1).trim());
+					lastSeenMillis.put(playerId, lastSeen);
+				} catch (IllegalArgumentException e) {
+					invalidLines++;
+				}
+			}
+		} catch (IOException e) {
+			Log.warning("Failed to load the last seen times of players from "
+					+ FileUtils.relativize(pluginDataFolder, file) + "!", e);
+			return;
+		}
+
+		if (invalidLines > 0) {
+			Log.warning("Ignored " + invalidLines + " invalid entries when loading the last seen"
+					+ " times of players from " + FileUtils.relativize(pluginDataFolder, file) + ".");
+		}
+	}
+
+	// Synchronized to not write the file concurrently from multiple threads.
+	synchronized void saveIfDirty() {
+		if (!dirty) return;
+		dirty = false;
+
+		try {
+			FileUtils.writeSafely(file, writer -> {
+				for (var entry : lastSeenMillis.entrySet()) {
+					writer.write(entry.getKey().toString());
+					writer.write(',');
+					writer.write(String.valueOf(entry.getValue()));
+					writer.write('\n');
+				}
+			}, StandardCharsets.UTF_8, Log.getLogger(), pluginDataFolder);
+		} catch (IOException e) {
+			dirty = true; // Try again during the next save
+			Log.warning("Failed to save the last seen times of players to "
+					+ FileUtils.relativize(pluginDataFolder, file) + "!", e);
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package com.nisovin.shopkeepers.playershops.inactivity;
 
 import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -9,6 +11,7 @@ import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.util.bukkit.Ticks;
 import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
  * Handles the removal of shops that are owned by inactive players.
@@ -17,22 +20,70 @@ public class PlayerInactivity {
 
 	private final SKShopkeepersPlugin plugin;
 	private final DeleteInactivePlayerShopsTask task;
+	private final LastSeenCache lastSeenCache;
+	private @Nullable DeleteShopsOfInactivePlayersProcedure procedure = null;
 
 	public PlayerInactivity(SKShopkeepersPlugin plugin) {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
 		this.task = new DeleteInactivePlayerShopsTask(plugin);
+		this.lastSeenCache = new LastSeenCache(plugin.getDataFolder().toPath());
 	}
 
 	public void onEnable() {
 		if (Settings.playerShopkeeperInactiveDays <= 0) return; // Feature is disabled
 
+		lastSeenCache.load();
+		// Players that are already online (e.g. after a reload) are seen now:
+		long nowMillis = System.currentTimeMillis();
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			lastSeenCache.update(player.getUniqueId(), nowMillis);
+		}
+
 		// Delete inactive player shops, once shortly after plugin startup, and then periodically:
 		task.start();
 	}
 
 	public void onDisable() {
 		task.stop();
+		this.cancelProcedure();
+
+		// Players that are still online are seen now:
+		if (Settings.playerShopkeeperInactiveDays > 0) {
+			long nowMillis = System.currentTimeMillis();
+			for (Player player : Bukkit.getOnlinePlayers()) {
+				lastSeenCache.update(player.getUniqueId(), nowMillis);
+			}
+		}
+		// Saved synchronously, since the plugin's async executors have already been shut down:
+		lastSeenCache.saveIfDirty();
+	}
+
+	/**
+	 * Cancels the deletion of the shops of inactive players, if it is currently in progress.
+	 * <p>
+	 * During plugin disable, this needs to be called before the shopkeeper registry and storage are
+	 * disabled, because the cancellation saves the shopkeepers that have already been deleted.
+	 */
+	public void cancelProcedure() {
+		DeleteShopsOfInactivePlayersProcedure procedure = this.procedure;
+		if (procedure != null) {
+			procedure.cancel();
+			this.procedure = null;
+		}
+	}
+
+	public void onPlayerJoin(Player player) {
+		this.updateLastSeen(player);
+	}
+
+	public void onPlayerQuit(Player player) {
+		this.updateLastSeen(player);
+	}
+
+	private void updateLastSeen(Player player) {
+		if (Settings.playerShopkeeperInactiveDays <= 0) return; // Feature is disabled
+		lastSeenCache.update(player.getUniqueId(), System.currentTimeMillis());
 	}
 
 	/**
@@ -81,9 +132,45 @@ public class PlayerInactivity {
 		}
 	}
 
-	// TODO Also add a command to manually detect and then optionally delete inactive player shops?
 	public void deleteShopsOfInactivePlayers() {
-		if (Settings.playerShopkeeperInactiveDays <= 0) return; // Feature is disabled
-		new DeleteShopsOfInactivePlayersProcedure(plugin).start();
+		this.startProcedure(Settings.playerShopkeeperInactiveDryRun, null);
+	}
+
+	/**
+	 * Checks which shops would be deleted due to the inactivity of their owners, without deleting
+	 * them.
+	 * <p>
+	 * The outcome is reported to the log and to the given command sender.
+	 * 
+	 * @param sender
+	 *            the command sender, not <code>null</code>
+	 * @return <code>false</code> if the check could not be started, because the feature is
+	 *         disabled or another check is still in progress
+	 */
+	public boolean checkShopsOfInactivePlayers(CommandSender sender) {
+		Validate.notNull(sender, "sender is null");
+		return this.startProcedure(true, sender);
+	}
+
+	private boolean startProcedure(boolean dryRun, @Nullable CommandSender reportRecipient) {
+		if (Settings.playerShopkeeperInactiveDays <= 0) return false; // Feature is disabled
+
+		// Skip if the previous check is still in progress:
+		DeleteShopsOfInactivePlayersProcedure procedure = this.procedure;
+		if (procedure != null && procedure.isRunning()) {
+			Log.debug("Skipping the check for shopkeepers of inactive players: The previous check"
+					+ " is still in progress.");
+			return false;
+		}
+
+		procedure = new DeleteShopsOfInactivePlayersProcedure(
+				plugin,
+				lastSeenCache,
+				dryRun,
+				reportRecipient
+		);
+		this.procedure = procedure;
+		procedure.start();
+		return true;
 	}
 }
@@ -1,6 +1,7 @@
 package com.nisovin.shopkeepers.shopkeeper;
 
 import java.time.Instant;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -156,14 +157,15 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	private boolean open = true;
 	private String name = ""; // Not null, can be empty
 
-	private final List<SKShopkeeperSnapshot> snapshots = new ArrayList<>();
-	private final List<? extends SKShopkeeperSnapshot> snapshotsView = Collections.unmodifiableList(snapshots);
+	// Most shopkeepers have no snapshots. The list is therefore only created once the first
+	// snapshot is added. The view remains the same and reflects the list once it has been created.
+	private @Nullable List<SKShopkeeperSnapshot> snapshots = null;
+	private final List<? extends SKShopkeeperSnapshot> snapshotsView = new SnapshotsView();
 
 	private final ShopkeeperComponentHolder components = new ShopkeeperComponentHolder(Unsafe.initialized(this));
 
-	// Map of dynamically evaluated message arguments:
-	private final Map<String, Supplier<@NonNull ?>> messageArgumentsMap = new HashMap<>();
-	private final MessageArguments messageArguments = MessageArguments.ofMap(messageArgumentsMap);
+	// Dynamically evaluated message arguments, only created when first requested:
+	private @Nullable MessageArguments messageArguments = null;
 
 	// Whether there have been changes to the shopkeeper's data that the storage is not yet aware
 	// of. A value of 'false' only indicates that the storage is aware of the latest data of the
@@ -175,7 +177,8 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	private boolean ticking = false;
 
 	// UI type identifier -> ViewProvider
-	private final Map<String, ViewProvider> viewProviders = new HashMap<>();
+	// Shopkeepers usually only register a few view providers:
+	private final Map<String, ViewProvider> viewProviders = new HashMap<>(4);
 
 	// Internally used for load balancing purposes:
 	private final int tickingGroup = ShopkeeperTicker.nextTickingGroup();
@@ -622,8 +625,6 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	 */
 	@Override
 	public final int updateItems() {
-		this.abortUISessionsDelayed();
-
 		// We also need to update the item data inside snapshots. To only implement the item update
 		// logic once, we save the current shopkeeper state, perform the item updates on the saved
 		// state, and then re-apply the updated state.
@@ -632,6 +633,8 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 
 		int updatedItems = this.updateItems(this.getLogPrefix(), dynamicShopkeeperData);
 		if (updatedItems > 0) {
+			// Only shopkeepers whose items have actually changed are re-loaded:
+			this.abortUISessionsDelayed();
 			try {
 				this.loadDynamicState(dynamicShopkeeperData);
 			} catch (InvalidDataException e) {
@@ -641,7 +644,10 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		}
 
 		int snapshotId = 0;
-		var snapshotIterator = snapshots.listIterator();
+		var snapshots = this.snapshots;
+		var snapshotIterator = (snapshots != null)
+				? snapshots.listIterator()
+				: Collections.<SKShopkeeperSnapshot>emptyListIterator();
 		while (snapshotIterator.hasNext()) {
 			var snapshot = Unsafe.assertNonNull(snapshotIterator.next());
 			snapshotId++;
@@ -661,6 +667,9 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 						updatedSnaphotShopkeeperData
 				);
 				snapshotIterator.set(updatedSnapshot);
+				if (updatedItems == 0) {
+					this.abortUISessionsDelayed();
+				}
 				updatedItems += snapshotUpdatedItems;
 			}
 		}
@@ -1231,9 +1240,13 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	 */
 	public final MessageArguments getMessageArguments(String contextPrefix) {
 		// Lazily populated map of message argument suppliers:
-		if (messageArgumentsMap.isEmpty()) {
+		MessageArguments messageArguments = this.messageArguments;
+		if (messageArguments == null) {
+			Map<String, Supplier<@NonNull ?>> messageArgumentsMap = new HashMap<>();
 			this.populateMessageArguments(messageArgumentsMap);
 			assert !messageArgumentsMap.isEmpty();
+			messageArguments = MessageArguments.ofMap(messageArgumentsMap);
+			this.messageArguments = messageArguments;
 		}
 		return messageArguments.prefixed(contextPrefix);
 	}
@@ -1434,7 +1447,7 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	private void loadSnapshots(ShopkeeperData shopkeeperData) throws InvalidDataException {
 		assert shopkeeperData != null;
 		List<? extends SKShopkeeperSnapshot> loadedSnapshots = shopkeeperData.get(SNAPSHOTS);
-		snapshots.clear();
+		this.clearSnapshots();
 		try {
 			// Applies additional shopkeeper specific validations:
 			loadedSnapshots.forEach(this::_addSnapshot);
@@ -1524,19 +1537,50 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		Validate.isTrue(this.getSnapshot(snapshotName) == null,
 				() -> "There already exists a snapshot with this name: " + snapshotName);
 
+		List<SKShopkeeperSnapshot> snapshots = this.snapshots;
+		if (snapshots == null) {
+			snapshots = new ArrayList<>(1);
+			this.snapshots = snapshots;
+		}
 		snapshots.add(skSnapshot);
 	}
 
+	private final class SnapshotsView extends AbstractList<SKShopkeeperSnapshot> {
+
+		@Override
+		public SKShopkeeperSnapshot get(int index) {
+			List<SKShopkeeperSnapshot> snapshots = AbstractShopkeeper.this.snapshots;
+			if (snapshots == null) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length 0");
+			}
+			return snapshots.get(index);
+		}
+
+		@Override
+		public int size() {
+			List<SKShopkeeperSnapshot> snapshots = AbstractShopkeeper.this.snapshots;
+			return (snapshots != null) ? snapshots.size() : 0;
+		}
+	}
+
+	private void clearSnapshots() {
+		List<SKShopkeeperSnapshot> snapshots = this.snapshots;
+		if (snapshots != null) {
+			snapshots.clear();
+		}
+	}
+
 	@Override
 	public final SKShopkeeperSnapshot removeSnapshot(int index) {
-		SKShopkeeperSnapshot snapshot = snapshots.remove(index);
+		SKShopkeeperSnapshot snapshot = snapshotsView.get(index); // Validates the index
+		Unsafe.assertNonNull(snapshots).remove(index);
 		this.markDirty();
 		return snapshot;
 	}
 
 	@Override
 	public final void removeAllSnapshots() {
-		snapshots.clear();
+		this.clearSnapshots();
 		this.markDirty();
 	}
 
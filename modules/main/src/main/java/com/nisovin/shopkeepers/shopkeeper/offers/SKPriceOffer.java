@@ -29,6 +29,7 @@ import com.nisovin.shopkeepers.util.data.serialization.java.DataContainerSeriali
 import com.nisovin.shopkeepers.util.data.serialization.java.NumberSerializers;
 import com.nisovin.shopkeepers.util.inventory.ItemMigration;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
+import com.nisovin.shopkeepers.util.inventory.UnmodifiableItemStackPool;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
@@ -142,8 +143,10 @@ public class SKPriceOffer implements PriceOffer {
 			DataContainer offerData = DataContainerSerializers.DEFAULT.deserialize(data);
 			try {
 				// The item stack is assumed to be immutable and therefore does not need to be
-				// copied.
-				UnmodifiableItemStack item = offerData.get(ITEM);
+				// copied. Equal items of different offers share the same instance.
+				UnmodifiableItemStack item = UnmodifiableItemStackPool.internNonNull(
+						offerData.get(ITEM)
+				);
 				int price = offerData.get(PRICE);
 				return new SKPriceOffer(item, price);
 			} catch (MissingDataException e) {
@@ -29,6 +29,7 @@ import com.nisovin.shopkeepers.util.data.serialization.bukkit.ItemStackSerialize
 import com.nisovin.shopkeepers.util.data.serialization.java.DataContainerSerializers;
 import com.nisovin.shopkeepers.util.inventory.ItemMigration;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
+import com.nisovin.shopkeepers.util.inventory.UnmodifiableItemStackPool;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
@@ -161,10 +162,15 @@ public class SKTradeOffer extends SKTradingRecipe implements TradeOffer {
 			DataContainer offerData = DataContainerSerializers.DEFAULT.deserialize(data);
 			try {
 				// The item stacks are assumed to be immutable and therefore do not need to be
-				// copied.
-				UnmodifiableItemStack resultItem = offerData.get(RESULT_ITEM);
-				UnmodifiableItemStack item1 = offerData.get(ITEM1);
-				UnmodifiableItemStack item2 = offerData.get(ITEM2); // Can be null
+				// copied. Equal items of different offers share the same instance.
+				UnmodifiableItemStack resultItem = UnmodifiableItemStackPool.internNonNull(
+						offerData.get(RESULT_ITEM)
+				);
+				UnmodifiableItemStack item1 = UnmodifiableItemStackPool.internNonNull(
+						offerData.get(ITEM1)
+				);
+				// Can be null:
+				UnmodifiableItemStack item2 = UnmodifiableItemStackPool.intern(offerData.get(ITEM2));
 				return new SKTradeOffer(resultItem, item1, item2);
 			} catch (MissingDataException e) {
 				throw new InvalidDataException(e.getMessage(), e);
@@ -70,7 +70,6 @@ import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
 import com.nisovin.shopkeepers.util.inventory.ItemMigration;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.CyclicCounter;
-import com.nisovin.shopkeepers.util.java.RateLimiter;
 import com.nisovin.shopkeepers.util.java.StringUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
@@ -94,11 +93,9 @@ public abstract class AbstractPlayerShopkeeper
 	private boolean notifyOnTrades = NOTIFY_ON_TRADES.getDefaultValue();
 	private @Nullable UnmodifiableItemStack hireCost = null; // Null if not for hire
 
-	// Initial threshold between [1, CHECK_CONTAINER_PERIOD_SECONDS] for load balancing:
-	private final RateLimiter checkContainerLimiter = new RateLimiter(
-			CHECK_CONTAINER_PERIOD_SECONDS,
-			nextCheckingOffset.getAndIncrement()
-	);
+	// Ticks until the next container check. Kept as a plain int, since every player shopkeeper has
+	// one. Initially between [1, CHECK_CONTAINER_PERIOD_SECONDS] for load balancing:
+	private int checkContainerCountdown = nextCheckingOffset.getAndIncrement();
 
 	/**
 	 * Creates a new and not yet initialized {@link AbstractPlayerShopkeeper}.
@@ -793,9 +790,10 @@ public abstract class AbstractPlayerShopkeeper
 	// externally by another plugin, such as WorldEdit, etc.):
 	private void onTickCheckDeleteIfContainerBroken() {
 		if (!Settings.deleteShopkeeperOnBreakContainer) return;
-		if (!checkContainerLimiter.request()) {
+		if (--checkContainerCountdown > 0) {
 			return;
 		}
+		checkContainerCountdown = CHECK_CONTAINER_PERIOD_SECONDS;
 
 		// This checks if the block is still a valid container:
 		Block containerBlock = this.getContainer();
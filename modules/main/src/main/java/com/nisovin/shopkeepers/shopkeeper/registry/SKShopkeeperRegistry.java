@@ -41,6 +41,7 @@ import com.nisovin.shopkeepers.shopkeeper.registry.ShopkeeperChunkMap.ChangeList
 import com.nisovin.shopkeepers.shopkeeper.spawning.ShopkeeperSpawner;
 import com.nisovin.shopkeepers.shopkeeper.ticking.ShopkeeperTicker;
 import com.nisovin.shopkeepers.shopobjects.AbstractShopObjectType;
+import com.nisovin.shopkeepers.shopobjects.ShopObjectTypeListeners;
 import com.nisovin.shopkeepers.shopobjects.block.BlockShopObjectIds;
 import com.nisovin.shopkeepers.shopobjects.entity.EntityShopObjectIds;
 import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
@@ -132,6 +133,7 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	};
 
 	private final ShopObjectRegistry shopObjectRegistry = new ShopObjectRegistry();
+	private final ShopObjectTypeListeners shopObjectTypeListeners;
 	private final ShopkeeperTicker shopkeeperTicker;
 	private final ShopkeeperSpawner shopkeeperSpawner;
 	private final ShopkeeperChunkActivator chunkActivator;
@@ -139,6 +141,7 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 
 	public SKShopkeeperRegistry(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
+		this.shopObjectTypeListeners = new ShopObjectTypeListeners(plugin);
 		this.chunkMap = new ShopkeeperChunkMap(chunkMapChangeListener);
 		this.shopkeeperTicker = new ShopkeeperTicker(plugin);
 		this.shopkeeperSpawner = new ShopkeeperSpawner(plugin, Unsafe.initialized(this));
@@ -153,6 +156,7 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 
 	public void onEnable() {
 		shopObjectRegistry.onEnable();
+		shopObjectTypeListeners.onEnable();
 		chunkActivator.onEnable();
 		shopkeeperSpawner.onEnable();
 		shopkeeperTicker.onEnable();
@@ -169,6 +173,7 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		shopkeeperTicker.onDisable();
 		shopkeeperSpawner.onDisable();
 		chunkActivator.onDisable();
+		shopObjectTypeListeners.onDisable();
 		shopObjectRegistry.onDisable();
 	}
 
@@ -305,6 +310,9 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			playerShopCount++;
 		}
 
+		// Update shop object type count (registers the relevant listeners if necessary):
+		shopObjectTypeListeners.onShopkeeperAdded(shopkeeper);
+
 		// Log a warning if either the shop type or the shop object type is disabled. The shopkeeper
 		// is still added (so containers are still protected), but it might not get spawned, and
 		// there is no guarantee that the shop still works as expected. Admins are advised to either
@@ -388,6 +396,10 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			playerShopCount--;
 		}
 
+		// Update shop object type count (unregisters the no longer relevant listeners if
+		// necessary):
+		shopObjectTypeListeners.onShopkeeperRemoved(shopkeeper);
+
 		if (cause == ShopkeeperRemoveEvent.Cause.DELETE) {
 			// Remove shopkeeper from storage:
 			this.getShopkeeperStorage().deleteShopkeeper(shopkeeper);
@@ -412,8 +424,10 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		chunkActivator.onShopkeeperMoved(shopkeeper, oldChunk);
 	}
 
-	private void unloadShopkeeper(AbstractShopkeeper shopkeeper) {
-		assert shopkeeper != null && shopkeeper.isValid();
+	// Also used by the storage to unload individual shopkeepers during hot reloads.
+	public void unloadShopkeeper(AbstractShopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		Validate.isTrue(shopkeeper.isValid(), "shopkeeper is invalid");
 		this.removeShopkeeper(shopkeeper, ShopkeeperRemoveEvent.Cause.UNLOAD);
 	}
 
@@ -635,9 +649,16 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		return shopObjectRegistry;
 	}
 
+	public ShopObjectTypeListeners getShopObjectTypeListeners() {
+		return shopObjectTypeListeners;
+	}
+
 	@Override
 	public @Nullable AbstractShopkeeper getShopkeeperByEntity(Entity entity) {
 		Validate.notNull(entity, "entity is null");
+		// Quick check: Avoids the object id lookup for most non-shopkeeper entities.
+		if (!shopObjectRegistry.isPotentialShopEntity(entity)) return null;
+
 		Object objectId = EntityShopObjectIds.getObjectId(entity);
 		return shopObjectRegistry.getShopkeeperByObjectId(objectId);
 	}
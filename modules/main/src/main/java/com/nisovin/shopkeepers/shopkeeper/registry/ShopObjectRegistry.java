@@ -4,12 +4,16 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import org.bukkit.entity.Entity;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopobjects.AbstractShopObject;
+import com.nisovin.shopkeepers.shopobjects.entity.AbstractEntityShopObject;
+import com.nisovin.shopkeepers.util.bukkit.EntityUtils;
+import com.nisovin.shopkeepers.util.java.IntHashSet;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.logging.Log;
 
@@ -25,6 +29,18 @@ public class ShopObjectRegistry {
 	// already be spawned before their chunk is activated.
 	private final Map<Object, AbstractShopkeeper> shopkeepersByObjectId = new HashMap<>();
 
+	// The entity ids of the spawned entity shop objects:
+	// Entity events are called very frequently, e.g. by mob farms, and mostly for entities that are
+	// not shopkeepers. Checking this set is cheaper than determining the entity's shop object id
+	// and then looking it up, since it only requires the entity's primitive id and does not
+	// allocate any objects.
+	// Unlike the unique id, the entity id of an entity can change, e.g. when the entity is
+	// teleported to another world. Shop objects are therefore expected to also inform the registry
+	// about potential object id changes in these cases.
+	private final IntHashSet shopEntityIds = new IntHashSet();
+	// The registered entity ids by the shop object ids:
+	private final Map<Object, Integer> entityIdsByObjectId = new HashMap<>();
+
 	ShopObjectRegistry() {
 	}
 
@@ -40,6 +56,8 @@ public class ShopObjectRegistry {
 			Log.warning("Some spawned shop objects were not properly unregistered!");
 			shopkeepersByObjectId.clear();
 		}
+		shopEntityIds.clear();
+		entityIdsByObjectId.clear();
 	}
 
 	public boolean isRegistered(AbstractShopkeeper shopkeeper) {
@@ -53,6 +71,22 @@ public class ShopObjectRegistry {
 		return shopkeepersByObjectId.get(objectId);
 	}
 
+	/**
+	 * Quickly checks if the given entity might be the entity of a spawned shop object.
+	 * <p>
+	 * If this returns <code>false</code>, the entity is guaranteed to not be a shopkeeper entity.
+	 * Otherwise, the shopkeeper still needs to be looked up by the entity's shop object id.
+	 * 
+	 * @param entity
+	 *            the entity, not <code>null</code>
+	 * @return <code>true</code> if the entity might be a shopkeeper entity
+	 */
+	public boolean isPotentialShopEntity(Entity entity) {
+		// If the entity is a complex entity part, we check the id of the parent entity:
+		Entity resolvedEntity = EntityUtils.resolveComplexEntity(entity);
+		return shopEntityIds.contains(resolvedEntity.getEntityId());
+	}
+
 	/**
 	 * Handles the registration and unregistration of spawned shop objects.
 	 * <p>
@@ -75,7 +109,10 @@ public class ShopObjectRegistry {
 		Object currentObjectId = shopObject.getId();
 		if (Objects.equals(lastObjectId, currentObjectId)) {
 			// The current object id equals the last object id, so there is no need to update the
-			// registration.
+			// registration. However, the entity id might have changed.
+			if (currentObjectId != null) {
+				this.updateEntityId(shopObject, currentObjectId);
+			}
 			return;
 		}
 
@@ -112,6 +149,29 @@ public class ShopObjectRegistry {
 			return;
 		} else {
 			shopObject.setLastId(objectId); // Remember the object id
+			this.updateEntityId(shopObject, objectId);
+		}
+	}
+
+	private void updateEntityId(AbstractShopObject shopObject, Object objectId) {
+		if (!(shopObject instanceof AbstractEntityShopObject)) return;
+
+		Entity entity = ((AbstractEntityShopObject) shopObject).getEntity();
+		if (entity == null) return;
+
+		int entityId = entity.getEntityId();
+		Integer previousEntityId = entityIdsByObjectId.put(objectId, entityId);
+		if (previousEntityId != null) {
+			if (previousEntityId == entityId) return; // Unchanged
+			shopEntityIds.remove(previousEntityId);
+		}
+		shopEntityIds.add(entityId);
+	}
+
+	private void removeEntityId(Object objectId) {
+		Integer entityId = entityIdsByObjectId.remove(objectId);
+		if (entityId != null) {
+			shopEntityIds.remove(entityId);
 		}
 	}
 
@@ -125,6 +185,7 @@ public class ShopObjectRegistry {
 				+ "Unregistering object with id '" + objectId + "'.");
 		assert shopkeepersByObjectId.get(objectId) == shopkeeper;
 		shopkeepersByObjectId.remove(objectId);
+		this.removeEntityId(objectId);
 		shopObject.setLastId(null);
 	}
 }
@@ -0,0 +1,212 @@
+package com.nisovin.shopkeepers.shopkeeper.spawning;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.debug.DebugOptions;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
+import com.nisovin.shopkeepers.shopkeeper.spawning.ShopkeeperSpawnState.State;
+import com.nisovin.shopkeepers.shopobjects.entity.AbstractEntityShopObjectType;
+import com.nisovin.shopkeepers.util.bukkit.TextUtils;
+import com.nisovin.shopkeepers.util.bukkit.Ticks;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Optionally despawns shopkeeper entities whose chunk has no player nearby, and respawns them once
+ * a player approaches again.
+ * <p>
+ * Spawned shopkeeper entities in loaded chunks far away from any players still consume server
+ * resources, e.g. for entity ticking and tracking, even though no player is able to see or interact
+ * with them. If enabled, this periodically checks the active chunks with shopkeepers and despawns
+ * the shopkeeper entities of chunks without any player within the configured chunk range. Culled
+ * chunks are respawned via the {@link ShopkeeperSpawnQueue} once a player comes within the chunk
+ * range again.
+ * <p>
+ * To avoid that shopkeepers are repeatedly despawned and respawned when a player moves back and
+ * forth near the border of the chunk range, chunks are only culled once there is no player within
+ * the chunk range extended by the configured hysteresis.
+ * <p>
+ * Culled shopkeepers use the spawn state {@link State#CULLED}, so that their shop objects do not
+ * try to respawn themselves in the meantime.
+ */
+class ShopkeeperCuller {
+
+	private static final long CHECK_PERIOD_TICKS = Ticks.PER_SECOND;
+
+	private static final Predicate<AbstractShopkeeper> IS_CULLABLE = (shopkeeper) -> {
+		return shopkeeper.getShopObject().getType() instanceof AbstractEntityShopObjectType;
+	};
+	private static final Predicate<AbstractShopkeeper> IS_CULLED = (shopkeeper) -> {
+		return shopkeeper.getComponents().getOrAdd(ShopkeeperSpawnState.class).getState() == State.CULLED;
+	};
+
+	private final ShopkeeperSpawner spawner;
+	private final SKShopkeepersPlugin plugin;
+	private final SKShopkeeperRegistry shopkeeperRegistry;
+
+	// Chunks whose shopkeepers are currently culled. These chunks may have become inactive in the
+	// meantime: This ensures that shopkeepers in chunks far away from players are not spawned when
+	// their chunk is activated again.
+	private final Set<ChunkCoords> culledChunks = new HashSet<>();
+	// Reused for the player chunks of the currently processed world:
+	private final List<ChunkCoords> playerChunks = new ArrayList<>();
+	private @Nullable BukkitTask task = null;
+
+	ShopkeeperCuller(
+			ShopkeeperSpawner spawner,
+			SKShopkeepersPlugin plugin,
+			SKShopkeeperRegistry shopkeeperRegistry
+	) {
+		Validate.notNull(spawner, "spawner is null");
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(shopkeeperRegistry, "shopkeeperRegistry is null");
+		this.spawner = spawner;
+		this.plugin = plugin;
+		this.shopkeeperRegistry = shopkeeperRegistry;
+	}
+
+	void onEnable() {
+		if (!Settings.cullShopEntities) return; // Feature is disabled
+
+		assert task == null;
+		task = Bukkit.getScheduler().runTaskTimer(
+				plugin,
+				this::cullShopkeepers,
+				CHECK_PERIOD_TICKS,
+				CHECK_PERIOD_TICKS
+		);
+	}
+
+	void onDisable() {
+		if (task != null) {
+			task.cancel();
+			task = null;
+		}
+		culledChunks.clear();
+		playerChunks.clear();
+	}
+
+	/**
+	 * Checks if the given shopkeeper is located in a currently culled chunk, i.e. if it shall not be
+	 * spawned.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 * @return <code>true</code> if the shopkeeper is culled
+	 */
+	boolean isCulled(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		if (culledChunks.isEmpty()) return false;
+		if (!IS_CULLABLE.test(shopkeeper)) return false;
+
+		ChunkCoords chunkCoords = shopkeeper.getLastChunkCoords();
+		return chunkCoords != null && culledChunks.contains(chunkCoords);
+	}
+
+	private void cullShopkeepers() {
+		int chunkRange = Settings.shopEntityCullingChunkRange;
+		int cullChunkRange = chunkRange + Settings.shopEntityCullingHysteresis;
+
+		// Forget about culled chunks that no longer contain any shopkeepers:
+		culledChunks.removeIf(chunkCoords -> shopkeeperRegistry.getShopkeepersInChunk(chunkCoords).isEmpty());
+
+		for (String worldName : new ArrayList<>(shopkeeperRegistry.getWorldsWithShopkeepers())) {
+			World world = Bukkit.getWorld(worldName);
+			if (world == null) continue;
+
+			playerChunks.clear();
+			for (Player player : world.getPlayers()) {
+				Location location = player.getLocation();
+				playerChunks.add(new ChunkCoords(
+						worldName,
+						ChunkCoords.fromBlock(location.getBlockX()),
+						ChunkCoords.fromBlock(location.getBlockZ())
+				));
+			}
+
+			// The shopkeeper chunk map can change while we despawn or spawn shopkeepers. We
+			// therefore iterate a snapshot of these chunks.
+			Map<? extends ChunkCoords, ?> shopkeepersByChunk = shopkeeperRegistry.getShopkeepersByChunks(worldName);
+			for (ChunkCoords chunkCoords : new ArrayList<>(shopkeepersByChunk.keySet())) {
+				int playerDistance = this.getPlayerChunkDistance(chunkCoords);
+				if (culledChunks.contains(chunkCoords)) {
+					if (playerDistance <= chunkRange) {
+						this.uncullChunk(chunkCoords);
+					}
+				} else if (playerDistance > cullChunkRange) {
+					if (shopkeeperRegistry.isChunkActive(chunkCoords)) {
+						this.cullChunk(chunkCoords);
+					}
+				}
+			}
+		}
+		playerChunks.clear();
+	}
+
+	// Gets the distance in chunks to the nearest player in the currently processed world, or
+	// Integer.MAX_VALUE if there are no players.
+	private int getPlayerChunkDistance(ChunkCoords chunkCoords) {
+		int minDistance = Integer.MAX_VALUE;
+		for (ChunkCoords playerChunk : playerChunks) {
+			int distance = Math.max(
+					Math.abs(playerChunk.getChunkX() - chunkCoords.getChunkX()),
+					Math.abs(playerChunk.getChunkZ() - chunkCoords.getChunkZ())
+			);
+			if (distance < minDistance) {
+				minDistance = distance;
+			}
+		}
+		return minDistance;
+	}
+
+	private void cullChunk(ChunkCoords chunkCoords) {
+		Log.debug(DebugOptions.shopkeeperActivation,
+				() -> "Culling shopkeepers in chunk " + TextUtils.getChunkString(chunkCoords)
+		);
+		culledChunks.add(chunkCoords);
+		spawner.despawnChunkShopkeepers(
+				chunkCoords,
+				"culling",
+				IS_CULLABLE,
+				this::setCulled
+		);
+	}
+
+	private void setCulled(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		ShopkeeperSpawnState spawnState = shopkeeper.getComponents().getOrAdd(ShopkeeperSpawnState.class);
+		spawnState.setState(State.CULLED);
+	}
+
+	private void uncullChunk(ChunkCoords chunkCoords) {
+		culledChunks.remove(chunkCoords);
+		if (!shopkeeperRegistry.isChunkActive(chunkCoords)) {
+			// The shopkeepers are spawned once the chunk is activated again:
+			return;
+		}
+
+		// The shopkeepers are added to the spawn queue:
+		spawner.spawnChunkShopkeepers(
+				chunkCoords,
+				"player nearby",
+				IS_CULLABLE.and(IS_CULLED),
+				false
+		);
+	}
+}
@@ -13,7 +13,9 @@ public final class ShopkeeperSpawnState extends Component {
 		QUEUED,
 		PENDING_WORLD_SAVE_RESPAWN,
 		SPAWNING,
-		DESPAWNING
+		DESPAWNING,
+		// Despawned due to there being no players nearby. Respawned once a player approaches.
+		CULLED
 	}
 
 	private State state = State.DESPAWNED;
@@ -51,6 +53,7 @@ public final class ShopkeeperSpawnState extends Component {
 		case QUEUED:
 		case PENDING_WORLD_SAVE_RESPAWN:
 		case SPAWNING:
+		case CULLED:
 			return true;
 		default:
 			return false;
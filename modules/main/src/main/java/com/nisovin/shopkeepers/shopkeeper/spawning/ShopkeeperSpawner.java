@@ -44,6 +44,7 @@ public class ShopkeeperSpawner {
 	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
 	private final WorldSaveDespawner worldSaveDespawner;
+	private final ShopkeeperCuller culler;
 	private final ShopkeeperSpawnerWorldListener listener;
 
 	// A queue that prevents performance drops caused by the spawning of too many shopkeepers at the
@@ -78,6 +79,11 @@ public class ShopkeeperSpawner {
 				plugin,
 				shopkeeperRegistry
 		);
+		this.culler = new ShopkeeperCuller(
+				Unsafe.initialized(this),
+				plugin,
+				shopkeeperRegistry
+		);
 		this.listener = new ShopkeeperSpawnerWorldListener(
 				Unsafe.initialized(this),
 				worldSaveDespawner
@@ -93,11 +99,15 @@ public class ShopkeeperSpawner {
 		spawnQueue.start();
 
 		Bukkit.getPluginManager().registerEvents(listener, plugin);
+
+		culler.onEnable();
 	}
 
 	public void onDisable() {
 		HandlerList.unregisterAll(listener);
 
+		culler.onDisable();
+
 		// Shutdown the spawn queue:
 		spawnQueue.shutdown();
 
@@ -232,7 +242,9 @@ public class ShopkeeperSpawner {
 	 * The shopkeeper might already be spawned.
 	 * <p>
 	 * If necessary (e.g. if the shopkeeper is already spawned but its new world is currently being
-	 * saved), this may also despawn the given shopkeeper and register a pending respawn.
+	 * saved), this may also despawn the given shopkeeper and register a pending respawn. Similarly,
+	 * shopkeepers located in chunks that are currently {@link ShopkeeperCuller culled} are not
+	 * spawned, but despawned if necessary.
 	 * 
 	 * @param shopkeeper
 	 *            the shopkeeper, not <code>null</code>, has to be valid
@@ -259,6 +271,19 @@ public class ShopkeeperSpawner {
 
 		boolean alreadySpawned = shopObject.isSpawned();
 
+		if (culler.isCulled(shopkeeper)) {
+			if (alreadySpawned) {
+				Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLocatedLogPrefix()
+						+ "Despawn due to culling.");
+				// Note: This also updates the shopkeeper's spawn state.
+				this.doDespawnShopkeeper(shopkeeper);
+			}
+
+			// The culler respawns the shopkeeper once a player approaches:
+			this.updateSpawnState(shopkeeper, State.CULLED);
+			return SpawnResult.CULLED;
+		}
+
 		String worldName = Unsafe.assertNonNull(shopkeeper.getWorldName());
 		WorldData worldData = this.getOrCreateWorldData(worldName);
 		assert worldData != null;
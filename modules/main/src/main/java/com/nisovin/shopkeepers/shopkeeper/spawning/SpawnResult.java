@@ -8,5 +8,6 @@ enum SpawnResult {
 	SPAWNING_FAILED,
 	QUEUED,
 	AWAITING_WORLD_SAVE_RESPAWN,
-	DESPAWNED_AND_AWAITING_WORLD_SAVE_RESPAWN;
+	DESPAWNED_AND_AWAITING_WORLD_SAVE_RESPAWN,
+	CULLED;
 }
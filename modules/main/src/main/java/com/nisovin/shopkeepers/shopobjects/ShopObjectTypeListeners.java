@@ -0,0 +1,198 @@
+package com.nisovin.shopkeepers.shopobjects;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.shopobjects.ShopObjectType;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Keeps track of the number of loaded shopkeepers per {@link ShopObjectType}, and only registers
+ * listeners while there are shopkeepers of the shop object types that they are relevant for.
+ * <p>
+ * Many of our event handlers only protect shopkeepers of specific shop object types, such as
+ * shopkeeper entities, from vanilla mechanics, but are called for all entities or blocks on the
+ * server. By only registering these listeners while they are actually needed, servers that do not
+ * use these types of shop objects avoid the event dispatching overhead.
+ * <p>
+ * Listeners that need to retain a specific order relative to other event handlers (e.g. handlers
+ * of player interactions that are moved to the front of their handler lists) are not suited to be
+ * registered dynamically, since their order changes when they are registered again.
+ */
+public class ShopObjectTypeListeners {
+
+	private class ListenerGroup {
+
+		private final Listener listener;
+		private final Predicate<? super AbstractShopObjectType<?>> shopObjectTypeFilter;
+		// The number of loaded shopkeepers of the relevant shop object types:
+		private int shopkeeperCount = 0;
+		private boolean registered = false;
+
+		ListenerGroup(
+				Listener listener,
+				Predicate<? super AbstractShopObjectType<?>> shopObjectTypeFilter
+		) {
+			this.listener = listener;
+			this.shopObjectTypeFilter = shopObjectTypeFilter;
+		}
+
+		boolean isRelevant(AbstractShopObjectType<?> shopObjectType) {
+			return shopObjectTypeFilter.test(shopObjectType);
+		}
+
+		void updateShopkeeperCount(int delta) {
+			shopkeeperCount += delta;
+			assert shopkeeperCount >= 0;
+			this.updateRegistration();
+		}
+
+		void updateRegistration() {
+			boolean register = (shopkeeperCount > 0);
+			if (register == registered) return;
+
+			if (register) {
+				Bukkit.getPluginManager().registerEvents(listener, plugin);
+			} else {
+				HandlerList.unregisterAll(listener);
+			}
+			registered = register;
+			Log.debug(() -> (register ? "Registered" : "Unregistered") + " listener "
+					+ listener.getClass().getSimpleName() + ".");
+		}
+
+		void unregister() {
+			if (registered) {
+				HandlerList.unregisterAll(listener);
+				registered = false;
+			}
+		}
+	}
+
+	private final SKShopkeepersPlugin plugin;
+	private final Map<AbstractShopObjectType<?>, Integer> shopkeeperCounts = new HashMap<>();
+	private final List<ListenerGroup> listenerGroups = new ArrayList<>();
+
+	public ShopObjectTypeListeners(SKShopkeepersPlugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+	}
+
+	public void onEnable() {
+	}
+
+	public void onDisable() {
+		if (!shopkeeperCounts.isEmpty()) {
+			Log.warning("Some shopkeepers were not properly unregistered from the shop object type"
+					+ " listeners!");
+			shopkeeperCounts.clear();
+		}
+		listenerGroups.forEach(ListenerGroup::unregister);
+		listenerGroups.clear();
+	}
+
+	/**
+	 * Gets the number of loaded shopkeepers that use the given {@link ShopObjectType}.
+	 *
+	 * @param shopObjectType
+	 *            the shop object type, not <code>null</code>
+	 * @return the number of shopkeepers
+	 */
+	public int getShopkeeperCount(ShopObjectType<?> shopObjectType) {
+		Validate.notNull(shopObjectType, "shopObjectType is null");
+		return shopkeeperCounts.getOrDefault(shopObjectType, 0);
+	}
+
+	/**
+	 * Registers the given {@link Listener} while there are loaded shopkeepers of the shop object
+	 * types that match the given filter.
+	 * <p>
+	 * If there already are such shopkeepers, the listener is registered immediately.
+	 *
+	 * @param listener
+	 *            the listener, not <code>null</code>
+	 * @param shopObjectTypeFilter
+	 *            the filter for the shop object types that the listener is relevant for, not
+	 *            <code>null</code>
+	 */
+	public void registerListener(
+			Listener listener,
+			Predicate<? super AbstractShopObjectType<?>> shopObjectTypeFilter
+	) {
+		Validate.notNull(listener, "listener is null");
+		Validate.notNull(shopObjectTypeFilter, "shopObjectTypeFilter is null");
+		Validate.isTrue(this.getListenerGroup(listener) == null, "listener is already registered");
+
+		ListenerGroup listenerGroup = new ListenerGroup(listener, shopObjectTypeFilter);
+		listenerGroups.add(listenerGroup);
+
+		int shopkeeperCount = 0;
+		for (Map.Entry<AbstractShopObjectType<?>, Integer> entry : shopkeeperCounts.entrySet()) {
+			if (listenerGroup.isRelevant(entry.getKey())) {
+				shopkeeperCount += entry.getValue();
+			}
+		}
+		listenerGroup.updateShopkeeperCount(shopkeeperCount);
+	}
+
+	/**
+	 * Unregisters the given {@link Listener}, both from this component and from Bukkit.
+	 *
+	 * @param listener
+	 *            the listener, not <code>null</code>
+	 */
+	public void unregisterListener(Listener listener) {
+		Validate.notNull(listener, "listener is null");
+		ListenerGroup listenerGroup = this.getListenerGroup(listener);
+		if (listenerGroup == null) return;
+
+		listenerGroup.unregister();
+		listenerGroups.remove(listenerGroup);
+	}
+
+	private @Nullable ListenerGroup getListenerGroup(Listener listener) {
+		for (ListenerGroup listenerGroup : listenerGroups) {
+			if (listenerGroup.listener == listener) {
+				return listenerGroup;
+			}
+		}
+		return null;
+	}
+
+	// This is called by the shopkeeper registry:
+
+	public void onShopkeeperAdded(AbstractShopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		this.updateShopkeeperCount(shopkeeper.getShopObject().getType(), 1);
+	}
+
+	public void onShopkeeperRemoved(AbstractShopkeeper shopkeeper) {
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		this.updateShopkeeperCount(shopkeeper.getShopObject().getType(), -1);
+	}
+
+	private void updateShopkeeperCount(AbstractShopObjectType<?> shopObjectType, int delta) {
+		shopkeeperCounts.compute(shopObjectType, (type, count) -> {
+			int newCount = (count == null ? 0 : count) + delta;
+			assert newCount >= 0;
+			return (newCount <= 0) ? null : newCount;
+		});
+
+		for (ListenerGroup listenerGroup : listenerGroups) {
+			if (listenerGroup.isRelevant(shopObjectType)) {
+				listenerGroup.updateShopkeeperCount(delta);
+			}
+		}
+	}
+}
@@ -33,6 +33,7 @@ import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.util.bukkit.BlockFaceUtils;
 import com.nisovin.shopkeepers.util.bukkit.BlockLocation;
+import com.nisovin.shopkeepers.util.bukkit.ChunkBlockCounts;
 import com.nisovin.shopkeepers.util.bukkit.EventUtils;
 import com.nisovin.shopkeepers.util.bukkit.MutableBlockLocation;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
@@ -73,6 +74,19 @@ class BaseBlockShopListener implements Listener {
 	// purposes. When this number reaches zero, the map entry is removed and block physics are no
 	// longer cancelled for the location.
 	private final Map<BlockLocation, Integer> cancelledBlockPhysics = new HashMap<>();
+	// The chunks that contain block locations for which block physics are cancelled. Since the
+	// protected blocks of a block shop (the shop block itself and the block it is attached to) are
+	// always among these block locations, this also serves as a prefilter for the protected blocks.
+	// This allows us to quickly skip most blocks during physics events and explosions.
+	private final ChunkBlockCounts cancelledBlockPhysicsChunks = new ChunkBlockCounts();
+
+	// Block physics events are called very frequently. We therefore only register this listener
+	// while there are block locations for which block physics shall be cancelled.
+	private final BlockPhysicsListener blockPhysicsListener = new BlockPhysicsListener();
+	// Only registered while there are shopkeepers that use base block shop objects:
+	private final BlockProtectionListener blockProtectionListener = new BlockProtectionListener();
+	private boolean enabled = false;
+	private boolean blockPhysicsListenerRegistered = false;
 
 	BaseBlockShopListener(SKShopkeepersPlugin plugin, BaseBlockShops blockShops) {
 		this.plugin = plugin;
@@ -87,10 +101,33 @@ class BaseBlockShopListener implements Listener {
 		// In order to not change the order among the already registered event handlers of our own
 		// plugin, we move them all together to the front of the handler list.
 		EventUtils.enforceExecuteFirst(PlayerInteractEvent.class, EventPriority.LOWEST, plugin);
+
+		shopkeeperRegistry.getShopObjectTypeListeners().registerListener(
+				blockProtectionListener,
+				shopObjectType -> shopObjectType instanceof BaseBlockShopObjectType
+		);
+
+		enabled = true;
+		this.updateBlockPhysicsListener();
 	}
 
 	void onDisable() {
+		enabled = false;
 		HandlerList.unregisterAll(this);
+		shopkeeperRegistry.getShopObjectTypeListeners().unregisterListener(blockProtectionListener);
+		this.updateBlockPhysicsListener();
+	}
+
+	private void updateBlockPhysicsListener() {
+		boolean register = enabled && !cancelledBlockPhysics.isEmpty();
+		if (register == blockPhysicsListenerRegistered) return;
+
+		if (register) {
+			Bukkit.getPluginManager().registerEvents(blockPhysicsListener, plugin);
+		} else {
+			HandlerList.unregisterAll(blockPhysicsListener);
+		}
+		blockPhysicsListenerRegistered = register;
 	}
 
 	void addBlockPhysicsCancellation(Block block) {
@@ -136,17 +173,37 @@ class BaseBlockShopListener implements Listener {
 	}
 
 	private void addSpecificBlockPhysicsCancellation(BlockLocation blockLocation) {
-		cancelledBlockPhysics.compute(
+		Integer tickets = cancelledBlockPhysics.compute(
 				blockLocation.immutable(),
 				(k, v) -> v == null ? 1 : (v + 1)
 		);
+		if (tickets != null && tickets == 1) {
+			// New block location:
+			cancelledBlockPhysicsChunks.add(
+					Unsafe.assertNonNull(blockLocation.getWorldName()),
+					blockLocation.getX(),
+					blockLocation.getZ()
+			);
+			this.updateBlockPhysicsListener();
+		}
 	}
 
 	private void removeSpecificBlockPhysicsCancellation(BlockLocation blockLocation) {
-		cancelledBlockPhysics.compute(
+		if (!cancelledBlockPhysics.containsKey(blockLocation)) return;
+
+		Integer tickets = cancelledBlockPhysics.compute(
 				blockLocation.immutable(),
 				(k, v) -> (v == null || v <= 1) ? null : (v - 1)
 		);
+		if (tickets == null) {
+			// Removed block location:
+			cancelledBlockPhysicsChunks.remove(
+					Unsafe.assertNonNull(blockLocation.getWorldName()),
+					blockLocation.getX(),
+					blockLocation.getZ()
+			);
+			this.updateBlockPhysicsListener();
+		}
 	}
 
 	// See LivingEntityShopListener for the reasoning behind using event priority LOWEST and
@@ -217,6 +274,11 @@ class BaseBlockShopListener implements Listener {
 	// block locations affected by block physics? We would need to also take the attached block face
 	// into account.
 	private boolean isProtectedBlock(Block block) {
+		// Quick check: Skip blocks in chunks without any block shops.
+		if (!cancelledBlockPhysicsChunks.containsChunkOf(block)) {
+			return false;
+		}
+
 		// Check if the block itself is a base block shop:
 		if (baseBlockShops.isBaseBlockShop(block)) {
 			return true;
@@ -252,53 +314,68 @@ class BaseBlockShopListener implements Listener {
 		return false;
 	}
 
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	void onBlockBreak(BlockBreakEvent event) {
-		Block block = event.getBlock();
-		if (this.isProtectedBlock(block)) {
-			event.setCancelled(true);
-		}
-	}
+	// Only registered while there are block locations for which block physics shall be cancelled.
+	private class BlockPhysicsListener implements Listener {
 
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	void onBlockPlace(BlockPlaceEvent event) {
-		Block block = event.getBlock();
-		if (baseBlockShops.isBaseBlockShop(block)) {
-			event.setCancelled(true);
+		@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+		void onBlockPhysics(BlockPhysicsEvent event) {
+			Block block = event.getBlock();
+			World world = block.getWorld();
+			String worldName = world.getName();
+			int blockX = block.getX();
+			int blockY = block.getY();
+			int blockZ = block.getZ();
+
+			// Quick check: Skip blocks in chunks without any cancelled block physics.
+			if (!cancelledBlockPhysicsChunks.containsChunkOf(worldName, blockX, blockZ)) {
+				return;
+			}
+
+			var blockLocation = SHARED_BLOCK_LOCATION;
+			SHARED_BLOCK_LOCATION.set(worldName, blockX, blockY, blockZ);
+
+			if (cancelledBlockPhysics.containsKey(blockLocation)) {
+				event.setCancelled(true);
+			}
 		}
 	}
 
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	void onBlockPhysics(BlockPhysicsEvent event) {
-		Block block = event.getBlock();
-		World world = block.getWorld();
-		String worldName = world.getName();
-		int blockX = block.getX();
-		int blockY = block.getY();
-		int blockZ = block.getZ();
+	private class BlockProtectionListener implements Listener {
 
-		var blockLocation = SHARED_BLOCK_LOCATION;
-		SHARED_BLOCK_LOCATION.set(worldName, blockX, blockY, blockZ);
+		@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+		void onBlockBreak(BlockBreakEvent event) {
+			Block block = event.getBlock();
+			if (isProtectedBlock(block)) {
+				event.setCancelled(true);
+			}
+		}
 
-		if (cancelledBlockPhysics.containsKey(blockLocation)) {
-			event.setCancelled(true);
+		@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+		void onBlockPlace(BlockPlaceEvent event) {
+			Block block = event.getBlock();
+			if (baseBlockShops.isBaseBlockShop(block)) {
+				event.setCancelled(true);
+			}
 		}
-	}
 
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	void onEntityExplosion(EntityExplodeEvent event) {
-		List<Block> blockList = event.blockList();
-		this.removeProtectedBlocks(blockList);
-	}
+		@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+		void onEntityExplosion(EntityExplodeEvent event) {
+			List<Block> blockList = event.blockList();
+			removeProtectedBlocks(event.getEntity().getWorld(), blockList);
+		}
 
-	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-	void onBlockExplosion(BlockExplodeEvent event) {
-		List<Block> blockList = event.blockList();
-		this.removeProtectedBlocks(blockList);
+		@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+		void onBlockExplosion(BlockExplodeEvent event) {
+			List<Block> blockList = event.blockList();
+			removeProtectedBlocks(event.getBlock().getWorld(), blockList);
+		}
 	}
 
-	private void removeProtectedBlocks(List<? extends Block> blockList) {
-		assert blockList != null;
+	private void removeProtectedBlocks(World world, List<? extends Block> blockList) {
+		assert world != null && blockList != null;
+		// Quick check: Skip explosions in worlds without any block shops.
+		if (!cancelledBlockPhysicsChunks.containsWorld(world.getName())) return;
+
 		blockList.removeIf(this::isProtectedBlock);
 	}
 }
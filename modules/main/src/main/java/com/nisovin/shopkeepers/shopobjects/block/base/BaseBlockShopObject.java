@@ -16,7 +16,6 @@ import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopobjects.ShopkeeperMetadata;
 import com.nisovin.shopkeepers.shopobjects.block.AbstractBlockShopObject;
 import com.nisovin.shopkeepers.util.java.CyclicCounter;
-import com.nisovin.shopkeepers.util.java.RateLimiter;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
@@ -37,11 +36,9 @@ public abstract class BaseBlockShopObject extends AbstractBlockShopObject {
 
 	private final BaseBlockShops blockShops;
 
-	// Initial threshold between [1, CHECK_PERIOD_SECONDS] for load balancing:
-	private final RateLimiter checkLimiter = new RateLimiter(
-			CHECK_PERIOD_SECONDS,
-			nextCheckingOffset.getAndIncrement()
-	);
+	// Ticks until the next block check, initially between [1, CHECK_PERIOD_SECONDS] for load
+	// balancing:
+	private int checkCountdown = nextCheckingOffset.getAndIncrement();
 
 	private @Nullable Block block = null;
 	private long lastFailedRespawnAttemptMillis = 0;
@@ -212,9 +209,10 @@ public abstract class BaseBlockShopObject extends AbstractBlockShopObject {
 	@Override
 	public void onTick() {
 		super.onTick();
-		if (!checkLimiter.request()) {
+		if (--checkCountdown > 0) {
 			return;
 		}
+		checkCountdown = CHECK_PERIOD_SECONDS;
 
 		if (this.isSpawningScheduled()) {
 			Log.debug(DebugOptions.regularTickActivities, () -> shopkeeper.getLogPrefix()
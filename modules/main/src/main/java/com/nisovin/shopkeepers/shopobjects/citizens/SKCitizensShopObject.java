@@ -37,7 +37,6 @@ import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
 import com.nisovin.shopkeepers.util.data.serialization.java.DataContainerSerializers;
 import com.nisovin.shopkeepers.util.data.serialization.java.UUIDSerializers;
 import com.nisovin.shopkeepers.util.java.CyclicCounter;
-import com.nisovin.shopkeepers.util.java.RateLimiter;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 import net.citizensnpcs.api.CitizensAPI;
@@ -113,11 +112,9 @@ public class SKCitizensShopObject extends AbstractEntityShopObject implements Ci
 	// If false, this will not remove the NPC on deletion:
 	private boolean destroyNPC = true;
 
-	// Initial threshold between [1, CHECK_PERIOD_SECONDS] for load balancing:
-	private final RateLimiter checkLimiter = new RateLimiter(
-			CHECK_PERIOD_SECONDS,
-			nextCheckingOffset.getAndIncrement()
-	);
+	// Ticks until the next NPC check, initially between [1, CHECK_PERIOD_SECONDS] for load
+	// balancing:
+	private int checkCountdown = nextCheckingOffset.getAndIncrement();
 
 	private @Nullable Entity entity = null;
 
@@ -631,6 +628,8 @@ public class SKCitizensShopObject extends AbstractEntityShopObject implements Ci
 
 		if (npc.isSpawned()) {
 			npc.teleport(spawnLocation, TeleportCause.PLUGIN);
+			// The entity id might have changed if the NPC was teleported to another world:
+			this.onIdChanged();
 			// For simplicity, we assume that the teleport succeeded:
 			return true;
 		} else {
@@ -680,9 +679,10 @@ public class SKCitizensShopObject extends AbstractEntityShopObject implements Ci
 		// part of the active shopkeepers.
 		// TODO Actually, the NPC is no longer considered a shopkeeper during these 10 seconds! This
 		// could result is all kinds of issues.
-		if (!checkLimiter.request()) {
+		if (--checkCountdown > 0) {
 			return;
 		}
+		checkCountdown = CHECK_PERIOD_SECONDS;
 
 		NPC npc = this.getNPC();
 		if (npc == null) {
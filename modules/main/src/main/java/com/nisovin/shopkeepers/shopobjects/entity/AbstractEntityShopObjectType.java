@@ -6,8 +6,10 @@ import org.bukkit.entity.Entity;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.shopobjects.entity.EntityShopObjectType;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.registry.ShopObjectRegistry;
 import com.nisovin.shopkeepers.shopobjects.AbstractShopObjectType;
 
 /**
@@ -30,6 +32,12 @@ public abstract class AbstractEntityShopObjectType<T extends AbstractEntityShopO
 
 	@Override
 	public @Nullable AbstractShopkeeper getShopkeeper(Entity entity) {
+		ShopObjectRegistry shopObjectRegistry = SKShopkeepersPlugin.getInstance()
+				.getShopkeeperRegistry()
+				.getShopObjectRegistry();
+		// Quick check: Avoids the object id lookup for most non-shopkeeper entities.
+		if (!shopObjectRegistry.isPotentialShopEntity(entity)) return null;
+
 		Object objectId = EntityShopObjectIds.getObjectId(entity);
 		return this.getShopkeeperByObjectId(objectId);
 	}
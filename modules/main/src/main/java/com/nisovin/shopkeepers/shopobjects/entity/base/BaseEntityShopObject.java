@@ -40,7 +40,6 @@ import com.nisovin.shopkeepers.util.bukkit.Ticks;
 import com.nisovin.shopkeepers.util.bukkit.WorldUtils;
 import com.nisovin.shopkeepers.util.data.serialization.InvalidDataException;
 import com.nisovin.shopkeepers.util.java.CyclicCounter;
-import com.nisovin.shopkeepers.util.java.RateLimiter;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
@@ -93,7 +92,9 @@ public abstract class BaseEntityShopObject<E extends Entity>
 
 	// Initial threshold between [1, CHECK_PERIOD_SECONDS] for load balancing:
 	private final int checkingOffset = nextCheckingOffset.getAndIncrement();
-	private final RateLimiter checkLimiter = new RateLimiter(CHECK_PERIOD_SECONDS, checkingOffset);
+	// Ticks until the next entity check, and whether the check period is currently throttled:
+	private int checkCountdown = checkingOffset;
+	private boolean tickRateThrottled = false;
 	private boolean skipRespawnAttemptsIfPeaceful = false;
 
 	protected BaseEntityShopObject(
@@ -224,8 +225,14 @@ public abstract class BaseEntityShopObject<E extends Entity>
 		// Assign metadata for easy identification by other plugins:
 		ShopkeeperMetadata.apply(entity);
 
-		// Don't save the entity to the world data:
-		entity.setPersistent(false);
+		// Don't save the entity to the world data, unless shopkeeper entities are persisted with
+		// their chunk:
+		if (Settings.persistShopEntities) {
+			entity.setPersistent(true);
+			PersistentShopEntities.tag(entity, shopkeeper);
+		} else {
+			entity.setPersistent(false);
+		}
 
 		// Apply name (if it has/uses one):
 		this.applyName(entity, shopkeeper.getName());
@@ -238,6 +245,11 @@ public abstract class BaseEntityShopObject<E extends Entity>
 	 * Any clean up that needs to happen for the entity. The entity might not be fully setup yet.
 	 */
 	protected void cleanUpEntity() {
+		this.cleanUpEntity(false);
+	}
+
+	// keepEntity: Whether to keep the entity in the world, so that it is persisted with its chunk.
+	private void cleanUpEntity(boolean keepEntity) {
 		Entity entity = Unsafe.assertNonNull(this.entity);
 
 		// Disable AI:
@@ -247,7 +259,7 @@ public abstract class BaseEntityShopObject<E extends Entity>
 		ShopkeeperMetadata.remove(entity);
 
 		// Remove the entity (if it hasn't been removed already):
-		if (!entity.isDead()) {
+		if (!keepEntity && !entity.isDead()) {
 			entity.remove();
 		}
 
@@ -268,6 +280,11 @@ public abstract class BaseEntityShopObject<E extends Entity>
 		}
 		World world = Unsafe.assertNonNull(spawnLocation.getWorld());
 
+		// Adopt the entity that has been persisted with the chunk, if there is one:
+		if (Settings.persistShopEntities && this.adoptPersistedEntity(spawnLocation)) {
+			return true;
+		}
+
 		// Spawn entity:
 		// TODO Check if the block is passable before spawning there?
 		EntityType entityType = this.getEntityType();
@@ -301,42 +318,7 @@ public abstract class BaseEntityShopObject<E extends Entity>
 
 		boolean success = this.isActive();
 		if (success) {
-			// Remember the spawn location:
-			this.lastSpawnLocation = spawnLocation;
-
-			// Further setup entity after it was successfully spawned:
-			// Some entities randomly spawn with passengers:
-			for (Entity passenger : entity.getPassengers()) {
-				passenger.remove();
-			}
-			// Some entities might automatically mount on nearby entities (like baby zombies on
-			// chicken):
-			entity.eject();
-
-			// This is also required so that certain Minecraft behaviors (e.g. the panic behavior of
-			// nearby villagers) ignore the shopkeeper entities. Otherwise, the shopkeeper entities
-			// can be abused for mob farms (e.g. villages spawn more iron golems when villagers are
-			// in panic due to nearby hostile mob shopkeepers).
-			entity.setInvulnerable(true);
-
-			// Any version-specific setup:
-			Compat.getProvider().setupSpawnedEntity(entity);
-
-			// Overwrite AI:
-			this.overwriteAI();
-			// Register the shop object for our custom AI processing:
-			context.baseEntityShops.getEntityAI().addShopObject(this);
-
-			// Apply sub-type:
-			this.onSpawn();
-
-			// Reset all state related to respawn throttling:
-			respawnAttempts = 0;
-			this.resetTickRate();
-			skipRespawnAttemptsIfPeaceful = false;
-
-			// Inform about the object id change:
-			this.onIdChanged();
+			this.setupSpawnedEntity(spawnLocation);
 		} else {
 			// Failure:
 			// Debug, if not already debugging and cooldown is over:
@@ -401,6 +383,68 @@ public abstract class BaseEntityShopObject<E extends Entity>
 		return success;
 	}
 
+	// Further sets up the entity after it has been successfully spawned or adopted.
+	private void setupSpawnedEntity(Location spawnLocation) {
+		E entity = Unsafe.assertNonNull(this.entity);
+
+		// Remember the spawn location:
+		this.lastSpawnLocation = spawnLocation;
+
+		// Some entities randomly spawn with passengers:
+		for (Entity passenger : entity.getPassengers()) {
+			passenger.remove();
+		}
+		// Some entities might automatically mount on nearby entities (like baby zombies on
+		// chicken):
+		entity.eject();
+
+		// This is also required so that certain Minecraft behaviors (e.g. the panic behavior of
+		// nearby villagers) ignore the shopkeeper entities. Otherwise, the shopkeeper entities
+		// can be abused for mob farms (e.g. villages spawn more iron golems when villagers are
+		// in panic due to nearby hostile mob shopkeepers).
+		entity.setInvulnerable(true);
+
+		// Any version-specific setup:
+		Compat.getProvider().setupSpawnedEntity(entity);
+
+		// Overwrite AI:
+		this.overwriteAI();
+		// Register the shop object for our custom AI processing:
+		context.baseEntityShops.getEntityAI().addShopObject(this);
+
+		// Apply sub-type:
+		this.onSpawn();
+
+		// Reset all state related to respawn throttling:
+		respawnAttempts = 0;
+		this.resetTickRate();
+		skipRespawnAttemptsIfPeaceful = false;
+
+		// Inform about the object id change:
+		this.onIdChanged();
+	}
+
+	// Returns true if a persisted entity has been adopted.
+	@SuppressWarnings("unchecked")
+	private boolean adoptPersistedEntity(Location spawnLocation) {
+		Entity persistedEntity = context.baseEntityShops.getPersistentShopEntities().takeEntity(shopkeeper);
+		if (persistedEntity == null) return false;
+
+		if (persistedEntity.getType() != this.getEntityType()) {
+			// The shopkeeper's entity type has changed in the meantime:
+			persistedEntity.remove();
+			return false;
+		}
+
+		Log.debug(DebugOptions.shopkeeperActivation, () -> shopkeeper.getLocatedLogPrefix()
+				+ "Adopting persisted entity.");
+		this.entity = (E) persistedEntity;
+		// Re-apply the entity preparation, since the shopkeeper and settings might have changed:
+		this.prepareEntity((E) persistedEntity);
+		this.setupSpawnedEntity(spawnLocation);
+		return true;
+	}
+
 	/**
 	 * This method is called right after the entity was spawned.
 	 * <p>
@@ -443,10 +487,16 @@ public abstract class BaseEntityShopObject<E extends Entity>
 
 	@Override
 	public void despawn() {
+		Entity entity = this.entity;
 		if (entity == null) return;
 
+		// Keep the entity if it is persisted with its currently unloading chunk:
+		boolean keepEntity = context.baseEntityShops.getPersistentShopEntities().isKeepEntities(
+				new ChunkCoords(entity.getLocation())
+		);
+
 		// Clean up entity:
-		this.cleanUpEntity();
+		this.cleanUpEntity(keepEntity);
 		lastSpawnLocation = null;
 
 		// Inform about the object id change:
@@ -464,6 +514,8 @@ public abstract class BaseEntityShopObject<E extends Entity>
 		this.lastSpawnLocation = spawnLocation;
 		boolean teleportSuccess = SKShopkeepersPlugin.getInstance().getForcingEntityTeleporter()
 				.teleport(entity, spawnLocation);
+		// The entity id might have changed if the entity was teleported to another world:
+		this.onIdChanged();
 
 		// Inform the AI system:
 		context.baseEntityShops.getEntityAI().updateLocation(this);
@@ -476,7 +528,7 @@ public abstract class BaseEntityShopObject<E extends Entity>
 	@Override
 	public void onTick() {
 		super.onTick();
-		if (checkLimiter.request()) {
+		if (this.requestCheck()) {
 			if (this.isSpawningScheduled()) {
 				Log.debug(DebugOptions.regularTickActivities, () -> shopkeeper.getLogPrefix()
 						+ "Spawning is scheduled. Skipping entity check.");
@@ -490,21 +542,28 @@ public abstract class BaseEntityShopObject<E extends Entity>
 		}
 	}
 
+	private boolean requestCheck() {
+		if (--checkCountdown > 0) return false;
+
+		checkCountdown = tickRateThrottled ? THROTTLED_CHECK_PERIOD_SECONDS : CHECK_PERIOD_SECONDS;
+		return true;
+	}
+
 	private boolean isTickRateThrottled() {
-		return (checkLimiter.getThreshold() == THROTTLED_CHECK_PERIOD_SECONDS);
+		return tickRateThrottled;
 	}
 
 	private void throttleTickRate() {
 		if (this.isTickRateThrottled()) return; // Already throttled
 
 		Log.debug("Throttling tick rate");
-		checkLimiter.setThreshold(THROTTLED_CHECK_PERIOD_SECONDS);
-		checkLimiter.setRemainingThreshold(THROTTLED_CHECK_PERIOD_SECONDS + checkingOffset);
+		tickRateThrottled = true;
+		checkCountdown = THROTTLED_CHECK_PERIOD_SECONDS + checkingOffset;
 	}
 
 	private void resetTickRate() {
-		checkLimiter.setThreshold(CHECK_PERIOD_SECONDS);
-		checkLimiter.setRemainingThreshold(checkingOffset);
+		tickRateThrottled = false;
+		checkCountdown = checkingOffset;
 	}
 
 	private void check() {
@@ -639,6 +698,8 @@ public abstract class BaseEntityShopObject<E extends Entity>
 
 			SKShopkeepersPlugin.getInstance().getForcingEntityTeleporter()
 					.teleport(entity, spawnLocation);
+			// The entity id might have changed if the entity was teleported to another world:
+			this.onIdChanged();
 
 			this.overwriteAI();
 		}
@@ -656,6 +717,8 @@ public abstract class BaseEntityShopObject<E extends Entity>
 
 		SKShopkeepersPlugin.getInstance().getForcingEntityTeleporter()
 				.teleport(entity, lastSpawnLocation);
+		// The entity id might have changed if the entity was teleported to another world:
+		this.onIdChanged();
 	}
 
 	// AI
@@ -0,0 +1,209 @@
+package com.nisovin.shopkeepers.shopobjects.entity.base;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Mob;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.EntityBlockFormEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityCombustByBlockEvent;
+import org.bukkit.event.entity.EntityCombustEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDropItemEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.entity.EntityMountEvent;
+import org.bukkit.event.entity.EntityPortalEvent;
+import org.bukkit.event.entity.EntityTargetEvent;
+import org.bukkit.event.entity.EntityTeleportEvent;
+import org.bukkit.event.entity.EntityTransformEvent;
+import org.bukkit.event.entity.ExplosionPrimeEvent;
+import org.bukkit.event.entity.ProjectileLaunchEvent;
+import org.bukkit.event.vehicle.VehicleEnterEvent;
+import org.bukkit.projectiles.ProjectileSource;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Protects shopkeeper entities from being affected by various vanilla mechanics.
+ * <p>
+ * Unlike the {@link BaseEntityShopListener}, which handles player interactions and needs to remain
+ * registered so that it keeps its position in front of the other event handlers, this listener is
+ * only registered while there are shopkeepers that use entity shop objects.
+ */
+class BaseEntityShopProtectionListener implements Listener {
+
+	private final SKShopkeeperRegistry shopkeeperRegistry;
+
+	BaseEntityShopProtectionListener(SKShopkeepersPlugin plugin) {
+		this.shopkeeperRegistry = plugin.getShopkeeperRegistry();
+	}
+
+	// Note: Some of the event handling may be redundant, since the shopkeeper mobs are set to NoAI.
+	// We handle the events anyway, just in case, to better handle cases of other plugins
+	// interfering or account for unexpected future changes in Minecraft.
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityTarget(EntityTargetEvent event) {
+		Entity entity = event.getEntity();
+		@Nullable Entity target = event.getTarget();
+		if (shopkeeperRegistry.isShopkeeper(entity)
+				|| (target != null && shopkeeperRegistry.isShopkeeper(target))) {
+			event.setCancelled(true);
+		}
+	}
+
+	// TODO Allow Citizen shopkeepers to get hurt if they are configured to be vulnerable? What
+	// about other aspects, such as being targeted by other mobs, creeper charging, enderman
+	// teleporting, etc.? Waiting for further clarification of actual usecases.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityDamage(EntityDamageEvent event) {
+		// Block damaging of shopkeepers:
+		Entity entity = event.getEntity();
+		if (shopkeeperRegistry.isShopkeeper(entity)) {
+			event.setCancelled(true);
+
+			// If damaged by another mob, reset the mob's target. Future targeting should get
+			// prevented somewhere else (see EntityTargetEvent).
+			if (event instanceof EntityDamageByEntityEvent entityDamageByEntityEvent
+					&& entityDamageByEntityEvent.getDamager() instanceof Mob attacker
+					&& entity.equals(attacker.getTarget())) {
+				attacker.setTarget(null);
+			}
+			return;
+		}
+
+		// Prevent damage caused by shopkeeper mobs (e.g. touching a puffed pufferfish shopkeeper):
+		if (event instanceof EntityDamageByEntityEvent entityDamageByEntityEvent
+				&& shopkeeperRegistry.isShopkeeper(entityDamageByEntityEvent.getDamager())) {
+			event.setCancelled(true);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityEnterVehicle(VehicleEnterEvent event) {
+		Entity entity = event.getEntered();
+		if (shopkeeperRegistry.isShopkeeper(entity)) {
+			event.setCancelled(true);
+		}
+	}
+
+	// Note: This might not really be needed currently. We handle this anyway to account for
+	// unexpected or future cases in which mobs might try to mount other non-vehicle entities.
+	// Note: Baby zombies mounting nearby chickens during spawning is not preventable by this event
+	// (mounting happens during entity setup, before the shopkeeper mob has been spawned and is
+	// registered as a shopkeeper object). We handle this case separately by disabling the spawn
+	// data randomization during spawning.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityMount(EntityMountEvent event) {
+		Entity entity = event.getEntity();
+		if (shopkeeperRegistry.isShopkeeper(entity)) {
+			event.setCancelled(true);
+		}
+	}
+
+	// Example: Creepers.
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onExplodePrime(ExplosionPrimeEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onExplode(EntityExplodeEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+			Log.debug(() -> "Cancelled event for entity shop: " + event.getEventName());
+		}
+	}
+
+	// Example: Enderman.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityChangeBlock(EntityChangeBlockEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+		}
+	}
+
+	// This is supposed to cancel all vanilla teleporting.
+	// In Paper, this is also called for plugin invoked teleports, including in cases in which we
+	// try to move the shopkeeper entity. We workaround this issue by forcefully uncanceling the
+	// teleport event again later in the event handling for all our own plugin triggered teleports.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityTeleport(EntityTeleportEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityPortalTeleport(EntityPortalEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+		}
+	}
+
+	// Handles all kinds of events, such as for example villagers struck by lightning turning into
+	// witches.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityTransform(EntityTransformEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+		}
+	}
+
+	// Example: Blazes or skeletons.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityLaunchProjectile(ProjectileLaunchEvent event) {
+		ProjectileSource source = event.getEntity().getShooter();
+		if (!(source instanceof Entity)) return;
+		if (shopkeeperRegistry.isShopkeeper((Entity) source)) {
+			event.setCancelled(true);
+		}
+	}
+
+	// Example: Snowmans.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityBlockForm(EntityBlockFormEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+		}
+	}
+
+	// Example: Chicken laying eggs.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityDropItem(EntityDropItemEvent event) {
+		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
+			event.setCancelled(true);
+		}
+	}
+
+	// Prevent shopkeeper entities from getting set on fire (e.g. monsters in daylight).
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onEntityCombustEvent(EntityCombustEvent event) {
+		// If the entity is standing in lava, fire, etc., we ignore the event.
+		if (event instanceof EntityCombustByBlockEvent) return;
+
+		Entity entity = event.getEntity();
+		if (shopkeeperRegistry.isShopkeeper(entity)) {
+			event.setCancelled(true);
+		}
+	}
+
+	// TODO Called repeatedly once per tick! Issue?
+	// Example: End crystal when placed in the end during a dragon fight.
+	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+	void onBlockIgnited(BlockIgniteEvent event) {
+		var entity = event.getIgnitingEntity();
+		if (entity != null && shopkeeperRegistry.isShopkeeper(entity)) {
+			event.setCancelled(true);
+		}
+	}
+}
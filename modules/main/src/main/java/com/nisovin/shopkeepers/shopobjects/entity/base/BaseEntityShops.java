@@ -5,6 +5,8 @@ import org.bukkit.entity.EntityType;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.shopobjects.ShopObjectTypeListeners;
+import com.nisovin.shopkeepers.shopobjects.entity.AbstractEntityShopObjectType;
 
 /**
  * Implements common default behaviors for {@link BaseEntityShopObject}.
@@ -14,25 +16,43 @@ public class BaseEntityShops {
 	private final SKShopkeepersPlugin plugin;
 	private final EntityAI entityAI;
 	private final BaseEntityShopListener baseEntityShopListener;
+	private final BaseEntityShopProtectionListener baseEntityShopProtectionListener;
+	private final PersistentShopEntities persistentShopEntities;
 
 	public BaseEntityShops(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
 		this.entityAI = new EntityAI(plugin);
 		this.baseEntityShopListener = new BaseEntityShopListener(plugin);
+		this.baseEntityShopProtectionListener = new BaseEntityShopProtectionListener(plugin);
+		this.persistentShopEntities = new PersistentShopEntities(plugin);
 	}
 
 	public void onEnable() {
 		entityAI.onEnable();
 		baseEntityShopListener.onEnable();
+		persistentShopEntities.onEnable();
+
+		// Only registered while there are shopkeepers that use entities (including Citizens
+		// NPCs):
+		this.getShopObjectTypeListeners().registerListener(
+				baseEntityShopProtectionListener,
+				shopObjectType -> shopObjectType instanceof AbstractEntityShopObjectType
+		);
 	}
 
 	public void onDisable() {
 		baseEntityShopListener.onDisable();
+		persistentShopEntities.onDisable();
+		this.getShopObjectTypeListeners().unregisterListener(baseEntityShopProtectionListener);
 
 		// Stop entity AI:
 		entityAI.onDisable();
 	}
 
+	private ShopObjectTypeListeners getShopObjectTypeListeners() {
+		return plugin.getShopkeeperRegistry().getShopObjectTypeListeners();
+	}
+
 	/**
 	 * Gets the {@link EntityAI}.
 	 * 
@@ -42,6 +62,15 @@ public class BaseEntityShops {
 		return entityAI;
 	}
 
+	/**
+	 * Gets the {@link PersistentShopEntities}.
+	 * 
+	 * @return the persistent shop entities
+	 */
+	public PersistentShopEntities getPersistentShopEntities() {
+		return persistentShopEntities;
+	}
+
 	// Bypassing entity spawn blocking plugins (e.g. region protection plugins):
 	void forceEntitySpawn(Location location, EntityType entityType) {
 		if (Settings.bypassSpawnBlocking) {
@@ -1,7 +1,9 @@
 package com.nisovin.shopkeepers.shopobjects.entity.base;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -14,6 +16,7 @@ import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -137,10 +140,34 @@ public class EntityAI implements Listener {
 	 */
 	private boolean customGravityEnabled;
 
+	// Precomputed per entity type data that is used during the gravity processing:
+	private static final class EntityTypeData {
+
+		private static final Map<EntityType, EntityTypeData> CACHE = new EnumMap<>(EntityType.class);
+
+		static EntityTypeData of(EntityType entityType) {
+			return CACHE.computeIfAbsent(entityType, EntityTypeData::new);
+		}
+
+		// Note: Flying mobs are also "affected" by gravity: The gravity logic periodically checks if
+		// the mob is still flying and should therefore play its flying animation.
+		private final boolean affectedByGravity;
+		private final boolean canFly;
+		// The entity may be able to stand on certain types of fluids:
+		private final Set<? extends Material> collidableFluids;
+
+		private EntityTypeData(EntityType entityType) {
+			this.affectedByGravity = (entityType != EntityType.SHULKER);
+			this.canFly = EntityUtils.canFly(entityType);
+			this.collidableFluids = EntityUtils.getCollidableFluids(entityType);
+		}
+	}
+
 	private static class EntityData {
 
 		private final BaseEntityShopObject<?> shopObject;
 		private final ChunkData chunkData;
+		private final EntityTypeData typeData;
 		// Initial threshold between [1, FALLING_CHECK_PERIOD_TICKS] for load balancing:
 		public final RateLimiter fallingCheckLimiter = new RateLimiter(
 				FALLING_CHECK_PERIOD_TICKS,
@@ -156,17 +183,11 @@ public class EntityAI implements Listener {
 		public EntityData(BaseEntityShopObject<?> shopObject, ChunkData chunkData) {
 			this.shopObject = shopObject;
 			this.chunkData = chunkData;
+			this.typeData = EntityTypeData.of(shopObject.getEntityType());
 		}
 
 		public boolean isAffectedByGravity() {
-			// Note: Flying mobs are also "affected" by gravity: The gravity logic periodically
-			// checks if the mob is still flying and should therefore play its flying animation.
-			switch (shopObject.getEntityType()) {
-			case SHULKER:
-				return false;
-			default:
-				return true;
-			}
+			return typeData.affectedByGravity;
 		}
 	}
 
@@ -178,6 +199,9 @@ public class EntityAI implements Listener {
 		// Active by default for fast initial reactions in case players are nearby:
 		public boolean activeGravity;
 		public boolean activeAI = true;
+		// The activation state prior to the current activation update:
+		public boolean wasActiveGravity;
+		public boolean wasActiveAI;
 
 		public ChunkData(ChunkCoords chunkCoords, boolean activeGravity) {
 			this.chunkCoords = chunkCoords;
@@ -185,10 +209,46 @@ public class EntityAI implements Listener {
 		}
 	}
 
+	private static final class ActiveEntities {
+
+		private static final @Nullable EntityData[] EMPTY = new EntityData[0];
+
+		private @Nullable EntityData[] entities = EMPTY;
+		private int size = 0;
+
+		ActiveEntities() {
+		}
+
+		void add(EntityData entityData) {
+			if (size == entities.length) {
+				entities = Arrays.copyOf(entities, Math.max(16, size * 2));
+			}
+			entities[size++] = entityData;
+		}
+
+		void clear() {
+			// Clear the references so that the entity data can be garbage collected:
+			Arrays.fill(entities, 0, size, null);
+			size = 0;
+		}
+
+		void reset() {
+			entities = EMPTY;
+			size = 0;
+		}
+	}
+
 	private final Map<ChunkCoords, ChunkData> chunks = new LinkedHashMap<>();
 	// Index for fast removal: Shop object -> EntityData
 	private final Map<BaseEntityShopObject<?>, EntityData> shopObjects = new HashMap<>();
 
+	// The entities in chunks with active gravity or AI, flattened into arrays that we can cheaply
+	// iterate during each AI update. These are compacted again whenever entities are added or
+	// removed, or the activation state of a chunk changes.
+	private final ActiveEntities gravityEntities = new ActiveEntities();
+	private final ActiveEntities aiEntities = new ActiveEntities();
+	private boolean activeEntitiesDirty = false;
+
 	private @Nullable BukkitTask aiTask = null;
 	private boolean currentlyRunning = false;
 
@@ -231,6 +291,9 @@ public class EntityAI implements Listener {
 		this.stopTask();
 		chunks.clear();
 		shopObjects.clear();
+		gravityEntities.reset();
+		aiEntities.reset();
+		activeEntitiesDirty = false;
 		this.resetStatistics();
 	}
 
@@ -274,6 +337,7 @@ public class EntityAI implements Listener {
 		EntityData entityData = new EntityData(shopObject, chunkData);
 		shopObjects.put(shopObject, entityData);
 		chunkData.entities.add(entityData);
+		activeEntitiesDirty = true;
 
 		// Update entity statistics:
 		if (chunkData.activeAI) {
@@ -296,6 +360,7 @@ public class EntityAI implements Listener {
 
 		ChunkData chunkData = entityData.chunkData;
 		chunkData.entities.remove(entityData);
+		activeEntitiesDirty = true;
 		if (chunkData.entities.isEmpty()) {
 			chunks.remove(chunkData.chunkCoords);
 
@@ -442,10 +507,12 @@ public class EntityAI implements Listener {
 		activationTimings.start();
 
 		// Deactivate all chunks:
-		chunks.values().forEach(chunkData -> {
+		for (ChunkData chunkData : chunks.values()) {
+			chunkData.wasActiveAI = chunkData.activeAI;
+			chunkData.wasActiveGravity = chunkData.activeGravity;
 			chunkData.activeAI = false;
 			chunkData.activeGravity = false;
-		});
+		}
 		activeAIChunksCount = 0;
 		activeGravityChunksCount = 0;
 
@@ -455,6 +522,17 @@ public class EntityAI implements Listener {
 			this.activateNearbyChunks(player);
 		}
 
+		// Only compact the active entities again if the activation state of any chunk changed:
+		if (!activeEntitiesDirty) {
+			for (ChunkData chunkData : chunks.values()) {
+				if (chunkData.activeAI != chunkData.wasActiveAI
+						|| chunkData.activeGravity != chunkData.wasActiveGravity) {
+					activeEntitiesDirty = true;
+					break;
+				}
+			}
+		}
+
 		activationTimings.stop();
 	}
 
@@ -541,12 +619,20 @@ public class EntityAI implements Listener {
 					if (!chunkData.activeGravity) {
 						chunkData.activeGravity = true;
 						activeGravityChunksCount++;
+						if (!currentlyRunning) {
+							// Player-specific activation outside the periodic activation update:
+							activeEntitiesDirty = true;
+						}
 					}
 					break;
 				case AI:
 					if (!chunkData.activeAI) {
 						chunkData.activeAI = true;
 						activeAIChunksCount++;
+						if (!currentlyRunning) {
+							// Player-specific activation outside the periodic activation update:
+							activeEntitiesDirty = true;
+						}
 					}
 					break;
 				default:
@@ -569,26 +655,54 @@ public class EntityAI implements Listener {
 			return;
 		}
 
-		chunks.values().forEach(this::processEntities);
-	}
+		if (activeEntitiesDirty) {
+			this.compactActiveEntities();
+		}
 
-	private void processEntities(ChunkData chunkData) {
-		assert chunkData != null;
-		if (!chunkData.activeGravity && !chunkData.activeAI) {
-			// There is no need to process the chunk's entities:
-			return;
+		// Note: Timings are captured for each processing phase as a whole, instead of for each
+		// individual entity, to avoid the overhead of the involved System.nanoTime calls.
+		if (gravityEntities.size > 0) {
+			gravityTimings.resume();
+			this.processGravity(gravityEntities);
+			gravityTimings.pause();
 		}
 
-		chunkData.entities.forEach(this::processEntity);
+		if (aiEntities.size > 0) {
+			aiTimings.resume();
+			this.processAI(aiEntities);
+			aiTimings.pause();
+		}
 	}
 
-	private void processEntity(EntityData entityData) {
-		assert entityData != null;
+	private void compactActiveEntities() {
+		gravityEntities.clear();
+		aiEntities.clear();
+		for (ChunkData chunkData : chunks.values()) {
+			boolean activeGravity = chunkData.activeGravity;
+			boolean activeAI = chunkData.activeAI;
+			if (!activeGravity && !activeAI) continue;
+
+			List<EntityData> entities = chunkData.entities;
+			for (int i = 0; i < entities.size(); i++) {
+				EntityData entityData = entities.get(i);
+				if (activeGravity && entityData.isAffectedByGravity()) {
+					gravityEntities.add(entityData);
+				}
+				if (activeAI) {
+					aiEntities.add(entityData);
+				}
+			}
+		}
+		activeEntitiesDirty = false;
+	}
+
+	// Returns null if the entity is not spawned or dead.
+	private static @Nullable Entity getAliveEntity(EntityData entityData) {
 		Entity entity = entityData.shopObject.getEntity();
 
 		// Unexpected: The shop object is supposed to unregister itself from the AI system when it
 		// despawns its entity.
-		if (entity == null) return;
+		if (entity == null) return null;
 
 		// Note: Checking entity.isValid() is relatively heavy (compared to other operations) due to
 		// a chunk lookup. The entity's entry is already immediately getting removed as reaction to
@@ -601,26 +715,9 @@ public class EntityAI implements Listener {
 			// Some plugin might have removed the entity. The shop object will remove the entity's
 			// entry once it recognizes that the entity has been removed. Until then, we simply skip
 			// it here.
-			return;
+			return null;
 		}
-
-		ChunkData chunkData = entityData.chunkData;
-
-		// Process gravity:
-		gravityTimings.resume();
-		if (chunkData.activeGravity && entityData.isAffectedByGravity()) {
-			activeGravityEntityCount++;
-			this.processGravity(entityData);
-		}
-		gravityTimings.pause();
-
-		// Process AI:
-		aiTimings.resume();
-		if (chunkData.activeAI) {
-			activeAIEntityCount++;
-			this.processAI(entityData);
-		}
-		aiTimings.pause();
+		return entity;
 	}
 
 	// GRAVITY
@@ -631,7 +728,20 @@ public class EntityAI implements Listener {
 		return !Settings.disableGravity && Compat.getProvider().isNoAIDisablingGravity();
 	}
 
-	private void processGravity(EntityData entityData) {
+	private void processGravity(ActiveEntities activeEntities) {
+		@Nullable EntityData[] entities = activeEntities.entities;
+		int size = activeEntities.size;
+		for (int i = 0; i < size; i++) {
+			EntityData entityData = Unsafe.assertNonNull(entities[i]);
+			Entity entity = getAliveEntity(entityData);
+			if (entity == null) continue;
+
+			activeGravityEntityCount++;
+			this.processGravity(entityData, entity);
+		}
+	}
+
+	private void processGravity(EntityData entityData, Entity entity) {
 		// Check periodically, or if already falling, if the entity is meant to (continue to) fall:
 		// Note: The falling check limiter is not invoked while the entity is already falling. This
 		// ensures that once the entity stops its current fall the limiter will wait a full cycle
@@ -645,13 +755,10 @@ public class EntityAI implements Listener {
 			// performance-wise, even accessing the chunk / the block's type is already comparable
 			// to the raytrace itself, and that this optimization attempt even adds a small
 			// performance impact on top instead.
-			Entity entity = Unsafe.assertNonNull(entityData.shopObject.getEntity());
 			Location entityLocation = Unsafe.assertNonNull(entity.getLocation(sharedLocation));
 
 			// The entity may be able to stand on certain types of fluids:
-			Set<? extends Material> collidableFluids = EntityUtils.getCollidableFluids(
-					entity.getType()
-			);
+			Set<? extends Material> collidableFluids = entityData.typeData.collidableFluids;
 			// However, if the entity is inside a fluid (i.e. if it is spawned underwater or inside
 			// of lava), we ignore this aspect (i.e. it sinks to the ground even if it can usually
 			// stand on top of the liquid).
@@ -676,7 +783,7 @@ public class EntityAI implements Listener {
 			);
 			sharedLocation.setWorld(null); // Reset
 			boolean isInAir = (entityData.distanceToGround >= DISTANCE_TO_GROUND_THRESHOLD);
-			boolean falling = isInAir && !EntityUtils.canFly(entity.getType());
+			boolean falling = isInAir && !entityData.typeData.canFly;
 			entityData.falling = falling;
 
 			if (isInAir && !falling) {
@@ -730,8 +837,17 @@ public class EntityAI implements Listener {
 	// ENTITY AI
 
 	// Gets run every behavior update while in range of players:
-	private void processAI(EntityData entityData) {
-		entityData.shopObject.tickAI();
+	private void processAI(ActiveEntities activeEntities) {
+		@Nullable EntityData[] entities = activeEntities.entities;
+		int size = activeEntities.size;
+		for (int i = 0; i < size; i++) {
+			EntityData entityData = Unsafe.assertNonNull(entities[i]);
+			Entity entity = getAliveEntity(entityData);
+			if (entity == null) continue;
+
+			activeAIEntityCount++;
+			entityData.shopObject.tickAI();
+		}
 	}
 
 	// EVENT HANDLERS
@@ -0,0 +1,203 @@
+package com.nisovin.shopkeepers.shopobjects.entity.base;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.bukkit.NamespacedKeyUtils;
+import com.nisovin.shopkeepers.util.java.ConversionUtils;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Keeps track of shopkeeper entities that are persisted together with their chunk.
+ * <p>
+ * By default, shopkeeper entities are not persistent: They are removed when their chunk is
+ * unloaded, and freshly spawned again when their chunk is activated. If
+ * {@link Settings#persistShopEntities} is enabled, shopkeeper entities are instead marked with the
+ * unique id of their shopkeeper and kept when their chunk unloads. When the chunk's entities are
+ * loaded again, these entities are adopted by their shop objects instead of spawning new entities.
+ * <p>
+ * Tagged entities that are not adopted by their shopkeeper (e.g. because the shopkeeper has been
+ * deleted in the meantime, because the shopkeeper already spawned a new entity, or because the
+ * setting has been disabled) are removed.
+ */
+public class PersistentShopEntities implements Listener {
+
+	private static final NamespacedKey KEY_SHOPKEEPER = NamespacedKeyUtils.create(
+			"shopkeepers",
+			"shopkeeper"
+	);
+
+	/**
+	 * Marks the given entity with the unique id of the given shopkeeper.
+	 *
+	 * @param entity
+	 *            the entity, not <code>null</code>
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 */
+	public static void tag(Entity entity, AbstractShopkeeper shopkeeper) {
+		Validate.notNull(entity, "entity is null");
+		Validate.notNull(shopkeeper, "shopkeeper is null");
+		entity.getPersistentDataContainer().set(
+				KEY_SHOPKEEPER,
+				PersistentDataType.STRING,
+				shopkeeper.getUniqueId().toString()
+		);
+	}
+
+	/**
+	 * Gets the unique id of the shopkeeper that the given entity is marked with.
+	 *
+	 * @param entity
+	 *            the entity, not <code>null</code>
+	 * @return the shopkeeper's unique id, or <code>null</code> if the entity is not marked
+	 */
+	public static @Nullable UUID getShopkeeperUniqueId(Entity entity) {
+		Validate.notNull(entity, "entity is null");
+		PersistentDataContainer dataContainer = entity.getPersistentDataContainer();
+		String uniqueIdString = dataContainer.get(KEY_SHOPKEEPER, PersistentDataType.STRING);
+		if (uniqueIdString == null) return null;
+		return ConversionUtils.parseUUID(uniqueIdString);
+	}
+
+	// ----
+
+	private final SKShopkeepersPlugin plugin;
+
+	// Loaded tagged entities that are waiting to be adopted by their shopkeepers:
+	private final Map<UUID, Entity> pendingEntities = new HashMap<>();
+	// Chunks that are currently being unloaded: Shopkeeper entities in these chunks are kept.
+	private final Set<ChunkCoords> unloadingChunks = new HashSet<>();
+
+	PersistentShopEntities(SKShopkeepersPlugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+	}
+
+	void onEnable() {
+		// This is also registered if the setting is disabled, so that we remove previously
+		// persisted shopkeeper entities:
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+	}
+
+	void onDisable() {
+		HandlerList.unregisterAll(this);
+		pendingEntities.clear();
+		unloadingChunks.clear();
+	}
+
+	/**
+	 * Checks if the shopkeeper entities in the given chunk shall be kept when they are despawned,
+	 * because the chunk is currently being unloaded and will save these entities.
+	 *
+	 * @param chunkCoords
+	 *            the chunk coordinates, not <code>null</code>
+	 * @return <code>true</code> if the entities shall be kept
+	 */
+	boolean isKeepEntities(ChunkCoords chunkCoords) {
+		return Settings.persistShopEntities && unloadingChunks.contains(chunkCoords);
+	}
+
+	/**
+	 * Removes and returns the loaded persisted entity of the given shopkeeper, if there is one.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 * @return the entity, or <code>null</code> if there is no such entity
+	 */
+	@Nullable
+	Entity takeEntity(AbstractShopkeeper shopkeeper) {
+		Entity entity = pendingEntities.remove(shopkeeper.getUniqueId());
+		if (entity == null) return null;
+		if (!entity.isValid()) return null;
+		return entity;
+	}
+
+	// Runs before the chunk activator deactivates the chunk on MONITOR priority.
+	@EventHandler(priority = EventPriority.HIGHEST)
+	void onChunkUnload(ChunkUnloadEvent event) {
+		if (!Settings.persistShopEntities) return;
+
+		// This is reset once the chunk unload has been handled:
+		ChunkCoords chunkCoords = new ChunkCoords(event.getChunk());
+		if (unloadingChunks.isEmpty()) {
+			Bukkit.getScheduler().runTask(plugin, unloadingChunks::clear);
+		}
+		unloadingChunks.add(chunkCoords);
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onEntitiesLoad(EntitiesLoadEvent event) {
+		for (Entity entity : event.getEntities()) {
+			UUID shopkeeperUniqueId = getShopkeeperUniqueId(entity);
+			if (shopkeeperUniqueId == null) continue;
+
+			AbstractShopkeeper shopkeeper = plugin.getShopkeeperRegistry().getShopkeeperByUniqueId(
+					shopkeeperUniqueId
+			);
+			if (Settings.persistShopEntities && shopkeeper != null
+					&& shopkeeper.getShopObject() instanceof BaseEntityShopObject
+					&& !shopkeeper.getShopObject().isSpawned()) {
+				// Adopted once the shopkeeper is spawned:
+				Entity previous = pendingEntities.put(shopkeeperUniqueId, entity);
+				if (previous != null && previous != entity) {
+					removeEntity(previous, shopkeeper.getLogPrefix() + "Duplicate");
+				}
+				continue;
+			}
+
+			String reason;
+			if (shopkeeper == null) {
+				reason = "Orphaned";
+			} else if (!Settings.persistShopEntities) {
+				reason = shopkeeper.getLogPrefix() + "No longer persisted";
+			} else {
+				reason = shopkeeper.getLogPrefix() + "Duplicate";
+			}
+			removeEntity(entity, reason);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onEntitiesUnload(EntitiesUnloadEvent event) {
+		if (pendingEntities.isEmpty()) return;
+		Chunk chunk = event.getChunk();
+		pendingEntities.values().removeIf(entity -> {
+			if (!entity.isValid()) return true;
+			Location location = entity.getLocation();
+			return location.getWorld() == chunk.getWorld()
+					&& ChunkCoords.fromBlock(location.getBlockX()) == chunk.getX()
+					&& ChunkCoords.fromBlock(location.getBlockZ()) == chunk.getZ();
+		});
+	}
+
+	private static void removeEntity(Entity entity, String reason) {
+		Log.debug(() -> reason + " persisted shopkeeper entity removed at "
+				+ entity.getLocation());
+		entity.remove();
+	}
+}
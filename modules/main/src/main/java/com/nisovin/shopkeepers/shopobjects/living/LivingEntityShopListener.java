@@ -2,7 +2,6 @@ package com.nisovin.shopkeepers.shopobjects.living;
 
 import java.util.Collection;
 
-import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
@@ -11,7 +10,6 @@ import org.bukkit.entity.PigZombie;
 import org.bukkit.event.Event.Result;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockDispenseArmorEvent;
 import org.bukkit.event.entity.CreeperPowerEvent;
@@ -34,23 +32,26 @@ import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
  * Extends the base entity shop listener with event handlers specific to living entities.
+ * <p>
+ * This listener is only registered while there are shopkeepers that use living entities.
  */
 class LivingEntityShopListener implements Listener {
 
-	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
 
 	LivingEntityShopListener(SKShopkeepersPlugin plugin) {
-		this.plugin = plugin;
 		this.shopkeeperRegistry = plugin.getShopkeeperRegistry();
 	}
 
 	void onEnable() {
-		Bukkit.getPluginManager().registerEvents(this, plugin);
+		shopkeeperRegistry.getShopObjectTypeListeners().registerListener(
+				this,
+				shopObjectType -> shopObjectType instanceof SKLivingShopObjectType
+		);
 	}
 
 	void onDisable() {
-		HandlerList.unregisterAll(this);
+		shopkeeperRegistry.getShopObjectTypeListeners().unregisterListener(this);
 	}
 
 	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
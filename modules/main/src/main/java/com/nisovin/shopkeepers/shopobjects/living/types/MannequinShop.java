@@ -1,6 +1,7 @@
 package com.nisovin.shopkeepers.shopobjects.living.types;
 
 import java.util.List;
+import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -314,26 +315,41 @@ public class MannequinShop extends SKLivingShopObject<LivingEntity> {
 		// We support both name and uuid lookups:
 		var uuid = ConversionUtils.parseUUID(preparedInput);
 		if (uuid == null && !Compat.getProvider().getCompatVersion().isPaper()) {
-			// TODO Workaround for SPIGOT-8088: Lookup the player id via OfflinePlayer (blocking!)
-			var offlinePlayer = Bukkit.getOfflinePlayer(preparedInput);
-			uuid = offlinePlayer.getUniqueId(); // Potentially a non-existent offline uuid
+			// TODO Workaround for SPIGOT-8088: Lookup the player id by name. This is resolved
+			// without blocking the server, so we continue in a later tick.
+			var plugin = SKShopkeepersPlugin.getInstance();
+			plugin.getUserNameResolver().resolveUniqueId(preparedInput).whenComplete((resolvedUuid, e) -> {
+				if (e != null) {
+					// Unexpected: Unknown names still result in an offline player id.
+					Log.debug("Failed to look up player id: " + preparedInput, e);
+					return;
+				}
+				if (!player.isOnline()) return;
+
+				this.lookupProfile(player, preparedInput, resolvedUuid);
+			});
+			return;
 		}
 
+		this.lookupProfile(player, preparedInput, uuid);
+	}
+
+	private void lookupProfile(Player player, String input, @Nullable UUID uuid) {
 		var profile = uuid != null
 				// TODO Empty name: Workaround for SPIGOT-8088
 				? Bukkit.createPlayerProfile(uuid, "")
-				: Bukkit.createPlayerProfile(preparedInput);
+				: Bukkit.createPlayerProfile(input);
 		var plugin = SKShopkeepersPlugin.getInstance();
 		profile.update().whenComplete((updatedProfile, e) -> {
 			if (e != null) {
 				// Unexpected: If the lookup "fails", we expect to just get back the incomplete
 				// profile. This might be reached if there is some bug in the server.
-				Log.debug("Failed to update player profile: " + preparedInput, e);
+				Log.debug("Failed to update player profile: " + input, e);
 				return;
 			}
 
 			SchedulerUtils.runOnMainThreadOrOmit(plugin, () -> {
-				this.updateProfile(player, preparedInput, updatedProfile);
+				this.updateProfile(player, input, updatedProfile);
 			});
 		});
 	}
@@ -0,0 +1,49 @@
+package com.nisovin.shopkeepers.spigot.text;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.text.Text;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+
+/**
+ * A {@link Text} message that has already been converted into its platform specific
+ * representation, so that it can be sent without any further processing.
+ * <p>
+ * Messages can be prepared asynchronously, for example when a large number of messages with item
+ * hover events needs to be sent, and are then sent on the server's main thread.
+ */
+public final class PreparedMessage {
+
+	/**
+	 * An empty {@link PreparedMessage}. Sending this has no effect.
+	 */
+	public static final PreparedMessage EMPTY = new PreparedMessage(Text.EMPTY, null);
+
+	private final Text message;
+	// Null if the message is empty:
+	private final @Nullable BaseComponent component;
+
+	PreparedMessage(Text message, @Nullable BaseComponent component) {
+		this.message = message;
+		this.component = component;
+	}
+
+	/**
+	 * Checks if this message is empty.
+	 *
+	 * @return <code>true</code> if empty
+	 */
+	public boolean isEmpty() {
+		return (component == null);
+	}
+
+	Text getMessage() {
+		return message;
+	}
+
+	BaseComponent getComponent() {
+		return Unsafe.assertNonNull(component);
+	}
+}
@@ -44,6 +44,24 @@ public final class SpigotText {
 		Internal.sendMessage(recipient, message);
 	}
 
+	// Note: This is not intended to be called directly, but only via TextUtils.
+	public static PreparedMessage prepareMessage(Text message) {
+		Validate.notNull(message, "message is null");
+		// Skip sending if the (plain) message is empty: Allows disabling of messages.
+		if (message.isPlainTextEmpty()) return PreparedMessage.EMPTY;
+
+		return new PreparedMessage(message, Internal.toSpigot(message));
+	}
+
+	// Note: This is not intended to be called directly, but only via TextUtils.
+	public static void sendMessage(CommandSender recipient, PreparedMessage message) {
+		Validate.notNull(recipient, "recipient is null");
+		Validate.notNull(message, "message is null");
+		if (message.isEmpty()) return;
+
+		Internal.sendMessage(recipient, message.getMessage(), message.getComponent());
+	}
+
 	// Separate class for enhanced text component conversion. Paper includes Spigot API, so this is always available.
 	private static final class Internal {
 
@@ -51,7 +69,11 @@ public final class SpigotText {
 
 		public static void sendMessage(CommandSender recipient, Text message) {
 			assert recipient != null && message != null;
-			BaseComponent component = toSpigot(message);
+			sendMessage(recipient, message, toSpigot(message));
+		}
+
+		public static void sendMessage(CommandSender recipient, Text message, BaseComponent component) {
+			assert recipient != null && message != null && component != null;
 			if (Debug.isDebugging(DebugOptions.textComponents)) {
 				Log.info("Text: " + message);
 				Log.info("Plain text: " + message.toPlainText());
@@ -117,7 +139,7 @@ public final class SpigotText {
 			}
 		}
 
-		private static BaseComponent toSpigot(Text text) {
+		static BaseComponent toSpigot(Text text) {
 			assert text != null;
 			BaseComponent root = new TextComponent();
 			toSpigot(text, null, root, new TextStyle());
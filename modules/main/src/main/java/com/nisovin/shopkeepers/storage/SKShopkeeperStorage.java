@@ -1,23 +1,28 @@
 package com.nisovin.shopkeepers.storage;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -28,12 +33,15 @@ import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
+import com.nisovin.shopkeepers.api.user.User;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.debug.Debug;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.ShopkeeperData;
+import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.registry.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.storage.migration.RawDataMigrations;
+import com.nisovin.shopkeepers.util.bukkit.ConfigUtils;
 import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.PluginUtils;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
@@ -126,6 +134,17 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 	/* Loading */
 	private boolean currentlyLoading = false;
+	// World name -> Ids of the shopkeepers in that world whose data is not loaded, because their
+	// world is not loaded. Their data remains in the saveData until their world is loaded.
+	private final Map<String, Set<Integer>> nonResidentShopkeepers = new HashMap<>();
+	// Owner id -> Ids of the non-resident player shopkeepers of that owner, and the reverse
+	// mapping. These are read from the not yet migrated save data:
+	private final Map<UUID, Set<Integer>> nonResidentShopkeepersByOwner = new HashMap<>();
+	private final Map<Integer, UUID> nonResidentShopkeeperOwners = new HashMap<>();
+	// Whether the non-resident shopkeepers shall be saved once they are loaded, e.g. because the
+	// data version changed:
+	private boolean forceSaveNonResidentShopkeepers = false;
+	private final WorldShopkeepersLoader worldShopkeepersLoader;
 
 	/* Saving */
 	private final SaveTask saveTask;
@@ -140,6 +159,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		this.plugin = plugin;
 		this.saveFile = Unsafe.initialized(this)._getSaveFile();
 		this.saveTask = new SaveTask(plugin);
+		this.worldShopkeepersLoader = new WorldShopkeepersLoader(plugin, Unsafe.initialized(this));
 	}
 
 	private Path getPluginDataFolder() {
@@ -155,6 +175,8 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	}
 
 	public void onEnable() {
+		worldShopkeepersLoader.onEnable();
+
 		// Start periodic save task:
 		if (!Settings.saveInstantly) {
 			new PeriodicSaveTask().start();
@@ -162,6 +184,8 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	}
 
 	public void onDisable() {
+		worldShopkeepersLoader.onDisable();
+
 		// Ensure that there is no unsaved data and that all saves are completed before we continue:
 		this.saveIfDirtyAndAwaitCompletion();
 
@@ -365,6 +389,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		saveData.clear();
 		maxUsedShopkeeperId = 0;
 		nextShopkeeperId = 1;
+		nonResidentShopkeepers.clear();
+		nonResidentShopkeepersByOwner.clear();
+		nonResidentShopkeeperOwners.clear();
+		forceSaveNonResidentShopkeepers = false;
 	}
 
 	// Returns true on success, and false if there was some severe issue during loading.
@@ -431,8 +459,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			var content = FileUtils.read(reader);
 
 			// Apply string-based migrations:
+			// This returns the same instance if the data was not changed.
 			var migratedContent = RawDataMigrations.applyMigrations(content);
-			rawDataMigrated = !content.equals(migratedContent);
+			rawDataMigrated = (migratedContent != content);
 
 			if (rawDataMigrated) {
 				var now = LocalDateTime.now();
@@ -575,6 +604,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			Log.info("The saved data of all shopkeepers is updated.");
 			this.requestSave();
 		}
+		forceSaveNonResidentShopkeepers = forceSaveAllShopkeepers;
 
 		for (String key : keys) {
 			if (key.equals(DATA_VERSION_KEY)) continue; // Skip the data version entry
@@ -588,9 +618,148 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// all player shop containers on the server (which is even worse).
 			this.loadShopkeeper(key, forceSaveAllShopkeepers);
 		}
+
+		if (!nonResidentShopkeepers.isEmpty()) {
+			Log.info("Deferred the loading of " + this.getNonResidentShopkeepersCount()
+					+ " shopkeepers in " + nonResidentShopkeepers.size()
+					+ " worlds that are not loaded.");
+		}
 		return true;
 	}
 
+	/**
+	 * Reloads the save file, but only unloads and reloads those shopkeepers whose saved data has
+	 * changed, or that have been added or removed.
+	 * <p>
+	 * Unlike {@link #reload()}, this keeps unchanged shopkeepers loaded and spawned. If the save
+	 * file requires data migrations, or if its data version does not match the current data
+	 * version, this falls back to a full {@link #reload()}.
+	 * <p>
+	 * If the save file cannot be loaded, the currently loaded shopkeepers are kept unchanged.
+	 * <p>
+	 * This is blocking and will wait for any currently ongoing or pending saves to complete!
+	 * 
+	 * @return <code>true</code> on success, <code>false</code> if there was some severe issue
+	 *         during loading
+	 */
+	public boolean reloadChanged() {
+		if (currentlyLoading) {
+			throw new IllegalStateException("Already loading right now!");
+		}
+
+		// Ensures that the in-memory save data matches the data of the loaded shopkeepers, and
+		// avoids concurrent access of the save file:
+		this.saveIfDirtyAndAwaitCompletion();
+
+		currentlyLoading = true;
+		boolean result;
+		try {
+			result = this.doReloadChanged();
+		} catch (Exception e) {
+			Log.severe(
+					"Something unexpected went wrong during the reloading of the saved shopkeepers data!",
+					e
+			);
+			result = false; // Error
+		} finally {
+			currentlyLoading = false;
+		}
+		return result;
+	}
+
+	private boolean doReloadChanged() {
+		Path saveFile = this.saveFile;
+		if (!Files.exists(saveFile)) {
+			Log.info("Found no save file. Performing a full reload of the shopkeepers data.");
+			return this.doReload();
+		}
+
+		// Load the new save data, without affecting the currently loaded shopkeepers yet:
+		BukkitConfigDataStore newSaveData = BukkitConfigDataStore.ofNewYamlConfig();
+		try (Reader reader = Files.newBufferedReader(saveFile, StandardCharsets.UTF_8)) {
+			var content = FileUtils.read(reader);
+
+			// Save data of the current data version does not require any data migrations. We
+			// check the data version before we parse the data:
+			DataVersion dataVersion = RawDataMigrations.extractDataVersion(content);
+			if (!DataVersion.current().equals(dataVersion)) {
+				Log.info("The data version of the save file has changed. Performing a full reload"
+						+ " of the shopkeepers data.");
+				return this.doReload();
+			}
+			newSaveData.loadFromString(content);
+		} catch (Exception e) {
+			Log.severe("Failed to load the save file! Keeping the currently loaded shopkeepers.", e);
+			return false;
+		}
+
+		// Unload the shopkeepers that have been removed from the save file:
+		int unloaded = 0;
+		for (String key : new ArrayList<>(saveData.getKeys())) {
+			if (key.equals(DATA_VERSION_KEY)) continue;
+			if (newSaveData.contains(key)) continue;
+
+			this.unloadShopkeeper(key);
+			saveData.remove(key);
+			unloaded++;
+		}
+
+		// Load new shopkeepers and reload the shopkeepers whose data has changed:
+		int reloaded = 0;
+		int loaded = 0;
+		for (String key : newSaveData.getKeys()) {
+			if (key.equals(DATA_VERSION_KEY)) continue;
+
+			Object newData = Unsafe.assertNonNull(newSaveData.get(key));
+			Object oldData = saveData.get(key);
+			if (oldData != null) {
+				if (toComparableConfigYaml(key, oldData).equals(toComparableConfigYaml(key, newData))) {
+					continue; // Unchanged
+				}
+
+				this.unloadShopkeeper(key);
+				reloaded++;
+			} else {
+				loaded++;
+			}
+
+			saveData.set(key, toPlainData(newData));
+			this.loadShopkeeper(key, false);
+		}
+
+		Log.info("Reloaded the shopkeepers data: " + loaded + " added, " + reloaded + " changed, "
+				+ unloaded + " removed.");
+		return true;
+	}
+
+	// Unloads the currently loaded shopkeeper with the specified id, if there is one.
+	private void unloadShopkeeper(String key) {
+		Integer idInt = ConversionUtils.parseInt(key);
+		if (idInt == null) return;
+
+		if (this.removeNonResidentShopkeeper(idInt)) return;
+
+		AbstractShopkeeper shopkeeper = this.getShopkeeperRegistry().getShopkeeperById(idInt);
+		if (shopkeeper == null) return; // Not loaded (e.g. if it failed to load)
+
+		this.getShopkeeperRegistry().unloadShopkeeper(shopkeeper);
+	}
+
+	// Replaces any config sections with Maps.
+	private static Object toPlainData(Object data) {
+		if (data instanceof ConfigurationSection) {
+			return ConfigUtils.convertSectionsToMaps((ConfigurationSection) data);
+		}
+		return data;
+	}
+
+	// The in-memory save data can differ in its representation from the data loaded from the save
+	// file (e.g. unmodifiable item stacks vs. item stacks). We therefore compare the serialized
+	// data.
+	private static String toComparableConfigYaml(String key, Object data) {
+		return ConfigUtils.toConfigYaml(key, toPlainData(data));
+	}
+
 	private @Nullable ShopkeeperData getShopkeeperData(int shopkeeperId) {
 		DataContainer shopkeeperDataContainer = saveData.getContainer(String.valueOf(shopkeeperId));
 		if (shopkeeperDataContainer == null) {
@@ -612,6 +781,10 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 	}
 
 	private void loadShopkeeper(String key, boolean forceSave) {
+		this.loadShopkeeper(key, forceSave, true);
+	}
+
+	private void loadShopkeeper(String key, boolean forceSave, boolean deferIfWorldUnloaded) {
 		Integer idInt = ConversionUtils.parseInt(key);
 		if (idInt == null || idInt <= 0) {
 			this.failedToLoadShopkeeper(key, "Invalid id: " + key);
@@ -623,6 +796,15 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			maxUsedShopkeeperId = shopkeeperId;
 		}
 
+		// Defer the loading (including the data migrations) of shopkeepers in unloaded worlds:
+		if (deferIfWorldUnloaded && Settings.loadShopkeepersWithWorlds) {
+			String worldName = this.getUnloadedWorldName(key);
+			if (worldName != null) {
+				this.addNonResidentShopkeeper(worldName, shopkeeperId);
+				return;
+			}
+		}
+
 		ShopkeeperData shopkeeperData = this.getShopkeeperData(shopkeeperId);
 		if (shopkeeperData == null) {
 			this.failedToLoadShopkeeper(key, "Invalid shopkeeper data!");
@@ -661,6 +843,276 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 	}
 
+	// Returns the shopkeeper's world name if its world is not loaded, and null otherwise.
+	private @Nullable String getUnloadedWorldName(String key) {
+		DataContainer shopkeeperDataContainer = saveData.getContainer(key);
+		if (shopkeeperDataContainer == null) return null;
+
+		String worldName;
+		try {
+			// Does not copy the data:
+			worldName = ShopkeeperData.ofNonNull(shopkeeperDataContainer)
+					.getOrNullIfMissing(AbstractShopkeeper.WORLD_NAME);
+		} catch (InvalidDataException e) {
+			return null; // Reported when the shopkeeper is loaded
+		}
+		if (worldName == null) return null; // Virtual shopkeeper
+		if (Bukkit.getWorld(worldName) != null) return null;
+		return worldName;
+	}
+
+	// Returns null if the shopkeeper is not a player shopkeeper, or if its owner cannot be read.
+	private @Nullable UUID getSavedOwnerId(int shopkeeperId) {
+		DataContainer shopkeeperDataContainer = saveData.getContainer(String.valueOf(shopkeeperId));
+		if (shopkeeperDataContainer == null) return null;
+
+		try {
+			// Does not copy the data:
+			return ShopkeeperData.ofNonNull(shopkeeperDataContainer)
+					.getOrNullIfMissing(AbstractPlayerShopkeeper.OWNER_UNIQUE_ID);
+		} catch (InvalidDataException e) {
+			return null; // Reported when the shopkeeper is loaded
+		}
+	}
+
+	// NON-RESIDENT SHOPKEEPERS
+
+	/**
+	 * Gets the names of the worlds that contain shopkeepers that are not loaded, because
+	 * {@link Settings#loadShopkeepersWithWorlds} is enabled and their world is not loaded.
+	 * <p>
+	 * Non-resident shopkeepers are not contained in the {@link SKShopkeeperRegistry}.
+	 * 
+	 * @return an unmodifiable view on the world names, not <code>null</code>
+	 */
+	public Collection<? extends String> getNonResidentWorlds() {
+		return Collections.unmodifiableSet(nonResidentShopkeepers.keySet());
+	}
+
+	/**
+	 * Gets the ids of the non-resident shopkeepers in the specified world.
+	 * 
+	 * @param worldName
+	 *            the world name, not <code>null</code>
+	 * @return an unmodifiable view on the shopkeeper ids, not <code>null</code>
+	 * @see #getNonResidentWorlds()
+	 */
+	public Collection<? extends Integer> getNonResidentShopkeeperIds(String worldName) {
+		Validate.notNull(worldName, "worldName is null");
+		Set<Integer> shopkeeperIds = nonResidentShopkeepers.get(worldName);
+		if (shopkeeperIds == null) return Collections.emptySet();
+		return Collections.unmodifiableSet(shopkeeperIds);
+	}
+
+	/**
+	 * Gets the number of non-resident shopkeepers.
+	 * 
+	 * @return the number of non-resident shopkeepers
+	 * @see #getNonResidentWorlds()
+	 */
+	public int getNonResidentShopkeepersCount() {
+		int count = 0;
+		for (Set<Integer> shopkeeperIds : nonResidentShopkeepers.values()) {
+			count += shopkeeperIds.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the unique ids of the owners of non-resident player shopkeepers.
+	 * <p>
+	 * The owners are read from the saved data of the non-resident shopkeepers, which has not yet
+	 * been migrated.
+	 * 
+	 * @return an unmodifiable view on the owner ids, not <code>null</code>
+	 * @see #getNonResidentWorlds()
+	 */
+	public Collection<? extends UUID> getNonResidentShopkeeperOwners() {
+		return Collections.unmodifiableSet(nonResidentShopkeepersByOwner.keySet());
+	}
+
+	/**
+	 * Gets the ids of the non-resident player shopkeepers of the specified owner.
+	 * <p>
+	 * These player shopkeepers are not included in
+	 * {@link SKShopkeeperRegistry#getPlayerShopkeepersByOwner(UUID)}, but shall for example still
+	 * count towards the owner's shop limits.
+	 * 
+	 * @param ownerId
+	 *            the owner's unique id, not <code>null</code>
+	 * @return an unmodifiable view on the shopkeeper ids, not <code>null</code>
+	 * @see #getNonResidentWorlds()
+	 */
+	public Collection<? extends Integer> getNonResidentShopkeeperIdsByOwner(UUID ownerId) {
+		Validate.notNull(ownerId, "ownerId is null");
+		Set<Integer> shopkeeperIds = nonResidentShopkeepersByOwner.get(ownerId);
+		if (shopkeeperIds == null) return Collections.emptySet();
+		return Collections.unmodifiableSet(shopkeeperIds);
+	}
+
+	/**
+	 * Gets the owner of the specified non-resident player shopkeeper, as read from its saved data.
+	 * 
+	 * @param shopkeeperId
+	 *            the shopkeeper id
+	 * @return the owner, or <code>null</code> if there is no non-resident player shopkeeper with
+	 *         the specified id, or if its owner cannot be read
+	 * @see #getNonResidentShopkeeperOwners()
+	 */
+	public @Nullable User getNonResidentShopkeeperOwner(int shopkeeperId) {
+		if (!nonResidentShopkeeperOwners.containsKey(shopkeeperId)) return null;
+
+		DataContainer shopkeeperDataContainer = saveData.getContainer(String.valueOf(shopkeeperId));
+		if (shopkeeperDataContainer == null) return null;
+
+		try {
+			// Does not copy the data:
+			return ShopkeeperData.ofNonNull(shopkeeperDataContainer)
+					.get(AbstractPlayerShopkeeper.OWNER);
+		} catch (InvalidDataException e) {
+			return null; // Reported when the shopkeeper is loaded
+		}
+	}
+
+	/**
+	 * Gets a copy of the saved data of the specified non-resident shopkeeper.
+	 * <p>
+	 * The data has not yet been migrated.
+	 * 
+	 * @param shopkeeperId
+	 *            the shopkeeper id
+	 * @return the shopkeeper data, or <code>null</code> if there is no non-resident shopkeeper with
+	 *         the specified id
+	 * @see #getNonResidentWorlds()
+	 */
+	public @Nullable ShopkeeperData getNonResidentShopkeeperData(int shopkeeperId) {
+		for (Set<Integer> shopkeeperIds : nonResidentShopkeepers.values()) {
+			if (shopkeeperIds.contains(shopkeeperId)) {
+				return this.getShopkeeperData(shopkeeperId);
+			}
+		}
+		return null;
+	}
+
+	private void addNonResidentShopkeeper(String worldName, int shopkeeperId) {
+		nonResidentShopkeepers.computeIfAbsent(worldName, k -> new LinkedHashSet<>())
+				.add(shopkeeperId);
+
+		UUID ownerId = this.getSavedOwnerId(shopkeeperId);
+		if (ownerId != null) {
+			nonResidentShopkeepersByOwner.computeIfAbsent(ownerId, k -> new LinkedHashSet<>())
+					.add(shopkeeperId);
+			nonResidentShopkeeperOwners.put(shopkeeperId, ownerId);
+		}
+	}
+
+	// Returns true if the shopkeeper was non-resident.
+	private boolean removeNonResidentShopkeeper(int shopkeeperId) {
+		this.removeNonResidentShopkeeperOwner(shopkeeperId);
+
+		var iterator = nonResidentShopkeepers.values().iterator();
+		while (iterator.hasNext()) {
+			Set<Integer> shopkeeperIds = iterator.next();
+			if (shopkeeperIds.remove(shopkeeperId)) {
+				if (shopkeeperIds.isEmpty()) {
+					iterator.remove();
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void removeNonResidentShopkeeperOwner(int shopkeeperId) {
+		UUID ownerId = nonResidentShopkeeperOwners.remove(shopkeeperId);
+		if (ownerId == null) return;
+
+		Set<Integer> shopkeeperIds = nonResidentShopkeepersByOwner.get(ownerId);
+		if (shopkeeperIds == null) return;
+
+		shopkeeperIds.remove(shopkeeperId);
+		if (shopkeeperIds.isEmpty()) {
+			nonResidentShopkeepersByOwner.remove(ownerId);
+		}
+	}
+
+	/**
+	 * Loads the specified non-resident shopkeeper, even though its world is not loaded.
+	 * <p>
+	 * This can for example be used to delete the shopkeeper in the same way as a loaded
+	 * shopkeeper. If the shopkeeper remains in the registry, it can be moved back into its saved
+	 * form via {@link #unloadWorldShopkeepers(String)}.
+	 * 
+	 * @param shopkeeperId
+	 *            the shopkeeper id
+	 * @return the loaded shopkeeper, or <code>null</code> if there is no non-resident shopkeeper
+	 *         with the specified id, or if it failed to load
+	 */
+	public @Nullable AbstractShopkeeper loadNonResidentShopkeeper(int shopkeeperId) {
+		if (!this.removeNonResidentShopkeeper(shopkeeperId)) return null;
+
+		this.loadShopkeeper(
+				String.valueOf(shopkeeperId),
+				forceSaveNonResidentShopkeepers,
+				false
+		);
+		return this.getShopkeeperRegistry().getShopkeeperById(shopkeeperId);
+	}
+
+	/**
+	 * Loads the non-resident shopkeepers of the specified world, which has just been loaded.
+	 * 
+	 * @param worldName
+	 *            the world name, not <code>null</code>
+	 */
+	void loadNonResidentShopkeepers(String worldName) {
+		Set<Integer> shopkeeperIds = nonResidentShopkeepers.remove(worldName);
+		if (shopkeeperIds == null) return;
+
+		shopkeeperIds.forEach(this::removeNonResidentShopkeeperOwner);
+
+		Log.info("Loading " + shopkeeperIds.size() + " shopkeepers of world '" + worldName
+				+ "' ...");
+		// Performs the deferred data migrations:
+		shopkeeperIds.forEach(shopkeeperId -> {
+			this.loadShopkeeper(String.valueOf(shopkeeperId), forceSaveNonResidentShopkeepers);
+		});
+	}
+
+	/**
+	 * Unloads the shopkeepers of the specified world, which is about to be unloaded or is not
+	 * loaded, and keeps their data in its saved form until the world is loaded again.
+	 * 
+	 * @param worldName
+	 *            the world name, not <code>null</code>
+	 */
+	public void unloadWorldShopkeepers(String worldName) {
+		SKShopkeeperRegistry shopkeeperRegistry = this.getShopkeeperRegistry();
+		List<? extends AbstractShopkeeper> shopkeepers = new ArrayList<>(
+				shopkeeperRegistry.getShopkeepersInWorld(worldName)
+		);
+		if (shopkeepers.isEmpty()) return;
+
+		// Transfer the latest shopkeeper data into the save data, so that it can be loaded from
+		// there again later:
+		if (shopkeepers.stream().anyMatch(AbstractShopkeeper::isDirty)) {
+			this.saveIfDirtyAndAwaitCompletion();
+		}
+
+		int unloaded = 0;
+		for (AbstractShopkeeper shopkeeper : shopkeepers) {
+			// Shopkeepers that failed to save remain loaded:
+			if (shopkeeper.isDirty()) continue;
+			if (!saveData.contains(String.valueOf(shopkeeper.getId()))) continue;
+
+			shopkeeperRegistry.unloadShopkeeper(shopkeeper);
+			this.addNonResidentShopkeeper(worldName, shopkeeper.getId());
+			unloaded++;
+		}
+
+		Log.info("Unloaded " + unloaded + " shopkeepers of world '" + worldName + "'.");
+	}
+
 	private void failedToLoadShopkeeper(String idKey, String reason) {
 		this.failedToLoadShopkeeper(idKey, reason, null);
 	}
@@ -899,6 +1351,17 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 	}
 
+	// Indicates that the shopkeeper data could not be serialized, i.e. that retrying to save it is
+	// pointless.
+	private static class SerializationException extends ShopkeeperStorageSaveException {
+
+		private static final long serialVersionUID = -4893325768143612093L;
+
+		SerializationException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+
 	private class SaveTask extends SingletonTask {
 
 		// Previously dirty shopkeepers that we currently attempt to save. This Set is only modified
@@ -910,14 +1373,15 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		/* Last save */
 		// These variables get replaced during the next save.
 		// Note: Explicit synchronization is not needed for these variables, because they already
-		// get synchronized before they are used, either by the Bukkit Scheduler (when starting the
-		// async task and when going back to the main thread by starting a sync task), or/and via
+		// get synchronized before they are used, either by the IO executor or the Bukkit Scheduler
+		// (when starting the async task and when going back to the main thread by starting a sync
+		// task), or/and via
 		// synchronization with the save task's lock.
 		private boolean savingSucceeded = false;
 		private long lastSaveErrorMsgMillis = 0L;
 
-		SaveTask(Plugin plugin) {
-			super(plugin);
+		SaveTask(SKShopkeepersPlugin plugin) {
+			super(plugin, plugin.getIOExecutor());
 		}
 
 		void onDisable() {
@@ -1009,26 +1473,26 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		// Returns true if the saving was successful.
 		private boolean saveToFile(DataStore saveData) {
 			try {
-				// Serialize data to String:
+				// The data is serialized while it is written to the file, instead of first building
+				// the complete file contents as a String. This keeps the memory usage of saves low,
+				// but also means that the data is serialized again for each save attempt.
+				// Serialization errors are not retried, since they are not expected to resolve
+				// themselves.
 				// TODO Do this on the main thread? Bukkit's serialization API is not strictly
 				// thread-safe ...
 				// However, this should usually not be an issue if the serialized objects inside the
 				// save data are not accessed externally, and do not rely on external state during
 				// serialization.
-				String data;
-				try {
-					data = saveData.saveToString();
-				} catch (Exception e) {
-					throw new ShopkeeperStorageSaveException(
-							"Could not serialize shopkeeper data!", e
-					);
-				}
-
 				Retry.retry((VoidCallable) () -> {
-					this.doSaveToFile(data);
+					this.doSaveToFile(saveData);
 				}, SAVING_MAX_ATTEMPTS, (attemptNumber, exception, retry) -> {
 					// Saving failed:
 					assert exception != null;
+					if (exception instanceof SerializationException) {
+						// Abort the retrying:
+						throw exception;
+					}
+
 					// Don't spam with errors and stacktraces: Only print them once for the first
 					// failed saving attempt (and again for the last failed attempt), and otherwise
 					// log a compact description of the issue:
@@ -1062,7 +1526,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 
 		/**
-		 * Writes the given properly formatted shopkeeper data to disk.
+		 * Writes the given shopkeeper data to disk.
 		 * <p>
 		 * Saving procedure:
 		 * <ul>
@@ -1072,7 +1536,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		 * <li>Else: Remove temporary save file.
 		 * </ul>
 		 * <li>Create temporary save file's parent directories (if required).
-		 * <li>Create new temporary save file and write data to it.
+		 * <li>Create new temporary save file and stream the serialized data into it.
 		 * <li>Sync temporary save file and containing directory (ensures that the data is persisted
 		 * to disk).
 		 * <li>Remove old save file (if it exists).
@@ -1082,23 +1546,30 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		 * disk).
 		 * </ul>
 		 * 
-		 * @param data
-		 *            the formatted data
+		 * @param saveData
+		 *            the shopkeeper data, which is serialized while it is written to the temporary
+		 *            save file
+		 * @throws SerializationException
+		 *             if the shopkeeper data cannot be serialized
 		 * @throws ShopkeeperStorageSaveException
-		 *             if something goes wrong
+		 *             if something else goes wrong
 		 */
-		private void doSaveToFile(String data) throws ShopkeeperStorageSaveException {
-			assert data != null;
+		private void doSaveToFile(DataStore saveData) throws ShopkeeperStorageSaveException {
+			assert saveData != null;
 			try {
 				FileUtils.writeSafely(
 						saveFile,
-						data,
+						saveData::save,
 						StandardCharsets.UTF_8,
 						Log.getLogger(),
 						getPluginDataFolder()
 				);
-			} catch (Exception e) {
+			} catch (IOException e) {
 				throw new ShopkeeperStorageSaveException(e.getMessage(), e);
+			} catch (RuntimeException e) {
+				// The save data writer only throws unchecked exceptions if the serialization fails
+				// (e.g. YAMLException). The incomplete temporary save file has already been removed.
+				throw new SerializationException("Could not serialize shopkeeper data!", e);
 			}
 		}
 
@@ -0,0 +1,52 @@
+package com.nisovin.shopkeepers.storage;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Loads and unloads the shopkeepers of worlds when the worlds are loaded and unloaded, if
+ * {@link Settings#loadShopkeepersWithWorlds} is enabled.
+ */
+class WorldShopkeepersLoader implements Listener {
+
+	private final Plugin plugin;
+	private final SKShopkeeperStorage storage;
+
+	WorldShopkeepersLoader(Plugin plugin, SKShopkeeperStorage storage) {
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(storage, "storage is null");
+		this.plugin = plugin;
+		this.storage = storage;
+	}
+
+	void onEnable() {
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+	}
+
+	void onDisable() {
+		HandlerList.unregisterAll(this);
+	}
+
+	// Runs before the chunk activator activates the chunks of the loaded world.
+	// This also loads the shopkeepers of previously deferred worlds if the setting has been
+	// disabled in the meantime.
+	@EventHandler(priority = EventPriority.LOWEST)
+	void onWorldLoad(WorldLoadEvent event) {
+		storage.loadNonResidentShopkeepers(event.getWorld().getName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onWorldUnload(WorldUnloadEvent event) {
+		if (!Settings.loadShopkeepersWithWorlds) return;
+		storage.unloadWorldShopkeepers(event.getWorld().getName());
+	}
+}
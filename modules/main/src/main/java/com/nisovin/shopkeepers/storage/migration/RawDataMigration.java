@@ -1,11 +1,15 @@
 package com.nisovin.shopkeepers.storage.migration;
 
+import com.nisovin.shopkeepers.storage.DataVersion;
+
 /**
  * A migration that operates on the raw string-based shopkeeper data, i.e. before the data is
  * deserialized by Bukkit.
  * <p>
- * The deserialized data version is not yet available at this stage, so these kinds of migrations
- * usually operate by matching and replacing patterns in the string data.
+ * The deserialized data is not yet available at this stage, so these kinds of migrations usually
+ * operate by matching and replacing patterns in the string data. However, the data version of the
+ * save file is extracted beforehand, so that migrations that are not required for that data
+ * version can be skipped without processing the data.
  */
 public interface RawDataMigration {
 
@@ -16,6 +20,20 @@ public interface RawDataMigration {
 	 */
 	public String getName();
 
+	/**
+	 * Checks if this migration needs to be applied to data of the given {@link DataVersion}.
+	 * <p>
+	 * This returns <code>true</code> by default.
+	 * 
+	 * @param dataVersion
+	 *            the data version of the save file, not <code>null</code>, can be
+	 *            {@link DataVersion#MISSING}
+	 * @return <code>true</code> if this migration needs to be applied
+	 */
+	public default boolean isRequired(DataVersion dataVersion) {
+		return true;
+	}
+
 	/**
 	 * Applies the migration.
 	 * <p>
@@ -26,7 +44,8 @@ public interface RawDataMigration {
 	 * 
 	 * @param data
 	 *            the current shopkeeper data
-	 * @return the migrated shopkeeper data
+	 * @return the migrated shopkeeper data, or the given data instance itself if no changes were
+	 *         necessary
 	 * @throws RawDataMigrationException
 	 *             if the migration fails
 	 */
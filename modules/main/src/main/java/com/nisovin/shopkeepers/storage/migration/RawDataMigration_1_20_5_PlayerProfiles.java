@@ -7,6 +7,7 @@ import java.util.regex.Pattern;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.nisovin.shopkeepers.storage.DataVersion;
 import com.nisovin.shopkeepers.util.logging.Log;
 import com.nisovin.shopkeepers.util.yaml.YamlUtils;
 
@@ -46,6 +47,8 @@ public class RawDataMigration_1_20_5_PlayerProfiles implements RawDataMigration
 					+ "(\\1name: )(.*$)([\r\n])*"
 	);
 
+	private static final int MC_1_20_5_DATA_VERSION = 3837;
+
 	// Fixed version 3 UUID: Guaranteed to not clash with any player uuid and easy to identify in
 	// the save data.
 	// Not the NIL UUID, since Spigot was using this internally in previous versions as null value.
@@ -61,9 +64,18 @@ public class RawDataMigration_1_20_5_PlayerProfiles implements RawDataMigration
 		return "MC 1.20.5 player profiles (head items)";
 	}
 
+	@Override
+	public boolean isRequired(DataVersion dataVersion) {
+		// Save data of MC 1.20.5 and above has already been migrated:
+		return dataVersion.getMinecraftDataVersion() < MC_1_20_5_DATA_VERSION;
+	}
+
 	@Override
 	public String apply(String data) throws RawDataMigrationException {
 		var matcher = PATTERN.matcher(data);
+		if (!matcher.find()) return data;
+		matcher.reset();
+
 		var migrated = matcher.replaceAll(matchResult -> {
 			var uniqueIdYaml = matchResult.group(4); // Can be null or empty if missing
 			var nameYaml = matchResult.group(7);
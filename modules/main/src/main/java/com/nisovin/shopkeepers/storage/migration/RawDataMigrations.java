@@ -3,7 +3,11 @@ package com.nisovin.shopkeepers.storage.migration;
 import java.util.Arrays;
 import java.util.List;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.storage.DataVersion;
 import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.yaml.YamlUtils;
 
 public class RawDataMigrations {
 
@@ -11,23 +15,90 @@ public class RawDataMigrations {
 			new RawDataMigration_1_20_5_PlayerProfiles()
 	);
 
+	private static final String DATA_VERSION_PREFIX = "data-version:";
+
+	/**
+	 * Extracts the {@link DataVersion} from the given raw shopkeeper data.
+	 * <p>
+	 * The data version is expected to be the first top-level entry of the data. Only the lines up
+	 * to the first top-level entry are inspected.
+	 *
+	 * @param data
+	 *            the shopkeeper data
+	 * @return the data version, or {@link DataVersion#MISSING} if the data version is missing or
+	 *         invalid
+	 */
+	public static DataVersion extractDataVersion(String data) {
+		int lineStart = 0;
+		final int length = data.length();
+		while (lineStart < length) {
+			int lineEnd = data.indexOf('\n', lineStart);
+			if (lineEnd < 0) lineEnd = length;
+
+			char firstChar = data.charAt(lineStart);
+			if (!Character.isWhitespace(firstChar) && firstChar != '#') {
+				// First top-level entry:
+				if (!data.startsWith(DATA_VERSION_PREFIX, lineStart)) break;
+
+				String valueYaml = data.substring(lineStart + DATA_VERSION_PREFIX.length(), lineEnd);
+				return parseDataVersion(valueYaml.trim());
+			}
+
+			lineStart = lineEnd + 1;
+		}
+		return DataVersion.MISSING;
+	}
+
+	private static DataVersion parseDataVersion(String valueYaml) {
+		try {
+			@Nullable Object value = YamlUtils.fromYaml(valueYaml);
+			return DataVersion.parse(value != null ? value.toString() : null);
+		} catch (Exception e) {
+			// Treated like a missing data version, so that all migrations are applied. The
+			// subsequent loading of the data reports the invalid data version.
+			return DataVersion.MISSING;
+		}
+	}
+
+	/**
+	 * Checks if any {@link RawDataMigration}s need to be applied to data of the given
+	 * {@link DataVersion}.
+	 *
+	 * @param dataVersion
+	 *            the data version, not <code>null</code>
+	 * @return <code>true</code> if migrations need to be applied
+	 */
+	public static boolean isMigrationRequired(DataVersion dataVersion) {
+		for (var migration : migrations) {
+			if (migration.isRequired(dataVersion)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
-	 * Applies all {@link RawDataMigration}s.
-	 * 
+	 * Applies all {@link RawDataMigration}s that are required for the data version of the given
+	 * data.
+	 *
 	 * @param data
 	 *            the shopkeeper data to migrate
-	 * @return the migrated shopkeeper data
+	 * @return the migrated shopkeeper data, or the given data instance itself if the data was not
+	 *         changed
 	 * @throws RawDataMigrationException
 	 *             if the migration fails
 	 */
 	public static String applyMigrations(String data) throws RawDataMigrationException {
 		if (data.isEmpty()) return data;
 
-		// TODO Extract the data version and pass it to migrations?
+		DataVersion dataVersion = extractDataVersion(data);
+		if (!isMigrationRequired(dataVersion)) return data;
 
 		// Apply migrations:
 		var migratedData = data;
 		for (var migration : migrations) {
+			if (!migration.isRequired(dataVersion)) continue;
+
 			Log.debug("Applying raw shopkeeper data migration: " + migration.getName());
 			try {
 				migratedData = migration.apply(migratedData);
@@ -39,6 +110,11 @@ public class RawDataMigrations {
 			}
 		}
 
+		// Migrations return the same instance if they did not change the data. Only if they
+		// returned a different instance we compare the contents:
+		if (migratedData != data && migratedData.equals(data)) {
+			return data;
+		}
 		return migratedData;
 	}
 
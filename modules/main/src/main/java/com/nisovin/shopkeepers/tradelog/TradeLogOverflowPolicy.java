@@ -0,0 +1,20 @@
+package com.nisovin.shopkeepers.tradelog;
+
+/**
+ * Specifies how trade loggers react when their buffer of not yet persisted trades is full.
+ */
+public enum TradeLogOverflowPolicy {
+
+	/**
+	 * Drops the new trades and keeps count of the dropped trades.
+	 */
+	DROP,
+	/**
+	 * Waits for any ongoing write attempt to complete and then immediately writes the buffered
+	 * trades.
+	 * <p>
+	 * The server's main thread is blocked while it waits for the write. If the write fails, the new
+	 * trades are still dropped.
+	 */
+	BLOCK;
+}
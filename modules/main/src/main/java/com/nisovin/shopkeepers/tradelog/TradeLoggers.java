@@ -1,6 +1,7 @@
 package com.nisovin.shopkeepers.tradelog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.Bukkit;
@@ -18,6 +19,7 @@ import com.nisovin.shopkeepers.tradelog.csv.CsvTradeLogger;
 import com.nisovin.shopkeepers.tradelog.data.TradeRecord;
 import com.nisovin.shopkeepers.tradelog.history.TradingHistoryProvider;
 import com.nisovin.shopkeepers.tradelog.sqlite.SQLiteTradeLogger;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsProvider;
 import com.nisovin.shopkeepers.util.java.Validate;
 import com.nisovin.shopkeepers.util.trading.MergedTrades;
 import com.nisovin.shopkeepers.util.trading.TradeMerger;
@@ -27,6 +29,7 @@ public class TradeLoggers implements Listener {
 
 	private final SKShopkeepersPlugin plugin;
 	private final List<TradeLogger> loggers = new ArrayList<>();
+	private final List<? extends TradeLogger> loggersView = Collections.unmodifiableList(loggers);
 	// In order to represent the logged trades more compactly, we merge equivalent trades that are
 	// triggered in quick succession over a certain period of time. The maximum merge duration is
 	// configurable, and the trade merging can also be disabled.
@@ -89,6 +92,15 @@ public class TradeLoggers implements Listener {
 		loggers.clear();
 	}
 
+	/**
+	 * Gets the currently active {@link TradeLogger}s.
+	 * 
+	 * @return an unmodifiable view on the active trade loggers
+	 */
+	public List<? extends TradeLogger> getLoggers() {
+		return loggersView;
+	}
+
 	/**
 	 * Gets the currently active {@link TradingHistoryProvider}.
 	 * <p>
@@ -106,6 +118,24 @@ public class TradeLoggers implements Listener {
 		return null;
 	}
 
+	/**
+	 * Gets the currently active {@link TradeStatisticsProvider}.
+	 * <p>
+	 * There can only be one active {@link TradeStatisticsProvider}: This returns the first active
+	 * {@link TradeLogger} that provides trade statistics.
+	 * 
+	 * @return the active {@link TradeStatisticsProvider}, or <code>null</code> if there is none
+	 */
+	public @Nullable TradeStatisticsProvider getTradeStatisticsProvider() {
+		for (var logger : loggers) {
+			if (logger instanceof SQLiteTradeLogger sqliteTradeLogger
+					&& sqliteTradeLogger.isStatisticsEnabled()) {
+				return sqliteTradeLogger;
+			}
+		}
+		return null;
+	}
+
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
 	void onTradeCompleted(ShopkeeperTradeCompletedEvent event) {
 		if (loggers.isEmpty()) return; // Nothing to log
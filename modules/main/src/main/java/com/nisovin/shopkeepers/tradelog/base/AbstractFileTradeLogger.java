@@ -2,8 +2,7 @@ package com.nisovin.shopkeepers.tradelog.base;
 
 import java.nio.file.Path;
 
-import org.bukkit.plugin.Plugin;
-
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
 import com.nisovin.shopkeepers.tradelog.TradeLogger;
 
@@ -22,7 +21,7 @@ public abstract class AbstractFileTradeLogger extends AbstractSingleWriterTradeL
 	 */
 	protected final Path tradeLogsFolder;
 
-	public AbstractFileTradeLogger(Plugin plugin, TradeLogStorageType storageType) {
+	public AbstractFileTradeLogger(SKShopkeepersPlugin plugin, TradeLogStorageType storageType) {
 		super(plugin, storageType);
 
 		this.tradeLogsFolder = plugin.getDataFolder().toPath().resolve(TRADE_LOGS_FOLDER);
@@ -8,14 +8,15 @@ import java.util.concurrent.TimeUnit;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.tradelog.TradeLogOverflowPolicy;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
 import com.nisovin.shopkeepers.tradelog.TradeLogUtils;
 import com.nisovin.shopkeepers.tradelog.TradeLogger;
@@ -24,16 +25,23 @@ import com.nisovin.shopkeepers.util.bukkit.PermissionUtils;
 import com.nisovin.shopkeepers.util.bukkit.SchedulerUtils;
 import com.nisovin.shopkeepers.util.bukkit.SingletonTask;
 import com.nisovin.shopkeepers.util.java.CollectionUtils;
-import com.nisovin.shopkeepers.util.java.Retry;
 import com.nisovin.shopkeepers.util.java.ThrowableUtils;
 import com.nisovin.shopkeepers.util.java.Validate;
-import com.nisovin.shopkeepers.util.java.VoidCallable;
 import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
  * Base class for {@link TradeLogger}s with a single concurrent writer. Trades are buffered and
  * periodically persisted in batches.
  * <p>
+ * The number of buffered trades is limited by {@link Settings#tradeLogMaxPendingTrades}. If a
+ * quarter of this limit is reached, the buffered trades are persisted right away instead of after
+ * the usual delay. If the limit is reached, new trades are handled according to
+ * {@link Settings#tradeLogOverflowPolicy}. Trades that failed to be persisted are added back to
+ * the front of the buffered trades, and also count towards this limit.
+ * <p>
+ * Each save performs a single write attempt. If it fails, the save is attempted again after a
+ * short delay, instead of blocking the writer thread until a retry succeeds.
+ * <p>
  * If any initial setup is required, override {@link #preSetup()}, {@link #asyncSetup()} and
  * {@link #postSetup()} accordingly.
  */
@@ -48,11 +56,14 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 	// history feature). Keeping the delay small improves the user experience of those tools.
 	private static final int DELAYED_SAVE_TICKS = 200; // 10 seconds
 
+	// Failed saves are retried after a short delay, up to this number of consecutive attempts.
+	// Afterwards, the failed trades are retried with the next regular save.
 	private static final int SAVE_MAX_ATTEMPTS = 20;
-	private static final long SAVE_RETRY_DELAY_MILLIS = 25L;
+	private static final long SAVE_RETRY_DELAY_TICKS = 2L;
 	private static final long SAVE_ERROR_MSG_THROTTLE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+	private static final long DROPPED_TRADES_MSG_THROTTLE_MILLIS = TimeUnit.MINUTES.toMillis(5);
 
-	protected final Plugin plugin;
+	protected final SKShopkeepersPlugin plugin;
 	protected final TradeLogStorageType storageType;
 	protected final String logPrefix;
 
@@ -64,12 +75,19 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 	private List<TradeRecord> pending = new ArrayList<>();
 	private final SaveTask saveTask;
 	private @Nullable BukkitTask delayedSaveTask = null;
+	private int maxPendingCount = 0;
+	private int lastBatchSize = 0;
+	private long droppedTradesCount = 0L;
+	private long lastDroppedTradesMsgMillis = 0L;
 	// This is reset to the current configuration value prior to every save. This ensures that the
 	// value of this setting remains constant during the save and does not differ for the items of
 	// the trades that are being saved as part of the same batch.
 	private boolean logItemMetadata;
 
-	public AbstractSingleWriterTradeLogger(Plugin plugin, TradeLogStorageType storageType) {
+	public AbstractSingleWriterTradeLogger(
+			SKShopkeepersPlugin plugin,
+			TradeLogStorageType storageType
+	) {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
 		this.storageType = storageType;
@@ -113,8 +131,8 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 
 	private class SetupTask extends SingletonTask {
 
-		private SetupTask(Plugin plugin) {
-			super(plugin);
+		private SetupTask(SKShopkeepersPlugin plugin) {
+			super(plugin, plugin.getIOExecutor());
 		}
 
 		private class InternalAsyncTask extends SingletonTask.InternalAsyncTask {
@@ -170,23 +188,128 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 		pending.clear();
 	}
 
+	/**
+	 * Gets the {@link TradeLogStorageType} of this trade logger.
+	 * 
+	 * @return the storage type
+	 */
+	public final TradeLogStorageType getStorageType() {
+		return storageType;
+	}
+
+	/**
+	 * Gets the number of buffered trades that have not yet been passed to the writer.
+	 * 
+	 * @return the number of pending trades
+	 */
+	public final int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Gets the maximum number of trades that were at some point pending at the same time.
+	 * 
+	 * @return the maximum number of pending trades
+	 */
+	public final int getMaxPendingCount() {
+		return maxPendingCount;
+	}
+
+	/**
+	 * Gets the number of trades that were passed to the writer by the last save.
+	 * 
+	 * @return the size of the last batch of trades
+	 */
+	public final int getLastBatchSize() {
+		return lastBatchSize;
+	}
+
+	/**
+	 * Gets the number of trades that were dropped because too many trades were pending.
+	 * 
+	 * @return the number of dropped trades
+	 * @see Settings#tradeLogOverflowPolicy
+	 */
+	public final long getDroppedTradesCount() {
+		return droppedTradesCount;
+	}
+
 	@Override
 	public void logTrade(TradeRecord trade) {
 		if (!enabled) return;
 
+		if (pending.size() >= Settings.tradeLogMaxPendingTrades) {
+			this.handleOverflow();
+			if (!enabled) return; // Disabled while waiting for the setup
+			if (pending.size() >= Settings.tradeLogMaxPendingTrades) {
+				this.dropTrade();
+				return;
+			}
+		}
+
 		pending.add(trade);
+		int pendingCount = pending.size();
+		if (pendingCount > maxPendingCount) {
+			maxPendingCount = pendingCount;
+		}
+
+		if (setupCompleted && pendingCount >= getImmediateSaveThreshold()) {
+			// Trades are incoming faster than the delayed saves would persist them. Save right
+			// away to keep the batches from growing too large:
+			this.savePending();
+		} else {
+			// It is likely for there to be additional trades to log in the immediate future. In
+			// order to reduce IO overhead, we do not trigger a save right away, but buffer the
+			// incoming trade records over a short period of time.
+			this.savePendingDelayed();
+		}
+	}
+
+	private static int getImmediateSaveThreshold() {
+		return Math.max(Settings.tradeLogMaxPendingTrades / 4, 1);
+	}
 
-		// It is likely for there to be additional trades to log in the immediate future. In order
-		// to reduce IO overhead, we do not trigger a save right away, but buffer the incoming trade
-		// records over a short period of time.
-		this.savePendingDelayed();
+	// Tries to make space for new pending trades, depending on the overflow policy.
+	private void handleOverflow() {
+		if (Settings.tradeLogOverflowPolicy != TradeLogOverflowPolicy.BLOCK) return;
+
+		// Note: Blocks the server's main thread. Since the writer only performs a single write
+		// attempt per save, this waits for at most one ongoing write.
+		setupTask.awaitExecutions();
+		if (!enabled) return;
+
+		saveTask.awaitExecutions();
+		this.savePending(); // Moves the pending trades to the writer
+	}
+
+	private void dropTrade() {
+		this.dropTrades(1);
+	}
+
+	private void dropTrades(int count) {
+		assert count > 0;
+		droppedTradesCount += count;
+
+		long nowMillis = System.currentTimeMillis();
+		if (Math.abs(nowMillis - lastDroppedTradesMsgMillis) > DROPPED_TRADES_MSG_THROTTLE_MILLIS) {
+			lastDroppedTradesMsgMillis = nowMillis;
+			Log.warning(logPrefix + "Too many trades are pending to be logged ("
+					+ pending.size() + ")! New trades are not logged. Dropped trades so far: "
+					+ droppedTradesCount);
+		}
 	}
 
 	@Override
 	public void flush() {
 		setupTask.awaitExecutions();
-		this.savePending();
-		saveTask.awaitExecutions();
+
+		// Delayed retries are not possible during plugin shutdown. We therefore retry any failed
+		// saves right away here:
+		int attempts = 0;
+		do {
+			this.savePending();
+			saveTask.awaitExecutions();
+		} while (enabled && this.hasPending() && ++attempts < SAVE_MAX_ATTEMPTS);
 	}
 
 	private boolean hasPending() {
@@ -194,6 +317,10 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 	}
 
 	private void savePendingDelayed() {
+		this.savePendingDelayed(DELAYED_SAVE_TICKS);
+	}
+
+	private void savePendingDelayed(long delayTicks) {
 		if (!setupCompleted) {
 			// Any pending trades are saved once the setup completes.
 			return;
@@ -212,7 +339,7 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 		delayedSaveTask = SchedulerUtils.runTaskLaterOrOmit(
 				plugin,
 				new DelayedSaveTask(),
-				DELAYED_SAVE_TICKS
+				delayTicks
 		);
 	}
 
@@ -246,10 +373,12 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 		private List<TradeRecord> saving = new ArrayList<>();
 		private @Nullable SaveContext saveContext = null;
 		private boolean saveSucceeded = false;
+		// The number of consecutive failed save attempts:
+		private int failedAttempts = 0;
 		private long lastSaveErrorMsgMillis = 0L;
 
-		private SaveTask(Plugin plugin) {
-			super(plugin);
+		private SaveTask(SKShopkeepersPlugin plugin) {
+			super(plugin, plugin.getIOExecutor());
 		}
 
 		private class InternalAsyncTask extends SingletonTask.InternalAsyncTask {
@@ -281,6 +410,7 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 			List<TradeRecord> temp = saving;
 			saving = pending;
 			pending = temp;
+			lastBatchSize = saving.size();
 
 			// Setup new SaveContext:
 			assert saveContext == null;
@@ -290,7 +420,7 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 		@Override
 		protected void execute() {
 			SaveContext saveContext = Unsafe.assertNonNull(this.saveContext);
-			saveSucceeded = writeTradesWithRetry(saveContext);
+			saveSucceeded = tryWriteTrades(saveContext, failedAttempts + 1);
 			assert saveSucceeded ? !saveContext.hasUnsavedTrades() : saveContext.hasUnsavedTrades();
 		}
 
@@ -300,30 +430,29 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 
 			this.printDebugInfo();
 
-			if (!saveSucceeded) {
+			if (saveSucceeded) {
+				failedAttempts = 0;
+			} else {
 				// Save failed:
+				failedAttempts++;
 
 				// Add the unsaved trades to the front of the pending trades:
 				pending.addAll(0, saveContext.getUnsavedTrades());
+				this.limitPending();
 
-				// Attempt the save again after a short delay:
+				// Attempt the save again after a delay:
 				// However, during the final save attempt during plugin disable, this is skipped and
 				// data might be lost.
-				savePendingDelayed();
-
-				// Inform admins about the issue (throttled to once every x minutes):
-				long nowMillis = System.currentTimeMillis();
-				if (Math.abs(nowMillis - lastSaveErrorMsgMillis) > SAVE_ERROR_MSG_THROTTLE_MILLIS) {
-					lastSaveErrorMsgMillis = nowMillis;
-					String errorMsg = ChatColor.DARK_RED + "[Shopkeepers] " + ChatColor.RED
-							+ logPrefix + "Failed to log trades!"
-							+ " Please check the server logs and look into the issue!";
-					for (Player player : Bukkit.getOnlinePlayers()) {
-						assert player != null;
-						if (PermissionUtils.hasPermission(player, ShopkeepersPlugin.ADMIN_PERMISSION)) {
-							player.sendMessage(errorMsg);
-						}
-					}
+				if (failedAttempts < SAVE_MAX_ATTEMPTS) {
+					// Retry soon. This replaces any delayed save that was requested in the meantime.
+					cancelDelayedSave();
+					savePendingDelayed(SAVE_RETRY_DELAY_TICKS);
+				} else {
+					Log.severe(logPrefix + "Failed to log trades after " + failedAttempts
+							+ " attempts! Trying again with the next save.");
+					failedAttempts = 0;
+					savePendingDelayed();
+					this.informAdminsAboutFailure();
 				}
 			}
 
@@ -332,6 +461,38 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 			saving.clear();
 		}
 
+		// If the re-added unsaved trades exceed the limit of pending trades, we drop the most
+		// recent trades.
+		private void limitPending() {
+			int pendingCount = pending.size();
+			if (pendingCount > maxPendingCount) {
+				maxPendingCount = pendingCount;
+			}
+
+			int excess = pendingCount - Settings.tradeLogMaxPendingTrades;
+			if (excess > 0) {
+				pending.subList(pendingCount - excess, pendingCount).clear();
+				dropTrades(excess);
+			}
+		}
+
+		private void informAdminsAboutFailure() {
+			// Throttled to once every x minutes:
+			long nowMillis = System.currentTimeMillis();
+			if (Math.abs(nowMillis - lastSaveErrorMsgMillis) > SAVE_ERROR_MSG_THROTTLE_MILLIS) {
+				lastSaveErrorMsgMillis = nowMillis;
+				String errorMsg = ChatColor.DARK_RED + "[Shopkeepers] " + ChatColor.RED
+						+ logPrefix + "Failed to log trades!"
+						+ " Please check the server logs and look into the issue!";
+				for (Player player : Bukkit.getOnlinePlayers()) {
+					assert player != null;
+					if (PermissionUtils.hasPermission(player, ShopkeepersPlugin.ADMIN_PERMISSION)) {
+						player.sendMessage(errorMsg);
+					}
+				}
+			}
+		}
+
 		private void printDebugInfo() {
 			Log.debug(() -> {
 				SaveContext saveContext = Unsafe.assertNonNull(this.saveContext);
@@ -439,39 +600,21 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 
 	// May be invoked asynchronously.
 	// Returns true on success.
-	private boolean writeTradesWithRetry(SaveContext saveContext) {
+	private boolean tryWriteTrades(SaveContext saveContext, int attemptNumber) {
 		try {
-			Retry.retry((VoidCallable) () -> {
-				this.writeTrades(saveContext);
-			}, SAVE_MAX_ATTEMPTS, (attemptNumber, exception, retry) -> {
-				// Trade logging failed:
-				assert exception != null;
-				// Don't spam with errors and stacktraces: Only print them once for the first failed
-				// saving attempt (and again for the last failed attempt), and otherwise log a
-				// compact description of the issue:
-				String errorMsg = logPrefix + "Failed to log trades (attempt " + attemptNumber + ")";
-				if (attemptNumber == 1) {
-					Log.severe(errorMsg, exception);
-				} else {
-					String issue = ThrowableUtils.getDescription(exception);
-					Log.severe(errorMsg + ": " + issue);
-				}
-
-				// Try again after a small delay:
-				if (retry) {
-					try {
-						Thread.sleep(SAVE_RETRY_DELAY_MILLIS);
-					} catch (InterruptedException e) {
-						// Restore the interrupt status for anyone interested in it, but otherwise
-						// ignore the interrupt here, because we prefer to keep retrying to still
-						// save the data to disk after all:
-						Thread.currentThread().interrupt();
-					}
-				}
-			});
+			this.writeTrades(saveContext);
 			return true;
 		} catch (Exception e) {
-			Log.severe(logPrefix + "Failed to log trades! Data might have been lost! :(", e);
+			// Trade logging failed:
+			// Don't spam with errors and stacktraces: Only print them for the first failed saving
+			// attempt, and otherwise log a compact description of the issue:
+			String errorMsg = logPrefix + "Failed to log trades (attempt " + attemptNumber + ")";
+			if (attemptNumber == 1) {
+				Log.severe(errorMsg, e);
+			} else {
+				String issue = ThrowableUtils.getDescription(e);
+				Log.severe(errorMsg + ": " + issue);
+			}
 			return false;
 		}
 	}
@@ -489,13 +632,13 @@ public abstract class AbstractSingleWriterTradeLogger implements TradeLogger {
 	 * example during plugin shutdown.
 	 * </ul>
 	 * <p>
-	 * If the saving of a trade record fails, i.e. if this method throws an exception, this method
-	 * may be invoked again several times after short delays with the same {@link SaveContext} in
-	 * order to retry the saving of the remaining trade records of the batch. If the saving still
-	 * cannot be completed after several retries, the failed save attempt is logged and admins are
-	 * informed. If the plugin is currently shutting down, the data for any unsaved trades is lost.
-	 * Otherwise, if the plugin is not shutting down, we re-attempt the saving of the unsaved trade
-	 * records as part of the next batch.
+	 * If the saving of a trade record fails, i.e. if this method throws an exception, the remaining
+	 * trade records of the batch are added back to the front of the pending trades, and saved
+	 * again as part of another batch after a short delay. If the saving still cannot be completed
+	 * after several retries, the failed save attempts are logged and admins are informed, and the
+	 * unsaved trade records are retried with the next regular save. If the plugin is currently
+	 * shutting down, the saving is retried a few times without delay, and the data for any still
+	 * unsaved trades is lost.
 	 * 
 	 * @param saveContext
 	 *            the save context
@@ -14,8 +14,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
-import org.bukkit.plugin.Plugin;
-
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
@@ -75,7 +74,7 @@ public class CsvTradeLogger extends AbstractFileTradeLogger {
 			.escapeNewlines(false)
 			.warnOnNewlines();
 
-	public CsvTradeLogger(Plugin plugin) {
+	public CsvTradeLogger(SKShopkeepersPlugin plugin) {
 		super(plugin, TradeLogStorageType.CSV);
 	}
 
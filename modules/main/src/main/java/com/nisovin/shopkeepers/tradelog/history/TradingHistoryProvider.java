@@ -1,7 +1,10 @@
 package com.nisovin.shopkeepers.tradelog.history;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
+
 /**
  * Handles trading history requests.
  */
@@ -15,4 +18,18 @@ public interface TradingHistoryProvider {
 	 * @return the trading history result
 	 */
 	public CompletableFuture<TradingHistoryResult> getTradingHistory(TradingHistoryRequest request);
+
+	/**
+	 * Looks up the players that traded under the given name.
+	 * <p>
+	 * The name is compared case-insensitively. The players are ordered by their most recent trade
+	 * under the given name, starting with the most recent one.
+	 * 
+	 * @param playerName
+	 *            the player name, not <code>null</code> or empty
+	 * @param limit
+	 *            the maximum number of returned players, has to be positive
+	 * @return the matching players, not <code>null</code> but can be empty
+	 */
+	public CompletableFuture<List<PlayerRecord>> findPlayersByName(String playerName, int limit);
 }
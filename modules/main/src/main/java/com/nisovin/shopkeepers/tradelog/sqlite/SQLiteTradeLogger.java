@@ -13,6 +13,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import org.bukkit.inventory.ItemStack;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -20,6 +22,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.tradelog.TradeLogStorageType;
 import com.nisovin.shopkeepers.tradelog.TradeLogUtils;
 import com.nisovin.shopkeepers.tradelog.base.AbstractFileTradeLogger;
@@ -31,6 +34,12 @@ import com.nisovin.shopkeepers.tradelog.history.ShopSelector;
 import com.nisovin.shopkeepers.tradelog.history.TradingHistoryProvider;
 import com.nisovin.shopkeepers.tradelog.history.TradingHistoryRequest;
 import com.nisovin.shopkeepers.tradelog.history.TradingHistoryResult;
+import com.nisovin.shopkeepers.tradelog.stats.StatisticsDimension;
+import com.nisovin.shopkeepers.tradelog.stats.StatisticsGranularity;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsEntry;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsProvider;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsRequest;
+import com.nisovin.shopkeepers.tradelog.stats.TradeStatisticsResult;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.FileUtils;
 import com.nisovin.shopkeepers.util.java.JdbcUtils;
@@ -42,8 +51,13 @@ import com.nisovin.shopkeepers.util.logging.Log;
 
 /**
  * Logs trades to an SQLite database.
+ * <p>
+ * If {@link Settings#tradeLogStatistics} is enabled, we additionally maintain pre-aggregated trade
+ * counters per shop, shop owner and item at hourly and daily granularity. These counters are
+ * updated in the same transaction as the insertion of the corresponding trade record.
  */
-public class SQLiteTradeLogger extends AbstractFileTradeLogger implements TradingHistoryProvider {
+public class SQLiteTradeLogger extends AbstractFileTradeLogger
+		implements TradingHistoryProvider, TradeStatisticsProvider {
 
 	private static final int TRANSACTION_RETRY_MAX_ATTEMPTS = 20;
 	private static final long TRANSACTION_RETRY_DELAY_MILLIS = 50L;
@@ -72,6 +86,19 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 	private static final String COLUMN_RESULT_ITEM_METADATA = "result_item_metadata";
 	private static final String COLUMN_TRADE_COUNT = "trade_count";
 
+	private static final String TABLE_TRADE_STATS = "trade_stats";
+	private static final String COLUMN_GRANULARITY = "granularity";
+	private static final String COLUMN_BUCKET = "bucket";
+	private static final String COLUMN_DIMENSION = "dimension";
+	private static final String COLUMN_DIMENSION_KEY = "dimension_key";
+	private static final String COLUMN_DIMENSION_NAME = "dimension_name";
+	// The trade statistics reuse the following trade table column names for their summed up
+	// counters: trade_count, result_item_amount, item_1_amount, item_2_amount
+	// Remembers up to which trade the statistics have been counted:
+	private static final String TABLE_TRADE_STATS_PROGRESS = "trade_stats_progress";
+	private static final String COLUMN_ID = "id";
+	private static final String COLUMN_LAST_COUNTED_TRADE = "last_counted_trade";
+
 	// Note: SQLite does not have rigid data types, but storage classes and type affinity. The data
 	// types specified here are not enforced by SQLite or us, but only used to document the expected
 	// structure of the data.
@@ -99,6 +126,57 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 			+ COLUMN_RESULT_ITEM_METADATA + " TEXT NOT NULL, "
 			+ COLUMN_TRADE_COUNT + " SMALLINT UNSIGNED NOT NULL"
 			+ ");";
+	private static final String CREATE_STATS_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + TABLE_TRADE_STATS + " ("
+			+ COLUMN_GRANULARITY + " VARCHAR(8) NOT NULL, "
+			// ISO 8601 UTC date time of the bucket start, without fractional seconds:
+			+ COLUMN_BUCKET + " VARCHAR(20) NOT NULL, "
+			+ COLUMN_DIMENSION + " VARCHAR(8) NOT NULL, "
+			// Shop uuid, owner uuid, or item type:
+			+ COLUMN_DIMENSION_KEY + " VARCHAR(64) NOT NULL, "
+			// Last known shop name or owner name, null if not available:
+			+ COLUMN_DIMENSION_NAME + " VARCHAR(64), "
+			+ COLUMN_TRADE_COUNT + " INTEGER NOT NULL, "
+			+ COLUMN_RESULT_ITEM_AMOUNT + " INTEGER NOT NULL, "
+			+ COLUMN_ITEM_1_AMOUNT + " INTEGER NOT NULL, "
+			+ COLUMN_ITEM_2_AMOUNT + " INTEGER NOT NULL, "
+			+ "PRIMARY KEY (" + String.join(", ",
+					COLUMN_GRANULARITY,
+					COLUMN_DIMENSION,
+					COLUMN_BUCKET,
+					COLUMN_DIMENSION_KEY)
+			+ ")"
+			+ ");";
+	// Contains at most a single row.
+	// The trades are identified by their rowid. Since trades are only ever appended to the trade
+	// table, their rowids are increasing and are not reassigned.
+	private static final String CREATE_STATS_PROGRESS_TABLE_SQL = "CREATE TABLE IF NOT EXISTS "
+			+ TABLE_TRADE_STATS_PROGRESS + " ("
+			+ COLUMN_ID + " INTEGER PRIMARY KEY CHECK (" + COLUMN_ID + " = 0), "
+			+ COLUMN_LAST_COUNTED_TRADE + " INTEGER NOT NULL"
+			+ ");";
+	private static final String SELECT_LAST_COUNTED_TRADE_SQL = "SELECT "
+			+ COLUMN_LAST_COUNTED_TRADE + " FROM " + TABLE_TRADE_STATS_PROGRESS
+			+ " WHERE " + COLUMN_ID + " = 0;";
+	private static final String SELECT_LAST_TRADE_SQL = "SELECT COALESCE(MAX(rowid), 0) FROM "
+			+ TABLE_TRADE;
+	// Marks all trades as counted:
+	private static final String UPDATE_LAST_COUNTED_TRADE_SQL = "INSERT OR REPLACE INTO "
+			+ TABLE_TRADE_STATS_PROGRESS + " (" + COLUMN_ID + ", " + COLUMN_LAST_COUNTED_TRADE + ")"
+			+ " VALUES(0, (" + SELECT_LAST_TRADE_SQL + "));";
+	private static final String CLEAR_STATS_SQL = "DELETE FROM " + TABLE_TRADE_STATS + ";";
+	// For queries that filter by a specific key:
+	private static final String CREATE_STATS_KEY_INDEX_SQL = "CREATE INDEX IF NOT EXISTS "
+			+ TABLE_TRADE_STATS + "_key ON " + TABLE_TRADE_STATS + " (" + String.join(", ",
+					COLUMN_GRANULARITY,
+					COLUMN_DIMENSION,
+					COLUMN_DIMENSION_KEY,
+					COLUMN_BUCKET)
+			+ ");";
+	// For player name lookups:
+	private static final String CREATE_PLAYER_NAME_INDEX_SQL = "CREATE INDEX IF NOT EXISTS "
+			+ TABLE_TRADE + "_" + COLUMN_PLAYER_NAME + " ON " + TABLE_TRADE
+			+ " (" + COLUMN_PLAYER_NAME + " COLLATE NOCASE);";
+
 	private static final String INSERT_TRADE_SQL = "INSERT INTO " + TABLE_TRADE
 			+ "(" + String.join(", ",
 					COLUMN_TIMESTAMP,
@@ -124,6 +202,132 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 					COLUMN_TRADE_COUNT)
 			+ ") "
 			+ "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_STATS_COLUMNS_SQL = "INSERT INTO " + TABLE_TRADE_STATS
+			+ "(" + String.join(", ",
+					COLUMN_GRANULARITY,
+					COLUMN_BUCKET,
+					COLUMN_DIMENSION,
+					COLUMN_DIMENSION_KEY,
+					COLUMN_DIMENSION_NAME,
+					COLUMN_TRADE_COUNT,
+					COLUMN_RESULT_ITEM_AMOUNT,
+					COLUMN_ITEM_1_AMOUNT,
+					COLUMN_ITEM_2_AMOUNT)
+			+ ") ";
+	// Adds the counters to the counters of existing buckets:
+	private static final String ON_STATS_CONFLICT_SQL = " ON CONFLICT(" + String.join(", ",
+					COLUMN_GRANULARITY,
+					COLUMN_DIMENSION,
+					COLUMN_BUCKET,
+					COLUMN_DIMENSION_KEY)
+			+ ") DO UPDATE SET "
+			+ COLUMN_DIMENSION_NAME + "=COALESCE(excluded." + COLUMN_DIMENSION_NAME + ", " + COLUMN_DIMENSION_NAME + "), "
+			+ COLUMN_TRADE_COUNT + "=" + COLUMN_TRADE_COUNT + "+excluded." + COLUMN_TRADE_COUNT + ", "
+			+ COLUMN_RESULT_ITEM_AMOUNT + "=" + COLUMN_RESULT_ITEM_AMOUNT + "+excluded." + COLUMN_RESULT_ITEM_AMOUNT + ", "
+			+ COLUMN_ITEM_1_AMOUNT + "=" + COLUMN_ITEM_1_AMOUNT + "+excluded." + COLUMN_ITEM_1_AMOUNT + ", "
+			+ COLUMN_ITEM_2_AMOUNT + "=" + COLUMN_ITEM_2_AMOUNT + "+excluded." + COLUMN_ITEM_2_AMOUNT;
+	private static final String UPSERT_STATS_SQL = INSERT_STATS_COLUMNS_SQL
+			+ "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)"
+			+ ON_STATS_CONFLICT_SQL + ";";
+
+	// Adds the trades that have not yet been counted to the trade statistics. The parameter is the
+	// rowid of the last counted trade.
+	// Trades are not counted if they were logged while the statistics were disabled. These trades
+	// are counted once the statistics are enabled again.
+	private static String getBackfillStatsSql(
+			StatisticsGranularity granularity,
+			StatisticsDimension dimension
+	) {
+		String keyColumn;
+		String nameExpression;
+		String filter = " WHERE rowid > ?";
+		switch (dimension) {
+		case SHOP:
+			keyColumn = COLUMN_SHOP_UUID;
+			nameExpression = "NULL"; // The shop name is not stored in the trade table
+			break;
+		case OWNER:
+			keyColumn = COLUMN_SHOP_OWNER_UUID;
+			nameExpression = "MAX(" + COLUMN_SHOP_OWNER_NAME + ")";
+			filter += " AND " + COLUMN_SHOP_OWNER_UUID + " IS NOT NULL";
+			break;
+		case ITEM:
+			keyColumn = COLUMN_RESULT_ITEM_TYPE;
+			nameExpression = "NULL";
+			break;
+		default:
+			throw new IllegalArgumentException("Unexpected dimension: " + dimension);
+		}
+
+		// Note: The WHERE clause is required to not parse the ON CONFLICT clause as join constraint.
+		return INSERT_STATS_COLUMNS_SQL
+				+ "SELECT '" + granularity.name() + "', "
+				+ "strftime('" + granularity.getSqlBucketFormat() + "', " + COLUMN_TIMESTAMP + "), "
+				+ "'" + dimension.name() + "', "
+				+ keyColumn + ", "
+				+ nameExpression + ", "
+				+ "SUM(" + COLUMN_TRADE_COUNT + "), "
+				+ "SUM(" + COLUMN_RESULT_ITEM_AMOUNT + " * " + COLUMN_TRADE_COUNT + "), "
+				+ "SUM(" + COLUMN_ITEM_1_AMOUNT + " * " + COLUMN_TRADE_COUNT + "), "
+				+ "SUM(COALESCE(" + COLUMN_ITEM_2_AMOUNT + ", 0) * " + COLUMN_TRADE_COUNT + ") "
+				+ "FROM " + TABLE_TRADE
+				+ filter
+				+ " GROUP BY 2, 4"
+				+ ON_STATS_CONFLICT_SQL + ";";
+	}
+
+	// Prefix for the result columns of aggregates, to not conflict with the source column names:
+	private static final String AGGREGATE_PREFIX = "total_";
+
+	private static String getSelectStatsSql(boolean filterByKey, boolean perBucket) {
+		var query = "SELECT " + String.join(", ",
+				COLUMN_DIMENSION_KEY,
+				// Note: With exactly one MAX aggregate, SQLite takes the values of bare columns
+				// from the row with the maximum value. We therefore get the most recent name.
+				COLUMN_DIMENSION_NAME,
+				"MAX(" + COLUMN_BUCKET + ") AS " + AGGREGATE_PREFIX + COLUMN_BUCKET,
+				"SUM(" + COLUMN_TRADE_COUNT + ") AS " + AGGREGATE_PREFIX + COLUMN_TRADE_COUNT,
+				"SUM(" + COLUMN_RESULT_ITEM_AMOUNT + ") AS " + AGGREGATE_PREFIX + COLUMN_RESULT_ITEM_AMOUNT,
+				"SUM(" + COLUMN_ITEM_1_AMOUNT + ") AS " + AGGREGATE_PREFIX + COLUMN_ITEM_1_AMOUNT,
+				"SUM(" + COLUMN_ITEM_2_AMOUNT + ") AS " + AGGREGATE_PREFIX + COLUMN_ITEM_2_AMOUNT)
+				+ " FROM " + TABLE_TRADE_STATS
+				+ " WHERE " + COLUMN_GRANULARITY + "=? AND " + COLUMN_DIMENSION + "=?"
+				+ " AND " + COLUMN_BUCKET + ">=? AND " + COLUMN_BUCKET + "<?";
+		if (filterByKey) {
+			query += " AND " + COLUMN_DIMENSION_KEY + "=?";
+		}
+
+		query += " GROUP BY ";
+		if (perBucket) {
+			query += COLUMN_BUCKET + ", ";
+		}
+		query += COLUMN_DIMENSION_KEY;
+
+		query += " ORDER BY ";
+		if (perBucket) {
+			query += AGGREGATE_PREFIX + COLUMN_BUCKET + " DESC, ";
+		}
+		query += AGGREGATE_PREFIX + COLUMN_TRADE_COUNT + " DESC, " + COLUMN_DIMENSION_KEY + " LIMIT ? OFFSET ?;";
+		return query;
+	}
+
+	private static String toStatsCountSql(String selectStatsSql) {
+		String groupsSql = selectStatsSql;
+		groupsSql = StringUtils.replaceFirst(groupsSql, " LIMIT ? OFFSET ?;", "");
+		return "SELECT COUNT(*) FROM (" + groupsSql + ");";
+	}
+
+	// The players that traded under the given name (case-insensitive), with the name of their most
+	// recent trade under this name:
+	private static final String SELECT_PLAYERS_BY_NAME_SQL = "SELECT "
+			+ COLUMN_PLAYER_UUID + ", "
+			+ COLUMN_PLAYER_NAME + ", "
+			+ "MAX(" + COLUMN_TIMESTAMP + ") AS latest_" + COLUMN_TIMESTAMP
+			+ " FROM " + TABLE_TRADE
+			+ " WHERE " + COLUMN_PLAYER_NAME + " = ? COLLATE NOCASE"
+			+ " GROUP BY " + COLUMN_PLAYER_UUID
+			+ " ORDER BY latest_" + COLUMN_TIMESTAMP + " DESC"
+			+ " LIMIT ?;";
 
 	private static String getSelectTradesSql(
 			boolean filterByPlayer,
@@ -170,6 +374,9 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 	}
 
 	private final String connectionURL;
+	// Captured during construction, so that this remains constant while the trade logger is
+	// active:
+	private final boolean statisticsEnabled;
 
 	private volatile @Nullable String setupFailureReason = null;
 	private volatile boolean performSetupAgain = false;
@@ -178,6 +385,16 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 		super(plugin, TradeLogStorageType.SQLITE);
 
 		this.connectionURL = "jdbc:sqlite:" + tradeLogsFolder.resolve(FILE_NAME);
+		this.statisticsEnabled = Settings.tradeLogStatistics;
+	}
+
+	/**
+	 * Checks if the trade statistics are enabled for this trade logger.
+	 * 
+	 * @return <code>true</code> if the trade statistics are enabled
+	 */
+	public boolean isStatisticsEnabled() {
+		return statisticsEnabled;
 	}
 
 	// TODO Keep the connection open (at least until we observe an error)? Cache the
@@ -272,16 +489,86 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 
 	private void performSetup(Connection connection) throws Exception {
 		this.createTable(connection);
+		if (statisticsEnabled) {
+			this.createStatisticsTable(connection);
+		}
 	}
 
 	private void createTable(Connection connection) throws Exception {
 		try (Statement statement = connection.createStatement()) {
 			statement.execute(CREATE_TABLE_SQL);
+			statement.execute(CREATE_PLAYER_NAME_INDEX_SQL);
 		} catch (Exception e) {
 			throw new Exception("Could not create table '" + TABLE_TRADE + "'!", e);
 		}
 	}
 
+	private void createStatisticsTable(Connection connection) throws Exception {
+		// The table creation and the population from the not yet counted trades happen atomically:
+		// If the population fails, we try again during the next setup.
+		connection.setAutoCommit(false);
+		try {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute(CREATE_STATS_TABLE_SQL);
+				statement.execute(CREATE_STATS_KEY_INDEX_SQL);
+				statement.execute(CREATE_STATS_PROGRESS_TABLE_SQL);
+			}
+
+			long lastCountedTrade = this.getLastCountedTrade(connection);
+			if (lastCountedTrade < 0L) {
+				// Unknown progress: Recount all trades.
+				try (Statement statement = connection.createStatement()) {
+					statement.execute(CLEAR_STATS_SQL);
+				}
+				lastCountedTrade = 0L;
+			}
+
+			if (this.getLastTrade(connection) > lastCountedTrade) {
+				Log.info(logPrefix + "Populating the trade statistics from the logged trades ...");
+				for (StatisticsGranularity granularity : StatisticsGranularity.values()) {
+					for (StatisticsDimension dimension : StatisticsDimension.values()) {
+						var backfillSql = getBackfillStatsSql(granularity, dimension);
+						try (var backfillStatement = connection.prepareStatement(backfillSql)) {
+							backfillStatement.setLong(1, lastCountedTrade);
+							backfillStatement.executeUpdate();
+						}
+					}
+				}
+			}
+
+			try (Statement statement = connection.createStatement()) {
+				statement.execute(UPDATE_LAST_COUNTED_TRADE_SQL);
+			}
+
+			connection.commit();
+		} catch (Exception e) {
+			try {
+				connection.rollback();
+			} catch (SQLException rollbackException) {
+				e.addSuppressed(rollbackException);
+			}
+			throw new Exception("Could not create table '" + TABLE_TRADE_STATS + "'!", e);
+		} finally {
+			connection.setAutoCommit(true);
+		}
+	}
+
+	// Returns -1 if unknown.
+	private long getLastCountedTrade(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				var resultSet = statement.executeQuery(SELECT_LAST_COUNTED_TRADE_SQL)) {
+			return resultSet.next() ? resultSet.getLong(1) : -1L;
+		}
+	}
+
+	// Returns 0 if there are no trades.
+	private long getLastTrade(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				var resultSet = statement.executeQuery(SELECT_LAST_TRADE_SQL + ";")) {
+			return resultSet.next() ? resultSet.getLong(1) : 0L;
+		}
+	}
+
 	@Override
 	protected void writeTrades(SaveContext saveContext) throws Exception {
 		if (!saveContext.hasUnsavedTrades()) {
@@ -291,10 +578,27 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 		// Note: Retrying is handled by the caller.
 		this.runTransaction(connection -> {
 			boolean done = false;
-			try (var insertStatement = connection.prepareStatement(INSERT_TRADE_SQL)) {
+			try (var insertStatement = connection.prepareStatement(INSERT_TRADE_SQL);
+					var upsertStatsStatement = statisticsEnabled
+							? connection.prepareStatement(UPSERT_STATS_SQL)
+							: null;
+					var updateProgressStatement = statisticsEnabled
+							? connection.prepareStatement(UPDATE_LAST_COUNTED_TRADE_SQL)
+							: null) {
+				if (upsertStatsStatement != null) {
+					// Each trade record and its statistics update are committed atomically:
+					connection.setAutoCommit(false);
+				}
+
 				var trade = saveContext.getNextUnsavedTrade();
 				while (trade != null) {
 					this.insertTrade(insertStatement, trade);
+					if (upsertStatsStatement != null) {
+						assert updateProgressStatement != null;
+						this.updateStatistics(upsertStatsStatement, trade);
+						updateProgressStatement.executeUpdate();
+						connection.commit();
+					}
 
 					// Trade successfully saved:
 					saveContext.onTradeSuccessfullySaved();
@@ -313,6 +617,13 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 					return null; // No result to return
 				}
 
+				if (!connection.getAutoCommit()) {
+					try {
+						connection.rollback();
+					} catch (SQLException rollbackException) {
+						e.addSuppressed(rollbackException);
+					}
+				}
 				throw e;
 			}
 		});
@@ -378,9 +689,80 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 		insertStatement.executeUpdate();
 	}
 
+	private void updateStatistics(PreparedStatement upsertStatement, TradeRecord trade)
+			throws SQLException {
+		ShopRecord shop = trade.getShop();
+		String shopId = shop.getUniqueId().toString();
+		@Nullable String shopName = shop.getName().isEmpty() ? null : shop.getName();
+		@Nullable PlayerRecord shopOwner = shop.getOwner();
+		// TODO Store the namespaced key instead (consistent with the trade table)
+		String itemType = trade.getResultItem().getType().name();
+
+		for (StatisticsGranularity granularity : StatisticsGranularity.values()) {
+			String bucket = granularity.getBucketStart(trade.getTimestamp()).toString();
+
+			this.addStatisticsUpdate(
+					upsertStatement,
+					trade,
+					granularity,
+					bucket,
+					StatisticsDimension.SHOP,
+					shopId,
+					shopName
+			);
+			if (shopOwner != null) {
+				this.addStatisticsUpdate(
+						upsertStatement,
+						trade,
+						granularity,
+						bucket,
+						StatisticsDimension.OWNER,
+						shopOwner.getUniqueId().toString(),
+						shopOwner.getName()
+				);
+			}
+			this.addStatisticsUpdate(
+					upsertStatement,
+					trade,
+					granularity,
+					bucket,
+					StatisticsDimension.ITEM,
+					itemType,
+					null
+			);
+		}
+
+		upsertStatement.executeBatch();
+	}
+
+	private void addStatisticsUpdate(
+			PreparedStatement upsertStatement,
+			TradeRecord trade,
+			StatisticsGranularity granularity,
+			String bucket,
+			StatisticsDimension dimension,
+			String key,
+			@Nullable String name
+	) throws SQLException {
+		int tradeCount = trade.getTradeCount();
+		UnmodifiableItemStack item2 = trade.getItem2(); // Can be null
+		long item2Amount = (item2 != null) ? (long) item2.getAmount() * tradeCount : 0L;
+
+		upsertStatement.setString(1, granularity.name()); // granularity
+		upsertStatement.setString(2, bucket); // bucket
+		upsertStatement.setString(3, dimension.name()); // dimension
+		upsertStatement.setString(4, key); // dimension_key
+		upsertStatement.setString(5, name); // dimension_name
+		upsertStatement.setLong(6, tradeCount); // trade_count
+		upsertStatement.setLong(7, (long) trade.getResultItem().getAmount() * tradeCount); // result_item_amount
+		upsertStatement.setLong(8, (long) trade.getItem1().getAmount() * tradeCount); // item_1_amount
+		upsertStatement.setLong(9, item2Amount); // item_2_amount
+		upsertStatement.addBatch();
+	}
+
 	@Override
 	public CompletableFuture<TradingHistoryResult> getTradingHistory(TradingHistoryRequest request) {
-		return CompletableFuture.supplyAsync(() -> {
+		return this.supplyQueryAsync(() -> {
 			PlayerSelector playerSelector = request.playerSelector;
 			ShopSelector shopSelector = request.shopSelector;
 			Range range = request.range;
@@ -493,7 +875,137 @@ public class SQLiteTradeLogger extends AbstractFileTradeLogger implements Tradin
 			} catch (Exception e) {
 				throw new RuntimeException("Failed to fetch trading history: " + request.toString(), e);
 			}
-		}, ((SKShopkeepersPlugin) plugin).getAsyncExecutor());
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<PlayerRecord>> findPlayersByName(String playerName, int limit) {
+		Validate.notEmpty(playerName, "playerName is null or empty");
+		Validate.isTrue(limit > 0, "limit has to be positive");
+		return this.supplyQueryAsync(() -> {
+			try {
+				return this.retryTransaction(connection -> {
+					List<PlayerRecord> players = new ArrayList<>();
+					try (var selectPlayersStatement = connection.prepareStatement(SELECT_PLAYERS_BY_NAME_SQL)) {
+						JdbcUtils.setParameters(selectPlayersStatement, 0, playerName, limit);
+						try (var resultSet = selectPlayersStatement.executeQuery()) {
+							while (resultSet.next()) {
+								UUID playerUniqueId = UUID.fromString(Validate.notNull(resultSet.getString(COLUMN_PLAYER_UUID)));
+								String name = Validate.notNull(resultSet.getString(COLUMN_PLAYER_NAME));
+								players.add(PlayerRecord.of(playerUniqueId, name));
+							}
+						}
+					}
+					return players;
+				});
+			} catch (Exception e) {
+				throw new RuntimeException("Failed to look up players by name: " + playerName, e);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<TradeStatisticsResult> getTradeStatistics(TradeStatisticsRequest request) {
+		Validate.notNull(request, "request is null");
+		if (!statisticsEnabled) {
+			return CompletableFuture.failedFuture(
+					new IllegalStateException("The trade statistics are disabled!")
+			);
+		}
+
+		return this.supplyQueryAsync(() -> {
+			StatisticsGranularity granularity = request.granularity;
+			Range range = request.range;
+			@Nullable String key = request.key;
+
+			var filterParameters = new ArrayList<Object>();
+			filterParameters.add(granularity.name());
+			filterParameters.add(request.dimension.name());
+			// The bucket starts are compared lexicographically. This requires the bounds to be
+			// formatted like the stored bucket starts, i.e. aligned to the bucket granularity:
+			filterParameters.add(granularity.getBucketStart(request.from).toString());
+			filterParameters.add(granularity.getBucketCeiling(request.to).toString());
+			if (key != null) {
+				filterParameters.add(key);
+			}
+
+			var selectStatsSql = getSelectStatsSql(key != null, request.perBucket);
+			var statsCountSql = toStatsCountSql(selectStatsSql);
+
+			try {
+				return this.retryTransaction(connection -> {
+					int totalEntriesCount = 0;
+					List<TradeStatisticsEntry> entries = new ArrayList<>();
+
+					try (var statsCountStatement = connection.prepareStatement(statsCountSql)) {
+						JdbcUtils.setParameters(statsCountStatement, 0, filterParameters.toArray());
+						try (var resultSet = statsCountStatement.executeQuery()) {
+							if (resultSet.next()) {
+								totalEntriesCount = resultSet.getInt(1);
+							}
+						}
+					}
+
+					if (totalEntriesCount == 0) {
+						// No statistics found:
+						return new TradeStatisticsResult(entries, totalEntriesCount);
+					}
+
+					int startIndex = range.getStartIndex(totalEntriesCount);
+					int endIndex = range.getEndIndex(totalEntriesCount);
+					int offset = startIndex;
+					int limit = (endIndex - startIndex);
+
+					try (var selectStatsStatement = connection.prepareStatement(selectStatsSql)) {
+						JdbcUtils.setParameters(selectStatsStatement, 0, filterParameters.toArray());
+						JdbcUtils.setParameters(selectStatsStatement, filterParameters.size(), limit, offset);
+
+						try (var resultSet = selectStatsStatement.executeQuery()) {
+							while (resultSet.next()) {
+								entries.add(this.readStatisticsEntry(resultSet, request.perBucket));
+							}
+						}
+					}
+
+					return new TradeStatisticsResult(entries, totalEntriesCount);
+				});
+			} catch (Exception e) {
+				throw new RuntimeException("Failed to fetch trade statistics: " + request.toString(), e);
+			}
+		});
+	}
+
+	// Returns a failed future if the query executor rejects the query, e.g. because it is
+	// overloaded:
+	private <T> CompletableFuture<T> supplyQueryAsync(Supplier<T> query) {
+		try {
+			return CompletableFuture.supplyAsync(
+					query,
+					((SKShopkeepersPlugin) plugin).getQueryExecutor()
+			);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private TradeStatisticsEntry readStatisticsEntry(ResultSet resultSet, boolean perBucket)
+			throws SQLException {
+		assert resultSet != null;
+		String key = Validate.notNull(resultSet.getString(COLUMN_DIMENSION_KEY));
+		@Nullable String name = resultSet.getString(COLUMN_DIMENSION_NAME);
+		@Nullable Instant bucket = null;
+		if (perBucket) {
+			bucket = Instant.parse(Validate.notNull(resultSet.getString(AGGREGATE_PREFIX + COLUMN_BUCKET)));
+		}
+		return new TradeStatisticsEntry(
+				key,
+				name,
+				bucket,
+				resultSet.getLong(AGGREGATE_PREFIX + COLUMN_TRADE_COUNT),
+				resultSet.getLong(AGGREGATE_PREFIX + COLUMN_RESULT_ITEM_AMOUNT),
+				resultSet.getLong(AGGREGATE_PREFIX + COLUMN_ITEM_1_AMOUNT),
+				resultSet.getLong(AGGREGATE_PREFIX + COLUMN_ITEM_2_AMOUNT)
+		);
 	}
 
 	private TradeRecord readTradeRecord(ResultSet resultSet) throws SQLException {
@@ -0,0 +1,23 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+/**
+ * The dimensions by which trades are aggregated in the {@link TradeStatisticsProvider trade
+ * statistics}.
+ */
+public enum StatisticsDimension {
+
+	/**
+	 * Trades aggregated per shop, keyed by the shop's unique id.
+	 */
+	SHOP,
+	/**
+	 * Trades aggregated per shop owner, keyed by the owner's unique id.
+	 * <p>
+	 * Trades with admin shops are not included in this dimension.
+	 */
+	OWNER,
+	/**
+	 * Trades aggregated per result item, keyed by the item type.
+	 */
+	ITEM;
+}
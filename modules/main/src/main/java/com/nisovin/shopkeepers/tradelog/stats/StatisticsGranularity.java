@@ -0,0 +1,65 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * The time granularities at which the {@link TradeStatisticsProvider trade statistics} are
+ * aggregated.
+ * <p>
+ * Each aggregated counter covers one time bucket of the respective granularity. The start of a
+ * bucket is represented as an ISO 8601 UTC timestamp without fractional seconds, so that buckets can
+ * be compared and range-filtered lexicographically.
+ */
+public enum StatisticsGranularity {
+
+	HOUR(ChronoUnit.HOURS, "%Y-%m-%dT%H:00:00Z"),
+	DAY(ChronoUnit.DAYS, "%Y-%m-%dT00:00:00Z");
+
+	private final ChronoUnit unit;
+	// The SQLite strftime format that maps a timestamp to the start of its bucket. This is
+	// consistent with the result of getBucketStart(Instant).toString().
+	private final String sqlBucketFormat;
+
+	private StatisticsGranularity(ChronoUnit unit, String sqlBucketFormat) {
+		this.unit = unit;
+		this.sqlBucketFormat = sqlBucketFormat;
+	}
+
+	/**
+	 * Gets the start of the bucket that contains the given timestamp.
+	 * 
+	 * @param timestamp
+	 *            the timestamp, not <code>null</code>
+	 * @return the start of the bucket
+	 */
+	public Instant getBucketStart(Instant timestamp) {
+		Validate.notNull(timestamp, "timestamp is null");
+		return timestamp.truncatedTo(unit);
+	}
+
+	/**
+	 * Gets the start of the first bucket that starts at or after the given timestamp.
+	 * 
+	 * @param timestamp
+	 *            the timestamp, not <code>null</code>
+	 * @return the bucket start
+	 */
+	public Instant getBucketCeiling(Instant timestamp) {
+		Instant bucketStart = this.getBucketStart(timestamp);
+		if (bucketStart.equals(timestamp)) return bucketStart;
+		return bucketStart.plus(1, unit);
+	}
+
+	/**
+	 * Gets the SQLite {@code strftime} format that maps a stored trade timestamp to the start of
+	 * its bucket.
+	 * 
+	 * @return the SQL bucket format
+	 */
+	public String getSqlBucketFormat() {
+		return sqlBucketFormat;
+	}
+}
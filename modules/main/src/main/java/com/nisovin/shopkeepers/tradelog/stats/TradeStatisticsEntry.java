@@ -0,0 +1,128 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.time.Instant;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * An immutable aggregated trade statistics entry.
+ */
+public class TradeStatisticsEntry {
+
+	private final String key; // Not null
+	private final @Nullable String name; // Can be null
+	private final @Nullable Instant bucket; // Null if aggregated over multiple buckets
+	private final long tradeCount;
+	private final long resultItemAmount;
+	private final long item1Amount;
+	private final long item2Amount;
+
+	public TradeStatisticsEntry(
+			String key,
+			@Nullable String name,
+			@Nullable Instant bucket,
+			long tradeCount,
+			long resultItemAmount,
+			long item1Amount,
+			long item2Amount
+	) {
+		Validate.notNull(key, "key is null");
+		Validate.isTrue(tradeCount >= 0, "tradeCount cannot be negative");
+		this.key = key;
+		this.name = name;
+		this.bucket = bucket;
+		this.tradeCount = tradeCount;
+		this.resultItemAmount = resultItemAmount;
+		this.item1Amount = item1Amount;
+		this.item2Amount = item2Amount;
+	}
+
+	/**
+	 * Gets the key within the aggregation dimension, such as the shop's unique id, the owner's
+	 * unique id, or the item type.
+	 * 
+	 * @return the key, not <code>null</code>
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Gets the last known display name associated with the key, such as the owner's name or the
+	 * shop's name.
+	 * 
+	 * @return the name, or <code>null</code> if not available
+	 */
+	public @Nullable String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the start of the bucket covered by this entry.
+	 * 
+	 * @return the bucket start, or <code>null</code> if this entry combines the counters of
+	 *         multiple buckets
+	 */
+	public @Nullable Instant getBucket() {
+		return bucket;
+	}
+
+	/**
+	 * Gets the total number of trades.
+	 * 
+	 * @return the trade count
+	 */
+	public long getTradeCount() {
+		return tradeCount;
+	}
+
+	/**
+	 * Gets the total amount of traded result items.
+	 * 
+	 * @return the result item amount
+	 */
+	public long getResultItemAmount() {
+		return resultItemAmount;
+	}
+
+	/**
+	 * Gets the total amount of first items provided by the trading players.
+	 * 
+	 * @return the first item amount
+	 */
+	public long getItem1Amount() {
+		return item1Amount;
+	}
+
+	/**
+	 * Gets the total amount of second items provided by the trading players.
+	 * 
+	 * @return the second item amount
+	 */
+	public long getItem2Amount() {
+		return item2Amount;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("TradeStatisticsEntry [key=");
+		builder.append(key);
+		builder.append(", name=");
+		builder.append(name);
+		builder.append(", bucket=");
+		builder.append(bucket);
+		builder.append(", tradeCount=");
+		builder.append(tradeCount);
+		builder.append(", resultItemAmount=");
+		builder.append(resultItemAmount);
+		builder.append(", item1Amount=");
+		builder.append(item1Amount);
+		builder.append(", item2Amount=");
+		builder.append(item2Amount);
+		builder.append("]");
+		return builder.toString();
+	}
+}
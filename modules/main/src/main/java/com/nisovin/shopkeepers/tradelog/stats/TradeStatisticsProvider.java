@@ -0,0 +1,24 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provides aggregated trade statistics.
+ * <p>
+ * In contrast to the {@link com.nisovin.shopkeepers.tradelog.history.TradingHistoryProvider},
+ * which pages through the individual logged trades, this is backed by counters that are
+ * incrementally updated as trades are logged. The cost of a query therefore only depends on the
+ * number of aggregated buckets in the requested time range, and not on the size of the trading
+ * history.
+ */
+public interface TradeStatisticsProvider {
+
+	/**
+	 * Retrieves the aggregated trade statistics according to the given request.
+	 * 
+	 * @param request
+	 *            the request
+	 * @return the trade statistics result
+	 */
+	public CompletableFuture<TradeStatisticsResult> getTradeStatistics(TradeStatisticsRequest request);
+}
@@ -0,0 +1,91 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.time.Instant;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.java.Range;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+public class TradeStatisticsRequest {
+
+	public final StatisticsDimension dimension; // Not null
+	public final StatisticsGranularity granularity; // Not null
+	public final Instant from; // Not null, inclusive
+	public final Instant to; // Not null, exclusive
+	public final @Nullable String key; // Null to include all keys
+	public final boolean perBucket;
+	public final Range range; // Not null
+
+	/**
+	 * Creates a {@link TradeStatisticsRequest}.
+	 * <p>
+	 * The time range is aligned to the buckets of the given granularity: All buckets that overlap
+	 * the given time range are included.
+	 * <p>
+	 * The resulting entries are sorted by their trade count in descending order. If
+	 * <code>perBucket</code> is <code>true</code>, there is a separate entry for each bucket and
+	 * key, sorted by the bucket start in descending order first. Otherwise, the counters of all
+	 * buckets within the time range are summed up into a single entry per key.
+	 * 
+	 * @param dimension
+	 *            the aggregation dimension, not <code>null</code>
+	 * @param granularity
+	 *            the bucket granularity, not <code>null</code>
+	 * @param from
+	 *            the start of the time range (inclusive), not <code>null</code>
+	 * @param to
+	 *            the end of the time range (exclusive), not <code>null</code>
+	 * @param key
+	 *            the key to filter by (e.g. a shop unique id), or <code>null</code> to include all
+	 *            keys of the dimension
+	 * @param perBucket
+	 *            <code>true</code> to not merge the counters of different buckets
+	 * @param range
+	 *            the range of entries to retrieve, not <code>null</code>
+	 */
+	public TradeStatisticsRequest(
+			StatisticsDimension dimension,
+			StatisticsGranularity granularity,
+			Instant from,
+			Instant to,
+			@Nullable String key,
+			boolean perBucket,
+			Range range
+	) {
+		Validate.notNull(dimension, "dimension is null");
+		Validate.notNull(granularity, "granularity is null");
+		Validate.notNull(from, "from is null");
+		Validate.notNull(to, "to is null");
+		Validate.isTrue(!to.isBefore(from), "to is before from");
+		Validate.notNull(range, "range is null");
+		this.dimension = dimension;
+		this.granularity = granularity;
+		this.from = from;
+		this.to = to;
+		this.key = key;
+		this.perBucket = perBucket;
+		this.range = range;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("TradeStatisticsRequest [dimension=");
+		builder.append(dimension);
+		builder.append(", granularity=");
+		builder.append(granularity);
+		builder.append(", from=");
+		builder.append(from);
+		builder.append(", to=");
+		builder.append(to);
+		builder.append(", key=");
+		builder.append(key);
+		builder.append(", perBucket=");
+		builder.append(perBucket);
+		builder.append(", range=");
+		builder.append(range);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,36 @@
+package com.nisovin.shopkeepers.tradelog.stats;
+
+import java.util.List;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+
+public class TradeStatisticsResult {
+
+	private final List<TradeStatisticsEntry> entries;
+	private final int totalEntriesCount;
+
+	public TradeStatisticsResult(
+			List<TradeStatisticsEntry> entries,
+			int totalEntriesCount
+	) {
+		Validate.notNull(entries, "entries is null!");
+		Validate.noNullElements(entries, "entries cannot contain null!");
+		Validate.isTrue(totalEntriesCount >= 0, "Total entries count cannot be negative!");
+		this.entries = entries;
+		this.totalEntriesCount = totalEntriesCount;
+	}
+
+	/**
+	 * @return the entries, not <code>null</code> but can be empty
+	 */
+	public List<TradeStatisticsEntry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * @return the total number of matching entries
+	 */
+	public int getTotalEntriesCount() {
+		return totalEntriesCount;
+	}
+}
@@ -1,11 +1,15 @@
 package com.nisovin.shopkeepers.ui.lib;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -71,6 +75,107 @@ public final class UISessionManager {
 	private final Map<UUID, View> uiSessions = new HashMap<>();
 	private final Collection<? extends View> uiSessionsView
 			= Collections.unmodifiableCollection(uiSessions.values());
+	// Indexes of the UI sessions by context object and by UI type, kept in sync with uiSessions.
+	// Context objects and UI types are compared by identity.
+	private final Map<Object, SessionList> uiSessionsByContext = new IdentityHashMap<>();
+	private final Map<UIType, SessionList> uiSessionsByType = new IdentityHashMap<>();
+
+	/**
+	 * A list of UI sessions together with an unmodifiable view on it.
+	 */
+	private static final class SessionList {
+
+		private final List<View> sessions = new ArrayList<>(4);
+		private final List<View> sessionsView = Collections.unmodifiableList(sessions);
+	}
+
+	/**
+	 * An unmodifiable view on the UI sessions of a key of one of the indexes, optionally filtered
+	 * by UI type.
+	 * <p>
+	 * The index is looked up on each access. The view therefore also reflects UI sessions that are
+	 * started after the view has been created, even if the index did not contain the key at that
+	 * time.
+	 */
+	private static final class SessionsView<K> extends AbstractCollection<View> {
+
+		private final Map<K, SessionList> index;
+		private final K key;
+		// Null to not filter by UI type:
+		private final @Nullable UIType uiType;
+
+		SessionsView(Map<K, SessionList> index, K key, @Nullable UIType uiType) {
+			this.index = index;
+			this.key = key;
+			this.uiType = uiType;
+		}
+
+		private List<View> getSessions() {
+			SessionList sessionList = index.get(key);
+			if (sessionList == null) return Collections.emptyList();
+			return sessionList.sessionsView;
+		}
+
+		@Override
+		public Iterator<View> iterator() {
+			Iterator<View> iterator = this.getSessions().iterator();
+			UIType uiType = this.uiType;
+			if (uiType == null) return iterator;
+			return new FilteredIterator(iterator, uiType);
+		}
+
+		@Override
+		public int size() {
+			List<View> sessions = this.getSessions();
+			if (uiType == null) return sessions.size();
+
+			int count = 0;
+			for (int i = 0; i < sessions.size(); i++) {
+				if (sessions.get(i).getUIType() == uiType) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !this.iterator().hasNext();
+		}
+	}
+
+	private static final class FilteredIterator implements Iterator<View> {
+
+		private final Iterator<View> iterator;
+		private final UIType uiType;
+		private @Nullable View next = null;
+
+		FilteredIterator(Iterator<View> iterator, UIType uiType) {
+			this.iterator = iterator;
+			this.uiType = uiType;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && iterator.hasNext()) {
+				View session = iterator.next();
+				if (session.getUIType() == uiType) {
+					next = session;
+				}
+			}
+			return (next != null);
+		}
+
+		@Override
+		public View next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			View session = Unsafe.assertNonNull(next);
+			next = null;
+			return session;
+		}
+	}
 
 	private UISessionManager(Plugin plugin, SessionHandler sessionHandler) {
 		Validate.notNull(plugin, "plugin is null");
@@ -176,6 +281,7 @@ public final class UISessionManager {
 
 		// Register the new UI session:
 		uiSessions.put(player.getUniqueId(), view);
+		this.addToIndexes(view);
 
 		// Open the view for the player:
 		if (!view.open()) {
@@ -191,39 +297,84 @@ public final class UISessionManager {
 		return uiSessionsView;
 	}
 
+	/**
+	 * Gets the UI sessions whose {@link ViewContext#getObject() context object} is the given
+	 * object.
+	 * <p>
+	 * The returned collection is an unmodifiable view that reflects subsequent changes to the UI
+	 * sessions. Callers that start or end UI sessions while iterating it need to iterate a copy.
+	 * 
+	 * @param contextObject
+	 *            the context object, not <code>null</code>
+	 * @return an unmodifiable view on the matching UI sessions, not <code>null</code>
+	 */
 	public Collection<? extends View> getUISessionsForContext(Object contextObject) {
 		Validate.notNull(contextObject, "contextObject is null");
-		List<View> sessions = new ArrayList<>();
-		uiSessionsView.forEach(uiSession -> {
-			if (uiSession.getContext().getObject() == contextObject) {
-				sessions.add(uiSession);
-			}
-		});
-		return sessions;
+		return new SessionsView<>(uiSessionsByContext, contextObject, null);
 	}
 
+	/**
+	 * Gets the UI sessions of the given {@link UIType} whose {@link ViewContext#getObject() context
+	 * object} is the given object.
+	 * <p>
+	 * The returned collection is an unmodifiable view that reflects subsequent changes to the UI
+	 * sessions, but only ever contains UI sessions of the given UI type. Callers that start or end
+	 * UI sessions while iterating it need to iterate a copy.
+	 * 
+	 * @param contextObject
+	 *            the context object, not <code>null</code>
+	 * @param uiType
+	 *            the UI type, not <code>null</code>
+	 * @return an unmodifiable view on the matching UI sessions, not <code>null</code>
+	 */
 	public Collection<? extends View> getUISessionsForContext(Object contextObject, UIType uiType) {
 		Validate.notNull(contextObject, "contextObject is null");
 		Validate.notNull(uiType, "uiType is null");
-		List<View> sessions = new ArrayList<>();
-		uiSessionsView.forEach(uiSession -> {
-			if (uiSession.getContext().getObject() == contextObject
-					&& uiSession.getUIType() == uiType) {
-				sessions.add(uiSession);
-			}
-		});
-		return sessions;
+		return new SessionsView<>(uiSessionsByContext, contextObject, uiType);
 	}
 
+	/**
+	 * Gets the UI sessions of the given {@link UIType}.
+	 * <p>
+	 * The returned collection is an unmodifiable view that reflects subsequent changes to the UI
+	 * sessions. Callers that start or end UI sessions while iterating it need to iterate a copy.
+	 * 
+	 * @param uiType
+	 *            the UI type, not <code>null</code>
+	 * @return an unmodifiable view on the matching UI sessions, not <code>null</code>
+	 */
 	public Collection<? extends View> getUISessions(UIType uiType) {
 		Validate.notNull(uiType, "uiType is null");
-		List<View> sessions = new ArrayList<>();
-		uiSessionsView.forEach(uiSession -> {
-			if (uiSession.getUIType() == uiType) {
-				sessions.add(uiSession);
+		return new SessionsView<>(uiSessionsByType, uiType, null);
+	}
+
+	private void addToIndexes(View session) {
+		Object contextObject = session.getContext().getObject();
+		uiSessionsByContext.computeIfAbsent(contextObject, key -> new SessionList())
+				.sessions.add(session);
+		uiSessionsByType.computeIfAbsent(session.getUIType(), key -> new SessionList())
+				.sessions.add(session);
+	}
+
+	private void removeFromIndexes(View session) {
+		removeFromIndex(uiSessionsByContext, session.getContext().getObject(), session);
+		removeFromIndex(uiSessionsByType, session.getUIType(), session);
+	}
+
+	private static <K> void removeFromIndex(Map<K, SessionList> index, K key, View session) {
+		SessionList sessionList = index.get(key);
+		if (sessionList == null) return;
+
+		List<View> sessions = sessionList.sessions;
+		for (int i = 0; i < sessions.size(); i++) {
+			if (sessions.get(i) == session) {
+				sessions.remove(i);
+				break;
 			}
-		});
-		return sessions;
+		}
+		if (sessions.isEmpty()) {
+			index.remove(key);
+		}
 	}
 
 	public @Nullable View getUISession(Player player) {
@@ -257,6 +408,7 @@ public final class UISessionManager {
 		assert player != null;
 		View session = uiSessions.remove(player.getUniqueId());
 		if (session == null) return;
+		this.removeFromIndexes(session);
 
 		this.onSessionEnded(session, closeEvent);
 	}
@@ -283,16 +435,17 @@ public final class UISessionManager {
 		// Copy to prevent concurrent modifications:
 		new ArrayList<>(this.getUISessions()).forEach(View::abort);
 		assert uiSessions.isEmpty();
+		assert uiSessionsByContext.isEmpty() && uiSessionsByType.isEmpty();
 	}
 
 	public void abortUISessionsForContext(Object contextObject) {
-		// Note: The returned collection is already a copy.
-		this.getUISessionsForContext(contextObject).forEach(View::abort);
+		// Copy to prevent concurrent modifications:
+		new ArrayList<>(this.getUISessionsForContext(contextObject)).forEach(View::abort);
 	}
 
 	public void abortUISessionsForContext(Object contextObject, UIType uiType) {
-		// Note: The returned collection is already a copy.
-		this.getUISessionsForContext(contextObject, uiType).forEach(View::abort);
+		// Copy to prevent concurrent modifications:
+		new ArrayList<>(this.getUISessionsForContext(contextObject, uiType)).forEach(View::abort);
 	}
 
 	public void abortUISessionsForContextDelayed(Object contextObject) {
@@ -320,20 +473,11 @@ public final class UISessionManager {
 
 	private void deactivateUIsForContext(Object contextObject) {
 		assert contextObject != null;
-		uiSessionsView.forEach(uiSession -> {
-			if (uiSession.getContext().getObject() == contextObject) {
-				uiSession.deactivateUI();
-			}
-		});
+		this.getUISessionsForContext(contextObject).forEach(View::deactivateUI);
 	}
 
 	private void deactivateUIsForContext(Object contextObject, UIType uiType) {
 		assert contextObject != null;
-		uiSessionsView.forEach(uiSession -> {
-			if (uiSession.getContext().getObject() == contextObject
-					&& uiSession.getUIType() == uiType) {
-				uiSession.deactivateUI();
-			}
-		});
+		this.getUISessionsForContext(contextObject, uiType).forEach(View::deactivateUI);
 	}
 }
@@ -1,6 +1,8 @@
 package com.nisovin.shopkeepers.ui.lib;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -463,9 +465,14 @@ public abstract class View implements UISession {
 	 *            the slot
 	 */
 	public final void updateSlotInAllViews(int slot) {
-		UISessionManager.getInstance()
-				.getUISessionsForContext(this.getContext().getObject(), this.getUIType())
-				.forEach(view -> view.updateSlot(slot));
+		this.getAllViews().forEach(view -> view.updateSlot(slot));
+	}
+
+	// Returns a copy of the active views of the same UI type and context object as this view. The
+	// copy prevents concurrent modifications in case updating a view starts or ends a UI session.
+	private List<? extends View> getAllViews() {
+		return new ArrayList<>(UISessionManager.getInstance()
+				.getUISessionsForContext(this.getContext().getObject(), this.getUIType()));
 	}
 
 	/**
@@ -496,9 +503,7 @@ public abstract class View implements UISession {
 	 *            the area identifier, not <code>null</code>
 	 */
 	public final void updateAreaInAllViews(String area) {
-		UISessionManager.getInstance()
-				.getUISessionsForContext(this.getContext().getObject(), this.getUIType())
-				.forEach(view -> view.updateArea(area));
+		this.getAllViews().forEach(view -> view.updateArea(area));
 	}
 
 	/**
@@ -514,9 +519,7 @@ public abstract class View implements UISession {
 	 * active views that share the same {@link #getContext() context object}.
 	 */
 	public final void updateAllViews() {
-		UISessionManager.getInstance()
-				.getUISessionsForContext(this.getContext().getObject(), this.getUIType())
-				.forEach(view -> view.updateInventory());
+		this.getAllViews().forEach(view -> view.updateInventory());
 	}
 
 	// UI STATE
@@ -45,6 +45,7 @@ import com.nisovin.shopkeepers.util.bukkit.ConfigUtils;
 import com.nisovin.shopkeepers.util.bukkit.MerchantUtils;
 import com.nisovin.shopkeepers.util.bukkit.TextUtils;
 import com.nisovin.shopkeepers.util.inventory.InventoryUtils;
+import com.nisovin.shopkeepers.util.inventory.ItemFingerprint;
 import com.nisovin.shopkeepers.util.inventory.ItemUtils;
 import com.nisovin.shopkeepers.util.java.Lazy;
 import com.nisovin.shopkeepers.util.logging.Log;
@@ -764,8 +765,24 @@ public class TradingView extends View {
 		int requiredItem2Amount = ItemUtils.getItemStackAmount(requiredItem2);
 		return (offeredItem1Amount >= requiredItem1Amount
 				&& offeredItem2Amount >= requiredItem2Amount
-				&& Compat.getProvider().matches(offeredItem1, requiredItem1)
-				&& Compat.getProvider().matches(offeredItem2, requiredItem2));
+				&& this.matches(offeredItem1, requiredItem1)
+				&& this.matches(offeredItem2, requiredItem2));
+	}
+
+	private boolean matches(
+			@Nullable ItemStack offeredItem,
+			@Nullable UnmodifiableItemStack requiredItem
+	) {
+		// Fail fast based on the cached fingerprint of the required item before we compare the
+		// items' data:
+		if (offeredItem != null && requiredItem != null
+				&& !ItemUtils.isEmpty(offeredItem) && !ItemUtils.isEmpty(requiredItem)) {
+			ItemFingerprint requiredFingerprint = ItemFingerprint.of(requiredItem);
+			if (offeredItem.getType() != requiredFingerprint.getType()) return false;
+			// If both items have no data, they match regardless of the used comparison:
+			if (!requiredFingerprint.hasItemMeta() && !offeredItem.hasItemMeta()) return true;
+		}
+		return Compat.getProvider().matches(offeredItem, requiredItem);
 	}
 
 	protected final void debugPreventedTrade(String reason) {
@@ -1,6 +1,5 @@
 package com.nisovin.shopkeepers.user;
 
-import java.util.Map;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
@@ -10,18 +9,16 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.nisovin.shopkeepers.api.internal.util.Unsafe;
 import com.nisovin.shopkeepers.api.user.User;
-import com.nisovin.shopkeepers.util.java.LRUCache;
 import com.nisovin.shopkeepers.util.java.Validate;
 
 public final class SKUser implements User {
 
-	private static final Map<UUID, User> cache = new LRUCache<>(100);
-
 	/**
 	 * Gets a {@link User} with the specified unique id and last known name.
 	 * <p>
-	 * This method may cache and reuse the returned {@link User} object for future calls of this
-	 * method.
+	 * The returned {@link User} object is interned by the {@link UserRegistry} and reused for future
+	 * calls of this method with the same unique id and name, as long as it is still referenced
+	 * somewhere.
 	 * 
 	 * @param uniqueId
 	 *            the unique id, not <code>null</code>
@@ -30,16 +27,7 @@ public final class SKUser implements User {
 	 * @return the user, not <code>null</code>
 	 */
 	public static User of(UUID uniqueId, String lastKnownName) {
-		User user = cache.compute(uniqueId, (uuid, oldUser) -> {
-			if (oldUser != null && oldUser.getLastKnownName().equals(lastKnownName)) {
-				assert oldUser.getUniqueId().equals(uniqueId);
-				return oldUser;
-			} else {
-				return new SKUser(uniqueId, lastKnownName);
-			}
-		});
-		assert user != null;
-		return user;
+		return UserRegistry.getInstance().intern(uniqueId, lastKnownName);
 	}
 
 	/**
@@ -72,7 +60,7 @@ public final class SKUser implements User {
 	private final UUID uniqueId; // Not null
 	private final String lastKnownName; // Not null or empty
 
-	private SKUser(UUID uniqueId, String lastKnownName) {
+	SKUser(UUID uniqueId, String lastKnownName) {
 		Validate.notNull(uniqueId, "uniqueId is null");
 		Validate.notEmpty(lastKnownName, "lastKnownName is null or empty");
 		this.uniqueId = uniqueId;
@@ -0,0 +1,227 @@
+package com.nisovin.shopkeepers.user;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.user.User;
+import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
+import com.nisovin.shopkeepers.tradelog.data.PlayerRecord;
+import com.nisovin.shopkeepers.tradelog.history.TradingHistoryProvider;
+import com.nisovin.shopkeepers.util.java.LRUCache;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+
+/**
+ * Resolves player names to {@link User users} without blocking the server's main thread.
+ * <p>
+ * Names are compared case-insensitively and resolved in the following order: The online players,
+ * the owners of player shops, the previously resolved names, and finally the server's current
+ * mapping of names to offline players. If the offline player has not played on the server before
+ * (for example because the server deleted the player's data), the players recorded by the trading
+ * history are used as a fallback, but only if they match the unique id of the server's mapping:
+ * Since names can move to other accounts, the trading history may contain names that now belong to
+ * a different player. Since looking up an offline player by name can block while the server
+ * fetches the player's profile, the last two lookups are performed asynchronously.
+ * <p>
+ * The returned futures complete on the server's main thread.
+ */
+public class UserNameResolver {
+
+	private static final int CACHE_SIZE = 256;
+	private static final int MAX_TRADE_LOG_MATCHES = 10;
+
+	private final SKShopkeepersPlugin plugin;
+	// Lower case name -> resolved user. Only accessed on the main thread.
+	private final Map<String, User> resolvedUsers = new LRUCache<>(CACHE_SIZE);
+
+	public UserNameResolver(SKShopkeepersPlugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+	}
+
+	public void onDisable() {
+		resolvedUsers.clear();
+	}
+
+	/**
+	 * Removes the previously resolved user for the name of the given player, if the name now
+	 * belongs to the given player.
+	 *
+	 * @param player
+	 *            the player, not <code>null</code>
+	 */
+	public void onPlayerJoin(Player player) {
+		String cacheKey = getCacheKey(Unsafe.assertNonNull(player.getName()));
+		User resolvedUser = resolvedUsers.get(cacheKey);
+		if (resolvedUser != null && !resolvedUser.getUniqueId().equals(player.getUniqueId())) {
+			resolvedUsers.remove(cacheKey);
+		}
+	}
+
+	private static String getCacheKey(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Gets the users with the given name that are known without performing any lookups, i.e. the
+	 * online players, the owners of player shops, and the previously resolved names.
+	 * <p>
+	 * This has to be called on the server's main thread.
+	 *
+	 * @param name
+	 *            the player name, not <code>null</code> or empty
+	 * @return the matching users, not <code>null</code> but can be empty
+	 */
+	public List<User> getKnownUsers(String name) {
+		Validate.notEmpty(name, "name is null or empty");
+
+		// Online player names are unique:
+		Player player = Bukkit.getPlayerExact(name);
+		if (player != null) {
+			return Collections.singletonList(SKUser.of(player));
+		}
+
+		// The owner names are not guaranteed to be unique:
+		Map<UUID, User> shopOwners = new LinkedHashMap<>();
+		for (AbstractPlayerShopkeeper playerShop : plugin.getShopkeeperRegistry().getAllPlayerShopkeepers()) {
+			User owner = playerShop.getOwnerUser();
+			if (owner.getLastKnownName().equalsIgnoreCase(name)) {
+				shopOwners.putIfAbsent(owner.getUniqueId(), owner);
+			}
+		}
+		if (!shopOwners.isEmpty()) {
+			return new ArrayList<>(shopOwners.values());
+		}
+
+		User resolvedUser = resolvedUsers.get(getCacheKey(name));
+		if (resolvedUser != null) {
+			return Collections.singletonList(resolvedUser);
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Resolves the users with the given name.
+	 * <p>
+	 * This only returns offline players that have played on the server before.
+	 * <p>
+	 * This has to be called on the server's main thread. The returned future completes on the
+	 * server's main thread as well.
+	 *
+	 * @param name
+	 *            the player name, not <code>null</code> or empty
+	 * @return the future with the matching users, not <code>null</code> but can be empty
+	 */
+	public CompletableFuture<List<User>> resolveUsers(String name) {
+		List<User> knownUsers = this.getKnownUsers(name);
+		if (!knownUsers.isEmpty()) {
+			return CompletableFuture.completedFuture(knownUsers);
+		}
+
+		return this.lookupOfflinePlayer(name)
+				.thenCompose(offlinePlayer -> {
+					UUID playerId = offlinePlayer.getUniqueId();
+					if (offlinePlayer.hasPlayedBefore()) {
+						String offlinePlayerName = offlinePlayer.getName();
+						if (offlinePlayerName == null || offlinePlayerName.isEmpty()) {
+							offlinePlayerName = name;
+						}
+						User user = SKUser.of(playerId, offlinePlayerName);
+						return CompletableFuture.completedFuture(Collections.singletonList(user));
+					}
+
+					// Fallback: Only accept players from the trading history that match the
+					// server's current mapping of the name:
+					return this.lookupTradeLogPlayers(name).thenApply(tradeLogUsers -> {
+						for (User tradeLogUser : tradeLogUsers) {
+							if (tradeLogUser.getUniqueId().equals(playerId)) {
+								return Collections.singletonList(tradeLogUser);
+							}
+						}
+						return Collections.<User>emptyList();
+					});
+				})
+				.thenApplyAsync(users -> {
+					// The results are verified against the server's mapping of names. We only cache
+					// unambiguous results:
+					if (users.size() == 1) {
+						resolvedUsers.put(getCacheKey(name), users.get(0));
+					}
+					return users;
+				}, plugin.getSyncExecutor());
+	}
+
+	/**
+	 * Resolves the unique id of the player with the given name.
+	 * <p>
+	 * Unlike {@link #resolveUsers(String)}, this also returns the unique id of players that have
+	 * never played on the server before, as provided by the server. If the name is ambiguous, this
+	 * returns the unique id of the first matching user.
+	 * <p>
+	 * This has to be called on the server's main thread. The returned future completes on the
+	 * server's main thread as well.
+	 *
+	 * @param name
+	 *            the player name, not <code>null</code> or empty
+	 * @return the future with the unique id, not <code>null</code>
+	 */
+	public CompletableFuture<UUID> resolveUniqueId(String name) {
+		return this.resolveUsers(name)
+				.thenCompose(users -> {
+					if (!users.isEmpty()) {
+						return CompletableFuture.completedFuture(users.get(0).getUniqueId());
+					}
+
+					// Potentially a non-existent offline player uuid:
+					return this.lookupOfflinePlayer(name).thenApply(OfflinePlayer::getUniqueId);
+				})
+				.thenApplyAsync(uuid -> Unsafe.assertNonNull(uuid), plugin.getSyncExecutor());
+	}
+
+	private CompletableFuture<List<User>> lookupTradeLogPlayers(String name) {
+		@Nullable TradingHistoryProvider tradingHistoryProvider = plugin.getTradingHistoryProvider();
+		if (tradingHistoryProvider == null) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+
+		return tradingHistoryProvider.findPlayersByName(name, MAX_TRADE_LOG_MATCHES)
+				.thenApply(players -> {
+					List<User> users = new ArrayList<>(players.size());
+					for (PlayerRecord player : players) {
+						users.add(player.toUser());
+					}
+					return users;
+				})
+				.exceptionally(exception -> {
+					// Continue with the offline player lookup:
+					Log.warning("Failed to look up the player name '" + name
+							+ "' in the trading history!", exception);
+					return Collections.emptyList();
+				});
+	}
+
+	private CompletableFuture<OfflinePlayer> lookupOfflinePlayer(String name) {
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				// Potentially blocking: Cached by the server for subsequent lookups.
+				return Bukkit.getOfflinePlayer(name);
+			}, plugin.getIOExecutor());
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+}
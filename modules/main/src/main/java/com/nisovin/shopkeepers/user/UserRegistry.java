@@ -0,0 +1,241 @@
+package com.nisovin.shopkeepers.user;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.internal.util.Unsafe;
+import com.nisovin.shopkeepers.api.user.User;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Interns {@link User} instances by their unique id and keeps track of the last known names of
+ * users.
+ * <p>
+ * This registry is safe to use concurrently, e.g. from the server's main thread as well as from
+ * async tasks such as the trading history.
+ * <p>
+ * The interned users are only weakly referenced: As long as some component (e.g. a shopkeeper)
+ * still references a user, subsequent lookups for the same unique id and name return the same
+ * instance. Once a user is no longer referenced anywhere else, it is garbage collected, but we keep
+ * tracking its last known name. To limit the memory footprint, we only keep a bounded number of
+ * these detached entries and evict the oldest ones first.
+ * <p>
+ * {@link User} instances are immutable. Name changes are therefore tracked by the registry, and
+ * subsequent lookups with the new name intern a new {@link User} instance.
+ */
+public final class UserRegistry {
+
+	// The maximum number of tracked users that are no longer referenced anywhere else:
+	private static final int MAX_DETACHED_USERS = 2048;
+
+	private static final UserRegistry INSTANCE = new UserRegistry(MAX_DETACHED_USERS);
+
+	/**
+	 * Gets the {@link UserRegistry} that is used by {@link SKUser#of(UUID, String)}.
+	 *
+	 * @return the user registry
+	 */
+	public static UserRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	private static final class UserReference extends WeakReference<User> {
+
+		private final UUID uniqueId;
+
+		UserReference(User user, ReferenceQueue<? super User> queue) {
+			super(user, queue);
+			this.uniqueId = user.getUniqueId();
+		}
+	}
+
+	private static final class Entry {
+
+		// Not null or empty:
+		private volatile String lastKnownName;
+		// Not null, but the referenced user may have been garbage collected:
+		private volatile UserReference userReference;
+
+		Entry(String lastKnownName, UserReference userReference) {
+			this.lastKnownName = lastKnownName;
+			this.userReference = userReference;
+		}
+
+		@Nullable
+		User getUser() {
+			return userReference.get();
+		}
+	}
+
+	private final int maxDetachedUsers;
+	private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+	private final ReferenceQueue<User> referenceQueue = new ReferenceQueue<>();
+	// The unique ids of the entries whose users got garbage collected, in the order in which we
+	// noticed this. May contain duplicates and entries that have been re-attached in the meantime.
+	private final Queue<UUID> detachedUsers = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger detachedUsersCount = new AtomicInteger();
+
+	UserRegistry(int maxDetachedUsers) {
+		Validate.isTrue(maxDetachedUsers >= 0, "maxDetachedUsers cannot be negative");
+		this.maxDetachedUsers = maxDetachedUsers;
+	}
+
+	/**
+	 * Gets the interned {@link User} with the specified unique id and last known name, or creates
+	 * and interns a new one.
+	 * <p>
+	 * If the registry does not yet track a last known name for the user, the given name is
+	 * tracked.
+	 *
+	 * @param uniqueId
+	 *            the unique id, not <code>null</code>
+	 * @param lastKnownName
+	 *            the last known name, not <code>null</code> or empty
+	 * @return the user, not <code>null</code>
+	 */
+	User intern(UUID uniqueId, String lastKnownName) {
+		Validate.notNull(uniqueId, "uniqueId is null");
+		Validate.notEmpty(lastKnownName, "lastKnownName is null or empty");
+		return this.intern(uniqueId, lastKnownName, null);
+	}
+
+	// If the given user is not null, it is interned in case there is no interned user with the
+	// same name yet.
+	private User intern(UUID uniqueId, String lastKnownName, @Nullable User user) {
+		this.expungeDetachedUsers();
+
+		// Ensures that the interned user is strongly referenced until we return it:
+		@Nullable User[] result = new @Nullable User[1];
+		entries.compute(uniqueId, (uuid, entry) -> {
+			if (entry != null) {
+				User internedUser = entry.getUser();
+				if (internedUser != null && internedUser.getLastKnownName().equals(lastKnownName)) {
+					result[0] = internedUser;
+					return entry;
+				}
+			}
+
+			User newUser = (user != null) ? user : new SKUser(uuid, lastKnownName);
+			result[0] = newUser;
+			UserReference userReference = new UserReference(newUser, referenceQueue);
+			if (entry == null) {
+				return new Entry(lastKnownName, userReference);
+			} else {
+				// Keep the tracked name:
+				entry.userReference = userReference;
+				return entry;
+			}
+		});
+		return Unsafe.assertNonNull(result[0]);
+	}
+
+	/**
+	 * Interns the given {@link User}, unless there is already an interned user with the same
+	 * unique id and last known name.
+	 *
+	 * @param user
+	 *            the user, not <code>null</code>
+	 * @return the interned user, not <code>null</code>
+	 */
+	public User register(User user) {
+		Validate.notNull(user, "user is null");
+		return this.intern(user.getUniqueId(), user.getLastKnownName(), user);
+	}
+
+	/**
+	 * Updates the tracked last known name of the specified user, e.g. when the player joins the
+	 * server.
+	 * <p>
+	 * Any currently interned {@link User} instance keeps its name. Subsequent lookups via
+	 * {@link SKUser#of(UUID, String)} for the new name intern a new {@link User}.
+	 *
+	 * @param uniqueId
+	 *            the unique id, not <code>null</code>
+	 * @param name
+	 *            the player's current name, not <code>null</code> or empty
+	 * @return the previously tracked name, or <code>null</code> if the user was not tracked
+	 */
+	public @Nullable String updateName(UUID uniqueId, String name) {
+		Validate.notNull(uniqueId, "uniqueId is null");
+		Validate.notEmpty(name, "name is null or empty");
+		// Interns the user if it is not tracked yet:
+		User user = this.intern(uniqueId, name);
+
+		@Nullable String[] previousName = new @Nullable String[1];
+		entries.computeIfPresent(uniqueId, (uuid, entry) -> {
+			previousName[0] = entry.lastKnownName;
+			entry.lastKnownName = name;
+			return entry;
+		});
+		assert user.getUniqueId().equals(uniqueId);
+		return previousName[0];
+	}
+
+	/**
+	 * Gets the tracked last known name of the specified user.
+	 *
+	 * @param uniqueId
+	 *            the unique id, not <code>null</code>
+	 * @return the last known name, or <code>null</code> if not tracked
+	 */
+	public @Nullable String getLastKnownName(UUID uniqueId) {
+		Validate.notNull(uniqueId, "uniqueId is null");
+		Entry entry = entries.get(uniqueId);
+		return (entry != null) ? entry.lastKnownName : null;
+	}
+
+	/**
+	 * Gets the {@link User} with the specified unique id and the tracked last known name.
+	 *
+	 * @param uniqueId
+	 *            the unique id, not <code>null</code>
+	 * @return the user, or <code>null</code> if not tracked
+	 */
+	public @Nullable User getUser(UUID uniqueId) {
+		String lastKnownName = this.getLastKnownName(uniqueId);
+		if (lastKnownName == null) return null;
+		return this.intern(uniqueId, lastKnownName);
+	}
+
+	/**
+	 * Gets the number of tracked users.
+	 *
+	 * @return the number of tracked users
+	 */
+	public int getSize() {
+		return entries.size();
+	}
+
+	private void expungeDetachedUsers() {
+		Reference<? extends User> reference;
+		while ((reference = referenceQueue.poll()) != null) {
+			UserReference userReference = (UserReference) reference;
+			Entry entry = entries.get(userReference.uniqueId);
+			// Ignore references of users that have already been replaced by newer users:
+			if (entry != null && entry.userReference == userReference) {
+				detachedUsers.add(userReference.uniqueId);
+				detachedUsersCount.incrementAndGet();
+			}
+		}
+
+		while (detachedUsersCount.get() > maxDetachedUsers) {
+			UUID uniqueId = detachedUsers.poll();
+			if (uniqueId == null) break;
+			detachedUsersCount.decrementAndGet();
+
+			// Only remove the entry if it has not been re-attached in the meantime:
+			entries.computeIfPresent(uniqueId, (uuid, entry) -> {
+				return (entry.getUser() == null) ? null : entry;
+			});
+		}
+	}
+}
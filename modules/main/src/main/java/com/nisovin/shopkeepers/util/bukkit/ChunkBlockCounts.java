@@ -0,0 +1,139 @@
+package com.nisovin.shopkeepers.util.bukkit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.block.Block;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * Keeps track of the number of registered blocks per chunk, grouped by world.
+ * <p>
+ * This can be used to quickly reject blocks during frequently called events (e.g. block physics or
+ * explosions) if their chunk does not contain any blocks that we are interested in, before we
+ * perform any more costly block specific checks.
+ * <p>
+ * The same block can be added multiple times. The chunk is only removed again once all of its block
+ * counts have been removed.
+ */
+public class ChunkBlockCounts {
+
+	/**
+	 * Gets a key that uniquely identifies the chunk with the given coordinates within its world.
+	 *
+	 * @param chunkX
+	 *            the chunk's x coordinate
+	 * @param chunkZ
+	 *            the chunk's z coordinate
+	 * @return the chunk key
+	 */
+	public static long getChunkKey(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	// World name -> (chunk key -> block count)
+	private final Map<String, Map<Long, Integer>> worlds = new HashMap<>();
+
+	public ChunkBlockCounts() {
+	}
+
+	/**
+	 * Checks if there are no registered blocks.
+	 *
+	 * @return <code>true</code> if empty
+	 */
+	public boolean isEmpty() {
+		return worlds.isEmpty();
+	}
+
+	/**
+	 * Removes all registered blocks.
+	 */
+	public void clear() {
+		worlds.clear();
+	}
+
+	/**
+	 * Increments the block count of the chunk that contains the specified block.
+	 *
+	 * @param worldName
+	 *            the world name, not <code>null</code> or empty
+	 * @param blockX
+	 *            the block's x coordinate
+	 * @param blockZ
+	 *            the block's z coordinate
+	 */
+	public void add(String worldName, int blockX, int blockZ) {
+		Validate.notEmpty(worldName, "worldName is null or empty");
+		long chunkKey = getChunkKey(ChunkCoords.fromBlock(blockX), ChunkCoords.fromBlock(blockZ));
+		Map<Long, Integer> chunks = worlds.computeIfAbsent(worldName, key -> new HashMap<>());
+		assert chunks != null;
+		chunks.merge(chunkKey, 1, Integer::sum);
+	}
+
+	/**
+	 * Decrements the block count of the chunk that contains the specified block.
+	 *
+	 * @param worldName
+	 *            the world name, not <code>null</code> or empty
+	 * @param blockX
+	 *            the block's x coordinate
+	 * @param blockZ
+	 *            the block's z coordinate
+	 */
+	public void remove(String worldName, int blockX, int blockZ) {
+		Validate.notEmpty(worldName, "worldName is null or empty");
+		Map<Long, Integer> chunks = worlds.get(worldName);
+		if (chunks == null) return;
+
+		long chunkKey = getChunkKey(ChunkCoords.fromBlock(blockX), ChunkCoords.fromBlock(blockZ));
+		chunks.computeIfPresent(chunkKey, (key, count) -> (count <= 1) ? null : (count - 1));
+		if (chunks.isEmpty()) {
+			worlds.remove(worldName);
+		}
+	}
+
+	/**
+	 * Checks if there are any registered blocks in the specified world.
+	 *
+	 * @param worldName
+	 *            the world name
+	 * @return <code>true</code> if the world contains registered blocks
+	 */
+	public boolean containsWorld(@Nullable String worldName) {
+		return worlds.containsKey(worldName);
+	}
+
+	/**
+	 * Checks if there are any registered blocks in the chunk that contains the specified block.
+	 *
+	 * @param worldName
+	 *            the world name
+	 * @param blockX
+	 *            the block's x coordinate
+	 * @param blockZ
+	 *            the block's z coordinate
+	 * @return <code>true</code> if the block's chunk contains registered blocks
+	 */
+	public boolean containsChunkOf(@Nullable String worldName, int blockX, int blockZ) {
+		Map<Long, Integer> chunks = worlds.get(worldName);
+		if (chunks == null) return false;
+
+		long chunkKey = getChunkKey(ChunkCoords.fromBlock(blockX), ChunkCoords.fromBlock(blockZ));
+		return chunks.containsKey(chunkKey);
+	}
+
+	/**
+	 * Checks if there are any registered blocks in the chunk of the given block.
+	 *
+	 * @param block
+	 *            the block, not <code>null</code>
+	 * @return <code>true</code> if the block's chunk contains registered blocks
+	 */
+	public boolean containsChunkOf(Block block) {
+		return this.containsChunkOf(block.getWorld().getName(), block.getX(), block.getZ());
+	}
+}
@@ -1,5 +1,7 @@
 package com.nisovin.shopkeepers.util.bukkit;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
@@ -15,7 +17,8 @@ import com.nisovin.shopkeepers.util.java.Validate;
  * can take place simultaneously.
  * <p>
  * The task is usually run asynchronously, but it may also run on the server's main thread (for
- * example when forcing an immediate execution, such as during shutdown).
+ * example when forcing an immediate execution, such as during shutdown). Asynchronous executions
+ * either use the Bukkit scheduler, or a given {@link Executor}.
  * <p>
  * While the task is already running asynchronously, any subsequent requests to execute the task are
  * deferred until after the task finishes its current execution. The next execution of the task is
@@ -56,6 +59,8 @@ public abstract class SingletonTask {
 	}
 
 	private final Plugin plugin;
+	// Null to use the Bukkit scheduler for the asynchronous executions:
+	private final @Nullable Executor asyncExecutor;
 	// The lock used to coordinate the main thread with threads executing the task asynchronously.
 	// Note: This lock is not acquired for synchronous executions.
 	// Note: This lock is not provided to the outside of this class, because it is not suited for
@@ -65,8 +70,8 @@ public abstract class SingletonTask {
 	private final Object executionLock = new Object();
 
 	private State state = State.NOT_RUNNING;
-	// The Bukkit task asynchronously executing this task. Only relevant for async executions.
-	private @Nullable BukkitTask asyncTask = null;
+	// The task asynchronously executing this task. Only relevant for async executions.
+	private @Nullable InternalAsyncTask asyncTask = null;
 	// The (internal) callbacks of the current execution:
 	// Run immediately, possibly asynchronously:
 	private @Nullable Runnable internalCallback = null;
@@ -91,8 +96,26 @@ public abstract class SingletonTask {
 	private long totalDurationMillis;
 
 	public SingletonTask(Plugin plugin) {
+		this(plugin, null);
+	}
+
+	/**
+	 * Creates a new {@link SingletonTask} that uses the given {@link Executor} for its asynchronous
+	 * executions.
+	 * <p>
+	 * If the executor rejects an execution, e.g. because it is overloaded or not running, the
+	 * execution falls back to the Bukkit scheduler.
+	 * 
+	 * @param plugin
+	 *            the plugin, not <code>null</code>
+	 * @param asyncExecutor
+	 *            the executor for asynchronous executions, or <code>null</code> to use the Bukkit
+	 *            scheduler
+	 */
+	public SingletonTask(Plugin plugin, @Nullable Executor asyncExecutor) {
 		Validate.notNull(plugin, "plugin is null");
 		this.plugin = plugin;
+		this.asyncExecutor = asyncExecutor;
 	}
 
 	/**
@@ -205,7 +228,8 @@ public abstract class SingletonTask {
 	 * Implementation notes:<br>
 	 * If an async execution has already been scheduled, but not yet started, the async execution is
 	 * cancelled and then run synchronously. This is because the Bukkit scheduler starts async tasks
-	 * from within the main thread, which we are blocking currently. Also note: We do not skip the
+	 * from within the main thread, which we are blocking currently, and because the execution might
+	 * otherwise be queued behind other tasks of the executor. Also note: We do not skip the
 	 * execution in this case in order to ensure that progress is made. Otherwise, frequent requests
 	 * to start the task could continually abort the task so that it is never able to complete.
 	 * <p>
@@ -362,7 +386,9 @@ public abstract class SingletonTask {
 			// TODO Measure the time it takes to schedule the async task as part of the preparation?
 			// Tricky, since in general there is no guarantee about the order in which the task and
 			// any following instructions are executed.
-			this.asyncTask = this.createInternalAsyncTask().runTaskAsynchronously();
+			InternalAsyncTask asyncTask = this.createInternalAsyncTask();
+			this.asyncTask = asyncTask;
+			asyncTask.runTaskAsynchronously();
 		} else {
 			// Synchronous execution:
 			this.executeTask(null);
@@ -377,19 +403,41 @@ public abstract class SingletonTask {
 	 */
 	public abstract class InternalAsyncTask implements Runnable {
 
-		private @Nullable BukkitTask task; // Captured Bukkit task
+		// Only set if the task is run by the Bukkit scheduler:
+		private @Nullable BukkitTask bukkitTask;
+		private volatile boolean cancelled = false;
 
 		protected InternalAsyncTask() {
 		}
 
-		private BukkitTask runTaskAsynchronously() {
-			this.task = Bukkit.getScheduler().runTaskAsynchronously(plugin, this);
-			return task;
+		private void runTaskAsynchronously() {
+			Executor asyncExecutor = SingletonTask.this.asyncExecutor;
+			if (asyncExecutor != null) {
+				try {
+					asyncExecutor.execute(this);
+					return;
+				} catch (RejectedExecutionException e) {
+					// Continue with the Bukkit scheduler.
+				}
+			}
+			this.bukkitTask = Bukkit.getScheduler().runTaskAsynchronously(plugin, this);
+		}
+
+		private void cancel() {
+			cancelled = true;
+			BukkitTask bukkitTask = this.bukkitTask;
+			if (bukkitTask != null) {
+				bukkitTask.cancel();
+			}
+		}
+
+		private boolean isCancelled() {
+			return cancelled;
 		}
 
 		@Override
 		public final void run() {
-			executeTask(task);
+			executeTask(this);
 		}
 	}
 
@@ -460,7 +508,7 @@ public abstract class SingletonTask {
 	// asyncTask: The async task executing this method. Null for sync executions.
 	// If the async task got cancelled and another execution has already been started, this may not
 	// match the current value of this class' asyncTask variable.
-	private void executeTask(@Nullable BukkitTask asyncTask) {
+	private void executeTask(@Nullable InternalAsyncTask asyncTask) {
 		if (asyncTask != null) {
 			// Asynchronous execution:
 			// Requires the lock for coordination with the main thread, and might have been
@@ -474,9 +522,10 @@ public abstract class SingletonTask {
 				// If the async task has been cancelled, we skip the execution.
 				// In this case, the execution and callbacks are run on the main thread (when this
 				// execution got cancelled).
-				// The async task has already checked the cancellation state. However, there is a
-				// race condition between checking the state and the actual execution. Checking it
-				// here again within the locked section avoids this race condition.
+				// The Bukkit scheduler has already checked the cancellation state. However, there is
+				// a race condition between checking the state and the actual execution. Checking it
+				// here again within the locked section avoids this race condition. Tasks run by an
+				// executor are only checked here.
 				if (asyncTask.isCancelled()) {
 					return;
 				}
@@ -25,6 +25,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.user.User;
 import com.nisovin.shopkeepers.api.util.ChunkCoords;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.spigot.text.PreparedMessage;
 import com.nisovin.shopkeepers.spigot.text.SpigotText;
 import com.nisovin.shopkeepers.text.HoverEventText;
 import com.nisovin.shopkeepers.text.Text;
@@ -673,6 +674,24 @@ public final class TextUtils {
 		SpigotText.sendMessage(recipient, message);
 	}
 
+	/**
+	 * Converts the given {@link Text} into a {@link PreparedMessage} that can be sent later.
+	 * <p>
+	 * This can also be called asynchronously, as long as the given {@link Text} is not accessed
+	 * concurrently by another thread. The placeholder arguments need to be set beforehand.
+	 * 
+	 * @param message
+	 *            the message, not <code>null</code>
+	 * @return the prepared message, not <code>null</code>
+	 */
+	public static PreparedMessage prepareMessage(Text message) {
+		return SpigotText.prepareMessage(message);
+	}
+
+	public static void sendMessage(CommandSender recipient, PreparedMessage message) {
+		SpigotText.sendMessage(recipient, message);
+	}
+
 	public static void sendMessage(
 			CommandSender recipient,
 			Text message,
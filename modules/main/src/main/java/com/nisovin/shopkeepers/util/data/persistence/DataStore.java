@@ -101,7 +101,8 @@ public interface DataStore extends DataContainer {
 	/**
 	 * Writes the contents of this data container to the specified {@link Writer}.
 	 * <p>
-	 * This operation closes the given {@link Writer} after the contents have been written.
+	 * This operation does not close the given {@link Writer}: The caller that owns the writer is
+	 * responsible for closing it, which also flushes any buffered contents.
 	 * 
 	 * @param writer
 	 *            the writer, not <code>null</code>
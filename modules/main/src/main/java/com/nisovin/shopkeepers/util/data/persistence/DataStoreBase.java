@@ -49,17 +49,15 @@ public interface DataStoreBase extends DataStore {
 	public default void save(Path path) throws IOException {
 		Validate.notNull(path, "path is null");
 		FileUtils.createParentDirectories(path);
-		this.save(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			this.save(writer);
+		}
 	}
 
 	@Override
 	public default void save(Writer writer) throws IOException {
 		Validate.notNull(writer, "writer is null");
 		String data = this.saveToString();
-		try {
-			writer.write(data);
-		} finally {
-			writer.close();
-		}
+		writer.write(data);
 	}
 }
@@ -1,5 +1,8 @@
 package com.nisovin.shopkeepers.util.data.persistence.bukkit;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -9,6 +12,8 @@ import com.nisovin.shopkeepers.util.data.container.ConfigBasedDataContainer;
 import com.nisovin.shopkeepers.util.data.persistence.DataStore;
 import com.nisovin.shopkeepers.util.data.persistence.DataStoreBase;
 import com.nisovin.shopkeepers.util.data.persistence.InvalidDataFormatException;
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.yaml.YamlUtils;
 
 /**
  * A {@link DataStore} that uses a Bukkit {@link FileConfiguration} to store, save, and load the
@@ -64,6 +69,25 @@ public class BukkitConfigDataStore extends ConfigBasedDataContainer implements D
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the underlying configuration is a {@link YamlConfiguration}, this streams the Yaml directly
+	 * into the given writer, without first building the complete document as a String. Any comments
+	 * and headers of the configuration are omitted in this case.
+	 */
+	@Override
+	public void save(Writer writer) throws IOException {
+		Validate.notNull(writer, "writer is null");
+		FileConfiguration config = this.getConfig();
+		if (!(config instanceof YamlConfiguration)) {
+			DataStoreBase.super.save(writer);
+			return;
+		}
+
+		YamlUtils.dumpConfig((YamlConfiguration) config, writer);
+	}
+
 	@Override
 	public String saveToString() {
 		return this.getConfig().saveToString();
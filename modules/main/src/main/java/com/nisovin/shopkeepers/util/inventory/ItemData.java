@@ -217,7 +217,7 @@ public final class ItemData {
 
 			// Create ItemData:
 			// Unmodifiable wrapper: Avoids creating another item copy during construction.
-			ItemData itemData = new ItemData(UnmodifiableItemStack.ofNonNull(dataItem));
+			ItemData itemData = new ItemData(SKUnmodifiableItemStack.ofImmutable(dataItem));
 			return itemData;
 		}
 	};
@@ -228,10 +228,13 @@ public final class ItemData {
 	// Cache serialized item meta, to avoid serializing it again for every comparison:
 	// Gets lazily initialized when needed.
 	private @ReadOnly @Nullable ItemStackMetaTag serializedMetaData = null;
+	// Lazily initialized. The data item is assumed to be immutable, even if it is not known to be
+	// immutable by the SKUnmodifiableItemStack itself (e.g. if it was passed in via the API).
+	private @Nullable ItemFingerprint fingerprint = null;
 
 	public ItemData(Material type) {
 		// Unmodifiable wrapper: Avoids creating another item copy during construction.
-		this(UnmodifiableItemStack.ofNonNull(new ItemStack(type)));
+		this(SKUnmodifiableItemStack.ofImmutable(new ItemStack(type)));
 	}
 
 	// The display name and lore are expected to use Minecraft's color codes.
@@ -241,7 +244,7 @@ public final class ItemData {
 			@ReadOnly @Nullable List<? extends String> lore
 	) {
 		// Unmodifiable wrapper: Avoids creating another item copy during construction.
-		this(UnmodifiableItemStack.ofNonNull(
+		this(SKUnmodifiableItemStack.ofImmutable(
 				ItemUtils.createItemStack(type, 1, displayName, lore)
 		));
 	}
@@ -252,7 +255,7 @@ public final class ItemData {
 			@ReadOnly @Nullable List<? extends String> lore
 	) {
 		// Unmodifiable wrapper: Avoids creating another item copy during construction.
-		this(UnmodifiableItemStack.ofNonNull(
+		this(SKUnmodifiableItemStack.ofImmutable(
 				ItemUtils.createItemStack(otherItemData, 1, displayName, lore)
 		));
 	}
@@ -297,7 +300,7 @@ public final class ItemData {
 		ItemStack newDataItem = this.createItemStack();
 		newDataItem.setType(type);
 		// Unmodifiable wrapper: Avoids creating another item copy during construction.
-		return new ItemData(UnmodifiableItemStack.ofNonNull(newDataItem));
+		return new ItemData(SKUnmodifiableItemStack.ofImmutable(newDataItem));
 	}
 
 	// Not null.
@@ -311,8 +314,24 @@ public final class ItemData {
 		return serializedMetaData;
 	}
 
+	/**
+	 * Gets the {@link ItemFingerprint} of this {@link ItemData}.
+	 * <p>
+	 * The fingerprint is lazily computed and then cached.
+	 * 
+	 * @return the fingerprint, not <code>null</code>
+	 */
+	public ItemFingerprint getFingerprint() {
+		ItemFingerprint fingerprint = this.fingerprint;
+		if (fingerprint == null) {
+			fingerprint = ItemFingerprint.of(dataItem);
+			this.fingerprint = fingerprint;
+		}
+		return fingerprint;
+	}
+
 	public boolean hasItemMeta() {
-		return !this.getSerializedMetaData().isEmpty(); // Equivalent to dataItem.hasItemMeta()
+		return this.getFingerprint().hasItemMeta(); // Equivalent to dataItem.hasItemMeta()
 	}
 
 	public @Nullable ItemMeta getItemMeta() {
@@ -329,8 +348,9 @@ public final class ItemData {
 		return ItemUtils.copyWithAmount(dataItem, amount);
 	}
 
+	// Returns a shared item stack, e.g. for the currency items of trading recipes.
 	public UnmodifiableItemStack createUnmodifiableItemStack(int amount) {
-		return UnmodifiableItemStack.ofNonNull(this.createItemStack(amount));
+		return UnmodifiableItemStackPool.internWithAmount(dataItem, amount);
 	}
 
 	public boolean isSimilar(@ReadOnly @Nullable ItemStack other) {
@@ -350,6 +370,12 @@ public final class ItemData {
 	}
 
 	public boolean matches(@ReadOnly @Nullable ItemStack item, boolean matchPartialLists) {
+		// Fail fast without serializing the item data if the types don't match, and skip the data
+		// comparison if this ItemData has no data:
+		if (item == null) return false;
+		if (item.getType() != this.getType()) return false;
+		if (!this.hasItemMeta()) return true;
+
 		// Same type and matching data:
 		return ItemUtils.matchesData(
 				item,
@@ -371,6 +397,7 @@ public final class ItemData {
 	public boolean matches(@Nullable ItemData itemData, boolean matchPartialLists) {
 		if (itemData == null) return false;
 		if (itemData.getType() != this.getType()) return false;
+		if (!this.hasItemMeta()) return true;
 		return ItemUtils.matchesData(
 				itemData.getSerializedMetaData(),
 				this.getSerializedMetaData(),
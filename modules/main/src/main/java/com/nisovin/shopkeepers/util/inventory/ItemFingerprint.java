@@ -0,0 +1,155 @@
+package com.nisovin.shopkeepers.util.inventory;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.util.annotations.ReadOnly;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * A compact summary of the type and item data of an item stack that can be used to quickly reject
+ * item comparisons before the item data of the involved item stacks is compared in full.
+ * <p>
+ * Item stacks that are similar always have equal fingerprints. The reverse is not necessarily the
+ * case: Item stacks with equal fingerprints still need to be compared in full.
+ * <p>
+ * Computing the fingerprint of an item stack with item data is relatively costly. The fingerprints
+ * of {@link SKUnmodifiableItemStack#ofImmutable(ItemStack) immutable} unmodifiable item stacks and
+ * of {@link ItemData} are therefore lazily computed and then cached (e.g. for the items of trading
+ * recipes and currencies). The fingerprint ignores the stack size.
+ */
+public final class ItemFingerprint {
+
+	/**
+	 * Gets the (possibly cached) {@link ItemFingerprint} of the given {@link UnmodifiableItemStack}.
+	 * <p>
+	 * The fingerprint is only cached if the item stack is known to be immutable.
+	 *
+	 * @param itemStack
+	 *            the item stack, not <code>null</code>
+	 * @return the fingerprint, not <code>null</code>
+	 */
+	public static ItemFingerprint of(UnmodifiableItemStack itemStack) {
+		Validate.notNull(itemStack, "itemStack is null");
+		if (itemStack instanceof SKUnmodifiableItemStack) {
+			return ((SKUnmodifiableItemStack) itemStack).getFingerprint();
+		} else {
+			return of(ItemUtils.asItemStack(itemStack));
+		}
+	}
+
+	/**
+	 * Computes the {@link ItemFingerprint} of the given {@link ItemStack}.
+	 *
+	 * @param itemStack
+	 *            the item stack, not <code>null</code>
+	 * @return the fingerprint, not <code>null</code>
+	 */
+	public static ItemFingerprint of(@ReadOnly ItemStack itemStack) {
+		Validate.notNull(itemStack, "itemStack is null");
+		Material type = itemStack.getType();
+		if (!itemStack.hasItemMeta()) {
+			return new ItemFingerprint(type, false, 0);
+		}
+
+		// Note: This creates a copy of the item meta.
+		ItemMeta itemMeta = itemStack.getItemMeta();
+		int metaHash = (itemMeta != null) ? itemMeta.hashCode() : 0;
+		return new ItemFingerprint(type, true, metaHash);
+	}
+
+	// ----
+
+	private final Material type;
+	private final boolean hasItemMeta;
+	private final int metaHash; // 0 if there is no item meta
+
+	private ItemFingerprint(Material type, boolean hasItemMeta, int metaHash) {
+		this.type = type;
+		this.hasItemMeta = hasItemMeta;
+		this.metaHash = metaHash;
+	}
+
+	/**
+	 * Gets the item type.
+	 *
+	 * @return the item type
+	 */
+	public Material getType() {
+		return type;
+	}
+
+	/**
+	 * Checks if the item stack has any item data.
+	 * <p>
+	 * If not, the item stack can be compared to other item stacks purely based on their item types.
+	 *
+	 * @return <code>true</code> if the item stack has item data
+	 */
+	public boolean hasItemMeta() {
+		return hasItemMeta;
+	}
+
+	/**
+	 * Checks if the item stack of this fingerprint can be similar to the item stack of the given
+	 * fingerprint.
+	 * <p>
+	 * If this returns <code>false</code>, the item stacks are not similar. Otherwise, if the item
+	 * stacks both have no item data, they are similar. Otherwise, the item stacks still need to be
+	 * compared in full.
+	 *
+	 * @param other
+	 *            the other fingerprint, not <code>null</code>
+	 * @return <code>true</code> if the item stacks can be similar
+	 */
+	public boolean canBeSimilar(ItemFingerprint other) {
+		return type == other.type
+				&& hasItemMeta == other.hasItemMeta
+				&& metaHash == other.metaHash;
+	}
+
+	/**
+	 * Checks if the item stack of this fingerprint can be similar to the given item stack.
+	 * <p>
+	 * This only performs cheap checks and does not compute the fingerprint of the given item
+	 * stack. If this returns <code>false</code>, the item stacks are not similar. Otherwise, if
+	 * the item stacks both have no item data, they are similar. Otherwise, the item stacks still
+	 * need to be compared in full.
+	 *
+	 * @param itemStack
+	 *            the item stack, can be <code>null</code>
+	 * @return <code>true</code> if the item stacks can be similar
+	 */
+	public boolean canBeSimilar(@ReadOnly @Nullable ItemStack itemStack) {
+		return itemStack != null
+				&& type == itemStack.getType()
+				&& hasItemMeta == itemStack.hasItemMeta();
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + type.hashCode();
+		result = prime * result + (hasItemMeta ? 1231 : 1237);
+		result = prime * result + metaHash;
+		return result;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (!(obj instanceof ItemFingerprint)) return false;
+		return this.canBeSimilar((ItemFingerprint) obj);
+	}
+
+	@Override
+	public String toString() {
+		return "ItemFingerprint [type=" + type + ", hasItemMeta=" + hasItemMeta
+				+ ", metaHash=" + metaHash + "]";
+	}
+}
@@ -281,7 +281,7 @@ public final class ItemUtils {
 			@ReadOnly @PolyNull ItemStack itemStack
 	) {
 		if (itemStack == null) return null;
-		return UnmodifiableItemStack.of(itemStack.clone());
+		return SKUnmodifiableItemStack.ofImmutable(itemStack.clone());
 	}
 
 	public static UnmodifiableItemStack nonNullUnmodifiableClone(
@@ -370,7 +370,7 @@ public final class ItemUtils {
 			int amount
 	) {
 		Validate.notNull(itemStack, "itemStack is null");
-		return UnmodifiableItemStack.ofNonNull(copyWithAmount(itemStack, amount));
+		return SKUnmodifiableItemStack.ofImmutable(copyWithAmount(itemStack, amount));
 	}
 
 	// Returns the same item stack if its amount already matches the target amount.
@@ -380,7 +380,7 @@ public final class ItemUtils {
 	) {
 		Validate.notNull(itemStack, "itemStack is null");
 		if (itemStack.getAmount() != amount) {
-			return UnmodifiableItemStack.ofNonNull(copyWithAmount(itemStack, amount));
+			return SKUnmodifiableItemStack.ofImmutable(copyWithAmount(itemStack, amount));
 		} else {
 			return itemStack;
 		}
@@ -899,7 +899,9 @@ public final class ItemUtils {
 			@Nullable UnmodifiableItemStack item1,
 			@Nullable UnmodifiableItemStack item2
 	) {
-		return isSimilar(asItemStackOrNull(item1), asItemStackOrNull(item2));
+		if (item1 == null) return (item2 == null);
+		// This compares the cached item fingerprints first:
+		return item1.isSimilar(item2);
 	}
 
 	/**
@@ -916,7 +918,9 @@ public final class ItemUtils {
 			@Nullable UnmodifiableItemStack item1,
 			@ReadOnly @Nullable ItemStack item2
 	) {
-		return isSimilar(asItemStackOrNull(item1), item2);
+		if (item1 == null) return (item2 == null);
+		// This compares the cached item fingerprint first:
+		return item1.isSimilar(item2);
 	}
 
 	/**
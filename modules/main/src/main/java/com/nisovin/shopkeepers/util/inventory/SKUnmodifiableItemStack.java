@@ -34,16 +34,51 @@ public class SKUnmodifiableItemStack implements UnmodifiableItemStack {
 	 */
 	public static @PolyNull UnmodifiableItemStack of(@ReadOnly @PolyNull ItemStack itemStack) {
 		if (itemStack == null) return null;
-		return new SKUnmodifiableItemStack(itemStack);
+		return new SKUnmodifiableItemStack(itemStack, false);
+	}
+
+	/**
+	 * Creates an {@link UnmodifiableItemStack} for the given {@link ItemStack} that is known to
+	 * never be modified.
+	 * <p>
+	 * This is meant for item stacks that are exclusively owned by the returned unmodifiable item
+	 * stack, such as freshly created item stacks or copies. Unlike for {@link #of(ItemStack)}, the
+	 * {@link #getFingerprint() fingerprint} of the returned item stack is cached.
+	 * 
+	 * @param itemStack
+	 *            the item stack, can be <code>null</code>
+	 * @return the unmodifiable item stack, or <code>null</code> if the given item stack is
+	 *         <code>null</code>
+	 */
+	public static @PolyNull UnmodifiableItemStack ofImmutable(@PolyNull ItemStack itemStack) {
+		if (itemStack == null) return null;
+		return new SKUnmodifiableItemStack(itemStack, true);
+	}
+
+	/**
+	 * Checks if the given {@link UnmodifiableItemStack} is known to be immutable.
+	 * 
+	 * @param itemStack
+	 *            the item stack, not <code>null</code>
+	 * @return <code>true</code> if the item stack is known to be immutable
+	 * @see #ofImmutable(ItemStack)
+	 */
+	public static boolean isImmutable(UnmodifiableItemStack itemStack) {
+		return itemStack instanceof SKUnmodifiableItemStack skItemStack && skItemStack.immutable;
 	}
 
 	// ----
 
 	private final ItemStack delegate;
+	// Whether the underlying item stack is known to never be modified:
+	private final boolean immutable;
+	// Lazily computed and only cached if the underlying item stack is immutable.
+	private @Nullable ItemFingerprint fingerprint = null;
 
-	private SKUnmodifiableItemStack(@ReadOnly ItemStack itemStack) {
+	private SKUnmodifiableItemStack(@ReadOnly ItemStack itemStack, boolean immutable) {
 		assert itemStack != null;
 		this.delegate = itemStack;
+		this.immutable = immutable;
 	}
 
 	/**
@@ -61,6 +96,28 @@ public class SKUnmodifiableItemStack implements UnmodifiableItemStack {
 		return delegate;
 	}
 
+	/**
+	 * Gets the {@link ItemFingerprint} of this item stack.
+	 * <p>
+	 * If the underlying item stack is {@link #ofImmutable(ItemStack) immutable}, the fingerprint is
+	 * lazily computed and then cached. Otherwise, the fingerprint is computed on every call, so that
+	 * it reflects any modifications of the underlying item stack.
+	 * 
+	 * @return the fingerprint, not <code>null</code>
+	 */
+	public ItemFingerprint getFingerprint() {
+		if (!immutable) {
+			return ItemFingerprint.of(delegate);
+		}
+
+		ItemFingerprint fingerprint = this.fingerprint;
+		if (fingerprint == null) {
+			fingerprint = ItemFingerprint.of(delegate);
+			this.fingerprint = fingerprint;
+		}
+		return fingerprint;
+	}
+
 	@Override
 	public ItemStack copy() {
 		return delegate.clone();
@@ -68,7 +125,7 @@ public class SKUnmodifiableItemStack implements UnmodifiableItemStack {
 
 	@Override
 	public UnmodifiableItemStack shallowCopy() {
-		return UnmodifiableItemStack.ofNonNull(delegate);
+		return new SKUnmodifiableItemStack(delegate, immutable);
 	}
 
 	@Override
@@ -88,6 +145,14 @@ public class SKUnmodifiableItemStack implements UnmodifiableItemStack {
 
 	@Override
 	public boolean isSimilar(@ReadOnly @Nullable ItemStack itemStack) {
+		if (itemStack == delegate) return true;
+		// Computing the fingerprint is only worth it if it is cached:
+		if (!immutable) return delegate.isSimilar(itemStack);
+
+		// Fail fast based on the fingerprint:
+		ItemFingerprint fingerprint = this.getFingerprint();
+		if (!fingerprint.canBeSimilar(itemStack)) return false;
+		if (!fingerprint.hasItemMeta()) return true;
 		return delegate.isSimilar(itemStack);
 	}
 
@@ -95,6 +160,13 @@ public class SKUnmodifiableItemStack implements UnmodifiableItemStack {
 	public boolean isSimilar(@Nullable UnmodifiableItemStack itemStack) {
 		if (itemStack == null) return false;
 		if (itemStack == this) return true;
+		// Fail fast if the cached fingerprints don't match:
+		if (immutable && isImmutable(itemStack)) {
+			ItemFingerprint fingerprint = this.getFingerprint();
+			ItemFingerprint otherFingerprint = ItemFingerprint.of(itemStack);
+			if (!fingerprint.canBeSimilar(otherFingerprint)) return false;
+			if (!fingerprint.hasItemMeta()) return true;
+		}
 		// Compare the underlying item stacks:
 		// The order in which these delegate item stacks are compared does not matter.
 		// This is expected to not modify or expose the passed item stack:
@@ -103,6 +175,7 @@ public class SKUnmodifiableItemStack implements UnmodifiableItemStack {
 
 	@Override
 	public boolean equals(@ReadOnly @Nullable ItemStack itemStack) {
+		if (itemStack == delegate) return true;
 		return delegate.equals(itemStack);
 	}
 
@@ -113,6 +186,17 @@ public class SKUnmodifiableItemStack implements UnmodifiableItemStack {
 		if (!(obj instanceof UnmodifiableItemStack)) return false;
 
 		UnmodifiableItemStack other = (UnmodifiableItemStack) obj;
+		if (other instanceof SKUnmodifiableItemStack) {
+			SKUnmodifiableItemStack otherSK = (SKUnmodifiableItemStack) other;
+			// Shallow copies share the same underlying item stack:
+			if (otherSK.delegate == delegate) return true;
+			// Fail fast based on the stack sizes and the cached fingerprints:
+			if (otherSK.getAmount() != this.getAmount()) return false;
+			if (immutable && otherSK.immutable
+					&& !otherSK.getFingerprint().canBeSimilar(this.getFingerprint())) {
+				return false;
+			}
+		}
 		// Compare the underlying item stacks:
 		// The order in which these delegate item stacks are compared does not matter.
 		// This is expected to not modify or expose the passed item stack:
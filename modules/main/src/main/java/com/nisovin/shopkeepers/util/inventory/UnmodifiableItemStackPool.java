@@ -0,0 +1,220 @@
+package com.nisovin.shopkeepers.util.inventory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.util.java.Validate;
+
+/**
+ * A pool of shared {@link UnmodifiableItemStack} instances.
+ * <p>
+ * Shopkeepers usually store many equal items, such as the same offer items in many shops, or the
+ * currency items of the trading recipes of player shops. {@link #intern(UnmodifiableItemStack)
+ * Interning} these items lets equal items share a single instance, which reduces the memory usage,
+ * and lets comparisons of these items quickly succeed based on their identity.
+ * <p>
+ * The items are looked up by their {@link ItemFingerprint} and stack size, and are only weakly
+ * referenced by the pool. Items that are no longer used elsewhere are garbage collected and then
+ * removed from the pool.
+ * <p>
+ * Since the interned item stacks are shared, they must never be modified, not even via
+ * {@link SKUnmodifiableItemStack#getInternalItemStack()}. The pool therefore only contains
+ * {@link SKUnmodifiableItemStack#ofImmutable(ItemStack) immutable} item stacks: Other unmodifiable
+ * item stacks, whose underlying item stacks might still be modified by their owners, are copied
+ * before they are added to the pool.
+ */
+public final class UnmodifiableItemStackPool {
+
+	// Does not reference the item itself, so that the pooled items can be garbage collected.
+	private static final class Key {
+
+		private final ItemFingerprint fingerprint;
+		private final int amount;
+		private final int hash;
+
+		Key(ItemFingerprint fingerprint, int amount) {
+			this.fingerprint = fingerprint;
+			this.amount = amount;
+			this.hash = 31 * fingerprint.hashCode() + amount;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return hash == other.hash
+					&& amount == other.amount
+					&& fingerprint.equals(other.fingerprint);
+		}
+	}
+
+	private static final class PooledItem extends WeakReference<UnmodifiableItemStack> {
+
+		private final Key key;
+
+		PooledItem(
+				UnmodifiableItemStack item,
+				Key key,
+				ReferenceQueue<? super UnmodifiableItemStack> queue
+		) {
+			super(item, queue);
+			this.key = key;
+		}
+	}
+
+	// Items with equal keys are usually also similar, so the lists usually contain a single item.
+	private static final Map<Key, List<PooledItem>> pool = new HashMap<>();
+	private static final ReferenceQueue<UnmodifiableItemStack> collectedItems = new ReferenceQueue<>();
+
+	/**
+	 * Gets the shared instance of an item stack that is equal to the given item stack.
+	 * <p>
+	 * If there is no equal item stack in the pool yet, the given item stack is added to the pool
+	 * and returned if it is known to be immutable. Otherwise, an immutable copy of the given item
+	 * stack is added to the pool and returned.
+	 * <p>
+	 * Empty item stacks are not pooled, but returned as they are.
+	 *
+	 * @param itemStack
+	 *            the item stack, can be <code>null</code>
+	 * @return the shared item stack, or <code>null</code> if the given item stack is
+	 *         <code>null</code>
+	 */
+	public static synchronized @Nullable UnmodifiableItemStack intern(
+			@Nullable UnmodifiableItemStack itemStack
+	) {
+		if (ItemUtils.isEmpty(itemStack)) return itemStack;
+		assert itemStack != null;
+		expungeCollectedItems();
+
+		Key key = new Key(ItemFingerprint.of(itemStack), itemStack.getAmount());
+		UnmodifiableItemStack pooledItem = findSimilar(key, itemStack);
+		if (pooledItem != null) return pooledItem;
+
+		UnmodifiableItemStack item = itemStack;
+		if (!SKUnmodifiableItemStack.isImmutable(item)) {
+			item = SKUnmodifiableItemStack.ofImmutable(item.copy());
+		}
+		addItem(key, item);
+		return item;
+	}
+
+	/**
+	 * Same as {@link #intern(UnmodifiableItemStack)}, but for a non-<code>null</code> item
+	 * stack.
+	 *
+	 * @param itemStack
+	 *            the item stack, not <code>null</code>
+	 * @return the shared item stack, not <code>null</code>
+	 */
+	public static UnmodifiableItemStack internNonNull(UnmodifiableItemStack itemStack) {
+		Validate.notNull(itemStack, "itemStack is null");
+		UnmodifiableItemStack pooledItem = intern(itemStack);
+		assert pooledItem != null;
+		return pooledItem;
+	}
+
+	/**
+	 * Gets the shared instance of an item stack that is similar to the given item stack and has
+	 * the specified stack size.
+	 * <p>
+	 * Unlike {@link ItemUtils#unmodifiableCopyWithAmount(UnmodifiableItemStack, int)}, this only
+	 * creates a new item stack if there is no such item stack in the pool yet.
+	 *
+	 * @param itemStack
+	 *            the item stack, not <code>null</code> or empty
+	 * @param amount
+	 *            the stack size, has to be positive
+	 * @return the shared item stack, not <code>null</code>
+	 */
+	public static synchronized UnmodifiableItemStack internWithAmount(
+			UnmodifiableItemStack itemStack,
+			int amount
+	) {
+		Validate.isTrue(!ItemUtils.isEmpty(itemStack), "itemStack is empty");
+		Validate.isTrue(amount > 0, "amount has to be positive");
+		expungeCollectedItems();
+
+		Key key = new Key(ItemFingerprint.of(itemStack), amount);
+		UnmodifiableItemStack pooledItem = findSimilar(key, itemStack);
+		if (pooledItem != null) return pooledItem;
+
+		UnmodifiableItemStack item = itemStack;
+		if (item.getAmount() != amount || !SKUnmodifiableItemStack.isImmutable(item)) {
+			item = SKUnmodifiableItemStack.ofImmutable(ItemUtils.copyWithAmount(itemStack, amount));
+		}
+		addItem(key, item);
+		return item;
+	}
+
+	/**
+	 * Gets the number of item stacks that are currently in the pool.
+	 * <p>
+	 * This may include item stacks that have already been garbage collected, but have not yet been
+	 * removed from the pool.
+	 *
+	 * @return the number of pooled item stacks
+	 */
+	public static synchronized int getSize() {
+		expungeCollectedItems();
+		int size = 0;
+		for (List<PooledItem> items : pool.values()) {
+			size += items.size();
+		}
+		return size;
+	}
+
+	private static @Nullable UnmodifiableItemStack findSimilar(
+			Key key,
+			UnmodifiableItemStack itemStack
+	) {
+		List<PooledItem> items = pool.get(key);
+		if (items == null) return null;
+
+		for (PooledItem pooledItem : items) {
+			UnmodifiableItemStack item = pooledItem.get();
+			// The amount is already part of the key:
+			if (item != null && item.isSimilar(itemStack)) {
+				return item;
+			}
+		}
+		return null;
+	}
+
+	private static void addItem(Key key, UnmodifiableItemStack itemStack) {
+		pool.computeIfAbsent(key, k -> new ArrayList<>(1))
+				.add(new PooledItem(itemStack, key, collectedItems));
+	}
+
+	private static void expungeCollectedItems() {
+		Reference<? extends UnmodifiableItemStack> reference;
+		while ((reference = collectedItems.poll()) != null) {
+			PooledItem pooledItem = (PooledItem) reference;
+			List<PooledItem> items = pool.get(pooledItem.key);
+			if (items == null) continue;
+
+			items.remove(pooledItem);
+			if (items.isEmpty()) {
+				pool.remove(pooledItem.key);
+			}
+		}
+	}
+
+	private UnmodifiableItemStackPool() {
+	}
+}
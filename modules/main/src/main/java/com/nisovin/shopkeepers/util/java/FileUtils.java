@@ -452,6 +452,69 @@ public final class FileUtils {
 			Logger logger,
 			@Nullable Path basePath
 	) throws IOException {
+		Validate.notNull(content, "content is null");
+		writeSafely(path, writer -> writer.write(content), charset, logger, basePath);
+	}
+
+	/**
+	 * Writes content to a {@link Writer}.
+	 */
+	@FunctionalInterface
+	public interface ContentWriter {
+
+		/**
+		 * Writes the content to the given {@link Writer}.
+		 * <p>
+		 * The writer is closed by the caller afterwards.
+		 * <p>
+		 * Any exception other than an {@link IOException}, such as a serialization error, is
+		 * forwarded to the caller of {@link FileUtils#writeSafely(Path, ContentWriter, Charset,
+		 * Logger, Path)} as is.
+		 * 
+		 * @param writer
+		 *            the writer, not <code>null</code>
+		 * @throws IOException
+		 *             if the content cannot be written
+		 */
+		public void write(Writer writer) throws IOException;
+	}
+
+	/**
+	 * Safely writes the content produced by the given {@link ContentWriter} to a file at the
+	 * specified path.
+	 * <p>
+	 * This behaves like {@link #writeSafely(Path, String, Charset, Logger, Path)}, but streams the
+	 * content into the temporary file via a buffered writer instead of requiring the complete
+	 * content to be held in memory at once.
+	 * <p>
+	 * If the content writer fails, the partially written temporary file is deleted again, so that
+	 * it is not mistaken for the result of a previous write attempt later on. Any unchecked
+	 * exceptions and errors of the content writer are forwarded as is.
+	 * 
+	 * @param path
+	 *            the file path
+	 * @param contentWriter
+	 *            the {@link ContentWriter} that writes the file content
+	 * @param charset
+	 *            the {@link Charset}
+	 * @param logger
+	 *            the {@link Logger} to use for certain warnings
+	 * @param basePath
+	 *            if specified, any error or warning messages that include path strings will use the
+	 *            path relative to this base path instead
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws RuntimeException
+	 *             if the content writer throws an unchecked exception
+	 */
+	public static void writeSafely(
+			Path path,
+			ContentWriter contentWriter,
+			Charset charset,
+			Logger logger,
+			@Nullable Path basePath
+	) throws IOException {
+		Validate.notNull(contentWriter, "contentWriter is null");
 		var tempPath = getTempSibling(path);
 		assert tempPath != null;
 
@@ -474,10 +537,15 @@ public final class FileUtils {
 
 		// Create new temporary file and write data to it:
 		try (Writer writer = Files.newBufferedWriter(tempPath, charset)) {
-			writer.write(content);
+			contentWriter.write(writer);
 		} catch (IOException e) {
+			deleteIncompleteTempFile(tempPath, e);
 			throw new IOException("Could not write temporary file ("
 					+ relativize(basePath, tempPath) + "): " + ThrowableUtils.getDescription(e), e);
+		} catch (RuntimeException | Error e) {
+			// E.g. a serialization error of the content writer:
+			deleteIncompleteTempFile(tempPath, e);
+			throw e;
 		}
 
 		// Fsync the temporary file and the containing directory (ensures that the data is actually
@@ -499,6 +567,16 @@ public final class FileUtils {
 		FileUtils.fsyncParentDirectory(path);
 	}
 
+	// The temporary file might only contain part of the content. Any failure to delete it is added
+	// to the given cause.
+	private static void deleteIncompleteTempFile(Path tempPath, Throwable cause) {
+		try {
+			Files.deleteIfExists(tempPath);
+		} catch (IOException e) {
+			cause.addSuppressed(e);
+		}
+	}
+
 	// If a temporary file already exists, this might indicate an issue during a previous writing
 	// attempt. Depending on whether the destination file exists, we either rename or delete the
 	// temporary file.
@@ -0,0 +1,167 @@
+package com.nisovin.shopkeepers.util.java;
+
+import java.util.Arrays;
+
+/**
+ * A hash set of primitive {@code int} values.
+ * <p>
+ * Unlike a {@link java.util.HashSet} of {@link Integer Integers}, this does not box the values, and
+ * lookups do not allocate any objects. This is useful for sets that are queried very frequently,
+ * such as during the handling of frequently called events.
+ * <p>
+ * Not thread-safe.
+ */
+public final class IntHashSet {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	// The maximum load factor is 0.5:
+	private static final int MAX_LOAD_SHIFT = 1;
+
+	// Open addressing with linear probing. Slots are only used if their corresponding 'used' flag
+	// is set, so that we can store any int value (including zero).
+	private int[] values;
+	private boolean[] used;
+	private int mask;
+	private int size = 0;
+
+	/**
+	 * Creates a new empty {@link IntHashSet}.
+	 */
+	public IntHashSet() {
+		this.values = new int[DEFAULT_CAPACITY];
+		this.used = new boolean[DEFAULT_CAPACITY];
+		this.mask = DEFAULT_CAPACITY - 1;
+	}
+
+	private static int hash(int value) {
+		// Spreads the bits of sequential values (such as entity ids):
+		int hash = value * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Gets the number of values in this set.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if this set is empty.
+	 *
+	 * @return <code>true</code> if empty
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+
+	/**
+	 * Checks if this set contains the given value.
+	 *
+	 * @param value
+	 *            the value
+	 * @return <code>true</code> if contained
+	 */
+	public boolean contains(int value) {
+		if (size == 0) return false;
+		int index = hash(value) & mask;
+		while (used[index]) {
+			if (values[index] == value) return true;
+			index = (index + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the given value to this set.
+	 *
+	 * @param value
+	 *            the value
+	 * @return <code>true</code> if the value was added, <code>false</code> if it was already
+	 *         contained
+	 */
+	public boolean add(int value) {
+		int index = hash(value) & mask;
+		while (used[index]) {
+			if (values[index] == value) return false;
+			index = (index + 1) & mask;
+		}
+		values[index] = value;
+		used[index] = true;
+		size++;
+
+		if ((size << MAX_LOAD_SHIFT) > values.length) {
+			this.resize(values.length << 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the given value from this set.
+	 *
+	 * @param value
+	 *            the value
+	 * @return <code>true</code> if the value was removed, <code>false</code> if it was not
+	 *         contained
+	 */
+	public boolean remove(int value) {
+		if (size == 0) return false;
+		int index = hash(value) & mask;
+		while (used[index]) {
+			if (values[index] == value) {
+				this.removeAt(index);
+				return true;
+			}
+			index = (index + 1) & mask;
+		}
+		return false;
+	}
+
+	// Shifts subsequent values of the same probe sequence back, so that we do not require
+	// tombstones.
+	private void removeAt(int index) {
+		int gap = index;
+		int current = (index + 1) & mask;
+		while (used[current]) {
+			int home = hash(values[current]) & mask;
+			// Move the value into the gap if its home slot is not located cyclically within
+			// (gap, current]:
+			if (((current - home) & mask) >= ((current - gap) & mask)) {
+				values[gap] = values[current];
+				gap = current;
+			}
+			current = (current + 1) & mask;
+		}
+		used[gap] = false;
+		size--;
+	}
+
+	private void resize(int newCapacity) {
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		values = new int[newCapacity];
+		used = new boolean[newCapacity];
+		mask = newCapacity - 1;
+		for (int i = 0; i < oldValues.length; i++) {
+			if (!oldUsed[i]) continue;
+			int value = oldValues[i];
+			int index = hash(value) & mask;
+			while (used[index]) {
+				index = (index + 1) & mask;
+			}
+			values[index] = value;
+			used[index] = true;
+		}
+	}
+
+	/**
+	 * Removes all values from this set.
+	 */
+	public void clear() {
+		if (size == 0) return;
+		Arrays.fill(used, false);
+		size = 0;
+	}
+}
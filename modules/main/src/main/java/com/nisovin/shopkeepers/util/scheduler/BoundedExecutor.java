@@ -0,0 +1,204 @@
+package com.nisovin.shopkeepers.util.scheduler;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.nisovin.shopkeepers.util.java.Validate;
+import com.nisovin.shopkeepers.util.logging.Log;
+import com.nisovin.shopkeepers.util.taskqueue.TaskQueueStatistics;
+
+/**
+ * A named {@link Executor} that runs tasks on its own bounded pool of threads.
+ * <p>
+ * Unlike the server's shared async scheduler, the tasks of this executor do not queue behind the
+ * async tasks of other plugins. The number of threads and the number of queued tasks are limited:
+ * If the queue is full, new tasks are rejected with a {@link RejectedExecutionException}.
+ * <p>
+ * The executor needs to be {@link #start() started} before it accepts tasks. While it is not
+ * running, new tasks are rejected with a {@link RejectedExecutionException} as well, so that
+ * callers do not wait for tasks that are never run. Idle threads are terminated after a short delay.
+ */
+public final class BoundedExecutor implements Executor, TaskQueueStatistics {
+
+	private static final long KEEP_ALIVE_SECONDS = 30L;
+
+	private final String name;
+	private final int threads;
+	private final int queueCapacity;
+
+	private volatile @Nullable ThreadPoolExecutor executor = null;
+	private final AtomicInteger maxPendingCount = new AtomicInteger();
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	/**
+	 * Creates a new {@link BoundedExecutor}.
+	 *
+	 * @param name
+	 *            the name, used for the names of the threads, not <code>null</code> or empty
+	 * @param threads
+	 *            the maximum number of threads, has to be positive
+	 * @param queueCapacity
+	 *            the maximum number of queued tasks, has to be positive
+	 */
+	public BoundedExecutor(String name, int threads, int queueCapacity) {
+		Validate.notEmpty(name, "name is null or empty");
+		Validate.isTrue(threads > 0, "threads has to be positive");
+		Validate.isTrue(queueCapacity > 0, "queueCapacity has to be positive");
+		this.name = name;
+		this.threads = threads;
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Gets the name of this executor.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Checks whether this executor is running, i.e. has been started and not yet shut down.
+	 *
+	 * @return <code>true</code> if running
+	 */
+	public boolean isRunning() {
+		return (executor != null);
+	}
+
+	/**
+	 * Starts this executor, if it is not already running.
+	 */
+	public void start() {
+		if (executor != null) return;
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				KEEP_ALIVE_SECONDS,
+				TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				new PoolThreadFactory()
+		);
+		executor.allowCoreThreadTimeOut(true);
+		this.executor = executor;
+	}
+
+	/**
+	 * Stops this executor and waits for the remaining tasks to complete.
+	 * <p>
+	 * No new tasks are accepted. If the remaining tasks do not complete within the given timeout,
+	 * they are interrupted.
+	 *
+	 * @param timeoutSeconds
+	 *            the maximum duration in seconds to wait for the remaining tasks
+	 */
+	public void shutdown(int timeoutSeconds) {
+		ThreadPoolExecutor executor = this.executor;
+		if (executor == null) return;
+		this.executor = null;
+
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+				Log.warning("The '" + name + "' executor did not finish its remaining "
+						+ (executor.getQueue().size() + executor.getActiveCount())
+						+ " tasks within " + timeoutSeconds + " seconds! Interrupting them.");
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			// Restore the interrupt status:
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		Validate.notNull(task, "task is null");
+		ThreadPoolExecutor executor = this.executor;
+		if (executor == null) {
+			throw new RejectedExecutionException("The '" + name + "' executor is not running!");
+		}
+
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			if (executor.isShutdown()) {
+				// Shut down concurrently:
+				throw new RejectedExecutionException(
+						"The '" + name + "' executor is not running!",
+						e
+				);
+			}
+			rejectedCount.incrementAndGet();
+			throw new RejectedExecutionException("The '" + name + "' executor is overloaded!", e);
+		}
+		maxPendingCount.accumulateAndGet(executor.getQueue().size(), Math::max);
+	}
+
+	@Override
+	public int getPendingCount() {
+		ThreadPoolExecutor executor = this.executor;
+		return (executor != null) ? executor.getQueue().size() : 0;
+	}
+
+	@Override
+	public int getMaxPendingCount() {
+		return maxPendingCount.get();
+	}
+
+	/**
+	 * Gets the number of threads that are currently executing tasks.
+	 *
+	 * @return the number of active threads
+	 */
+	public int getActiveCount() {
+		ThreadPoolExecutor executor = this.executor;
+		return (executor != null) ? executor.getActiveCount() : 0;
+	}
+
+	/**
+	 * Gets the number of tasks that have been completed since this executor has been started.
+	 *
+	 * @return the number of completed tasks
+	 */
+	public long getCompletedCount() {
+		ThreadPoolExecutor executor = this.executor;
+		return (executor != null) ? executor.getCompletedTaskCount() : 0L;
+	}
+
+	/**
+	 * Gets the number of tasks that were rejected because the queue was full.
+	 *
+	 * @return the number of rejected tasks
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	private class PoolThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(
+					runnable,
+					"Shopkeepers " + name + " Thread #" + threadCount.incrementAndGet()
+			);
+			// Does not prevent the server from shutting down:
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -1,5 +1,11 @@
 package com.nisovin.shopkeepers.util.yaml;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.file.YamlConfigurationOptions;
 import org.bukkit.configuration.file.YamlConstructor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.yaml.snakeyaml.DumperOptions;
@@ -7,6 +13,7 @@ import org.yaml.snakeyaml.DumperOptions.ScalarStyle;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.BaseConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.representer.Representer;
 
 import com.nisovin.shopkeepers.util.java.StringUtils;
@@ -54,6 +61,50 @@ public final class YamlUtils {
 		return yamlString;
 	}
 
+	/**
+	 * Writes the contents of the given {@link YamlConfiguration} to the given {@link Writer}.
+	 * <p>
+	 * Unlike {@link YamlConfiguration#saveToString()}, this emits the Yaml directly into the given
+	 * writer instead of first building the complete Yaml document as a String. The output uses the
+	 * same block formatting, indent, and line width as the configuration, but omits any comments and
+	 * headers of the configuration.
+	 * <p>
+	 * The given writer is not closed.
+	 * 
+	 * @param config
+	 *            the configuration, not <code>null</code>
+	 * @param writer
+	 *            the writer, not <code>null</code>
+	 * @throws IOException
+	 *             if the writer cannot be written to
+	 */
+	public static void dumpConfig(YamlConfiguration config, Writer writer) throws IOException {
+		Validate.notNull(config, "config is null");
+		Validate.notNull(writer, "writer is null");
+		Map<String, Object> values = config.getValues(false);
+		// Consistent with YamlConfiguration#saveToString:
+		if (values.isEmpty()) return;
+
+		YamlConfigurationOptions options = config.options();
+		DumperOptions yamlDumperOptions = new DumperOptions();
+		yamlDumperOptions.setIndent(options.indent());
+		yamlDumperOptions.setWidth(options.width());
+		yamlDumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+		Representer yamlRepresenter = new OldBukkitYamlRepresenter();
+		yamlRepresenter.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+		BaseConstructor yamlConstructor = new YamlConstructor(new LoaderOptions());
+		Yaml yaml = new Yaml(yamlConstructor, yamlRepresenter, yamlDumperOptions);
+		try {
+			yaml.dump(values, writer);
+		} catch (YAMLException e) {
+			// SnakeYaml wraps any IOExceptions of the writer:
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public static <T> @Nullable T fromYaml(String yamlString) {
 		Validate.notNull(yamlString, "yamlString is null");